@@ -33,6 +33,7 @@ import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Locale;
@@ -57,6 +58,11 @@ import filius.rahmenprogramm.FiliusArgs;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
 import filius.rahmenprogramm.SzenarioVerwaltung;
+import filius.rahmenprogramm.batch.BatchRunner;
+import filius.rahmenprogramm.nachrichten.Lauscher;
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
+import filius.software.transportschicht.TCPSocket;
 
 /**
  * In dieser Klasse wird die Anwendung gestartet und beendet. Das wird in den entsprechenden statischen Methoden
@@ -240,6 +246,10 @@ public class Main implements I18n {
         FiliusArgs filiusArgs = new FiliusArgs();
         try {
             filiusArgs.parseCommandLine(args);
+            if (filiusArgs.batchScript != null) {
+                // im Batch-Betrieb wird keine Oberflaeche erzeugt
+                System.setProperty("java.awt.headless", "true");
+            }
 
             if (filiusArgs.currWD.isEmpty() || (!filiusArgs.currWD.substring(filiusArgs.currWD.length() - 1)
                     .equals(System.getProperty("file.separator")))) {
@@ -269,6 +279,23 @@ public class Main implements I18n {
                 System.exit(6);
             }
             Verbindung.setRTTfactor(filiusArgs.rtt);
+            TCPSocket.setzeSendefenster(filiusArgs.tcpWindow);
+            TCPSocket.setzeStaukontrolle(filiusArgs.tcpCongestionControl);
+            if (filiusArgs.virtualThreads) {
+                ThreadFabrik.getThreadFabrik().virtuelleThreadsVerwenden();
+            }
+            if (filiusArgs.clockMode != SimulationClock.Modus.ECHTZEIT) {
+                SimulationClock.getSimulationClock().setzeModus(filiusArgs.clockMode, filiusArgs.clockFactor);
+            }
+            if (filiusArgs.pcapngFile != null) {
+                try {
+                    Lauscher.getLauscher().starteExport(new File(filiusArgs.pcapngFile));
+                    Runtime.getRuntime().addShutdownHook(
+                            new Thread(() -> Lauscher.getLauscher().beendeExport(), "pcapng-Export beenden"));
+                } catch (IOException e) {
+                    LOG.error("pcapng export to " + filiusArgs.pcapngFile + " could not be started", e);
+                }
+            }
             Information.setLowResolution(filiusArgs.lowResolution);
 
             if (filiusArgs.nativeLookAndFeel) {
@@ -276,6 +303,8 @@ public class Main implements I18n {
             }
             if (filiusArgs.help) {
                 filiusArgs.showUsageInformation();
+            } else if (filiusArgs.batchScript != null) {
+                System.exit(batchAusfuehren(filiusArgs));
             } else {
                 starten(filiusArgs.projectFile);
             }
@@ -294,6 +323,48 @@ public class Main implements I18n {
         LOG.debug("------------------------------------------------------\n");
     }
 
+    private static int batchAusfuehren(FiliusArgs filiusArgs) {
+        batchSpracheSetzen();
+        if (filiusArgs.batchOutput == null) {
+            return new BatchRunner(System.out).ausfuehren(filiusArgs.projectFile, filiusArgs.batchScript);
+        }
+        try (PrintStream ausgabe = new PrintStream(new FileOutputStream(filiusArgs.batchOutput), true, "UTF-8")) {
+            return new BatchRunner(ausgabe).ausfuehren(filiusArgs.projectFile, filiusArgs.batchScript);
+        } catch (IOException e) {
+            LOG.error("batch output " + filiusArgs.batchOutput + " could not be written", e);
+            return BatchRunner.FEHLER;
+        }
+    }
+
+    /**
+     * Setzt im Batch-Betrieb die Sprache ohne Auswahldialog: aus der filius.ini, sonst aus der Benutzerkonfiguration
+     * (konfig.xml) und ansonsten Deutsch. Ohne Sprache kann u. a. die Liste der Anwendungen nicht geladen werden.
+     */
+    private static void batchSpracheSetzen() {
+        try {
+            Information.getInformation().loadIni();
+        } catch (IOException e) {
+            LOG.debug("ini could not be read: " + e.getMessage());
+        }
+        if (null == Information.getInformation().getLocale()) {
+            String konfigPfad = Information.getInformation().getArbeitsbereichPfad() + "konfig.xml";
+            try (XMLDecoder xmldec = new XMLDecoder(
+                    new BufferedInputStream(Files.newInputStream(Paths.get(konfigPfad))))) {
+                Object[] programmKonfig = (Object[]) xmldec.readObject();
+                if (programmKonfig != null && programmKonfig.length >= 4 && programmKonfig[2] != null
+                        && programmKonfig[3] != null) {
+                    Information.getInformation()
+                            .setLocale(new Locale((String) programmKonfig[2], (String) programmKonfig[3]));
+                }
+            } catch (Exception e) {
+                LOG.debug("There is no user configuration available.");
+            }
+        }
+        if (null == Information.getInformation().getLocale()) {
+            Information.getInformation().setLocale(Locale.GERMANY);
+        }
+    }
+
     public static void activateNativeLookAndFeel() {
         try {
             // Set System L&F
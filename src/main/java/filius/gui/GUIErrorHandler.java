@@ -25,9 +25,15 @@
  */
 package filius.gui;
 
+import java.awt.GraphicsEnvironment;
+
 import javax.swing.JOptionPane;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 public class GUIErrorHandler {
+	private static Logger LOG = LoggerFactory.getLogger(GUIErrorHandler.class);
 
 	/**
 	 * 
@@ -47,6 +53,10 @@ public class GUIErrorHandler {
 	}
 
 	public void DisplayError(String s) {
+		if (GraphicsEnvironment.isHeadless()) {
+			LOG.error(s);
+			return;
+		}
 		JOptionPane.showMessageDialog(JMainFrame.getJMainFrame(), s);
 	}
 }
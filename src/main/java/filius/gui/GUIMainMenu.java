@@ -35,12 +35,16 @@ import java.io.FileNotFoundException;
 import java.io.FilenameFilter;
 import java.io.Serializable;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
+import javax.swing.JProgressBar;
 import javax.swing.JSlider;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.tools.ToolProvider;
@@ -57,6 +61,7 @@ import filius.hardware.Verbindung;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
 import filius.rahmenprogramm.SzenarioVerwaltung;
+import filius.software.system.KnotenStarter;
 import filius.software.system.SystemSoftware;
 
 public class GUIMainMenu implements Serializable, I18n {
@@ -74,6 +79,12 @@ public class GUIMainMenu implements Serializable, I18n {
 
     private JLabel geschwindigkeit;
 
+    /** zeigt den Fortschritt beim Starten der Knoten an; nur waehrend des Starts sichtbar */
+    private JProgressBar startFortschritt;
+
+    /** der Thread, der die Knoten beim Wechsel in den Aktionsmodus startet */
+    private Thread startThread;
+
     private int aktuellerModus;
 
     private JButton btAktionsmodus;
@@ -231,8 +242,13 @@ public class GUIMainMenu implements Serializable, I18n {
         menupanel.add(btNeu);
         menupanel.add(btOeffnen);
         menupanel.add(btSpeichern);
+        startFortschritt = new JProgressBar(0, 100);
+        startFortschritt.setBounds(510, 52, 222, 8);
+        startFortschritt.setVisible(false);
+
         menupanel.add(simulationSpeedInPercent);
         menupanel.add(geschwindigkeit);
+        menupanel.add(startFortschritt);
         if (isSoftwareWizardEnabled()) {
             menupanel.add(btWizard);
         }
@@ -470,11 +486,7 @@ public class GUIMainMenu implements Serializable, I18n {
             btDokumodus.setIcon(new ImageIcon(getClass().getResource("/gfx/allgemein/dokumodus.png")));
             GUIContainer.getGUIContainer().setActiveSite(MODUS_AKTION);
 
-            for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
-                SystemSoftware system;
-                system = knotenItem.getKnoten().getSystemSoftware();
-                system.starten();
-            }
+            startSimulation();
 
             btOeffnen.setEnabled(false);
             btNeu.setEnabled(false);
@@ -489,14 +501,52 @@ public class GUIMainMenu implements Serializable, I18n {
         aktuellerModus = mode;
     }
 
-    private void stopSimulation() {
+    private List<SystemSoftware> holeSysteme() {
+        List<SystemSoftware> systeme = new ArrayList<SystemSoftware>();
         for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
-            SystemSoftware system;
-            system = knotenItem.getKnoten().getSystemSoftware();
+            systeme.add(knotenItem.getKnoten().getSystemSoftware());
+        }
+        return systeme;
+    }
+
+    /**
+     * Startet die Knoten parallel und in Phasen (siehe {@link KnotenStarter}) in einem eigenen Thread, damit die
+     * Oberflaeche waehrenddessen nicht blockiert. Bis alle Knoten gestartet sind, wird der Fortschritt angezeigt und
+     * der Wechsel in einen anderen Modus ist gesperrt.
+     */
+    private void startSimulation() {
+        final List<SystemSoftware> systeme = holeSysteme();
+        btEntwurfsmodus.setEnabled(false);
+        btDokumodus.setEnabled(false);
+        startFortschritt.setValue(0);
+        startFortschritt.setVisible(true);
+
+        startThread = new Thread(() -> {
             try {
-                system.beenden();
-            } catch (Exception e) {}
+                new KnotenStarter().starten(systeme, (erledigt, gesamt) -> SwingUtilities
+                        .invokeLater(() -> startFortschritt.setValue(erledigt * 100 / gesamt)));
+            } finally {
+                SwingUtilities.invokeLater(() -> {
+                    startFortschritt.setVisible(false);
+                    btEntwurfsmodus.setEnabled(true);
+                    btDokumodus.setEnabled(true);
+                });
+            }
+        }, "Simulationsstart");
+        startThread.start();
+    }
+
+    /** Beendet die Knoten parallel. Ein noch laufender Start wird zuvor abgewartet. */
+    private void stopSimulation() {
+        if (startThread != null) {
+            try {
+                startThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            startThread = null;
         }
+        new KnotenStarter().beenden(holeSysteme(), null);
     }
 
     public JBackgroundPanel getMenupanel() {
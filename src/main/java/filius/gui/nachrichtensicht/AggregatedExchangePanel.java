@@ -246,21 +246,17 @@ public class AggregatedExchangePanel extends JTabbedPane implements AggregatedEx
 
         public void update(Object messageNo) {
             if (messageNo != null) {
-                Object[][] daten = Lauscher.getLauscher().getDaten(macAddress, false, 0);
-                int number = Integer.parseInt(messageNo.toString());
-                int dataSetNo = 0;
-                int currNo = 0;
-                for (; dataSetNo < daten.length; dataSetNo++) {
-                    currNo = Integer.parseInt(daten[dataSetNo][0].toString());
-                    if (currNo == number)
-                        break;
+                long number = Long.parseLong(messageNo.toString());
+                Object[][] daten = Lauscher.getLauscher().getDatenEinheit(macAddress, number, false);
+                if (daten.length == 0) {
+                    clear();
+                    return;
                 }
 
-                Object[] dataSet = daten[dataSetNo];
+                Object[] dataSet = daten[0];
                 DefaultMutableTreeNode rootNode = new DefaultMutableTreeNode(messages.getString("rp_lauscher_msg1")
                         + ": " + dataSet[0] + " / " + messages.getString("rp_lauscher_msg2") + ": " + dataSet[1]);
-                for (; dataSetNo < daten.length
-                        && Integer.parseInt(daten[dataSetNo][0].toString()) == number; dataSetNo++) {
+                for (int dataSetNo = 0; dataSetNo < daten.length; dataSetNo++) {
                     dataSet = daten[dataSetNo];
                     DefaultMutableTreeNode layerNode = new DefaultMutableTreeNode(dataSet[5], true);
                     DefaultMutableTreeNode dateNode;
@@ -40,7 +40,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Vector;
 
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenuItem;
@@ -49,11 +48,11 @@ import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.MouseInputAdapter;
 import javax.swing.table.DefaultTableColumnModel;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 
 import org.apache.commons.lang3.StringUtils;
@@ -139,9 +138,8 @@ public class AggregatedMessageTable extends JTable implements LauscherBeobachter
     }
 
     private void initTableModel() {
-        LauscherTableModel tableModel = new LauscherTableModel();
+        LauscherTableModel tableModel = new LauscherTableModel(interfaceId);
         tableModel.addTableModelListener(this);
-        tableModel.setColumnIdentifiers(Lauscher.SPALTEN);
         this.setModel(tableModel);
     }
 
@@ -248,55 +246,28 @@ public class AggregatedMessageTable extends JTable implements LauscherBeobachter
         Lauscher.getLauscher().addBeobachter(interfaceId, this);
     }
 
+    /**
+     * Uebernimmt die seit dem letzten Aufruf mitgeschnittenen Frames in die Tabelle und entfernt die Zeilen der Frames,
+     * die der Lauscher nicht mehr speichert. Wird im Event-Dispatch-Thread ausgefuehrt. Die Zeilen werden erst beim
+     * Anzeigen aufbereitet (siehe LauscherTableModel).
+     */
     @Override
-    public synchronized void update() {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (NachrichtenTabelle), update()");
-
-        int selectedRow = getSelectedRow();
-        Object[][] daten = Lauscher.getLauscher().getDaten(interfaceId, true, 0);
-
-        if (daten.length == 0) {
-            initTableModel();
-            initTableColumnWidth();
-        }
-        int lastNo = -1;
-        if (getModel().getRowCount() > 0) {
-            lastNo = Integer.parseInt(this.getModel().getValueAt(this.getModel().getRowCount() - 1, 0).toString());
+    public void update() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::update);
+            return;
         }
+        aktualisieren();
+    }
 
-        int currentNo = 1;
-        int previousNo = 1;
-        for (int i = 0; i < daten.length; i++) {
-            currentNo = Integer.parseInt(daten[i][0].toString());
-            if (currentNo <= lastNo || currentNo == previousNo) {
-                continue;
-            }
+    private synchronized void aktualisieren() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (NachrichtenTabelle), update()");
 
-            if (currentNo > previousNo && previousNo > lastNo && i > 0) {
-                Object[] row = daten[i - 1];
-                addRowData(row);
-                previousNo = currentNo;
-            }
-        }
-        if (currentNo > lastNo && daten.length > 0) {
-            addRowData(daten[daten.length - 1]);
-        }
+        ((LauscherTableModel) this.getModel()).aktualisieren();
 
-        ((DefaultTableModel) this.getModel()).fireTableDataChanged();
         if (getModel().getRowCount() > 0 && scrollPane != null && scrollPane.getViewport() != null && autoscroll) {
             scrollPane.getViewport().setViewPosition(new Point(0, this.getHeight()));
         }
-        if (selectedRow >= 0 && selectedRow < getModel().getRowCount()) {
-            setRowSelectionInterval(selectedRow, selectedRow);
-        }
-    }
-
-    private void addRowData(Object[] row) {
-        Vector<Object> rowData = new Vector<Object>(row.length);
-        for (int col = 0; col < row.length; col++) {
-            rowData.add(col, row[col]);
-        }
-        ((DefaultTableModel) this.getModel()).addRow(rowData);
     }
 
     @Override
@@ -38,11 +38,17 @@ public class LauscherTableCellRenderer extends DefaultTableCellRenderer {
 
 	private static final long serialVersionUID = 1L;
 
+	// Die Schriften werden nur einmal erzeugt, da der Renderer fuer jede sichtbare Zelle aufgerufen wird.
+	private static final Font DIALOG = new Font(Font.DIALOG, Font.PLAIN, 12);
+	private static final Font MONOSPACED = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+	private static final Font SANS_SERIF_BOLD = new Font(Font.SANS_SERIF, Font.BOLD, 12);
+	private static final Font DIALOG_BOLD_ITALIC = new Font(Font.DIALOG, Font.BOLD + Font.ITALIC, 12);
+	private static final Font DIALOG_ITALIC = new Font(Font.DIALOG, Font.ITALIC, 12);
+
 	public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
 	        int row, int column) {
 		String schichtString;
 		int schicht = 5;
-		int lfdNr = 0;
 		int tblCols = table.getColumnCount();
 		int tblRows = table.getRowCount();
 
@@ -52,13 +58,6 @@ public class LauscherTableCellRenderer extends DefaultTableCellRenderer {
 		else
 			schichtString = "";
 
-		if (table.getValueAt(row, 0) != null) {
-			try {
-				lfdNr = Integer.parseInt((String) table.getValueAt(row, 0));
-			} catch (Exception e) {
-			}
-		}
-
 		for (int i = 0; i < Lauscher.PROTOKOLL_SCHICHTEN.length; i++) {
 			if (schichtString.equals(Lauscher.PROTOKOLL_SCHICHTEN[i]))
 				schicht = i;
@@ -105,26 +104,22 @@ public class LauscherTableCellRenderer extends DefaultTableCellRenderer {
 
 		switch (column) {
 		case 0:
-			setFont(new Font(Font.DIALOG, Font.PLAIN, 12));
-			break;
 		case 1:
-			setFont(new Font(Font.DIALOG, Font.PLAIN, 12));
+			setFont(DIALOG);
 			break;
 		case 2:
 		case 3:
-			setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+		case 6:
+			setFont(MONOSPACED);
 			break;
 		case 4:
-			setFont(new Font(Font.SANS_SERIF, Font.BOLD, 12));
+			setFont(SANS_SERIF_BOLD);
 			break;
 		case 5:
-			setFont(new Font(Font.DIALOG, Font.BOLD + Font.ITALIC, 12));
-			break;
-		case 6:
-			setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+			setFont(DIALOG_BOLD_ITALIC);
 			break;
 		default:
-			setFont(new Font(Font.DIALOG, Font.ITALIC, 12));
+			setFont(DIALOG_ITALIC);
 		}
 
 		if (value != null)
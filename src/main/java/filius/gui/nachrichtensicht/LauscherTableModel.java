@@ -25,17 +25,176 @@
  */
 package filius.gui.nachrichtensicht;
 
-import javax.swing.table.DefaultTableModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+import filius.rahmenprogramm.nachrichten.Lauscher;
 
 /**
+ * Tabellenmodell fuer die mitgeschnittenen Frames eines Netzwerkinterfaces. Das Modell speichert je Zeile nur die
+ * Nummer des Frames und die Protokollschicht. Der Inhalt einer Zeile wird erst aufbereitet, wenn die Tabelle ihn
+ * anzeigt; die zuletzt aufbereiteten Zeilen werden zwischengespeichert.
+ * 
  * @author stefan
  * 
  */
 @SuppressWarnings("serial")
-public class LauscherTableModel extends DefaultTableModel {
+public class LauscherTableModel extends AbstractTableModel {
+
+    private static final int ZWISCHENSPEICHER_GROESSE = 512;
+
+    private final String interfaceId;
+    private final boolean inheritAddress;
+    /** wenn true, wird je Frame nur die Zeile der hoechsten Schicht angezeigt */
+    private final boolean nurHoechsteSchicht;
+    private final boolean[] sichtbareSchichten;
+
+    /** je Zeile: Nummer des Frames * 4 + Index der Schicht */
+    private long[] zeilen = new long[64];
+    private int anfang;
+    private int anzahl;
+    /** Nummer des letzten Frames, der in das Modell uebernommen wurde */
+    private long letzteNummer;
+
+    private final Map<Long, Object[]> zwischenspeicher = new LinkedHashMap<Long, Object[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Object[]> eldest) {
+            return size() > ZWISCHENSPEICHER_GROESSE;
+        }
+    };
+
+    /**
+     * Modell mit einer Zeile je Frame (hoechste Protokollschicht), Adressen mit Port.
+     */
+    public LauscherTableModel(String interfaceId) {
+        this.interfaceId = interfaceId;
+        this.inheritAddress = true;
+        this.nurHoechsteSchicht = true;
+        this.sichtbareSchichten = null;
+    }
+
+    /**
+     * Modell mit einer Zeile je Frame und sichtbarer Protokollschicht.
+     * 
+     * @param sichtbareSchichten
+     *            je Eintrag in Lauscher.PROTOKOLL_SCHICHTEN, ob die Zeilen dieser Schicht angezeigt werden
+     */
+    public LauscherTableModel(String interfaceId, boolean[] sichtbareSchichten) {
+        this.interfaceId = interfaceId;
+        this.inheritAddress = false;
+        this.nurHoechsteSchicht = false;
+        this.sichtbareSchichten = sichtbareSchichten.clone();
+    }
+
+    /**
+     * Gleicht das Modell mit dem Lauscher ab: Zeilen von Frames, die nicht mehr gespeichert sind, werden entfernt und
+     * neue Frames angehaengt. Muss im Event-Dispatch-Thread aufgerufen werden.
+     */
+    public void aktualisieren() {
+        Lauscher lauscher = Lauscher.getLauscher();
+
+        long letzte = lauscher.getLetzteNummer(interfaceId);
+        if (letzte < letzteNummer) {
+            anfang = 0;
+            anzahl = 0;
+            letzteNummer = 0;
+            zwischenspeicher.clear();
+            fireTableDataChanged();
+        }
+
+        long erste = lauscher.getErsteNummer(interfaceId);
+        int veraltet = 0;
+        while (veraltet < anzahl && nummer(zeilen[anfang + veraltet]) < erste) {
+            veraltet++;
+        }
+        if (veraltet > 0) {
+            anfang += veraltet;
+            anzahl -= veraltet;
+            fireTableRowsDeleted(0, veraltet - 1);
+        }
+
+        int vorher = anzahl;
+        for (long nr = Math.max(letzteNummer + 1, erste); nr <= letzte; nr++) {
+            int[] schichten = lauscher.getSchichten(interfaceId, nr);
+            if (schichten.length == 0) {
+                continue;
+            }
+            if (nurHoechsteSchicht) {
+                anhaengen(nr, schichten[schichten.length - 1]);
+            } else {
+                for (int schicht : schichten) {
+                    if (sichtbareSchichten[schicht]) {
+                        anhaengen(nr, schicht);
+                    }
+                }
+            }
+        }
+        letzteNummer = Math.max(letzteNummer, letzte);
+        if (anzahl > vorher) {
+            fireTableRowsInserted(vorher, anzahl - 1);
+        }
+    }
+
+    private void anhaengen(long nummer, int schicht) {
+        if (anfang + anzahl == zeilen.length) {
+            long[] neu = anzahl * 2 < zeilen.length ? zeilen : new long[zeilen.length * 2];
+            System.arraycopy(zeilen, anfang, neu, 0, anzahl);
+            zeilen = neu;
+            anfang = 0;
+        }
+        zeilen[anfang + anzahl] = nummer << 2 | schicht;
+        anzahl++;
+    }
+
+    private static long nummer(long zeile) {
+        return zeile >> 2;
+    }
+
+    /**
+     * @return die Nummer des Frames, der in der angegebenen Zeile dargestellt wird
+     */
+    public long holeNummer(int row) {
+        return nummer(zeilen[anfang + row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return anzahl;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return Lauscher.SPALTEN.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return Lauscher.SPALTEN[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int col) {
+        if (row < 0 || row >= anzahl) {
+            return null;
+        }
+        long zeile = zeilen[anfang + row];
+        Object[] daten = zwischenspeicher.get(zeile);
+        if (daten == null) {
+            daten = Lauscher.getLauscher().getZeile(interfaceId, nummer(zeile), (int) (zeile & 3), inheritAddress);
+            if (daten == null) {
+                // der Frame wurde inzwischen verworfen; die Zeile wird beim naechsten Abgleich entfernt
+                daten = new Object[getColumnCount()];
+                daten[0] = "" + nummer(zeile);
+            }
+            zwischenspeicher.put(zeile, daten);
+        }
+        return daten[col];
+    }
 
-	@Override
-	public boolean isCellEditable(int row, int col) {
-		return false;
-	}
+    @Override
+    public boolean isCellEditable(int row, int col) {
+        return false;
+    }
 }
@@ -33,7 +33,6 @@ import java.awt.event.MouseEvent;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.util.Vector;
 
 import javax.swing.JCheckBox;
 import javax.swing.JCheckBoxMenuItem;
@@ -42,11 +41,11 @@ import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.MouseInputAdapter;
 import javax.swing.table.DefaultTableColumnModel;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.TableColumn;
 
 import org.slf4j.Logger;
@@ -131,11 +130,11 @@ public class LayeredMessageTable extends JTable implements LauscherBeobachter, I
     }
 
     private void initTableModel() {
-        DefaultTableModel tableModel;
-        tableModel = new DefaultTableModel();
+        LauscherTableModel tableModel;
+        tableModel = new LauscherTableModel(interfaceId,
+                new boolean[] { netzzugangVisible, vermittlungVisible, transportVisible, anwendungVisible });
         this.setModel(tableModel);
         tableModel.addTableModelListener(this);
-        tableModel.setColumnIdentifiers(Lauscher.SPALTEN);
     }
 
     public void setScrollPane(JScrollPane scrollPane) {
@@ -252,57 +251,25 @@ public class LayeredMessageTable extends JTable implements LauscherBeobachter, I
         Lauscher.getLauscher().addBeobachter(interfaceId, this);
     }
 
-    public synchronized void update() {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (NachrichtenTabelle), update()");
-        Object[][] daten;
-
-        daten = Lauscher.getLauscher().getDaten(interfaceId, false, 1);
-
-        if (daten.length == 0) {
-            initTableModel();
-        }
-        int lastNo = -1;
-        if (getModel().getRowCount() > 0) {
-            lastNo = Integer.parseInt(this.getModel().getValueAt(this.getModel().getRowCount() - 1, 0).toString());
+    /**
+     * Uebernimmt die seit dem letzten Aufruf mitgeschnittenen Frames in die Tabelle und entfernt die Zeilen der Frames,
+     * die der Lauscher nicht mehr speichert. Wird im Event-Dispatch-Thread ausgefuehrt. Die Zeilen werden erst beim
+     * Anzeigen aufbereitet (siehe LauscherTableModel).
+     */
+    @Override
+    public void update() {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            SwingUtilities.invokeLater(this::update);
+            return;
         }
+        aktualisieren();
+    }
 
-        for (int i = 0; i < daten.length; i++) {
-            int currentNo = Integer.parseInt(daten[i][0].toString());
-            if (currentNo <= lastNo) {
-                continue;
-            }
-
-            boolean isValid = false;
-            if (daten[i][SCHICHT_SPALTE].equals(Lauscher.PROTOKOLL_SCHICHTEN[0])) {
-                if (netzzugangVisible) {
-                    isValid = true;
-                }
-            } else if (daten[i][SCHICHT_SPALTE].equals(Lauscher.PROTOKOLL_SCHICHTEN[1])) {
-                if (vermittlungVisible) {
-                    isValid = true;
-                }
-            } else if (daten[i][SCHICHT_SPALTE].equals(Lauscher.PROTOKOLL_SCHICHTEN[2])) {
-                if (transportVisible) {
-                    isValid = true;
-                }
-            } else if (daten[i][SCHICHT_SPALTE].equals(Lauscher.PROTOKOLL_SCHICHTEN[3])) {
-                if (anwendungVisible) {
-                    isValid = true;
-                }
-            } else {
-                isValid = true;
-            }
+    private synchronized void aktualisieren() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (NachrichtenTabelle), update()");
 
-            if (isValid) {
-                Vector<Object> rowData = new Vector<Object>(daten[i].length);
-                for (int col = 0; col < daten[i].length; col++) {
-                    rowData.add(col, daten[i][col]);
-                }
-                ((DefaultTableModel) this.getModel()).addRow(rowData);
-            }
-        }
+        ((LauscherTableModel) this.getModel()).aktualisieren();
 
-        ((DefaultTableModel) this.getModel()).fireTableDataChanged();
         if (this.getRowCount() > 0 && scrollPane != null && scrollPane.getViewport() != null && autoscroll) {
             scrollPane.getViewport().setViewPosition(new Point(0, this.getHeight()));
         }
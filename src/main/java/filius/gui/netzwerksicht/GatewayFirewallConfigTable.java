@@ -74,6 +74,7 @@ public class GatewayFirewallConfigTable extends JExtendedTable implements I18n {
             } else {
                 rule.action = FirewallRule.DROP;
             }
+            firewall.rulesChanged();
             removeEditor();
             if (rule.validateExistingAttributes()) {
                 firewall.updateRule(editingRow, rule);
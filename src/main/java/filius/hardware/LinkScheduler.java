@@ -0,0 +1,166 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.hardware;
+
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
+import filius.software.netzzugangsschicht.EthernetFrame;
+
+/**
+ * Zentraler Planer fuer die Uebertragung von Frames ueber alle Verbindungen. Statt fuer jede Uebertragungsrichtung
+ * eines Kabels einen eigenen Thread zu starten, werden die Zustellzeitpunkte aller Frames in einer nach der Zeit
+ * geordneten Warteschlange verwaltet und von einem einzigen Thread abgearbeitet. Die Anzahl der Threads ist damit
+ * unabhaengig von der Anzahl der Verbindungen im Rechnernetz. Die Zustellzeitpunkte sind Zeitpunkte der
+ * {@link SimulationClock}.
+ * 
+ * @see SimplexVerbindung
+ */
+public class LinkScheduler implements Runnable {
+    private static Logger LOG = LoggerFactory.getLogger(LinkScheduler.class);
+
+    /** Singleton */
+    private static LinkScheduler scheduler = null;
+
+    /** Ein geplantes Zustell-Ereignis fuer einen Frame auf einer einseitigen Verbindung. */
+    private static class Zustellung implements Comparable<Zustellung> {
+        private final SimplexVerbindung simplex;
+        private final EthernetFrame frame;
+        private final boolean verwerfen;
+        private final long zeitpunkt;
+        private final long laufendeNummer;
+
+        private Zustellung(SimplexVerbindung simplex, EthernetFrame frame, boolean verwerfen, long zeitpunkt,
+                long laufendeNummer) {
+            this.simplex = simplex;
+            this.frame = frame;
+            this.verwerfen = verwerfen;
+            this.zeitpunkt = zeitpunkt;
+            this.laufendeNummer = laufendeNummer;
+        }
+
+        /** Frames mit gleichem Zustellzeitpunkt werden in der Reihenfolge ihrer Planung zugestellt. */
+        @Override
+        public int compareTo(Zustellung andere) {
+            int ergebnis = Long.compare(zeitpunkt, andere.zeitpunkt);
+            if (ergebnis == 0) {
+                ergebnis = Long.compare(laufendeNummer, andere.laufendeNummer);
+            }
+            return ergebnis;
+        }
+    }
+
+    private final PriorityQueue<Zustellung> warteschlange = new PriorityQueue<Zustellung>();
+
+    private long laufendeNummer = 0;
+
+    /** Anzahl der bisher zugestellten Frames; wird nur vom Thread des Planers veraendert */
+    private volatile long anzahlZustellungen = 0;
+
+    private Thread thread = null;
+
+    private LinkScheduler() {}
+
+    public static synchronized LinkScheduler getLinkScheduler() {
+        if (scheduler == null) {
+            scheduler = new LinkScheduler();
+        }
+        return scheduler;
+    }
+
+    /**
+     * Plant die Zustellung eines Frames nach Ablauf der aktuellen Verzoegerung einer Verbindung. Der Thread des Planers
+     * wird bei der ersten Zustellung gestartet.
+     * 
+     * @param simplex
+     *            die einseitige Verbindung, ueber die der Frame uebertragen wird
+     * @param frame
+     *            der zu uebertragende Frame
+     * @param verwerfen
+     *            ob der Frame nach Ablauf der Uebertragungszeit verworfen werden soll
+     */
+    void planen(SimplexVerbindung simplex, EthernetFrame frame, boolean verwerfen) {
+        long zeitpunkt = SimulationClock.getSimulationClock().jetzt() + Verbindung.holeVerzoegerung();
+        synchronized (warteschlange) {
+            warteschlange.add(new Zustellung(simplex, frame, verwerfen, zeitpunkt, laufendeNummer++));
+            if (thread == null) {
+                thread = ThreadFabrik.getThreadFabrik().neuerThread(this, "LinkScheduler");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            warteschlange.notify();
+        }
+    }
+
+    /** Anzahl der Frames, die sich derzeit auf einer Verbindung in Uebertragung befinden. */
+    public int anzahlGeplanterZustellungen() {
+        synchronized (warteschlange) {
+            return warteschlange.size();
+        }
+    }
+
+    /** Anzahl der Frames, die seit dem Programmstart ueber eine Verbindung uebertragen wurden. */
+    public long anzahlZustellungen() {
+        return anzahlZustellungen;
+    }
+
+    /**
+     * Die Ereignisschleife wartet jeweils bis zum Zeitpunkt der naechsten faelligen Zustellung. Die Zustellung selbst
+     * erfolgt ausserhalb der Sperre der Warteschlange, damit Sender waehrenddessen weitere Frames planen koennen.
+     */
+    public void run() {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (LinkScheduler), run()");
+        SimulationClock uhr = SimulationClock.getSimulationClock();
+        Zustellung zustellung;
+        while (true) {
+            synchronized (warteschlange) {
+                zustellung = warteschlange.peek();
+                long wartezeit = (zustellung == null) ? 0 : zustellung.zeitpunkt - uhr.jetzt();
+                if (zustellung == null || wartezeit > 0) {
+                    try {
+                        if (zustellung == null) {
+                            warteschlange.wait();
+                        } else {
+                            uhr.warten(warteschlange, wartezeit);
+                        }
+                    } catch (InterruptedException e) {}
+                    continue;
+                }
+                warteschlange.poll();
+            }
+            try {
+                zustellung.simplex.zustellen(zustellung.frame, zustellung.verwerfen);
+                anzahlZustellungen++;
+            } catch (RuntimeException e) {
+                LOG.debug("Delivery of frame failed", e);
+            }
+        }
+    }
+}
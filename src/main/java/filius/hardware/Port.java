@@ -26,19 +26,19 @@
 package filius.hardware;
 
 import java.io.Serializable;
-import java.util.LinkedList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.software.Puffer;
 import filius.software.netzzugangsschicht.EthernetFrame;
 
 public class Port implements Serializable {
     private static Logger LOG = LoggerFactory.getLogger(Port.class);
 
     private static final long serialVersionUID = 1L;
-    private LinkedList<EthernetFrame> eingangsPuffer = new LinkedList<EthernetFrame>();
-    private LinkedList<EthernetFrame> ausgangsPuffer = new LinkedList<EthernetFrame>();
+    private Puffer<EthernetFrame> eingangsPuffer = new Puffer<EthernetFrame>();
+    private Puffer<EthernetFrame> ausgangsPuffer = new Puffer<EthernetFrame>();
     private Verbindung verbindung = null;
     private NetzwerkInterface nic = null;
 
@@ -74,15 +74,27 @@ public class Port implements Serializable {
         this.verbindung = null;
     }
 
-    public LinkedList<EthernetFrame> holeAusgangsPuffer() {
+    /**
+     * Legt einen Frame in den Ausgangspuffer und stoesst die Uebertragung ueber die angeschlossene Verbindung an.
+     * Ist der Anschluss nicht verbunden, verbleibt der Frame im Ausgangspuffer.
+     */
+    public void senden(EthernetFrame frame) {
+        ausgangsPuffer.add(frame);
+        Verbindung aktuelleVerbindung = verbindung;
+        if (aktuelleVerbindung != null) {
+            aktuelleVerbindung.uebertragungAnstossen(this);
+        }
+    }
+
+    public Puffer<EthernetFrame> holeAusgangsPuffer() {
         return ausgangsPuffer;
     }
 
-    public LinkedList<EthernetFrame> holeEingangsPuffer() {
+    public Puffer<EthernetFrame> holeEingangsPuffer() {
         return eingangsPuffer;
     }
 
-    public void setzeEingangsPuffer(LinkedList<EthernetFrame> puffer) {
+    public void setzeEingangsPuffer(Puffer<EthernetFrame> puffer) {
         this.eingangsPuffer = puffer;
     }
 
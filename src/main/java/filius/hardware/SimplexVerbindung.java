@@ -25,14 +25,13 @@
  */
 package filius.hardware;
 
-import org.apache.commons.lang3.SerializationUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.netzzugangsschicht.EthernetFrame;
 
-public class SimplexVerbindung implements Runnable {
+public class SimplexVerbindung {
     private static Logger LOG = LoggerFactory.getLogger(SimplexVerbindung.class);
 
     private boolean threadRunning = true;
@@ -40,6 +39,12 @@ public class SimplexVerbindung implements Runnable {
     private Port anschluss1 = null;
     private Port anschluss2 = null;
 
+    /**
+     * ob sich derzeit ein Frame dieser einseitigen Verbindung in Uebertragung befindet. Der Zugriff erfolgt nur mit der
+     * Sperre des Ausgangspuffers des Senders.
+     */
+    private boolean uebertragungLaeuft = false;
+
     /**
      * @author carsten
      * @param sender
@@ -49,8 +54,9 @@ public class SimplexVerbindung implements Runnable {
      * @param verbindung
      *            - Verbindung, auf der die einseitige Kommunikation gestartet wird
      * 
-     *            Dieser Konstruktor wird innerhalb der Verbindung aufgerufen und in einem Thread gestartet. Davon gibt
-     *            es zwei Verbindungen, die die bidirektionale Verbindung zwischen den beiden Hardwares herstellt.
+     *            Dieser Konstruktor wird innerhalb der Verbindung aufgerufen. Davon gibt es zwei Verbindungen, die die
+     *            bidirektionale Verbindung zwischen den beiden Hardwares herstellt. Die Uebertragung selbst wird vom
+     *            {@link LinkScheduler} gesteuert.
      */
     public SimplexVerbindung(Port anschluss1, Port anschluss2, Verbindung verbindung) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SimplexVerbindung), constr: SimplexVerbindung("
@@ -61,45 +67,55 @@ public class SimplexVerbindung implements Runnable {
     }
 
     /**
-     * @author carsten Diese run-Methode des Threads (nur Runnable!) sorgt fuer die einzelnen Kommunikationen auf einer
-     *         Verbindung in beide Richtungen
+     * Startet die Uebertragung des naechsten Frames aus dem Ausgangspuffer des Senders, sofern nicht bereits ein Frame
+     * uebertragen wird. Diese Methode wird aufgerufen, wenn ein Frame in den Ausgangspuffer gelegt wurde.
+     */
+    void anstossen() {
+        synchronized (anschluss1.holeAusgangsPuffer()) {
+            if (threadRunning && !uebertragungLaeuft && !anschluss1.holeAusgangsPuffer().isEmpty()) {
+                naechstenFrameUebertragen();
+            }
+        }
+    }
+
+    /**
+     * Entnimmt den naechsten Frame aus dem Ausgangspuffer und plant dessen Zustellung nach Ablauf der Verzoegerung.
+     * Der Aufrufer muss die Sperre des Ausgangspuffers halten.
+     */
+    private void naechstenFrameUebertragen() {
+        EthernetFrame frame = anschluss1.holeAusgangsPuffer().poll();
+        boolean dropFrame = Verbindung.isDrop();
+        if (dropFrame) {
+            verbindung.setFailure();
+        } else {
+            verbindung.setAktiv(true);
+        }
+        uebertragungLaeuft = true;
+        LinkScheduler.getLinkScheduler().planen(this, frame, dropFrame);
+    }
+
+    /**
+     * @author carsten Diese Methode wird vom {@link LinkScheduler} aufgerufen, wenn die Uebertragungszeit eines Frames
+     *         abgelaufen ist. Der Frame wird ohne Kopie in den Eingangspuffer des Empfaengers gelegt (siehe
+     *         {@link EthernetFrame}) und die Uebertragung des naechsten Frames gestartet. Ist der Ausgangspuffer leer,
+     *         wird die Verbindung als inaktiv markiert.
      */
-    public void run() {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SimplexVerbindung), run()");
-        EthernetFrame frame;
-
-        while (threadRunning) {
-            synchronized (anschluss1.holeAusgangsPuffer()) {
-                if (anschluss1.holeAusgangsPuffer().size() < 1) {
-                    try {
-                        verbindung.setAktiv(false);
-                        anschluss1.holeAusgangsPuffer().wait();
-                    } catch (InterruptedException e) {}
-                }
-                if (anschluss1.holeAusgangsPuffer().size() > 0) {
-                    frame = (EthernetFrame) anschluss1.holeAusgangsPuffer().removeFirst();
-                    boolean dropFrame = Verbindung.isDrop();
-                    if (dropFrame) {
-                        verbindung.setFailure();
-                    } else {
-                        verbindung.setAktiv(true);
-                    }
-
-                    synchronized (this) {
-                        try {
-                            Thread.sleep(Verbindung.holeVerzoegerung());
-                        } catch (InterruptedException e) {}
-                    }
-                    if (!dropFrame) {
-                        synchronized (anschluss2.holeEingangsPuffer()) {
-                            anschluss2.holeEingangsPuffer().add(SerializationUtils.clone(frame));
-                            anschluss2.holeEingangsPuffer().notify();
-                        }
-                    } else {
-                        Lauscher.getLauscher().addDroppedDataUnit(frame);
-                        LOG.debug("Frame dropped.");
-                    }
-                }
+    void zustellen(EthernetFrame frame, boolean dropFrame) {
+        if (!threadRunning) {
+            return;
+        }
+        if (!dropFrame) {
+            anschluss2.holeEingangsPuffer().add(frame);
+        } else {
+            Lauscher.getLauscher().addDroppedDataUnit(frame);
+            LOG.debug("Frame dropped.");
+        }
+        synchronized (anschluss1.holeAusgangsPuffer()) {
+            if (threadRunning && !anschluss1.holeAusgangsPuffer().isEmpty()) {
+                naechstenFrameUebertragen();
+            } else {
+                uebertragungLaeuft = false;
+                verbindung.setAktiv(false);
             }
         }
     }
@@ -77,10 +77,6 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
 
     private SimplexVerbindung simplexEins, simplexZwei;
 
-    private Thread threadSimplexEins;
-
-    private Thread threadSimplexZwei;
-
     public void setAnschluesse(Port[] anschluesse) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), setAnschluesse(" + anschluesse
                 + ")");
@@ -103,11 +99,8 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
             anschluesse[0].setVerbindung(this);
             anschluesse[1].setVerbindung(this);
 
-            threadSimplexEins = new Thread(simplexEins);
-            threadSimplexZwei = new Thread(simplexZwei);
-
-            threadSimplexEins.start();
-            threadSimplexZwei.start();
+            simplexEins.anstossen();
+            simplexZwei.anstossen();
         } catch (NullPointerException e) {
             simplexEins = null;
             simplexZwei = null;
@@ -143,8 +136,17 @@ public abstract class Verbindung extends Hardware implements Serializable, I18n
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Verbindung), anschluesseTrennen()");
         simplexEins.anschluesseTrennen();
         simplexZwei.anschluesseTrennen();
-        threadSimplexEins.interrupt();
-        threadSimplexZwei.interrupt();
+    }
+
+    /**
+     * Startet die Uebertragung in der Richtung, in der der uebergebene Anschluss sendet. Wird aufgerufen, nachdem ein
+     * Frame in den Ausgangspuffer des Anschlusses gelegt wurde.
+     */
+    void uebertragungAnstossen(Port sender) {
+        SimplexVerbindung simplex = (sender == anschluesse[0]) ? simplexEins : simplexZwei;
+        if (simplex != null) {
+            simplex.anstossen();
+        }
     }
 
     /** Value between 1 (low latency) and 100 (highest latency) */
@@ -9,6 +9,9 @@ import org.apache.commons.cli.HelpFormatter;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import filius.software.SimulationClock;
+import filius.software.transportschicht.TCPSocket;
+
 public class FiliusArgs {
     public String argsString = "";
 
@@ -21,6 +24,14 @@ public class FiliusArgs {
     public boolean help = false;
     public int rtt = 1;
     public boolean lowResolution;
+    public boolean virtualThreads = false;
+    public int tcpWindow = TCPSocket.STANDARD_SENDEFENSTER;
+    public boolean tcpCongestionControl = false;
+    public String pcapngFile;
+    public SimulationClock.Modus clockMode = SimulationClock.Modus.ECHTZEIT;
+    public double clockFactor = 1;
+    public String batchScript;
+    public String batchOutput;
 
     private Options options = new Options();
 
@@ -32,6 +43,18 @@ public class FiliusArgs {
         options.addOption("r", true, "Factor to adapt round-trip-time in Filius network: 1 (default) to 5");
         options.addOption("n", false, "Activate native look and feel graphical user interface");
         options.addOption("s", false, "Adapt Filius ui for small screen resolution (less than 1024x768)");
+        options.addOption("t", "virtual-threads", false,
+                "Run the simulation on virtual threads (requires Java 21 or newer)");
+        options.addOption(null, "tcp-window", true,
+                "TCP send window in segments (default " + TCPSocket.STANDARD_SENDEFENSTER + "); 1 uses stop-and-wait");
+        options.addOption(null, "tcp-slow-start", false, "Activate TCP slow start and congestion avoidance");
+        options.addOption(null, "clock", true,
+                "Simulation clock: 'realtime' (default), 'fast' (skip idle periods) or a speed factor, e.g. 10");
+        options.addOption(null, "batch", true,
+                "Run the project FILE without user interface and execute the terminal commands of the given script");
+        options.addOption(null, "batch-output", true, "Write the results of --batch to this file instead of stdout");
+        options.addOption(null, "pcapng", true,
+                "Write all captured frames to the given pcapng file (e.g. for Wireshark)");
     }
 
     public void parseCommandLine(String[] args) throws ParseException {
@@ -56,6 +79,42 @@ public class FiliusArgs {
         if (cmd.hasOption("s")) {
             lowResolution = true;
         }
+        if (cmd.hasOption("t")) {
+            virtualThreads = true;
+        }
+        if (cmd.hasOption("tcp-window")) {
+            try {
+                tcpWindow = Integer.parseInt(cmd.getOptionValue("tcp-window"));
+            } catch (NumberFormatException e) {}
+        }
+        if (cmd.hasOption("tcp-slow-start")) {
+            tcpCongestionControl = true;
+        }
+        if (cmd.hasOption("clock")) {
+            String wert = cmd.getOptionValue("clock");
+            if ("fast".equalsIgnoreCase(wert)) {
+                clockMode = SimulationClock.Modus.SCHNELL;
+            } else if ("realtime".equalsIgnoreCase(wert)) {
+                clockMode = SimulationClock.Modus.ECHTZEIT;
+            } else {
+                try {
+                    double faktor = Double.parseDouble(wert);
+                    if (faktor > 0) {
+                        clockMode = SimulationClock.Modus.SKALIERT;
+                        clockFactor = faktor;
+                    }
+                } catch (NumberFormatException e) {}
+            }
+        }
+        if (cmd.hasOption("batch")) {
+            batchScript = cmd.getOptionValue("batch");
+        }
+        if (cmd.hasOption("batch-output")) {
+            batchOutput = cmd.getOptionValue("batch-output");
+        }
+        if (cmd.hasOption("pcapng")) {
+            pcapngFile = cmd.getOptionValue("pcapng");
+        }
         if (cmd.hasOption("r")) {
             try {
                 rtt = Integer.parseInt(cmd.getOptionValue("r"));
@@ -26,6 +26,7 @@
 package filius.rahmenprogramm;
 
 import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
@@ -180,6 +181,10 @@ public class Information implements Serializable {
 
                 nowrite = false;
             } catch (Exception e) {
+                if (GraphicsEnvironment.isHeadless()) {
+                    LOG.error("Directory is not writeable: " + directoryPath);
+                    return false;
+                }
                 // open dialog to choose another directory
                 JOptionPane.showMessageDialog(null,
                         "Fehler: Verzeichnis ist nicht schreibbar. Filius benötigt aber Schreibrechte.\n"
@@ -290,7 +295,9 @@ public class Information implements Serializable {
     public void reset() {
         macAdressen.clear();
 
-        GUIContainer.getGUIContainer().getExchangeDialog().reset();
+        if (!GraphicsEnvironment.isHeadless()) {
+            GUIContainer.getGUIContainer().getExchangeDialog().reset();
+        }
         init();
     }
 
@@ -673,7 +680,7 @@ public class Information implements Serializable {
                         }
                     }
                 }
-                if (width > 0 && height > 0) {
+                if (width > 0 && height > 0 && !GraphicsEnvironment.isHeadless()) {
                     GUIContainer.getGUIContainer(width, height);
                 }
             } finally {
@@ -36,14 +36,18 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Observable;
+import java.util.Properties;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
+import org.apache.commons.io.input.CloseShieldInputStream;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +62,17 @@ import filius.gui.netzwerksicht.JSidebarButton;
 public class SzenarioVerwaltung extends Observable implements I18n {
     private static Logger LOG = LoggerFactory.getLogger(SzenarioVerwaltung.class);
 
+    /**
+     * Version des Aufbaus der Projektdatei. Version 1 (ohne Eintrag FORMAT_EINTRAG) bezeichnet alle Projektdateien, die
+     * ueber ein temporaeres Verzeichnis erzeugt wurden. Ab Version 2 werden die Eintraege direkt in das Zip-Archiv
+     * geschrieben; der Aufbau der Eintraege ist unveraendert, so dass beide Versionen gelesen werden koennen.
+     */
+    public static final int FORMAT_VERSION = 2;
+
+    static final String FORMAT_EINTRAG = "projekt/format.properties";
+    static final String KONFIGURATION_EINTRAG = "projekt/konfiguration.xml";
+    static final String ANWENDUNGEN_EINTRAG = "projekt/anwendungen/";
+
     private boolean geaendert = false;
     private String pfad = null;
     private static SzenarioVerwaltung verwaltung = null;
@@ -102,32 +117,38 @@ public class SzenarioVerwaltung extends Observable implements I18n {
      * Konfigurationen) - der Verbindungen - der Quelldateien und des Bytecodes von selbst erstellten Anwendungen
      * 
      * Loesungsstrategie: - generell einen eigenen ClassLoader verwenden - XML-Datei fuer Objekte und Dateien aus dem
-     * Ordner Anwendungen in einem leeren temporaeren Ordner speichern und daraus ein neues ZIP-Archiv erstellen, dass
-     * an beliebigem Ort gespeichert werden kann
+     * Ordner Anwendungen direkt als Eintraege in das ZIP-Archiv schreiben, ohne Umweg ueber einen temporaeren Ordner
      */
     public boolean speichern(String datei, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
             List<GUIDocuItem> docuItems) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", speichern(" + datei + "," + hardwareItems + ","
                 + kabelItems + ")");
 
-        String tmpDir;
         boolean erfolg = true;
 
-        tmpDir = Information.getInformation().getTempPfad() + "projekt" + System.getProperty("file.separator");
-        (new File(tmpDir)).mkdirs();
-
-        if (!kopiereVerzeichnis(Information.getInformation().getAnwendungenPfad(), tmpDir + "anwendungen")) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der eigenen Anwendungen fehlgeschlagen!");
-            erfolg = false;
+        File zipDatei = new File(datei).getAbsoluteFile();
+        if (zipDatei.getParentFile() != null) {
+            zipDatei.getParentFile().mkdirs();
         }
 
-        if (!netzwerkSpeichern(tmpDir + "konfiguration.xml", hardwareItems, kabelItems, docuItems)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung des Netzwerks fehlgeschlagen!");
-            erfolg = false;
-        }
+        try (ZipOutputStream zipOut = new ZipOutputStream(new BufferedOutputStream(new FileOutputStream(zipDatei)))) {
+            schreibeFormatEintrag(zipOut);
 
-        if (!erzeugeZipArchiv(tmpDir, datei)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der Projektdatei fehlgeschlagen!");
+            File anwendungen = new File(Information.getInformation().getAnwendungenPfad());
+            if (!anwendungen.exists()
+                    || !schreibeZipDatei(zipOut, ANWENDUNGEN_EINTRAG, anwendungen.getAbsolutePath() + "/")) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der eigenen Anwendungen fehlgeschlagen!");
+                erfolg = false;
+            }
+
+            zipOut.putNextEntry(new ZipEntry(KONFIGURATION_EINTRAG));
+            if (!netzwerkSpeichern(new CloseShieldOutputStream(zipOut), hardwareItems, kabelItems, docuItems)) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Speicherung des Netzwerks fehlgeschlagen!");
+                erfolg = false;
+            }
+            zipOut.closeEntry();
+        } catch (IOException e) {
+            LOG.debug("ERROR (" + this.hashCode() + "): Speicherung der Projektdatei fehlgeschlagen!", e);
             erfolg = false;
         }
 
@@ -139,17 +160,43 @@ public class SzenarioVerwaltung extends Observable implements I18n {
             this.notifyObservers();
         }
 
-        loescheDateien(tmpDir);
-
         return erfolg;
     }
 
-    private static boolean netzwerkSpeichern(String datei, List<GUIKnotenItem> hardwareItems,
+    private static void schreibeFormatEintrag(ZipOutputStream zipOut) throws IOException {
+        Properties format = new Properties();
+        format.setProperty("format", String.valueOf(FORMAT_VERSION));
+        format.setProperty("filius", Information.getVersion());
+        zipOut.putNextEntry(new ZipEntry(FORMAT_EINTRAG));
+        format.store(zipOut, null);
+        zipOut.closeEntry();
+    }
+
+    /**
+     * Liest die Version des Aufbaus der Projektdatei.
+     * 
+     * @return die Format-Version; 1 fuer Projektdateien ohne Format-Eintrag
+     */
+    static int leseFormatVersion(ZipFile zf) {
+        ZipEntry eintrag = zf.getEntry(FORMAT_EINTRAG);
+        if (eintrag == null) {
+            return 1;
+        }
+        Properties format = new Properties();
+        try (InputStream in = zf.getInputStream(eintrag)) {
+            format.load(in);
+            return Integer.parseInt(format.getProperty("format", "1").trim());
+        } catch (IOException | NumberFormatException e) {
+            LOG.debug("Format information of project file could not be read", e);
+            return 1;
+        }
+    }
+
+    private static boolean netzwerkSpeichern(OutputStream out, List<GUIKnotenItem> hardwareItems,
             List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
-        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkSpeichern(" + datei + ","
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkSpeichern(" + out + ","
                 + hardwareItems + "," + kabelItems + ")");
         XMLEncoder mx = null;
-        FileOutputStream fos = null;
 
         if (Thread.currentThread().getContextClassLoader() != FiliusClassLoader
                 .getInstance(Thread.currentThread().getContextClassLoader()))
@@ -157,8 +204,7 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                     FiliusClassLoader.getInstance(Thread.currentThread().getContextClassLoader()));
 
         try {
-            fos = new FileOutputStream(datei);
-            mx = new XMLEncoder(new BufferedOutputStream(fos));
+            mx = new XMLEncoder(new BufferedOutputStream(out));
             mx.setExceptionListener(new ExceptionListener() {
                 public void exceptionThrown(Exception e) {
                     LOG.trace("Error in XML Encoder fetched.", e);
@@ -174,19 +220,11 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         } catch (RuntimeException e) {
             LOG.debug("EXCEPTION: java.lang.RuntimeException raised; Java internal problem, not Filius related!");
             return false;
-        } catch (FileNotFoundException e2) {
-            LOG.debug("File to store could not be found.", e2);
-            return false;
         } catch (Exception e) {
             return false;
         } finally {
             if (mx != null)
                 mx.close();
-            if (fos != null) {
-                try {
-                    fos.close();
-                } catch (IOException e) {}
-            }
         }
     }
 
@@ -196,29 +234,43 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                 + kabelItems + ")");
 
         boolean erfolg = true;
-        String tmpDir;
-
-        // LOG.debug("SzenarioVerwaltung: Laden des Projekts aus Datei "+datei);
-        tmpDir = Information.getInformation().getTempPfad();
 
-        loescheDateien(tmpDir + "projekt");
+        if (!new File(datei).exists()) {
+            LOG.debug("ERROR (" + this.hashCode() + "): " + datei + " existiert nicht.");
+            return false;
+        }
 
-        if (erfolg && !loescheVerzeichnisInhalt(Information.getInformation().getAnwendungenPfad())) {
+        if (!loescheVerzeichnisInhalt(Information.getInformation().getAnwendungenPfad())) {
             LOG.debug("ERROR (" + this.hashCode() + "): Loeschen vorhandener Anwendungen fehlgeschlagen");
         }
 
-        if (!entpackeZipArchiv(datei, tmpDir)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Entpacken des Zip-Archivs fehlgeschlagen");
-            erfolg = false;
-        }
+        try (ZipFile zf = new ZipFile(datei)) {
+            int format = leseFormatVersion(zf);
+            LOG.debug("Project file format version " + format);
+            if (format > FORMAT_VERSION) {
+                LOG.debug("WARNING: project file format (" + format + ") is newer than supported format ("
+                        + FORMAT_VERSION + ")");
+            }
 
-        if (erfolg && !kopiereVerzeichnis(tmpDir + "projekt/anwendungen",
-                Information.getInformation().getAnwendungenPfad())) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Kopieren der Anwendungen fehlgeschlagen");
-        }
+            if (!entpackeVerzeichnis(zf, ANWENDUNGEN_EINTRAG, Information.getInformation().getAnwendungenPfad())) {
+                LOG.debug("ERROR (" + this.hashCode() + "): Kopieren der Anwendungen fehlgeschlagen");
+            }
 
-        if (erfolg && !netzwerkLaden(tmpDir + "projekt/konfiguration.xml", hardwareItems, kabelItems, docuItems)) {
-            LOG.debug("ERROR (" + this.hashCode() + "): Laden der Netzwerkkonfiguration fehlgeschlagen");
+            ZipEntry konfiguration = zf.getEntry(KONFIGURATION_EINTRAG);
+            if (konfiguration == null) {
+                GUIErrorHandler.getGUIErrorHandler().DisplayError(messages.getString("rp_szenarioverwaltung_msg5"));
+                LOG.debug("ERROR (" + this.hashCode() + "): " + KONFIGURATION_EINTRAG + " fehlt in " + datei);
+                erfolg = false;
+            } else {
+                try (InputStream in = zf.getInputStream(konfiguration)) {
+                    if (!netzwerkLaden(in, datei, hardwareItems, kabelItems, docuItems)) {
+                        LOG.debug("ERROR (" + this.hashCode() + "): Laden der Netzwerkkonfiguration fehlgeschlagen");
+                        erfolg = false;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("ERROR (" + this.hashCode() + "): Entpacken des Zip-Archivs fehlgeschlagen", e);
             erfolg = false;
         }
 
@@ -233,8 +285,8 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         return erfolg;
     }
 
-    private static boolean netzwerkLaden(String datei, List<GUIKnotenItem> hardwareItems, List<GUIKabelItem> kabelItems,
-            List<GUIDocuItem> docuItems) {
+    private static boolean netzwerkLaden(InputStream in, String datei, List<GUIKnotenItem> hardwareItems,
+            List<GUIKabelItem> kabelItems, List<GUIDocuItem> docuItems) {
         LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, netzwerkLaden(" + datei + ","
                 + hardwareItems + "," + kabelItems + ")");
         Object tmpObject = null;
@@ -245,7 +297,7 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                     FiliusClassLoader.getInstance(Thread.currentThread().getContextClassLoader()));
 
         boolean success = false;
-        try (XMLDecoder xmldec = new XMLDecoder(new BufferedInputStream(new FileInputStream(datei)))) {
+        try (XMLDecoder xmldec = new XMLDecoder(new BufferedInputStream(new CloseShieldInputStream(in)))) {
             xmldec.setExceptionListener(new ExceptionListener() {
                 public void exceptionThrown(Exception e) {
                     LOG.debug("", e);
@@ -333,10 +385,6 @@ public class SzenarioVerwaltung extends Observable implements I18n {
                 }
             }
             success = true;
-        } catch (FileNotFoundException e) {
-            GUIErrorHandler.getGUIErrorHandler().DisplayError(messages.getString("rp_szenarioverwaltung_msg5"));
-            LOG.debug("", e);
-            success = false;
         } catch (ArrayIndexOutOfBoundsException e) {
             LOG.debug("Incomplete project file " + datei);
             success = true;
@@ -436,6 +484,44 @@ public class SzenarioVerwaltung extends Observable implements I18n {
         return true;
     }
 
+    /**
+     * Entpackt alle Eintraege unterhalb von praefix direkt aus dem Archiv in den Zielordner.
+     * 
+     * @param praefix
+     *            Pfad im Archiv, mit abschliessendem "/"
+     */
+    static boolean entpackeVerzeichnis(ZipFile zf, String praefix, String zielOrdner) {
+        LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, entpackeVerzeichnis(" + zf.getName()
+                + "," + praefix + "," + zielOrdner + ")");
+        File ziel = new File(zielOrdner).getAbsoluteFile();
+        ziel.mkdirs();
+
+        for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements();) {
+            ZipEntry eintrag = e.nextElement();
+            if (!eintrag.getName().startsWith(praefix) || eintrag.getName().length() == praefix.length()) {
+                continue;
+            }
+            File file = new File(ziel, eintrag.getName().substring(praefix.length()));
+            if (!file.toPath().normalize().startsWith(ziel.toPath().normalize())) {
+                LOG.debug("ERROR (static): Eintrag " + eintrag.getName() + " liegt ausserhalb von " + zielOrdner);
+                return false;
+            }
+            if (eintrag.isDirectory()) {
+                file.mkdirs();
+            } else {
+                file.getParentFile().mkdirs();
+                try (InputStream is = zf.getInputStream(eintrag);
+                        OutputStream os = new FileOutputStream(file)) {
+                    is.transferTo(os);
+                } catch (IOException ex) {
+                    LOG.debug("ERROR (static): Eintrag " + eintrag.getName() + " konnte nicht entpackt werden.", ex);
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static boolean entpackeZipArchiv(String archivDatei, String zielOrdner) {
         LOG.trace("INVOKED (static) filius.rahmenprogramm.SzenarioVerwaltung, entpackeZipArchiv(" + archivDatei + ","
                 + zielOrdner + ")");
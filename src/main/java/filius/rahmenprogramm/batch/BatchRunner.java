@@ -0,0 +1,300 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Observer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.gui.netzwerksicht.GUIDocuItem;
+import filius.gui.netzwerksicht.GUIKabelItem;
+import filius.gui.netzwerksicht.GUIKnotenItem;
+import filius.hardware.LinkScheduler;
+import filius.hardware.knoten.Knoten;
+import filius.rahmenprogramm.SzenarioVerwaltung;
+import filius.software.Anwendung;
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
+import filius.software.dns.Resolver;
+import filius.software.lokal.Terminal;
+import filius.software.system.InternetKnotenBetriebssystem;
+import filius.software.system.KnotenStarter;
+import filius.software.system.SystemSoftware;
+
+/**
+ * Fuehrt ein Szenario ohne grafische Oberflaeche aus: das Projekt wird geladen, alle Knoten werden gestartet und die
+ * Befehle eines {@link BatchSkript} in den Terminals der Rechner ausgefuehrt. Fuer jeden Befehl und am Ende fuer den
+ * gesamten Lauf wird eine Zeile im JSON-Format ausgegeben (JSON Lines), z. B. zur Auswertung in einer CI-Pipeline.
+ * 
+ * Die Befehle werden nicht ueber die Befehlswarteschlange des Terminals, sondern direkt in einem eigenen Thread
+ * ausgefuehrt. So ist das Ende eines Befehls eindeutig bestimmt; Befehle ohne Ende (z. B. tcpdump) werden nach Ablauf
+ * der Zeitbegrenzung unterbrochen.
+ */
+public class BatchRunner {
+    private static Logger LOG = LoggerFactory.getLogger(BatchRunner.class);
+
+    public static final int OK = 0;
+    /** mindestens ein Befehl wurde wegen Zeitueberschreitung abgebrochen oder ist fehlgeschlagen */
+    public static final int BEFEHL_FEHLGESCHLAGEN = 1;
+    /** das Projekt oder das Skript konnte nicht gelesen werden */
+    public static final int FEHLER = 2;
+
+    private static final Pattern PING_ZEIT = Pattern.compile("time=(\\d+)ms");
+
+    private final PrintStream ausgabe;
+    private final List<GUIKnotenItem> knotenItems = new LinkedList<>();
+    private final List<GUIKabelItem> kabelItems = new LinkedList<>();
+    private final List<GUIDocuItem> docuItems = new LinkedList<>();
+    private final List<Terminal> terminals = new ArrayList<>();
+
+    public BatchRunner(PrintStream ausgabe) {
+        this.ausgabe = ausgabe;
+    }
+
+    /** @return der Exit-Code des Laufs ({@link #OK}, {@link #BEFEHL_FEHLGESCHLAGEN} oder {@link #FEHLER}) */
+    public int ausfuehren(String projektDatei, String skriptDatei) {
+        BatchSkript skript;
+        try {
+            skript = BatchSkript.lesen(Files.newBufferedReader(new File(skriptDatei).toPath(), StandardCharsets.UTF_8));
+        } catch (IOException | IllegalArgumentException e) {
+            fehler("script " + skriptDatei + " could not be read: " + e.getMessage());
+            return FEHLER;
+        }
+        try {
+            if (projektDatei == null
+                    || !SzenarioVerwaltung.getInstance().laden(projektDatei, knotenItems, kabelItems, docuItems)) {
+                fehler("project " + projektDatei + " could not be loaded");
+                return FEHLER;
+            }
+        } catch (IOException e) {
+            fehler("project " + projektDatei + " could not be loaded: " + e.getMessage());
+            return FEHLER;
+        }
+        return ausfuehren(projektDatei, skript);
+    }
+
+    int ausfuehren(String projektDatei, BatchSkript skript) {
+        SimulationClock uhr = SimulationClock.getSimulationClock();
+        long realStart = System.nanoTime();
+        long simulationsStart = uhr.jetzt();
+        long zustellungenStart = LinkScheduler.getLinkScheduler().anzahlZustellungen();
+        int fehlgeschlagen = 0;
+
+        long startDauer = starten();
+        try {
+            for (BatchSkript.Schritt schritt : skript.getSchritte()) {
+                if (schritt.isPause()) {
+                    try {
+                        uhr.schlafen(schritt.getMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                } else if (!befehlAusfuehren(schritt)) {
+                    fehlgeschlagen++;
+                }
+            }
+        } finally {
+            beenden();
+        }
+
+        long simulationsDauer = uhr.jetzt() - simulationsStart;
+        long frames = LinkScheduler.getLinkScheduler().anzahlZustellungen() - zustellungenStart;
+        long realDauer = (System.nanoTime() - realStart) / 1000000;
+        JsonZeile zusammenfassung = new JsonZeile().feld("type", "summary").feld("project", projektDatei)
+                .feld("nodes", knotenItems.size()).feld("startupMillis", startDauer)
+                .feld("commands", anzahlBefehle(skript))
+                .feld("failedCommands", fehlgeschlagen).feld("frames", frames)
+                .feld("simulatedMillis", simulationsDauer).feld("realMillis", realDauer)
+                .feld("framesPerSecond", realDauer > 0 ? frames * 1000.0 / realDauer : 0);
+        long dnsTreffer = 0, dnsFehlschlaege = 0;
+        for (SystemSoftware system : systeme()) {
+            if (system instanceof InternetKnotenBetriebssystem) {
+                Resolver resolver = ((InternetKnotenBetriebssystem) system).holeDNSClient();
+                dnsTreffer += resolver.holeCacheTreffer();
+                dnsFehlschlaege += resolver.holeCacheFehlschlaege();
+            }
+        }
+        zusammenfassung.feld("dnsCacheHits", dnsTreffer).feld("dnsCacheMisses", dnsFehlschlaege);
+        ausgabe.println(zusammenfassung);
+        ausgabe.flush();
+        return fehlgeschlagen > 0 ? BEFEHL_FEHLGESCHLAGEN : OK;
+    }
+
+    private static long anzahlBefehle(BatchSkript skript) {
+        return skript.getSchritte().stream().filter(schritt -> !schritt.isPause()).count();
+    }
+
+    private List<SystemSoftware> systeme() {
+        List<SystemSoftware> systeme = new ArrayList<>();
+        for (GUIKnotenItem item : knotenItems) {
+            systeme.add(item.getKnoten().getSystemSoftware());
+        }
+        return systeme;
+    }
+
+    /**
+     * Startet die Systemsoftware aller Knoten in Phasen, sodass die DHCP-Server bereits laufen, wenn die DHCP-Clients
+     * starten.
+     * 
+     * @return die Dauer des Starts in Millisekunden
+     */
+    private long starten() {
+        return new KnotenStarter().starten(systeme(),
+                (erledigt, gesamt) -> LOG.debug("starting nodes: {}/{}", erledigt, gesamt));
+    }
+
+    private void beenden() {
+        for (Terminal terminal : terminals) {
+            terminal.setInterrupt(true);
+        }
+        new KnotenStarter().beenden(systeme(), null);
+    }
+
+    /** @return ob der Befehl innerhalb der Zeitbegrenzung beendet wurde */
+    private boolean befehlAusfuehren(BatchSkript.Schritt schritt) {
+        JsonZeile zeile = new JsonZeile().feld("type", "command").feld("line", schritt.getZeile())
+                .feld("node", schritt.getKnoten()).feld("command", schritt.getKommandozeile());
+        Terminal terminal = holeTerminal(schritt.getKnoten());
+        if (terminal == null) {
+            ausgabe.println(zeile.feld("completed", false).feld("error", "no computer with this name"));
+            return false;
+        }
+
+        StringBuilder text = new StringBuilder();
+        Observer beobachter = (quelle, daten) -> {
+            if (daten instanceof String) {
+                synchronized (text) {
+                    text.append(daten);
+                }
+            }
+        };
+        terminal.hinzuBeobachter(beobachter);
+        terminal.setInterrupt(false);
+
+        SimulationClock uhr = SimulationClock.getSimulationClock();
+        long simulationsStart = uhr.jetzt();
+        long realStart = System.nanoTime();
+        Thread thread = ThreadFabrik.getThreadFabrik().neuerThread(() -> {
+            try {
+                Terminal.class.getMethod(schritt.getBefehl(), String[].class).invoke(terminal,
+                        (Object) schritt.getParameter());
+            } catch (NoSuchMethodException e) {
+                synchronized (text) {
+                    text.append("unknown command: ").append(schritt.getBefehl());
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOG.debug("command " + schritt.getKommandozeile() + " failed", e);
+            }
+        }, "Batch-" + schritt.getBefehl());
+        thread.start();
+        boolean beendet;
+        try {
+            thread.join(schritt.getMillis());
+            beendet = !thread.isAlive();
+            if (!beendet) {
+                terminal.setInterrupt(true);
+                thread.join(1000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            beendet = false;
+        }
+        terminal.entferneBeobachter(beobachter);
+
+        String ergebnis;
+        synchronized (text) {
+            ergebnis = text.toString();
+        }
+        zeile.feld("completed", beendet).feld("simulatedMillis", uhr.jetzt() - simulationsStart)
+                .feld("realMillis", (System.nanoTime() - realStart) / 1000000);
+        latenzen(ergebnis, zeile);
+        ausgabe.println(zeile.feld("output", ergebnis));
+        ausgabe.flush();
+        return beendet;
+    }
+
+    /** Wertet die Antwortzeiten von ping aus ("time=12ms"). */
+    static void latenzen(String ergebnis, JsonZeile zeile) {
+        Matcher matcher = PING_ZEIT.matcher(ergebnis);
+        long anzahl = 0, summe = 0, min = Long.MAX_VALUE, max = 0;
+        while (matcher.find()) {
+            long zeit = Long.parseLong(matcher.group(1));
+            anzahl++;
+            summe += zeit;
+            min = Math.min(min, zeit);
+            max = Math.max(max, zeit);
+        }
+        if (anzahl > 0) {
+            zeile.feld("replies", anzahl).feld("latencyMinMillis", min)
+                    .feld("latencyAvgMillis", (double) summe / anzahl).feld("latencyMaxMillis", max);
+        }
+    }
+
+    /**
+     * @return das installierte Terminal des Rechners mit diesem Anzeigenamen; ist keines installiert, wird ein Terminal
+     *         nur fuer den Batch-Betrieb erzeugt
+     */
+    private Terminal holeTerminal(String anzeigeName) {
+        for (GUIKnotenItem item : knotenItems) {
+            Knoten knoten = item.getKnoten();
+            if (anzeigeName.equals(knoten.holeAnzeigeName())
+                    && knoten.getSystemSoftware() instanceof InternetKnotenBetriebssystem) {
+                InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) knoten.getSystemSoftware();
+                Anwendung anwendung = bs.holeSoftware(Terminal.class.getName());
+                Terminal terminal;
+                if (anwendung instanceof Terminal) {
+                    terminal = (Terminal) anwendung;
+                } else {
+                    terminal = new Terminal();
+                    terminal.setSystemSoftware(bs);
+                }
+                if (!terminals.contains(terminal)) {
+                    terminals.add(terminal);
+                }
+                return terminal;
+            }
+        }
+        return null;
+    }
+
+    private void fehler(String meldung) {
+        LOG.error(meldung);
+        ausgabe.println(new JsonZeile().feld("type", "error").feld("message", meldung));
+        ausgabe.flush();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringTokenizer;
+
+/**
+ * Ein Skript fuer den Batch-Betrieb. Jede Zeile enthaelt eine Anweisung:
+ * 
+ * <pre>
+ * # Kommentar
+ * timeout 30000              (maximale reale Laufzeit der folgenden Befehle in ms, Standard 60000)
+ * sleep 5000                 (5000 ms simulierte Zeit warten)
+ * Notebook 1: ping 10.0.0.2  (Befehl im Terminal des Rechners mit dem Anzeigenamen "Notebook 1" ausfuehren)
+ * </pre>
+ */
+public class BatchSkript {
+
+    public static final long STANDARD_TIMEOUT_MILLIS = 60000;
+
+    /** Eine Anweisung des Skripts: entweder ein Terminal-Befehl oder eine Pause. */
+    public static class Schritt {
+        private final int zeile;
+        private final String knoten;
+        private final String befehl;
+        private final String[] parameter;
+        private final long millis;
+
+        private Schritt(int zeile, String knoten, String befehl, String[] parameter, long millis) {
+            this.zeile = zeile;
+            this.knoten = knoten;
+            this.befehl = befehl;
+            this.parameter = parameter;
+            this.millis = millis;
+        }
+
+        public int getZeile() {
+            return zeile;
+        }
+
+        /** @return der Anzeigename des Rechners oder null bei einer Pause */
+        public String getKnoten() {
+            return knoten;
+        }
+
+        public String getBefehl() {
+            return befehl;
+        }
+
+        /**
+         * @return die Parameter des Befehls; wie bei der Eingabe im Terminal-Fenster folgen auf die angegebenen
+         *         Parameter drei leere Zeichenketten
+         */
+        public String[] getParameter() {
+            return parameter;
+        }
+
+        public boolean isPause() {
+            return knoten == null;
+        }
+
+        /** @return bei einer Pause die simulierte Wartezeit, sonst die reale Zeitbegrenzung des Befehls */
+        public long getMillis() {
+            return millis;
+        }
+
+        /** @return der Befehl mit den angegebenen Parametern, wie er im Skript steht */
+        public String getKommandozeile() {
+            StringBuilder zeile = new StringBuilder(befehl);
+            for (String p : parameter) {
+                if (!p.isEmpty()) {
+                    zeile.append(' ').append(p);
+                }
+            }
+            return zeile.toString();
+        }
+    }
+
+    private final List<Schritt> schritte;
+
+    private BatchSkript(List<Schritt> schritte) {
+        this.schritte = Collections.unmodifiableList(schritte);
+    }
+
+    public List<Schritt> getSchritte() {
+        return schritte;
+    }
+
+    /**
+     * @throws IllegalArgumentException
+     *             bei einer ungueltigen Zeile; die Meldung enthaelt die Zeilennummer
+     */
+    public static BatchSkript lesen(Reader quelle) throws IOException {
+        List<Schritt> schritte = new ArrayList<>();
+        long timeout = STANDARD_TIMEOUT_MILLIS;
+        BufferedReader reader = new BufferedReader(quelle);
+        int nummer = 0;
+        for (String zeile; (zeile = reader.readLine()) != null;) {
+            nummer++;
+            zeile = zeile.trim();
+            if (zeile.isEmpty() || zeile.startsWith("#")) {
+                continue;
+            }
+            int trenner = zeile.indexOf(':');
+            if (trenner < 0) {
+                String[] teile = zeile.split("\\s+");
+                if (teile.length != 2 || !(teile[0].equals("sleep") || teile[0].equals("timeout"))) {
+                    throw new IllegalArgumentException("line " + nummer + ": expected '<node>: <command>', "
+                            + "'sleep <millis>' or 'timeout <millis>'");
+                }
+                long millis = millis(teile[1], nummer);
+                if (teile[0].equals("sleep")) {
+                    schritte.add(new Schritt(nummer, null, "sleep", new String[0], millis));
+                } else {
+                    timeout = millis;
+                }
+            } else {
+                String knoten = zeile.substring(0, trenner).trim();
+                StringTokenizer tokens = new StringTokenizer(zeile.substring(trenner + 1));
+                if (knoten.isEmpty() || !tokens.hasMoreTokens()) {
+                    throw new IllegalArgumentException("line " + nummer + ": node or command missing");
+                }
+                String befehl = tokens.nextToken();
+                String[] parameter = new String[tokens.countTokens() + 3];
+                Arrays.fill(parameter, "");
+                for (int i = 0; tokens.hasMoreTokens(); i++) {
+                    parameter[i] = tokens.nextToken();
+                }
+                schritte.add(new Schritt(nummer, knoten, befehl, parameter, timeout));
+            }
+        }
+        return new BatchSkript(schritte);
+    }
+
+    private static long millis(String wert, int nummer) {
+        try {
+            long millis = Long.parseLong(wert);
+            if (millis >= 0) {
+                return millis;
+            }
+        } catch (NumberFormatException e) {}
+        throw new IllegalArgumentException("line " + nummer + ": invalid number of milliseconds '" + wert + "'");
+    }
+}
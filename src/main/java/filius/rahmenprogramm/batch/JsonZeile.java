@@ -0,0 +1,83 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.batch;
+
+/** Baut eine einzeilige JSON-Darstellung eines Objekts mit einfachen Feldern (Text, Zahl, Wahrheitswert) auf. */
+class JsonZeile {
+    private final StringBuilder text = new StringBuilder("{");
+
+    JsonZeile feld(String name, Object wert) {
+        if (text.length() > 1) {
+            text.append(',');
+        }
+        zeichenkette(name);
+        text.append(':');
+        if (wert == null) {
+            text.append("null");
+        } else if (wert instanceof Number || wert instanceof Boolean) {
+            text.append(wert);
+        } else {
+            zeichenkette(wert.toString());
+        }
+        return this;
+    }
+
+    private void zeichenkette(String wert) {
+        text.append('"');
+        for (int i = 0; i < wert.length(); i++) {
+            char c = wert.charAt(i);
+            switch (c) {
+            case '"':
+                text.append("\\\"");
+                break;
+            case '\\':
+                text.append("\\\\");
+                break;
+            case '\n':
+                text.append("\\n");
+                break;
+            case '\r':
+                text.append("\\r");
+                break;
+            case '\t':
+                text.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    text.append(String.format("\\u%04x", (int) c));
+                } else {
+                    text.append(c);
+                }
+            }
+        }
+        text.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return text + "}";
+    }
+}
@@ -25,16 +25,21 @@
  */
 package filius.rahmenprogramm.nachrichten;
 
+import java.io.File;
+import java.io.IOException;
 import java.text.NumberFormat;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collection;
-import java.util.GregorianCalendar;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
 import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -42,6 +47,9 @@ import org.slf4j.LoggerFactory;
 
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
+import filius.software.Puffer;
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.transportschicht.TcpSegment;
 import filius.software.transportschicht.UdpSegment;
@@ -67,25 +75,52 @@ public class Lauscher implements I18n {
 
     public static final String DROPPED = "dropped packets";
 
+    private static final DateTimeFormatter ZEITFORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+
     private NumberFormat numberFormatter = NumberFormat.getInstance(Information.getInformation().getLocaleOrDefault());
 
+    /**
+     * Anzahl der Frames, die je Netzwerkinterface hoechstens gespeichert werden. Wird die Kapazitaet ueberschritten,
+     * werden die aeltesten Frames verworfen.
+     */
+    public static final int STANDARD_KAPAZITAET = 100000;
+
     /** Singleton */
     private static Lauscher lauscher = null;
 
-    private HashMap<String, LinkedList<LauscherBeobachter>> beobachter = new HashMap<String, LinkedList<LauscherBeobachter>>();
+    private Map<String, List<LauscherBeobachter>> beobachter = new ConcurrentHashMap<>();
+
+    private Map<String, Mitschnitt> datenEinheiten = new ConcurrentHashMap<>();
+    private volatile Mitschnitt droppedDataUnits;
+    private volatile int kapazitaet = STANDARD_KAPAZITAET;
+
+    /**
+     * Die Beobachter werden nicht im sendenden Thread benachrichtigt, sondern von einem eigenen Thread. Solange fuer
+     * ein Interface noch eine Benachrichtigung aussteht, werden weitere Frames nicht erneut gemeldet; die Beobachter
+     * holen sich bei update() alle neuen Frames auf einmal.
+     */
+    private final Puffer<String> benachrichtigungen = new Puffer<>();
+    private final Set<String> ausstehend = ConcurrentHashMap.newKeySet();
 
-    private HashMap<String, LinkedList<Object[]>> datenEinheiten = new HashMap<String, LinkedList<Object[]>>();
-    private List<Object[]> droppedDataUnits = new LinkedList<>();
+    /** laufender Export der Frames in eine pcapng-Datei oder null */
+    private volatile PcapngExport export;
 
     private Lauscher() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", constr: Lauscher()");
+        droppedDataUnits = new Mitschnitt(kapazitaet);
+        Thread benachrichtiger = ThreadFabrik.getThreadFabrik().neuerThread(this::benachrichtigen,
+                "Lauscher-Benachrichtigung");
+        benachrichtiger.setDaemon(true);
+        benachrichtiger.start();
         reset();
     }
 
     public void reset() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", reset()");
-        datenEinheiten.clear();
-        droppedDataUnits.clear();
+        for (Mitschnitt mitschnitt : datenEinheiten.values()) {
+            mitschnitt.leeren();
+        }
+        droppedDataUnits.leeren();
         this.benachrichtigeBeobachter(null);
     }
 
@@ -93,13 +128,28 @@ public class Lauscher implements I18n {
         return datenEinheiten.keySet();
     }
 
-    public static Lauscher getLauscher() {
+    public static synchronized Lauscher getLauscher() {
         if (lauscher == null) {
             lauscher = new Lauscher();
         }
         return lauscher;
     }
 
+    /**
+     * Legt fest, wie viele Frames je Netzwerkinterface gespeichert werden. Die Aenderung gilt fuer Interfaces, deren
+     * Mitschnitt danach angelegt wird.
+     */
+    public void setzeKapazitaet(int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + kapazitaet);
+        }
+        this.kapazitaet = kapazitaet;
+    }
+
+    public int holeKapazitaet() {
+        return kapazitaet;
+    }
+
     public void removeIdentifier(String identifier) {
         datenEinheiten.remove(identifier);
         beobachter.remove(identifier);
@@ -108,52 +158,64 @@ public class Lauscher implements I18n {
     public void addBeobachter(String id, LauscherBeobachter newObserver) {
         LOG.trace(
                 "INVOKED (" + this.hashCode() + ") " + getClass() + ", addBeobachter(" + id + "," + newObserver + ")");
-        LinkedList<LauscherBeobachter> liste;
-
-        liste = this.beobachter.get(id);
-        if (liste == null) {
-            liste = new LinkedList<LauscherBeobachter>();
-            this.beobachter.put(id, liste);
-        }
-        liste.add(newObserver);
+        beobachter.computeIfAbsent(id, key -> new CopyOnWriteArrayList<>()).add(newObserver);
     }
 
+    /**
+     * Meldet neue Daten fuer das Interface mit der angegebenen ID (bzw. fuer alle Interfaces bei id == null). Die
+     * Beobachter werden asynchron benachrichtigt.
+     */
     private void benachrichtigeBeobachter(String id) {
-        LinkedList<LauscherBeobachter> liste = new LinkedList<LauscherBeobachter>();
         if (id == null) {
-            for (LinkedList<LauscherBeobachter> beobachterListe : beobachter.values()) {
-                liste.addAll(beobachterListe);
+            for (String key : beobachter.keySet()) {
+                benachrichtigeBeobachter(key);
             }
-        } else if (null == beobachter.get(id)) {
-            LOG.trace("no observer for {}", id);
-        } else {
-            liste.addAll(beobachter.get(id));
+        } else if (ausstehend.add(id)) {
+            benachrichtigungen.offer(id);
         }
-        for (LauscherBeobachter beobachter : liste) {
-            beobachter.update();
+    }
+
+    private void benachrichtigen() {
+        while (true) {
+            String id = benachrichtigungen.entnehmen();
+            if (id == null) {
+                continue;
+            }
+            ausstehend.remove(id);
+            List<LauscherBeobachter> liste = beobachter.get(id);
+            if (null == liste) {
+                LOG.trace("no observer for {}", id);
+                continue;
+            }
+            for (LauscherBeobachter beobachter : liste) {
+                try {
+                    beobachter.update();
+                } catch (RuntimeException e) {
+                    LOG.debug("observer of " + id + " failed", e);
+                }
+            }
         }
     }
 
     /**
-     * Hinzufuegen von einem EthernetFrame zu den Daten
+     * Hinzufuegen von einem EthernetFrame zu den Daten. Frames und die enthaltenen Pakete werden nach dem Versenden
+     * nicht mehr veraendert. Daher wird der Frame selbst ohne Kopie gespeichert.
      * 
      * @param interfaceId
      *            Uebergeben wird der String des NetzwerkInterface nach Aufruf von toString()
      * @param frame
      */
     public void addDatenEinheit(String interfaceId, EthernetFrame frame) {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", addDatenEinheit(" + interfaceId + "," + frame
-                + ")");
+        if (LOG.isTraceEnabled()) {
+            LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", addDatenEinheit(" + interfaceId + ","
+                    + frame + ")");
+        }
         if (!frame.isReadByLauscherForMac(interfaceId)) {
-            Object[] frameMitZeitstempel = frameWithTimestamp(frame);
-
-            LinkedList<Object[]> liste = (LinkedList<Object[]>) datenEinheiten.get(interfaceId);
-            if (liste == null) {
-                liste = new LinkedList<Object[]>();
-                datenEinheiten.put(interfaceId, liste);
-            }
-            synchronized (liste) {
-                liste.addLast(frameMitZeitstempel);
+            long zeit = SimulationClock.getSimulationClock().jetzt();
+            datenEinheiten.computeIfAbsent(interfaceId, key -> new Mitschnitt(kapazitaet)).hinzufuegen(zeit, frame);
+            PcapngExport laufenderExport = export;
+            if (laufenderExport != null) {
+                laufenderExport.hinzufuegen(interfaceId, zeit, frame);
             }
 
             frame.setReadByLauscherForMac(interfaceId);
@@ -162,28 +224,64 @@ public class Lauscher implements I18n {
     }
 
     public void addDroppedDataUnit(EthernetFrame frame) {
-        Object[] frameMitZeitstempel = frameWithTimestamp(frame);
-        droppedDataUnits.add(frameMitZeitstempel);
+        long zeit = SimulationClock.getSimulationClock().jetzt();
+        droppedDataUnits.hinzufuegen(zeit, frame);
+        PcapngExport laufenderExport = export;
+        if (laufenderExport != null) {
+            laufenderExport.hinzufuegen(DROPPED, zeit, frame);
+        }
         benachrichtigeBeobachter(DROPPED);
     }
 
-    protected Object[] frameWithTimestamp(EthernetFrame frame) {
-        Object[] frameMitZeitstempel = new Object[2];
-        frameMitZeitstempel[0] = Long.valueOf(System.currentTimeMillis());
-        Object daten = new Object();
-        if (frame.getDaten() instanceof IcmpPaket) {
-            daten = ((IcmpPaket) frame.getDaten()).clone();
-        } else if (frame.getDaten() instanceof IpPaket) {
-            daten = ((IpPaket) frame.getDaten()).clone();
-        } else {
-            daten = frame.getDaten();
+    /**
+     * Startet den Export aller danach mitgeschnittenen Frames in eine pcapng-Datei. Ein bereits laufender Export wird
+     * vorher beendet. Jedes Netzwerkinterface wird in der Datei als eigene Schnittstelle beschrieben, verworfene Frames
+     * unter dem Namen {@value #DROPPED}.
+     */
+    public synchronized void starteExport(File datei) throws IOException {
+        beendeExport();
+        export = new PcapngExport(datei);
+    }
+
+    /** Beendet einen laufenden Export; noch wartende Frames werden vorher in die Datei geschrieben. */
+    public synchronized void beendeExport() {
+        PcapngExport laufenderExport = export;
+        export = null;
+        if (laufenderExport != null) {
+            laufenderExport.beenden();
         }
-        frameMitZeitstempel[1] = new EthernetFrame(daten, frame.getQuellMacAdresse(), frame.getZielMacAdresse(),
-                frame.getTyp());
-        return frameMitZeitstempel;
     }
 
-    public Object[][] getDaten(String interfaceId, boolean inheritAddress, int offset) {
+    public boolean isExportAktiv() {
+        return export != null;
+    }
+
+    /**
+     * @return die Nummer des aeltesten gespeicherten Frames des Interfaces. Ist kein Frame gespeichert, ist es die
+     *         Nummer, die der naechste Frame erhalten wird.
+     */
+    public long getErsteNummer(String interfaceId) {
+        Mitschnitt mitschnitt = datenEinheiten.get(interfaceId);
+        return mitschnitt != null ? mitschnitt.ersteNummer() : 1;
+    }
+
+    /**
+     * @return die Nummer des zuletzt mitgeschnittenen Frames des Interfaces oder 0
+     */
+    public long getLetzteNummer(String interfaceId) {
+        Mitschnitt mitschnitt = datenEinheiten.get(interfaceId);
+        return mitschnitt != null ? mitschnitt.letzteNummer() : 0;
+    }
+
+    /**
+     * Liefert die aufbereiteten Zeilen der Frames ab der Nummer offset. Frames, die nicht mehr gespeichert sind, werden
+     * uebersprungen. Mit offset = getLetzteNummer(interfaceId) + 1 des letzten Aufrufs erhaelt man nur die neuen
+     * Frames.
+     * 
+     * @param offset
+     *            Nummer des ersten Frames (beginnt mit 1; 0 fuer alle gespeicherten Frames)
+     */
+    public Object[][] getDaten(String interfaceId, boolean inheritAddress, long offset) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", getDaten(" + interfaceId + ")");
         Vector<Object[]> vector;
         Object[][] daten;
@@ -213,34 +311,94 @@ public class Lauscher implements I18n {
         }
     }
 
-    public int getOffsetByTimestamp(String interfaceId, long offsetTimestamp) {
-        LinkedList<Object[]> liste = datenEinheiten.get(interfaceId);
-        int offset = 1;
-        if (liste != null) {
-            synchronized (liste) {
-                for (Object[] frameMitZeitstempel : liste) {
-                    long timestamp = ((Long) frameMitZeitstempel[0]).longValue();
-                    if (timestamp >= offsetTimestamp) {
-                        break;
-                    }
-                    offset++;
-                }
+    /**
+     * @return die Nummer des ersten gespeicherten Frames, der nicht vor dem angegebenen Zeitpunkt mitgeschnitten wurde;
+     *         gibt es keinen, die Nummer des naechsten Frames
+     */
+    public long getOffsetByTimestamp(String interfaceId, long offsetTimestamp) {
+        Mitschnitt mitschnitt = datenEinheiten.get(interfaceId);
+        if (mitschnitt == null) {
+            return 1;
+        }
+        long offset = mitschnitt.letzteNummer() + 1;
+        for (Mitschnitt.Eintrag eintrag : mitschnitt.ab(0)) {
+            if (eintrag.zeitstempel >= offsetTimestamp) {
+                offset = eintrag.nummer;
+                break;
             }
         }
         return offset;
     }
 
     private String formatTimestamp(long timestamp) {
-        Calendar zeit = new GregorianCalendar();
-        zeit.setTimeInMillis(timestamp);
-        String timestampStr = (zeit.get(Calendar.HOUR_OF_DAY) < 10 ? "0" + zeit.get(Calendar.HOUR_OF_DAY)
-                : zeit.get(Calendar.HOUR_OF_DAY)) + ":"
-                + (zeit.get(Calendar.MINUTE) < 10 ? "0" + zeit.get(Calendar.MINUTE) : zeit.get(Calendar.MINUTE)) + ":"
-                + (zeit.get(Calendar.SECOND) < 10 ? "0" + zeit.get(Calendar.SECOND) : zeit.get(Calendar.SECOND)) + "."
-                + (zeit.get(Calendar.MILLISECOND) < 10 ? "00" + zeit.get(Calendar.MILLISECOND)
-                        : (zeit.get(Calendar.MILLISECOND) < 100 ? "0" + zeit.get(Calendar.MILLISECOND)
-                                : zeit.get(Calendar.MILLISECOND)));
-        return timestampStr;
+        return ZEITFORMAT.format(LocalTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Liefert die Protokollschichten (Index in PROTOKOLL_SCHICHTEN), fuer die zu einem Frame eine Zeile erzeugt wird.
+     * Die Zeilen selbst werden dafuer nicht aufbereitet.
+     * 
+     * @return die Schichten in aufsteigender Reihenfolge; ein leeres Array, wenn der Frame nicht (mehr) gespeichert ist
+     */
+    public int[] getSchichten(String interfaceId, long nummer) {
+        Mitschnitt mitschnitt = datenEinheiten.get(interfaceId);
+        Mitschnitt.Eintrag eintrag = mitschnitt != null ? mitschnitt.holen(nummer) : null;
+        if (eintrag == null) {
+            return new int[0];
+        }
+        return schichten(eintrag.frame);
+    }
+
+    static int[] schichten(EthernetFrame frame) {
+        if (frame.getTyp().equals(EthernetFrame.IP) && !(frame.getDaten() instanceof IcmpPaket)) {
+            IpPaket ipPaket = (IpPaket) frame.getDaten();
+            String payload = null;
+            if (ipPaket.getProtocol() == IpPaket.TCP) {
+                payload = ((TcpSegment) ipPaket.getSegment()).getDaten();
+            } else if (ipPaket.getProtocol() == IpPaket.UDP) {
+                payload = ((UdpSegment) ipPaket.getSegment()).getDaten();
+            }
+            if (payload != null && !payload.trim().equals("")) {
+                return new int[] { 0, 1, 2, 3 };
+            }
+            return new int[] { 0, 1, 2 };
+        } else if (frame.getTyp().equals(EthernetFrame.ARP)
+                || frame.getTyp().equals(EthernetFrame.IP) && frame.getDaten() instanceof IcmpPaket) {
+            return new int[] { 0, 1 };
+        }
+        return new int[] { 0 };
+    }
+
+    /**
+     * Bereitet die Zeile einer Protokollschicht fuer einen einzelnen Frame auf.
+     * 
+     * @param schicht
+     *            Index in PROTOKOLL_SCHICHTEN
+     * @return die Zeile oder null, wenn der Frame nicht (mehr) gespeichert ist oder keine Zeile fuer diese Schicht hat
+     */
+    public Object[] getZeile(String interfaceId, long nummer, int schicht, boolean inheritAddress) {
+        for (Object[] zeile : getDatenEinheit(interfaceId, nummer, inheritAddress)) {
+            if (PROTOKOLL_SCHICHTEN[schicht].equals(zeile[5])) {
+                return zeile;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Bereitet alle Zeilen eines einzelnen Frames auf.
+     * 
+     * @return die Zeilen; ein leeres Array, wenn der Frame nicht (mehr) gespeichert ist
+     */
+    public Object[][] getDatenEinheit(String interfaceId, long nummer, boolean inheritAddress) {
+        Mitschnitt mitschnitt = datenEinheiten.get(interfaceId);
+        Mitschnitt.Eintrag eintrag = mitschnitt != null ? mitschnitt.holen(nummer) : null;
+        if (eintrag == null) {
+            return new Object[0][SPALTEN.length];
+        }
+        List<Object[]> zeilen = new ArrayList<>(4);
+        zeilenErzeugen(eintrag, inheritAddress, zeilen);
+        return zeilen.toArray(new Object[zeilen.size()][]);
     }
 
     /**
@@ -251,189 +409,190 @@ public class Lauscher implements I18n {
      *            starts with 1
      * @return
      */
-    private Vector<Object[]> datenVorbereiten(String interfaceId, boolean inheritAddress, int offset) {
+    private Vector<Object[]> datenVorbereiten(String interfaceId, boolean inheritAddress, long offset) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + ", datenVorbereiten(" + interfaceId + ")");
         Vector<Object[]> daten;
-        LinkedList<Object[]> liste;
-        Object[] frameMitZeitstempel, neuerEintrag;
-        ListIterator<Object[]> it;
+        Mitschnitt mitschnitt;
+
+        mitschnitt = datenEinheiten.get(interfaceId);
+        if (mitschnitt == null) {
+            return null;
+        } else {
+            daten = new Vector<Object[]>();
+
+            for (Mitschnitt.Eintrag eintrag : mitschnitt.ab(offset)) {
+                zeilenErzeugen(eintrag, inheritAddress, daten);
+            }
+        }
+        return daten;
+    }
+
+    /**
+     * Erzeugt die Tabellenzeilen (eine je Protokollschicht) fuer einen Frame.
+     */
+    private void zeilenErzeugen(Mitschnitt.Eintrag eintrag, boolean inheritAddress, List<Object[]> daten) {
+        Object[] neuerEintrag;
         EthernetFrame frame;
         IpPaket ipPaket;
         IcmpPaket icmpPaket;
         ArpPaket arpPaket;
         TcpSegment tcpSeg = null;
         UdpSegment udpSeg = null;
+        long i = eintrag.nummer;
 
-        liste = datenEinheiten.get(interfaceId);
-        if (liste == null) {
-            return null;
-        } else {
-            daten = new Vector<Object[]>();
+        neuerEintrag = new Object[SPALTEN.length];
+        neuerEintrag[0] = "" + i;
+
+        String timestampStr = formatTimestamp(eintrag.zeitstempel);
+
+        neuerEintrag[1] = timestampStr;
+        frame = eintrag.frame;
+        neuerEintrag[2] = frame.getQuellMacAdresse();
+        neuerEintrag[3] = frame.getZielMacAdresse();
+        neuerEintrag[4] = ETHERNET;
+        neuerEintrag[5] = PROTOKOLL_SCHICHTEN[0];
+        neuerEintrag[6] = frame.getTyp();
+
+        daten.add(neuerEintrag);
+
+        neuerEintrag = new Object[SPALTEN.length];
+        neuerEintrag[0] = "" + i;
+
+        neuerEintrag[1] = timestampStr;
+
+        if (frame.getTyp().equals(EthernetFrame.IP) && !(frame.getDaten() instanceof IcmpPaket)) {
+            ipPaket = (IpPaket) frame.getDaten();
+            neuerEintrag[2] = ipPaket.getSender();
+            neuerEintrag[3] = ipPaket.getEmpfaenger();
+            neuerEintrag[4] = IP;
+            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
+            neuerEintrag[6] = messages.getString("rp_lauscher_msg12") + ": " + ipPaket.getProtocol()
+                    + ", TTL: " + ipPaket.getTtl();
+            daten.add(neuerEintrag);
 
-            synchronized (liste) {
-                it = liste.listIterator();
-                for (int i = 1; it.hasNext(); i++) {
-                    frameMitZeitstempel = (Object[]) it.next();
-                    if (i < offset) {
-                        continue;
-                    }
-                    neuerEintrag = new Object[SPALTEN.length];
-                    neuerEintrag[0] = "" + i;
-
-                    String timestampStr = formatTimestamp((Long) frameMitZeitstempel[0]);
-
-                    neuerEintrag[1] = timestampStr;
-                    frame = (EthernetFrame) frameMitZeitstempel[1];
-                    neuerEintrag[2] = frame.getQuellMacAdresse();
-                    neuerEintrag[3] = frame.getZielMacAdresse();
-                    neuerEintrag[4] = ETHERNET;
-                    neuerEintrag[5] = PROTOKOLL_SCHICHTEN[0];
-                    neuerEintrag[6] = frame.getTyp();
-
-                    daten.addElement(neuerEintrag);
-
-                    neuerEintrag = new Object[SPALTEN.length];
-                    neuerEintrag[0] = "" + i;
-
-                    neuerEintrag[1] = timestampStr;
-
-                    if (frame.getTyp().equals(EthernetFrame.IP) && !(frame.getDaten() instanceof IcmpPaket)) {
-                        ipPaket = (IpPaket) frame.getDaten();
-                        neuerEintrag[2] = ipPaket.getSender();
-                        neuerEintrag[3] = ipPaket.getEmpfaenger();
-                        neuerEintrag[4] = IP;
-                        neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
-                        neuerEintrag[6] = messages.getString("rp_lauscher_msg12") + ": " + ipPaket.getProtocol()
-                                + ", TTL: " + ipPaket.getTtl();
-                        daten.addElement(neuerEintrag);
-
-                        neuerEintrag = new Object[SPALTEN.length];
-                        neuerEintrag[0] = "" + i;
-
-                        neuerEintrag[1] = timestampStr;
-
-                        String source = null;
-                        String dest = null;
-
-                        if (ipPaket.getProtocol() == IpPaket.TCP) {
-                            tcpSeg = (TcpSegment) ipPaket.getSegment();
-
-                            if (inheritAddress) {
-                                source = ipPaket.getSender() + ":" + tcpSeg.getQuellPort();
-                                neuerEintrag[2] = source;
-                                dest = ipPaket.getEmpfaenger() + ":" + tcpSeg.getZielPort();
-                                neuerEintrag[3] = dest;
-                            } else {
-                                neuerEintrag[2] = tcpSeg.getQuellPort();
-                                neuerEintrag[3] = tcpSeg.getZielPort();
-                            }
-                            neuerEintrag[4] = TCP;
-                            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[2];
-                            if (tcpSeg.isSyn()) {
-                                neuerEintrag[6] = "SYN";
-                            } else if (tcpSeg.isFin()) {
-                                neuerEintrag[6] = "FIN";
-                            }
-                            neuerEintrag[6] = ((neuerEintrag[6] == null) ? "" : neuerEintrag[6] + ", ") + "SEQ: "
-                                    + numberFormatter.format(tcpSeg.getSeqNummer());
-                            if (tcpSeg.isAck()) {
-                                neuerEintrag[6] = neuerEintrag[6] + ", ACK: "
-                                        + numberFormatter.format(tcpSeg.getAckNummer());
-                            }
-                        } else if (ipPaket.getProtocol() == IpPaket.UDP) {
-                            udpSeg = (UdpSegment) ipPaket.getSegment();
-                            if (inheritAddress) {
-                                source = ipPaket.getSender() + ":" + udpSeg.getQuellPort();
-                                neuerEintrag[2] = source;
-                                dest = ipPaket.getEmpfaenger() + ":" + udpSeg.getZielPort();
-                                neuerEintrag[3] = dest;
-                            } else {
-                                neuerEintrag[2] = udpSeg.getQuellPort();
-                                neuerEintrag[3] = udpSeg.getZielPort();
-                            }
-                            neuerEintrag[4] = UDP;
-                            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[2];
-                            neuerEintrag[6] = "";
-                        } else {
-                            LOG.error("ERROR (" + this.hashCode() + "): Protokoll der Transportschicht ("
-                                    + ipPaket.getProtocol() + ") nicht bekannt.");
-                        }
-                        daten.addElement(neuerEintrag);
-
-                        neuerEintrag = new Object[SPALTEN.length];
-                        neuerEintrag[0] = "" + i;
-
-                        neuerEintrag[1] = timestampStr;
-                        neuerEintrag[2] = source;
-                        neuerEintrag[3] = dest;
-                        neuerEintrag[5] = PROTOKOLL_SCHICHTEN[3];
-                        if (ipPaket.getProtocol() == IpPaket.TCP) {
-                            neuerEintrag[6] = tcpSeg.getDaten();
-                        } else if (ipPaket.getProtocol() == IpPaket.UDP) {
-                            neuerEintrag[6] = udpSeg.getDaten();
-                        }
-                        String payload = (String) neuerEintrag[6];
-                        if (payload != null && !payload.trim().equals("")) {
-                            neuerEintrag[4] = classifyApplicationLayerProtocol(payload, ipPaket.getProtocol(),
-                                    ipPaket.getSegment().getQuellPort(), ipPaket.getSegment().getZielPort());
-                            daten.addElement(neuerEintrag);
-                        }
-                    } else if (frame.getTyp().equals(EthernetFrame.ARP)) {
-                        arpPaket = (ArpPaket) frame.getDaten();
-                        neuerEintrag[2] = arpPaket.getSenderIP();
-                        neuerEintrag[3] = arpPaket.getTargetIP();
-                        neuerEintrag[4] = ARP;
-                        neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
-                        if (arpPaket.getOperation() == ArpPaket.REQUEST) {
-                            neuerEintrag[6] = messages.getString("rp_lauscher_msg13") + " " + arpPaket.getTargetIP();
-                        } else {
-                            neuerEintrag[6] = messages.getString("rp_lauscher_msg14") + " " + arpPaket.getSenderMAC();
-                        }
-                        neuerEintrag[6] += " " + arpPaket.toString();
-                        daten.addElement(neuerEintrag);
-                    } else if (frame.getTyp().equals(EthernetFrame.IP) && frame.getDaten() instanceof IcmpPaket) {
-                        icmpPaket = (IcmpPaket) frame.getDaten();
-                        neuerEintrag[2] = icmpPaket.getSender();
-                        neuerEintrag[3] = icmpPaket.getEmpfaenger();
-                        neuerEintrag[4] = ICMP;
-                        neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
-                        switch (icmpPaket.getIcmpType()) {
-                        case 0:
-                            neuerEintrag[6] = "ICMP Echo Reply (pong)";
-                            break;
-                        case 3:
-                            switch (icmpPaket.getIcmpCode()) {
-                            case 0:
-                                neuerEintrag[6] = "ICMP Network Unreachable";
-                                break;
-                            case 1:
-                                neuerEintrag[6] = "ICMP Host Unreachable";
-                                break;
-                            default:
-                                neuerEintrag[6] = "ICMP Destination Unreachable (code " + icmpPaket.getIcmpCode() + ")";
-                                break;
-                            }
-                            break;
-                        case 8:
-                            neuerEintrag[6] = "ICMP Echo Request (ping)";
-                            break;
-                        case 11:
-                            neuerEintrag[6] = "ICMP Time Exeeded (poof)";
-                            break;
-                        default:
-                            neuerEintrag[6] = "ICMP unknown: " + icmpPaket.getIcmpType() + " / "
-                                    + icmpPaket.getIcmpCode();
-                            break;
-                        }
-                        neuerEintrag[6] = neuerEintrag[6] + ", TTL: " + icmpPaket.getTtl() + ", Seq.-No.: "
-                                + icmpPaket.getSeqNr();
-
-                        daten.addElement(neuerEintrag);
-                    }
+            neuerEintrag = new Object[SPALTEN.length];
+            neuerEintrag[0] = "" + i;
+
+            neuerEintrag[1] = timestampStr;
+
+            String source = null;
+            String dest = null;
+
+            if (ipPaket.getProtocol() == IpPaket.TCP) {
+                tcpSeg = (TcpSegment) ipPaket.getSegment();
+
+                if (inheritAddress) {
+                    source = ipPaket.getSender() + ":" + tcpSeg.getQuellPort();
+                    neuerEintrag[2] = source;
+                    dest = ipPaket.getEmpfaenger() + ":" + tcpSeg.getZielPort();
+                    neuerEintrag[3] = dest;
+                } else {
+                    neuerEintrag[2] = tcpSeg.getQuellPort();
+                    neuerEintrag[3] = tcpSeg.getZielPort();
+                }
+                neuerEintrag[4] = TCP;
+                neuerEintrag[5] = PROTOKOLL_SCHICHTEN[2];
+                if (tcpSeg.isSyn()) {
+                    neuerEintrag[6] = "SYN";
+                } else if (tcpSeg.isFin()) {
+                    neuerEintrag[6] = "FIN";
+                }
+                neuerEintrag[6] = ((neuerEintrag[6] == null) ? "" : neuerEintrag[6] + ", ") + "SEQ: "
+                        + numberFormatter.format(tcpSeg.getSeqNummer());
+                if (tcpSeg.isAck()) {
+                    neuerEintrag[6] = neuerEintrag[6] + ", ACK: "
+                            + numberFormatter.format(tcpSeg.getAckNummer());
+                }
+            } else if (ipPaket.getProtocol() == IpPaket.UDP) {
+                udpSeg = (UdpSegment) ipPaket.getSegment();
+                if (inheritAddress) {
+                    source = ipPaket.getSender() + ":" + udpSeg.getQuellPort();
+                    neuerEintrag[2] = source;
+                    dest = ipPaket.getEmpfaenger() + ":" + udpSeg.getZielPort();
+                    neuerEintrag[3] = dest;
+                } else {
+                    neuerEintrag[2] = udpSeg.getQuellPort();
+                    neuerEintrag[3] = udpSeg.getZielPort();
                 }
+                neuerEintrag[4] = UDP;
+                neuerEintrag[5] = PROTOKOLL_SCHICHTEN[2];
+                neuerEintrag[6] = "";
+            } else {
+                LOG.error("ERROR (" + this.hashCode() + "): Protokoll der Transportschicht ("
+                        + ipPaket.getProtocol() + ") nicht bekannt.");
             }
+            daten.add(neuerEintrag);
+
+            neuerEintrag = new Object[SPALTEN.length];
+            neuerEintrag[0] = "" + i;
+
+            neuerEintrag[1] = timestampStr;
+            neuerEintrag[2] = source;
+            neuerEintrag[3] = dest;
+            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[3];
+            if (ipPaket.getProtocol() == IpPaket.TCP) {
+                neuerEintrag[6] = tcpSeg.getDaten();
+            } else if (ipPaket.getProtocol() == IpPaket.UDP) {
+                neuerEintrag[6] = udpSeg.getDaten();
+            }
+            String payload = (String) neuerEintrag[6];
+            if (payload != null && !payload.trim().equals("")) {
+                neuerEintrag[4] = classifyApplicationLayerProtocol(payload, ipPaket.getProtocol(),
+                        ipPaket.getSegment().getQuellPort(), ipPaket.getSegment().getZielPort());
+                daten.add(neuerEintrag);
+            }
+        } else if (frame.getTyp().equals(EthernetFrame.ARP)) {
+            arpPaket = (ArpPaket) frame.getDaten();
+            neuerEintrag[2] = arpPaket.getSenderIP();
+            neuerEintrag[3] = arpPaket.getTargetIP();
+            neuerEintrag[4] = ARP;
+            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
+            if (arpPaket.getOperation() == ArpPaket.REQUEST) {
+                neuerEintrag[6] = messages.getString("rp_lauscher_msg13") + " " + arpPaket.getTargetIP();
+            } else {
+                neuerEintrag[6] = messages.getString("rp_lauscher_msg14") + " " + arpPaket.getSenderMAC();
+            }
+            neuerEintrag[6] += " " + arpPaket.toString();
+            daten.add(neuerEintrag);
+        } else if (frame.getTyp().equals(EthernetFrame.IP) && frame.getDaten() instanceof IcmpPaket) {
+            icmpPaket = (IcmpPaket) frame.getDaten();
+            neuerEintrag[2] = icmpPaket.getSender();
+            neuerEintrag[3] = icmpPaket.getEmpfaenger();
+            neuerEintrag[4] = ICMP;
+            neuerEintrag[5] = PROTOKOLL_SCHICHTEN[1];
+            switch (icmpPaket.getIcmpType()) {
+            case 0:
+                neuerEintrag[6] = "ICMP Echo Reply (pong)";
+                break;
+            case 3:
+                switch (icmpPaket.getIcmpCode()) {
+                case 0:
+                    neuerEintrag[6] = "ICMP Network Unreachable";
+                    break;
+                case 1:
+                    neuerEintrag[6] = "ICMP Host Unreachable";
+                    break;
+                default:
+                    neuerEintrag[6] = "ICMP Destination Unreachable (code " + icmpPaket.getIcmpCode() + ")";
+                    break;
+                }
+                break;
+            case 8:
+                neuerEintrag[6] = "ICMP Echo Request (ping)";
+                break;
+            case 11:
+                neuerEintrag[6] = "ICMP Time Exeeded (poof)";
+                break;
+            default:
+                neuerEintrag[6] = "ICMP unknown: " + icmpPaket.getIcmpType() + " / "
+                        + icmpPaket.getIcmpCode();
+                break;
+            }
+            neuerEintrag[6] = neuerEintrag[6] + ", TTL: " + icmpPaket.getTtl() + ", Seq.-No.: "
+                    + icmpPaket.getSeqNr();
+
+            daten.add(neuerEintrag);
         }
-        return daten;
     }
 
     private String classifyApplicationLayerProtocol(String payload, int transport, int sourcePort, int destPort) {
@@ -480,13 +639,13 @@ public class Lauscher implements I18n {
 
     public List<String> getDroppedDataUnits() {
         List<String> list = new ArrayList<>();
-        for (Object[] droppedDataUnit : droppedDataUnits) {
-            list.add(String.format("%s : %s", formatTimestamp((Long) droppedDataUnit[0]), droppedDataUnit[1]));
+        for (Mitschnitt.Eintrag droppedDataUnit : droppedDataUnits.ab(0)) {
+            list.add(String.format("%s : %s", formatTimestamp(droppedDataUnit.zeitstempel), droppedDataUnit.frame));
         }
         return list;
     }
 
     public void resetDroppedDataUnits() {
-        droppedDataUnits.clear();
+        droppedDataUnits.leeren();
     }
 }
@@ -0,0 +1,158 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.nachrichten;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+
+/**
+ * Ringpuffer fuer die mitgeschnittenen Frames eines Netzwerkinterfaces. Jeder Frame erhaelt beim Hinzufuegen eine
+ * fortlaufende Nummer (beginnend mit 1), die sich nicht mehr aendert - auch nicht, wenn aeltere Frames wegen der
+ * begrenzten Kapazitaet verworfen oder der Mitschnitt geleert wird. Gespeichert werden nur Zeitstempel und Referenz
+ * auf den (unveraenderlichen) Frame in zwei Arrays; die Nummer ergibt sich aus der Position. Die Arrays wachsen erst
+ * bei Bedarf bis zur Kapazitaet.
+ */
+class Mitschnitt {
+
+    static class Eintrag {
+        final long nummer;
+        final long zeitstempel;
+        final EthernetFrame frame;
+
+        Eintrag(long nummer, long zeitstempel, EthernetFrame frame) {
+            this.nummer = nummer;
+            this.zeitstempel = zeitstempel;
+            this.frame = frame;
+        }
+    }
+
+    private static final int ANFANGSGROESSE = 16;
+
+    private final int kapazitaet;
+    private long[] zeitstempel;
+    private EthernetFrame[] frames;
+    /** Index des aeltesten Eintrags */
+    private int kopf;
+    private int anzahl;
+    /** Nummer, die der naechste Frame erhaelt */
+    private long naechsteNummer = 1;
+
+    Mitschnitt(int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazitaet muss positiv sein: " + kapazitaet);
+        }
+        this.kapazitaet = kapazitaet;
+        anlegen();
+    }
+
+    private void anlegen() {
+        int groesse = Math.min(ANFANGSGROESSE, kapazitaet);
+        zeitstempel = new long[groesse];
+        frames = new EthernetFrame[groesse];
+        kopf = 0;
+        anzahl = 0;
+    }
+
+    /**
+     * @return die Nummer des hinzugefuegten Frames
+     */
+    synchronized long hinzufuegen(long zeit, EthernetFrame frame) {
+        if (anzahl == frames.length && frames.length < kapazitaet) {
+            int groesse = (int) Math.min((long) frames.length * 2, kapazitaet);
+            long[] neueZeitstempel = new long[groesse];
+            EthernetFrame[] neueFrames = new EthernetFrame[groesse];
+            for (int i = 0; i < anzahl; i++) {
+                neueZeitstempel[i] = zeitstempel[(kopf + i) % frames.length];
+                neueFrames[i] = frames[(kopf + i) % frames.length];
+            }
+            zeitstempel = neueZeitstempel;
+            frames = neueFrames;
+            kopf = 0;
+        }
+        int index;
+        if (anzahl < frames.length) {
+            index = (kopf + anzahl) % frames.length;
+            anzahl++;
+        } else {
+            index = kopf;
+            kopf = (kopf + 1) % frames.length;
+        }
+        zeitstempel[index] = zeit;
+        frames[index] = frame;
+        return naechsteNummer++;
+    }
+
+    /** Nummer des aeltesten noch gespeicherten Frames; bei leerem Mitschnitt die Nummer des naechsten Frames. */
+    synchronized long ersteNummer() {
+        return naechsteNummer - anzahl;
+    }
+
+    /** Nummer des zuletzt hinzugefuegten Frames; 0, wenn noch kein Frame mitgeschnitten wurde. */
+    synchronized long letzteNummer() {
+        return naechsteNummer - 1;
+    }
+
+    synchronized int anzahl() {
+        return anzahl;
+    }
+
+    int kapazitaet() {
+        return kapazitaet;
+    }
+
+    /**
+     * @return der Eintrag mit der angegebenen Nummer oder null, wenn er nicht (mehr) gespeichert ist
+     */
+    synchronized Eintrag holen(long nummer) {
+        long erste = naechsteNummer - anzahl;
+        if (nummer < erste || nummer >= naechsteNummer) {
+            return null;
+        }
+        int index = (int) ((kopf + (nummer - erste)) % frames.length);
+        return new Eintrag(nummer, zeitstempel[index], frames[index]);
+    }
+
+    /**
+     * @return alle gespeicherten Eintraege ab der angegebenen Nummer (einschliesslich)
+     */
+    synchronized List<Eintrag> ab(long nummer) {
+        long erste = naechsteNummer - anzahl;
+        int start = (int) Math.max(0, Math.min(anzahl, nummer - erste));
+        List<Eintrag> liste = new ArrayList<>(anzahl - start);
+        for (int i = start; i < anzahl; i++) {
+            int index = (kopf + i) % frames.length;
+            liste.add(new Eintrag(erste + i, zeitstempel[index], frames[index]));
+        }
+        return liste;
+    }
+
+    /** Verwirft alle gespeicherten Frames. Die Nummerierung wird fortgesetzt. */
+    synchronized void leeren() {
+        anlegen();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.nachrichten;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.rahmenprogramm.Information;
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
+import filius.software.netzzugangsschicht.EthernetFrame;
+
+/**
+ * Schreibt mitgeschnittene Frames waehrend der Simulation fortlaufend in eine pcapng-Datei. Die Frames werden von den
+ * sendenden Threads nur in eine Warteschlange begrenzter Groesse gestellt; Kodierung und Schreiben uebernimmt ein
+ * eigener Thread. Ist die Warteschlange voll oder wird der Export gerade beendet, wird der Frame nicht exportiert,
+ * sondern nur gezaehlt. Die Anzahl wird beim Beenden je Schnittstelle als Statistik in die Datei geschrieben.
+ */
+class PcapngExport {
+    private static Logger LOG = LoggerFactory.getLogger(PcapngExport.class);
+
+    static final int MAX_WARTENDE_FRAMES = 10000;
+
+    private static final long WARTEZEIT_MILLIS = 200;
+
+    private static class Aufzeichnung {
+        private final String schnittstelle;
+        private final long zeit;
+        private final EthernetFrame frame;
+
+        private Aufzeichnung(String schnittstelle, long zeit, EthernetFrame frame) {
+            this.schnittstelle = schnittstelle;
+            this.zeit = zeit;
+            this.frame = frame;
+        }
+    }
+
+    private final File datei;
+    private final PcapngSchreiber schreiber;
+    private final BlockingQueue<Aufzeichnung> warteschlange;
+    private final Map<String, AtomicLong> verworfen = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean aktiv = true;
+
+    PcapngExport(File datei) throws IOException {
+        this(datei, MAX_WARTENDE_FRAMES);
+    }
+
+    PcapngExport(File datei, int maxWartende) throws IOException {
+        this.datei = datei;
+        this.warteschlange = new ArrayBlockingQueue<>(maxWartende);
+        this.schreiber = new PcapngSchreiber(new BufferedOutputStream(new FileOutputStream(datei)),
+                "Filius " + Information.getVersion());
+        thread = ThreadFabrik.getThreadFabrik().neuerThread(this::schreiben, "pcapng-Export");
+        thread.setDaemon(true);
+        thread.start();
+        LOG.info("Export captured frames to {}", datei.getAbsolutePath());
+    }
+
+    File getDatei() {
+        return datei;
+    }
+
+    void hinzufuegen(String schnittstelle, long zeit, EthernetFrame frame) {
+        if (!aktiv || !warteschlange.offer(new Aufzeichnung(schnittstelle, zeit, frame))) {
+            verwerfen(schnittstelle);
+        }
+    }
+
+    private void verwerfen(String schnittstelle) {
+        verworfen.computeIfAbsent(schnittstelle, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    /** Anzahl der Frames der Schnittstelle, die nicht exportiert wurden */
+    long anzahlVerworfen(String schnittstelle) {
+        AtomicLong anzahl = verworfen.get(schnittstelle);
+        return anzahl != null ? anzahl.get() : 0;
+    }
+
+    private void schreiben() {
+        try {
+            while (aktiv || !warteschlange.isEmpty()) {
+                Aufzeichnung aufzeichnung = warteschlange.poll(WARTEZEIT_MILLIS, TimeUnit.MILLISECONDS);
+                if (aufzeichnung != null) {
+                    schreiber.paket(aufzeichnung.schnittstelle, aufzeichnung.zeit,
+                            Rahmenkodierung.kodieren(aufzeichnung.frame));
+                }
+                if (warteschlange.isEmpty()) {
+                    schreiber.flush();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Export to " + datei + " failed", e);
+            aktiv = false;
+        } catch (InterruptedException e) {
+            LOG.debug("Export to {} interrupted", datei);
+            aktiv = false;
+        }
+    }
+
+    /** Schreibt die noch wartenden Frames und die Statistik der verworfenen Frames und schliesst die Datei. */
+    void beenden() {
+        aktiv = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Frames, die noch eingestellt wurden, nachdem der Thread die Warteschlange geleert hat
+        for (Aufzeichnung rest = warteschlange.poll(); rest != null; rest = warteschlange.poll()) {
+            verwerfen(rest.schnittstelle);
+        }
+        try {
+            long zeit = SimulationClock.getSimulationClock().jetzt();
+            for (Map.Entry<String, AtomicLong> eintrag : verworfen.entrySet()) {
+                schreiber.verworfen(eintrag.getKey(), zeit, eintrag.getValue().get());
+            }
+            schreiber.close();
+        } catch (IOException e) {
+            LOG.error("Closing " + datei + " failed", e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.nachrichten;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Schreibt Frames im pcapng-Format (https://www.ietf.org/archive/id/draft-ietf-opsawg-pcapng-02.html) in einen
+ * Datenstrom, so dass sie z. B. mit Wireshark betrachtet werden koennen. Der Section Header Block wird beim Erzeugen
+ * geschrieben, fuer jede Schnittstelle beim ersten Frame ein Interface Description Block und fuer jeden Frame ein
+ * Enhanced Packet Block. Zeitstempel werden in Millisekunden gespeichert.
+ */
+public class PcapngSchreiber implements Closeable {
+
+    static final int SECTION_HEADER_BLOCK = 0x0A0D0D0A;
+    static final int INTERFACE_DESCRIPTION_BLOCK = 1;
+    static final int INTERFACE_STATISTICS_BLOCK = 5;
+    static final int ENHANCED_PACKET_BLOCK = 6;
+    static final int BYTE_ORDER_MAGIC = 0x1A2B3C4D;
+    static final int LINKTYPE_ETHERNET = 1;
+
+    private static final int OPT_ENDOFOPT = 0, SHB_USERAPPL = 4, IF_NAME = 2, IF_TSRESOL = 9, ISB_IFDROP = 5;
+
+    private final OutputStream out;
+    private final Map<String, Integer> schnittstellen = new HashMap<>();
+
+    public PcapngSchreiber(OutputStream out, String anwendung) throws IOException {
+        this.out = out;
+        byte[] userappl = anwendung.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer block = block(SECTION_HEADER_BLOCK, 16 + optionLaenge(userappl.length) + 4);
+        block.putInt(BYTE_ORDER_MAGIC);
+        block.putShort((short) 1);
+        block.putShort((short) 0);
+        block.putLong(-1);
+        option(block, SHB_USERAPPL, userappl);
+        option(block, OPT_ENDOFOPT, new byte[0]);
+        schreibe(block);
+    }
+
+    /** @return die Nummer der Schnittstelle in dieser Datei; beim ersten Aufruf wird sie beschrieben */
+    int schnittstelle(String name) throws IOException {
+        Integer nummer = schnittstellen.get(name);
+        if (nummer == null) {
+            nummer = schnittstellen.size();
+            byte[] ifName = name.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer block = block(INTERFACE_DESCRIPTION_BLOCK,
+                    8 + optionLaenge(ifName.length) + optionLaenge(1) + 4);
+            block.putShort((short) LINKTYPE_ETHERNET);
+            block.putShort((short) 0);
+            block.putInt(0);
+            option(block, IF_NAME, ifName);
+            option(block, IF_TSRESOL, new byte[] { 3 });
+            option(block, OPT_ENDOFOPT, new byte[0]);
+            schreibe(block);
+            schnittstellen.put(name, nummer);
+        }
+        return nummer;
+    }
+
+    public void paket(String schnittstelle, long zeitMillis, byte[] daten) throws IOException {
+        int nummer = schnittstelle(schnittstelle);
+        ByteBuffer block = block(ENHANCED_PACKET_BLOCK, 20 + aufgefuellt(daten.length));
+        block.putInt(nummer);
+        block.putInt((int) (zeitMillis >>> 32));
+        block.putInt((int) zeitMillis);
+        block.putInt(daten.length);
+        block.putInt(daten.length);
+        block.put(daten);
+        schreibe(block);
+    }
+
+    /** Schreibt die Anzahl der Frames, die fuer diese Schnittstelle nicht in die Datei geschrieben wurden. */
+    public void verworfen(String schnittstelle, long zeitMillis, long anzahl) throws IOException {
+        int nummer = schnittstelle(schnittstelle);
+        ByteBuffer block = block(INTERFACE_STATISTICS_BLOCK, 12 + optionLaenge(8) + 4);
+        block.putInt(nummer);
+        block.putInt((int) (zeitMillis >>> 32));
+        block.putInt((int) zeitMillis);
+        option(block, ISB_IFDROP, ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(anzahl).array());
+        option(block, OPT_ENDOFOPT, new byte[0]);
+        schreibe(block);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private static int aufgefuellt(int laenge) {
+        return (laenge + 3) & ~3;
+    }
+
+    private static int optionLaenge(int laenge) {
+        return 4 + aufgefuellt(laenge);
+    }
+
+    /** Block mit Typ und Laenge am Anfang; die Laenge des Inhalts wird um Kopf und Ende (je 4 Byte) ergaenzt. */
+    private static ByteBuffer block(int typ, int inhalt) {
+        int laenge = 8 + inhalt + 4;
+        ByteBuffer block = ByteBuffer.allocate(laenge).order(ByteOrder.LITTLE_ENDIAN);
+        block.putInt(typ);
+        block.putInt(laenge);
+        return block;
+    }
+
+    private static void option(ByteBuffer block, int code, byte[] wert) {
+        block.putShort((short) code);
+        block.putShort((short) wert.length);
+        block.put(wert);
+        block.position(block.position() + aufgefuellt(wert.length) - wert.length);
+    }
+
+    private void schreibe(ByteBuffer block) throws IOException {
+        block.putInt(block.capacity() - 4, block.capacity());
+        out.write(block.array());
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.rahmenprogramm.nachrichten;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.Segment;
+import filius.software.transportschicht.TcpSegment;
+import filius.software.transportschicht.UdpSegment;
+import filius.software.vermittlungsschicht.ArpPaket;
+import filius.software.vermittlungsschicht.IcmpPaket;
+import filius.software.vermittlungsschicht.IpPaket;
+
+/**
+ * Erzeugt aus den Objekten der Simulation (EthernetFrame, IpPaket, ...) die Bytes, die ein realer Frame mit diesem
+ * Inhalt haette. Felder, die es in Filius nicht gibt (z. B. IP-Identifikation), werden mit 0 belegt; Pruefsummen
+ * werden berechnet. Die Nutzdaten der Segmente werden UTF-8-kodiert.
+ */
+public class Rahmenkodierung {
+
+    static final int ETHERTYPE_IP = 0x0800, ETHERTYPE_ARP = 0x0806;
+
+    /** Mindestlaenge eines Ethernet-Frames ohne Pruefsumme (FCS) */
+    private static final int MIN_FRAME_LAENGE = 60;
+
+    private Rahmenkodierung() {}
+
+    public static byte[] kodieren(EthernetFrame frame) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(MIN_FRAME_LAENGE);
+        out.writeBytes(macAdresse(frame.getZielMacAdresse()));
+        out.writeBytes(macAdresse(frame.getQuellMacAdresse()));
+
+        byte[] nutzdaten;
+        int ethertype;
+        if (frame.getDaten() instanceof ArpPaket) {
+            ethertype = ETHERTYPE_ARP;
+            nutzdaten = arp((ArpPaket) frame.getDaten());
+        } else if (frame.getDaten() instanceof IpPaket) {
+            ethertype = ETHERTYPE_IP;
+            nutzdaten = ip((IpPaket) frame.getDaten());
+        } else {
+            ethertype = EthernetFrame.ARP.equals(frame.getTyp()) ? ETHERTYPE_ARP : ETHERTYPE_IP;
+            nutzdaten = text(frame.getDaten());
+        }
+        schreibe16(out, ethertype);
+        out.writeBytes(nutzdaten);
+        while (out.size() < MIN_FRAME_LAENGE) {
+            out.write(0);
+        }
+        return out.toByteArray();
+    }
+
+    static byte[] arp(ArpPaket paket) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(28);
+        schreibe16(out, 1);
+        schreibe16(out, ETHERTYPE_IP);
+        out.write(6);
+        out.write(4);
+        schreibe16(out, paket.getOperation());
+        out.writeBytes(macAdresse(paket.getSenderMAC()));
+        out.writeBytes(ipAdresse(paket.getSenderIP()));
+        out.writeBytes(macAdresse(paket.getTargetMAC()));
+        out.writeBytes(ipAdresse(paket.getTargetIP()));
+        return out.toByteArray();
+    }
+
+    static byte[] ip(IpPaket paket) {
+        byte[] quelle = ipAdresse(paket.getSender());
+        byte[] ziel = ipAdresse(paket.getEmpfaenger());
+
+        byte[] transport;
+        if (paket instanceof IcmpPaket) {
+            transport = icmp((IcmpPaket) paket);
+        } else if (paket.getSegment() instanceof TcpSegment) {
+            transport = tcp((TcpSegment) paket.getSegment(), quelle, ziel);
+        } else if (paket.getSegment() instanceof UdpSegment) {
+            transport = udp((UdpSegment) paket.getSegment(), quelle, ziel);
+        } else {
+            transport = new byte[0];
+        }
+
+        byte[] kopf = new byte[20];
+        kopf[0] = 0x45;
+        setze16(kopf, 2, kopf.length + transport.length);
+        kopf[8] = (byte) Math.max(0, Math.min(255, paket.getTtl()));
+        kopf[9] = (byte) paket.getProtocol();
+        System.arraycopy(quelle, 0, kopf, 12, 4);
+        System.arraycopy(ziel, 0, kopf, 16, 4);
+        setze16(kopf, 10, pruefsumme(0, kopf, 0, kopf.length));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(kopf.length + transport.length);
+        out.writeBytes(kopf);
+        out.writeBytes(transport);
+        return out.toByteArray();
+    }
+
+    static byte[] icmp(IcmpPaket paket) {
+        byte[] icmp = new byte[8];
+        icmp[0] = (byte) paket.getIcmpType();
+        icmp[1] = (byte) paket.getIcmpCode();
+        setze16(icmp, 6, paket.getSeqNr());
+        setze16(icmp, 2, pruefsumme(0, icmp, 0, icmp.length));
+        return icmp;
+    }
+
+    static byte[] tcp(TcpSegment segment, byte[] quelle, byte[] ziel) {
+        byte[] nutzdaten = text(segment.getDaten());
+        byte[] tcp = new byte[20 + nutzdaten.length];
+        setze16(tcp, 0, segment.getQuellPort());
+        setze16(tcp, 2, segment.getZielPort());
+        setze32(tcp, 4, segment.getSeqNummer());
+        setze32(tcp, 8, segment.getAckNummer());
+        tcp[12] = 5 << 4;
+        int flags = 0;
+        flags |= segment.isFin() ? 0x01 : 0;
+        flags |= segment.isSyn() ? 0x02 : 0;
+        flags |= segment.isRst() ? 0x04 : 0;
+        flags |= segment.isPush() ? 0x08 : 0;
+        flags |= segment.isAck() ? 0x10 : 0;
+        flags |= segment.isUrg() ? 0x20 : 0;
+        tcp[13] = (byte) flags;
+        setze16(tcp, 14, segment.getWindow() > 0 ? segment.getWindow() : 0xFFFF);
+        setze16(tcp, 18, segment.getUrgentPointer());
+        System.arraycopy(nutzdaten, 0, tcp, 20, nutzdaten.length);
+        setze16(tcp, 16, pruefsumme(pseudoKopf(quelle, ziel, IpPaket.TCP, tcp.length), tcp, 0, tcp.length));
+        return tcp;
+    }
+
+    static byte[] udp(UdpSegment segment, byte[] quelle, byte[] ziel) {
+        byte[] nutzdaten = text(segment.getDaten());
+        byte[] udp = new byte[8 + nutzdaten.length];
+        setze16(udp, 0, segment.getQuellPort());
+        setze16(udp, 2, segment.getZielPort());
+        setze16(udp, 4, udp.length);
+        System.arraycopy(nutzdaten, 0, udp, 8, nutzdaten.length);
+        int summe = pruefsumme(pseudoKopf(quelle, ziel, IpPaket.UDP, udp.length), udp, 0, udp.length);
+        setze16(udp, 6, summe == 0 ? 0xFFFF : summe);
+        return udp;
+    }
+
+    private static byte[] text(Object daten) {
+        if (daten == null) {
+            return new byte[0];
+        } else if (daten instanceof Segment) {
+            return text(((Segment) daten).getDaten());
+        }
+        return daten.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /** Summe der 16-Bit-Woerter des Pseudo-Headers fuer TCP und UDP */
+    private static int pseudoKopf(byte[] quelle, byte[] ziel, int protokoll, int laenge) {
+        int summe = 0;
+        for (int i = 0; i < 4; i += 2) {
+            summe += ((quelle[i] & 0xFF) << 8) | (quelle[i + 1] & 0xFF);
+            summe += ((ziel[i] & 0xFF) << 8) | (ziel[i + 1] & 0xFF);
+        }
+        return summe + protokoll + laenge;
+    }
+
+    /** Internet-Pruefsumme (RFC 1071) ueber die Bytes, ausgehend von einer bereits gebildeten Teilsumme */
+    static int pruefsumme(int summe, byte[] daten, int start, int laenge) {
+        long s = summe & 0xFFFFFFFFL;
+        for (int i = start; i < start + laenge; i += 2) {
+            int wort = (daten[i] & 0xFF) << 8;
+            if (i + 1 < start + laenge) {
+                wort |= daten[i + 1] & 0xFF;
+            }
+            s += wort;
+        }
+        while ((s >> 16) != 0) {
+            s = (s & 0xFFFF) + (s >> 16);
+        }
+        return (int) (~s & 0xFFFF);
+    }
+
+    /** @return die 6 Bytes der MAC-Adresse; 0, wenn die Adresse nicht gelesen werden kann */
+    static byte[] macAdresse(String mac) {
+        byte[] bytes = new byte[6];
+        if (mac != null) {
+            String[] teile = mac.split("[:-]");
+            if (teile.length == 6) {
+                try {
+                    for (int i = 0; i < 6; i++) {
+                        bytes[i] = (byte) Integer.parseInt(teile[i], 16);
+                    }
+                } catch (NumberFormatException e) {
+                    return new byte[6];
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /** @return die 4 Bytes der IPv4-Adresse; 0, wenn die Adresse nicht gelesen werden kann */
+    static byte[] ipAdresse(String ip) {
+        byte[] bytes = new byte[4];
+        if (ip != null) {
+            String[] teile = ip.trim().split("\\.");
+            if (teile.length == 4) {
+                try {
+                    for (int i = 0; i < 4; i++) {
+                        bytes[i] = (byte) Integer.parseInt(teile[i]);
+                    }
+                } catch (NumberFormatException e) {
+                    return new byte[4];
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static void schreibe16(ByteArrayOutputStream out, int wert) {
+        out.write(wert >> 8);
+        out.write(wert);
+    }
+
+    private static void setze16(byte[] daten, int index, int wert) {
+        daten[index] = (byte) (wert >> 8);
+        daten[index + 1] = (byte) wert;
+    }
+
+    private static void setze32(byte[] daten, int index, long wert) {
+        daten[index] = (byte) (wert >> 24);
+        daten[index + 1] = (byte) (wert >> 16);
+        daten[index + 2] = (byte) (wert >> 8);
+        daten[index + 3] = (byte) wert;
+    }
+}
@@ -26,7 +26,6 @@
 package filius.software;
 
 import java.lang.reflect.Method;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.Observer;
 
@@ -44,7 +43,7 @@ import filius.software.system.InternetKnotenBetriebssystem;
  * @see java.util.Observable
  * @see filius.software.AnwendungObservable
  */
-public abstract class Anwendung extends Thread {
+public abstract class Anwendung implements Runnable {
     private static Logger LOG = LoggerFactory.getLogger(Anwendung.class);
 
     /** Bezeichnung fuer die Anwendung */
@@ -55,7 +54,10 @@ public abstract class Anwendung extends Thread {
      * erste Element ist ein String, der die aufzurufende Methode bestimmt. Das zweite Element ist ein Objekt-Array mit
      * den Parametern fuer den Methodenaufruf.
      */
-    private LinkedList<Object[]> kommandos = new LinkedList<Object[]>();
+    private Puffer<Object[]> kommandos = new Puffer<Object[]>();
+
+    /** der ausfuehrende Thread, der ueber die {@link ThreadFabrik} beim ersten Start erzeugt wird */
+    private volatile Thread thread;
 
     /**
      * Das Betriebssystem des Rechners/Vermittlungsrechner, auf dem die Anwendung ausgefuehrt wird.
@@ -98,6 +100,10 @@ public abstract class Anwendung extends Thread {
         observable.addObserver(beobachter);
     }
 
+    public void entferneBeobachter(Observer beobachter) {
+        observable.deleteObserver(beobachter);
+    }
+
     /** Methode zur Benachrichtigung der Beobachter. */
     public void benachrichtigeBeobachter(Object daten) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -119,13 +125,13 @@ public abstract class Anwendung extends Thread {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (Anwendung), starten()");
         running = true;
 
-        synchronized (kommandos) {
-            kommandos.clear();
-            benachrichtigeBeobachter();
-        }
-        if (getState().equals(State.NEW)) {
-            start();
+        kommandos.clear();
+        benachrichtigeBeobachter();
+        if (thread == null) {
+            thread = ThreadFabrik.getThreadFabrik().neuerThread(this, getClass().getSimpleName());
+            thread.start();
         } else {
+            kommandos.aufwecken();
             synchronized (this) {
                 notifyAll();
             }
@@ -140,13 +146,11 @@ public abstract class Anwendung extends Thread {
         running = false;
 
         if (kommandos != null) {
-            synchronized (kommandos) {
-                kommandos.clear();
-                kommandos.notifyAll();
-            }
+            kommandos.clear();
         }
-        synchronized (this) {
-            this.interrupt();
+        Thread aktuellerThread = thread;
+        if (aktuellerThread != null) {
+            aktuellerThread.interrupt();
         }
     }
 
@@ -170,15 +174,12 @@ public abstract class Anwendung extends Thread {
         aufruf[0] = methode;
         aufruf[1] = args;
 
-        synchronized (kommandos) {
-            kommandos.addLast(aufruf);
-            kommandos.notifyAll();
-        }
+        kommandos.add(aufruf);
     }
 
     /**
      * Hier wird der Puffer kommandos ueberwacht und wenn dort ein Methodenaufruf vorliegt wird diese Methode
-     * aufgerufen.
+     * aufgerufen. Solange die Anwendung nicht laeuft, werden eintreffende Methodenaufrufe verworfen.
      */
     public void run() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (Anwendung), run()");
@@ -190,58 +191,48 @@ public abstract class Anwendung extends Thread {
         Object[] aufruf;
 
         while (true) {
-            if (running) {
-                synchronized (kommandos) {
-                    if (kommandos.size() < 1) {
-                        try {
-                            kommandos.wait();
-                        } catch (InterruptedException e) {}
-                    }
-                }
-                if (kommandos.size() > 0) {
-                    aufruf = (Object[]) kommandos.removeFirst();
-
-                    methodenName = aufruf[0].toString();
-                    args = (Object[]) aufruf[1];
-
-                    if (args != null) {
-                        argumentKlassen = new Class[args.length];
-                        for (int i = 0; i < args.length; i++) {
-                            if (args[i] != null)
-                                argumentKlassen[i] = args[i].getClass();
-                        }
-                    } else {
-                        argumentKlassen = null;
-                    }
-                    klasse = getClass();
-                    // go upwards in inheritance hierarchy until the class was
-                    // found containing
-                    // the desired method, i.e., exceptions are rather harmless
-                    // here
-                    while (klasse != null) {
-                        try {
-                            method = klasse.getDeclaredMethod(methodenName, argumentKlassen);
-                            method.setAccessible(true);
-                            method.invoke(this, args);
-                            klasse = null;
-                        } catch (NoSuchMethodException e) {
-                            klasse = klasse.getSuperclass();
-                        } catch (Exception e) {
-                            LOG.debug("an unexpected error occurred during processing in application.", e);
-                            klasse = null;
-                        }
+            aufruf = kommandos.entnehmen();
+            if (running && aufruf != null) {
+                methodenName = aufruf[0].toString();
+                args = (Object[]) aufruf[1];
+
+                if (args != null) {
+                    argumentKlassen = new Class[args.length];
+                    for (int i = 0; i < args.length; i++) {
+                        if (args[i] != null)
+                            argumentKlassen[i] = args[i].getClass();
                     }
+                } else {
+                    argumentKlassen = null;
                 }
-            } else {
-                synchronized (this) {
+                klasse = getClass();
+                // go upwards in inheritance hierarchy until the class was
+                // found containing
+                // the desired method, i.e., exceptions are rather harmless
+                // here
+                while (klasse != null) {
                     try {
-                        wait();
-                    } catch (InterruptedException e) {}
+                        method = klasse.getDeclaredMethod(methodenName, argumentKlassen);
+                        method.setAccessible(true);
+                        method.invoke(this, args);
+                        klasse = null;
+                    } catch (NoSuchMethodException e) {
+                        klasse = klasse.getSuperclass();
+                    } catch (Exception e) {
+                        LOG.debug("an unexpected error occurred during processing in application.", e);
+                        klasse = null;
+                    }
                 }
             }
         }
     }
 
+    /** Die Kennung des ausfuehrenden Threads (z. B. fuer Log-Ausgaben) oder -1, solange die Anwendung nicht lief */
+    public long getId() {
+        Thread aktuellerThread = thread;
+        return aktuellerThread != null ? aktuellerThread.getId() : -1;
+    }
+
     /** Methode fuer den Zugriff auf den Anwendungsnamen */
     public String holeAnwendungsName() {
         return anwendungsName;
@@ -261,6 +252,14 @@ public abstract class Anwendung extends Thread {
         setzeAnwendungsName(anwendungsName);
     }
 
+    /*
+     * methods for downward compatibility: as long as Anwendung was derived from Thread, XMLEncoder stored the
+     * properties "name" and "priority" of the thread in saved scenarios. They are accepted and ignored when loading.
+     */
+    public void setName(String name) {}
+
+    public void setPriority(int priority) {}
+
     /**
      * Methode fuer den Zugriff auf das Betriebssystem, auf dem diese Anwendung laeuft.
      * 
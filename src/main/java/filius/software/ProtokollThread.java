@@ -25,26 +25,30 @@
  */
 package filius.software;
 
-import java.util.LinkedList;
+import java.lang.Thread.State;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Diese Klasse ist die Oberklasse von Protokoll-Threads. Die Aufgabe ist, den Puffer zu ueberwachen, und die
- * Verarbeitung der eingehenden Dateneinheiten zu starten.
+ * Verarbeitung der eingehenden Dateneinheiten zu starten. Der ausfuehrende Thread wird ueber die {@link ThreadFabrik}
+ * erzeugt.
  * 
  * @author stefan
  * 
  */
-public abstract class ProtokollThread<T> extends Thread {
+public abstract class ProtokollThread<T> implements Runnable {
     private static Logger LOG = LoggerFactory.getLogger(ProtokollThread.class);
 
     /** ob der Thread gerade am laufen ist */
     protected boolean running = false;
 
     /** der von dem Thread zu ueberwachende Puffer */
-    private LinkedList<T> puffer;
+    private Puffer<T> puffer;
+
+    /** der ausfuehrende Thread */
+    private volatile Thread thread;
 
     /**
      * Leerer Konstruktur, der nur dann genutzt werden darf, wenn von diesem Thread kein Puffer ueberwacht werden soll.
@@ -59,28 +63,23 @@ public abstract class ProtokollThread<T> extends Thread {
      * @param puffer
      *            der zu ueberwachende Puffer
      */
-    public ProtokollThread(LinkedList<T> puffer) {
+    public ProtokollThread(Puffer<T> puffer) {
         this.puffer = puffer;
     }
 
     /**
      * Diese Methode implementiert die Ueberwachung des Puffers in einem eigenen Thread. Solange sich keine Dateneinheit
      * in dem Puffer befindet, geht der Thread in den wartenden Zustand. Wenn eine Dateneinheit eintrifft, wird diese
-     * mit dem Aufruf der Methode verarbeiteDatenEinheit() zur weiteren Verarbeitung weitergegeben.
+     * aus dem Puffer entnommen und erst dann mit dem Aufruf der Methode verarbeiteDatenEinheit() zur weiteren
+     * Verarbeitung weitergegeben. Der Puffer ist waehrend der Verarbeitung also nicht gesperrt.
      */
     public void run() {
         LOG.debug(
                 "INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (ProtkollThread), run()");
         while (running) {
-            synchronized (puffer) {
-                if (puffer.size() < 1) {
-                    try {
-                        puffer.wait();
-                    } catch (InterruptedException e) {}
-                }
-                if (puffer.size() > 0) {
-                    verarbeiteDatenEinheit(puffer.removeFirst());
-                }
+            T datenEinheit = puffer.entnehmen();
+            if (datenEinheit != null) {
+                verarbeiteDatenEinheit(datenEinheit);
             }
         }
     }
@@ -93,8 +92,14 @@ public abstract class ProtokollThread<T> extends Thread {
      */
     protected abstract void verarbeiteDatenEinheit(T datenEinheit);
 
+    /** Die Kennung des ausfuehrenden Threads (z. B. fuer Log-Ausgaben) oder -1, solange keiner erzeugt wurde */
+    public long getId() {
+        Thread aktuellerThread = thread;
+        return aktuellerThread != null ? aktuellerThread.getId() : -1;
+    }
+
     /** Methode fuer den Zugriff auf den zu ueberwachenden Puffer */
-    protected LinkedList<T> holeEingangsPuffer() {
+    protected Puffer<T> holeEingangsPuffer() {
         return puffer;
     }
 
@@ -108,10 +113,11 @@ public abstract class ProtokollThread<T> extends Thread {
                 + " (ProtokollThread), starten()");
         if (!running) {
             running = true;
-            if (getState().equals(State.WAITING) || getState().equals(State.BLOCKED)) {
+            if (thread != null && !thread.getState().equals(State.TERMINATED)) {
                 // LOG.debug(getClass()+"\n\tProtokollThread: Thread laeuft bereits.");
             } else {
-                start();
+                thread = ThreadFabrik.getThreadFabrik().neuerThread(this, getClass().getSimpleName());
+                thread.start();
             }
         }
     }
@@ -124,10 +130,14 @@ public abstract class ProtokollThread<T> extends Thread {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (ProtokollThread), beenden()");
         running = false;
-        if (getState().equals(State.WAITING) || getState().equals(State.BLOCKED)) {
-            interrupt();
+        Thread aktuellerThread = thread;
+        if (aktuellerThread != null && (aktuellerThread.getState().equals(State.WAITING)
+                || aktuellerThread.getState().equals(State.BLOCKED))) {
+            aktuellerThread.interrupt();
         }
-        if (this.puffer != null)
+        if (this.puffer != null) {
             this.puffer.clear();
+            this.puffer.aufwecken();
+        }
     }
 }
\ No newline at end of file
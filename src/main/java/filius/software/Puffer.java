@@ -0,0 +1,120 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software;
+
+import java.io.Serializable;
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Puffer fuer die Uebergabe von Dateneinheiten zwischen den Schichten. Beliebig viele Threads koennen Dateneinheiten
+ * ohne Sperre einstellen. Genau ein Thread entnimmt sie mit {@link #entnehmen()} und wird geparkt, solange der Puffer
+ * leer ist. Weil die Dateneinheit vor der Verarbeitung entnommen wird, muessen Erzeuger nicht warten, bis der
+ * Verbraucher mit der vorherigen Dateneinheit fertig ist.
+ */
+public class Puffer<T> extends AbstractQueue<T> implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final ConcurrentLinkedQueue<T> elemente = new ConcurrentLinkedQueue<T>();
+
+    /** der Thread, der gerade in {@link #entnehmen()} auf eine Dateneinheit wartet */
+    private transient volatile Thread wartender;
+
+    /** Stellt eine Dateneinheit ein und weckt den wartenden Verbraucher. */
+    @Override
+    public boolean offer(T datenEinheit) {
+        elemente.offer(datenEinheit);
+        SimulationClock.aktivitaetMelden();
+        Thread verbraucher = wartender;
+        if (verbraucher != null) {
+            LockSupport.unpark(verbraucher);
+        }
+        return true;
+    }
+
+    /**
+     * Entnimmt die naechste Dateneinheit. Ist der Puffer leer, wird der aufrufende Thread geparkt, bis eine Dateneinheit
+     * eingestellt, {@link #aufwecken()} aufgerufen oder der Thread unterbrochen wird. In den beiden letzten Faellen wird
+     * null zurueckgegeben. Eine Unterbrechung wird dabei wie bei wait() verbraucht.
+     */
+    public T entnehmen() {
+        T datenEinheit = elemente.poll();
+        if (datenEinheit == null) {
+            wartender = Thread.currentThread();
+            datenEinheit = elemente.poll();
+            if (datenEinheit == null) {
+                LockSupport.park(this);
+                Thread.interrupted();
+                datenEinheit = elemente.poll();
+            }
+            wartender = null;
+        }
+        if (datenEinheit != null) {
+            SimulationClock.aktivitaetMelden();
+        }
+        return datenEinheit;
+    }
+
+    /** Weckt den in {@link #entnehmen()} wartenden Thread, z. B. beim Beenden des Verbrauchers. */
+    public void aufwecken() {
+        Thread verbraucher = wartender;
+        if (verbraucher != null) {
+            LockSupport.unpark(verbraucher);
+        }
+    }
+
+    @Override
+    public T poll() {
+        return elemente.poll();
+    }
+
+    @Override
+    public T peek() {
+        return elemente.peek();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return elemente.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return elemente.size();
+    }
+
+    @Override
+    public void clear() {
+        elemente.clear();
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return elemente.iterator();
+    }
+}
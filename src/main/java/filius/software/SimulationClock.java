@@ -0,0 +1,333 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Die gemeinsame Uhr der Simulation. Alle Zeitpunkte (Zeitstempel, Ablauf von Timeouts, Lease-Zeiten, Alter von
+ * Tabelleneintraegen) und alle zeitbegrenzten Wartevorgaenge der Protokolle werden ueber diese Uhr bestimmt, nicht
+ * ueber die Systemzeit. Die Uhr kennt drei Betriebsarten:
+ * <ul>
+ * <li>{@link Modus#ECHTZEIT}: die simulierte Zeit entspricht der Systemzeit (Standard)</li>
+ * <li>{@link Modus#SKALIERT}: die simulierte Zeit laeuft um einen festen Faktor schneller oder langsamer</li>
+ * <li>{@link Modus#SCHNELL}: die simulierte Zeit laeuft wie in Echtzeit, springt aber zum naechsten Termin, sobald fuer
+ * eine kurze Ruhezeit kein Thread mehr mit der Uhr gearbeitet hat. Lange Wartezeiten (z. B. das Intervall von RIP oder
+ * Lease-Zeiten von DHCP) vergehen so ohne reale Wartezeit.</li>
+ * </ul>
+ * 
+ * Die Ruhezeit im schnellen Modus ist eine Naeherung: ein Thread, der laenger als die Ruhezeit rechnet, ohne die Uhr zu
+ * verwenden, wird nicht erkannt. Wartende Threads werden dann etwas zu frueh geweckt, was fuer die Protokolle einem
+ * verspaeteten Paket entspricht.
+ */
+public class SimulationClock implements Runnable {
+    private static Logger LOG = LoggerFactory.getLogger(SimulationClock.class);
+
+    public enum Modus {
+        ECHTZEIT, SKALIERT, SCHNELL
+    }
+
+    /** reale Zeit ohne Aktivitaet, nach der im schnellen Modus zum naechsten Termin gesprungen wird */
+    public static final long STANDARD_RUHEZEIT_MILLIS = 50;
+
+    /**
+     * Wartezeiten ab dieser Laenge (z. B. Long.MAX_VALUE fuer "ohne Timeout") gelten als unbegrenzt. Sie sind kein Ziel
+     * fuer einen Sprung im schnellen Modus.
+     */
+    static final long UNBEGRENZT_MILLIS = 365L * 24 * 60 * 60 * 1000;
+
+    private static volatile SimulationClock uhr;
+
+    /**
+     * Ein Zeitpunkt, zu dem entweder ein wartender Thread geweckt (ueber den Monitor, auf dem er wartet) oder eine
+     * Aufgabe ausgefuehrt wird.
+     */
+    public static class Termin implements Comparable<Termin> {
+        private final long zeitpunkt;
+        private final long laufendeNummer;
+        private final Object monitor;
+        private final Runnable aufgabe;
+        private volatile boolean abgebrochen;
+
+        private Termin(long zeitpunkt, long laufendeNummer, Object monitor, Runnable aufgabe) {
+            this.zeitpunkt = zeitpunkt;
+            this.laufendeNummer = laufendeNummer;
+            this.monitor = monitor;
+            this.aufgabe = aufgabe;
+        }
+
+        public long getZeitpunkt() {
+            return zeitpunkt;
+        }
+
+        /** Eine geplante Aufgabe wird nicht mehr ausgefuehrt, wenn sie noch nicht begonnen hat. */
+        public void abbrechen() {
+            abgebrochen = true;
+        }
+
+        @Override
+        public int compareTo(Termin anderer) {
+            int ergebnis = Long.compare(zeitpunkt, anderer.zeitpunkt);
+            if (ergebnis == 0) {
+                ergebnis = Long.compare(laufendeNummer, anderer.laufendeNummer);
+            }
+            return ergebnis;
+        }
+    }
+
+    private final Object sperre = new Object();
+    private final PriorityQueue<Termin> termine = new PriorityQueue<>();
+    private long laufendeNummer = 0;
+    private Thread thread;
+
+    private volatile Modus modus = Modus.ECHTZEIT;
+    private volatile double faktor = 1;
+    private volatile long ruhezeitNanos = STANDARD_RUHEZEIT_MILLIS * 1000000;
+
+    /** simulierte Zeit und reale Zeit beim letzten Wechsel der Betriebsart */
+    private volatile long basisMillis = System.currentTimeMillis();
+    private volatile long basisNanos = System.nanoTime();
+    /** Summe der im schnellen Modus uebersprungenen Zeit seit dem letzten Wechsel der Betriebsart */
+    private volatile long sprung = 0;
+    private volatile long letzteAktivitaet = System.nanoTime();
+
+    SimulationClock() {}
+
+    public static synchronized SimulationClock getSimulationClock() {
+        if (uhr == null) {
+            uhr = new SimulationClock();
+        }
+        return uhr;
+    }
+
+    /** @return die aktuelle simulierte Zeit in Millisekunden seit 1970 */
+    public long jetzt() {
+        long vergangen = (System.nanoTime() - basisNanos) / 1000000;
+        if (modus == Modus.SKALIERT) {
+            vergangen = (long) (vergangen * faktor);
+        }
+        return basisMillis + vergangen + sprung;
+    }
+
+    /**
+     * Wechselt die Betriebsart. Die simulierte Zeit laeuft dabei ohne Sprung weiter.
+     * 
+     * @param faktor
+     *            nur fuer {@link Modus#SKALIERT}: um wie viel schneller die simulierte Zeit laufen soll
+     */
+    public void setzeModus(Modus modus, double faktor) {
+        if (modus == Modus.SKALIERT && !(faktor > 0)) {
+            throw new IllegalArgumentException("clock factor must be positive: " + faktor);
+        }
+        synchronized (sperre) {
+            long zeit = jetzt();
+            basisNanos = System.nanoTime();
+            basisMillis = zeit;
+            sprung = 0;
+            this.faktor = modus == Modus.SKALIERT ? faktor : 1;
+            this.modus = modus;
+            sperre.notifyAll();
+        }
+        LOG.info("Simulation clock: {} (factor {})", modus, this.faktor);
+    }
+
+    public Modus holeModus() {
+        return modus;
+    }
+
+    public double holeFaktor() {
+        return faktor;
+    }
+
+    public void setzeRuhezeit(long millis) {
+        ruhezeitNanos = millis * 1000000;
+    }
+
+    /** Meldet, dass die Simulation gerade arbeitet. Im schnellen Modus wird dann nicht gesprungen. */
+    public void aktivitaet() {
+        letzteAktivitaet = System.nanoTime();
+    }
+
+    /**
+     * Meldet Aktivitaet an die gemeinsame Uhr, sofern sie im schnellen Modus laeuft. Wird bei jeder Uebergabe einer
+     * Dateneinheit zwischen Threads (ueber {@link Puffer}) aufgerufen, damit die Uhr nicht springt, waehrend Frames
+     * zwischen den Schichten verarbeitet werden.
+     */
+    static void aktivitaetMelden() {
+        SimulationClock aktuelleUhr = uhr;
+        if (aktuelleUhr != null && aktuelleUhr.modus == Modus.SCHNELL) {
+            aktuelleUhr.aktivitaet();
+        }
+    }
+
+    /**
+     * Wartet wie {@link Object#wait(long)} auf dem Monitor, die Dauer wird aber in simulierter Zeit gemessen. Der
+     * aufrufende Thread muss den Monitor besitzen. Wie bei {@link Object#wait(long)} kann der Thread auch vorher (durch
+     * notify() oder ohne Grund) aufwachen; der Aufrufer muss seine Bedingung daher erneut pruefen.
+     * 
+     * @param millis
+     *            simulierte Wartezeit; bei Werten kleiner oder gleich 0 wird nicht gewartet (anders als bei
+     *            {@link Object#wait(long)})
+     */
+    public void warten(Object monitor, long millis) throws InterruptedException {
+        if (millis <= 0) {
+            return;
+        } else if (modus != Modus.SCHNELL || millis >= UNBEGRENZT_MILLIS) {
+            monitor.wait(realeDauer(millis));
+            return;
+        }
+        // nur im schnellen Modus muss die Uhr den Thread bei einem Sprung wecken koennen
+        Termin termin = eintragen(jetzt() + millis, monitor, null);
+        try {
+            monitor.wait(millis);
+        } finally {
+            austragen(termin);
+        }
+    }
+
+    /** Entspricht {@link Thread#sleep(long)} in simulierter Zeit. */
+    public void schlafen(long millis) throws InterruptedException {
+        Object monitor = new Object();
+        long ende = jetzt() + millis;
+        synchronized (monitor) {
+            for (long rest = millis; rest > 0; rest = ende - jetzt()) {
+                warten(monitor, rest);
+            }
+        }
+    }
+
+    /**
+     * Fuehrt die Aufgabe nach Ablauf der simulierten Verzoegerung im Thread der Uhr aus. Die Aufgabe sollte daher
+     * nicht blockieren.
+     */
+    public Termin planen(Runnable aufgabe, long verzoegerung) {
+        return eintragen(jetzt() + Math.max(0, verzoegerung), null, aufgabe);
+    }
+
+    private long realeDauer(long simuliert) {
+        if (modus == Modus.SKALIERT) {
+            return Math.max(1, (long) Math.ceil(simuliert / faktor));
+        }
+        return simuliert;
+    }
+
+    private Termin eintragen(long zeitpunkt, Object monitor, Runnable aufgabe) {
+        aktivitaet();
+        synchronized (sperre) {
+            Termin termin = new Termin(zeitpunkt, laufendeNummer++, monitor, aufgabe);
+            termine.add(termin);
+            if (thread == null) {
+                thread = ThreadFabrik.getThreadFabrik().neuerThread(this, "SimulationClock");
+                thread.setDaemon(true);
+                thread.start();
+            }
+            if (termine.peek() == termin) {
+                sperre.notifyAll();
+            }
+            return termin;
+        }
+    }
+
+    private void austragen(Termin termin) {
+        aktivitaet();
+        synchronized (sperre) {
+            termine.remove(termin);
+        }
+    }
+
+    /** Anzahl der Termine (wartende Threads und geplante Aufgaben) */
+    public int anzahlTermine() {
+        synchronized (sperre) {
+            return termine.size();
+        }
+    }
+
+    /**
+     * Die Schleife der Uhr fuehrt faellige Aufgaben aus und springt im schnellen Modus bei Ruhe zum naechsten Termin.
+     * Die Threads, deren Termin dadurch erreicht ist, werden ueber ihren Monitor geweckt. Aufgaben und
+     * Benachrichtigungen erfolgen ausserhalb der Sperre der Uhr.
+     */
+    public void run() {
+        while (true) {
+            List<Termin> faellig = new ArrayList<>();
+            synchronized (sperre) {
+                Termin naechster = termine.peek();
+                while (naechster != null && naechster.abgebrochen) {
+                    termine.poll();
+                    naechster = termine.peek();
+                }
+                long differenz = naechster == null ? 0 : naechster.zeitpunkt - jetzt();
+                // ein bereits faelliger Termin wird sofort ausgefuehrt; nur eine verbleibende Dauer wird umgerechnet
+                long wartezeit = differenz <= 0 ? 0 : realeDauer(differenz);
+                if (naechster != null && wartezeit > 0 && modus == Modus.SCHNELL) {
+                    long ruhe = System.nanoTime() - letzteAktivitaet;
+                    if (ruhe >= ruhezeitNanos) {
+                        sprung += naechster.zeitpunkt - jetzt();
+                        LOG.trace("clock skips to {}", naechster.zeitpunkt);
+                        wartezeit = 0;
+                    } else {
+                        wartezeit = Math.min(wartezeit, Math.max(1, (ruhezeitNanos - ruhe) / 1000000));
+                    }
+                }
+                if (naechster == null || wartezeit > 0) {
+                    try {
+                        sperre.wait(wartezeit);
+                    } catch (InterruptedException e) {}
+                    continue;
+                }
+                long zeit = jetzt();
+                while (!termine.isEmpty() && termine.peek().zeitpunkt <= zeit) {
+                    Termin termin = termine.poll();
+                    if (!termin.abgebrochen) {
+                        faellig.add(termin);
+                    }
+                }
+            }
+            for (Termin termin : faellig) {
+                if (termin.aufgabe != null) {
+                    try {
+                        termin.aufgabe.run();
+                    } catch (RuntimeException e) {
+                        LOG.debug("scheduled task failed", e);
+                    }
+                } else {
+                    synchronized (termin.monitor) {
+                        termin.monitor.notifyAll();
+                    }
+                }
+            }
+            if (!faellig.isEmpty()) {
+                // die geweckten Threads bzw. die Aufgaben loesen in der Regel weitere Verarbeitung aus
+                aktivitaet();
+            }
+        }
+    }
+}
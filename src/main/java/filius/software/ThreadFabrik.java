@@ -0,0 +1,105 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ueber diese Klasse werden alle Threads der Simulation erzeugt, d. h. die Protokoll-Threads, die Threads der
+ * Anwendungen und Sockets sowie der Thread zur Uebertragung auf den Kabeln. Standardmaessig sind das Plattform-Threads.
+ * Ab Java 21 koennen stattdessen virtuelle Threads verwendet werden, sodass auch grosse Szenarien nicht an die Grenze
+ * der Betriebssystem-Threads stossen. Mit {@link #setzeThreadFactory(ThreadFactory)} laesst sich auch eine beliebige
+ * andere Fabrik einsetzen.
+ * 
+ * Virtuelle Threads werden blockiert ("pinned"), solange sie innerhalb eines synchronized-Blocks warten. Deshalb
+ * werden die Puffer zwischen den Schichten und die Auftraege der Anwendungen ueber {@link Puffer} ausgetauscht, der
+ * ohne Monitor auskommt. Weiterhin mit wait()/notify() arbeiten die Empfangspuffer der Sockets, das Warten einer
+ * angehaltenen Anwendung bzw. eines deaktivierten Servers sowie der Link-Scheduler.
+ */
+public class ThreadFabrik {
+    private static Logger LOG = LoggerFactory.getLogger(ThreadFabrik.class);
+
+    private static final ThreadFactory PLATTFORM_THREADS = aufgabe -> new Thread(aufgabe);
+
+    private static ThreadFabrik fabrik;
+
+    private volatile ThreadFactory factory = PLATTFORM_THREADS;
+
+    private ThreadFabrik() {}
+
+    public static synchronized ThreadFabrik getThreadFabrik() {
+        if (fabrik == null) {
+            fabrik = new ThreadFabrik();
+        }
+        return fabrik;
+    }
+
+    /**
+     * Erzeugt einen neuen, noch nicht gestarteten Thread.
+     * 
+     * @param aufgabe
+     *            die im Thread auszufuehrende Aufgabe
+     * @param name
+     *            der Name des Threads, z. B. fuer die Anzeige im Debugger
+     */
+    public Thread neuerThread(Runnable aufgabe, String name) {
+        Thread thread = factory.newThread(aufgabe);
+        thread.setName(name);
+        return thread;
+    }
+
+    public void setzeThreadFactory(ThreadFactory factory) {
+        this.factory = factory != null ? factory : PLATTFORM_THREADS;
+    }
+
+    public ThreadFactory holeThreadFactory() {
+        return factory;
+    }
+
+    /**
+     * Stellt die Erzeugung auf virtuelle Threads um. Die Laufzeitumgebung muss dazu mindestens Java 21 sein; die
+     * Schnittstelle wird daher per Reflection angesprochen. Andernfalls bleibt es bei Plattform-Threads.
+     * 
+     * @return ob virtuelle Threads verwendet werden
+     */
+    public boolean virtuelleThreadsVerwenden() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            ThreadFactory virtuell = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory")
+                    .invoke(builder);
+            setzeThreadFactory(virtuell);
+            LOG.info("Simulation uses virtual threads");
+            return true;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOG.warn("Virtual threads are not supported by this Java runtime ({}); using platform threads",
+                    System.getProperty("java.version"));
+            return false;
+        }
+    }
+}
@@ -26,6 +26,12 @@
 package filius.software.clientserver;
 
 import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,6 +39,7 @@ import org.slf4j.LoggerFactory;
 import filius.exception.ServerSocketException;
 import filius.rahmenprogramm.I18n;
 import filius.software.Anwendung;
+import filius.software.ThreadFabrik;
 import filius.software.transportschicht.ServerSocket;
 import filius.software.transportschicht.Socket;
 import filius.software.transportschicht.SocketSchnittstelle;
@@ -55,6 +62,9 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
     /** Der TCP-Port, der auf eingehende Verbindungsanfragen wartet. */
     protected int port = 55555;
 
+    /** Maximale Anzahl der Verbindungen, die gleichzeitig aufgebaut werden oder auf ihre Annahme warten (nur TCP) */
+    protected int backlog = ServerSocket.STANDARD_BACKLOG;
+
     /**
      * Ob der Server aktiv ist, d. h. ob auf eingehende Verbindungsanfragen gewartet wird.
      */
@@ -65,6 +75,21 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
      */
     protected LinkedList<ServerMitarbeiter> mitarbeiter;
 
+    /** maximale Anzahl der Threads im Pool der Mitarbeiter einer Server-Anwendung */
+    private static final int POOL_GROESSE = 8;
+
+    /** Zeit in Sekunden, nach der ein unbeschaeftigter Thread des Pools beendet wird */
+    private static final long POOL_LEERLAUF = 30;
+
+    /**
+     * Pool, dessen Threads die eingegangenen Nachrichten aller Mitarbeiter verarbeiten. Ein Mitarbeiter belegt damit
+     * nur dann einen Thread, wenn fuer ihn Nachrichten vorliegen. Es werden hoechstens {@link #POOL_GROESSE} Threads
+     * erzeugt; sind alle beschaeftigt, warten weitere Mitarbeiter in der Warteschlange des Pools. Weil jeder
+     * Mitarbeiter hoechstens einen Auftrag einstellt, ist die Warteschlange durch die Anzahl der Verbindungen
+     * begrenzt. Unbeschaeftigte Threads werden nach {@link #POOL_LEERLAUF} Sekunden beendet.
+     */
+    private volatile ThreadPoolExecutor mitarbeiterPool;
+
     /** Konstruktor zur Initialisierung des verwendeten TransportProtokolls */
     public ServerAnwendung(int transportProtokoll) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -86,6 +111,18 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
         this.port = port;
     }
 
+    /**
+     * Methode fuer den Zugriff auf die Groesse des Backlogs. Eine Aenderung wirkt sich erst beim naechsten Oeffnen des
+     * Server-Sockets aus.
+     */
+    public int getBacklog() {
+        return backlog;
+    }
+
+    public void setBacklog(int backlog) {
+        this.backlog = backlog;
+    }
+
     /**
      * Methode zur Abfrage, ob der Server-Socket auf eingehende Verbindungen wartet.
      */
@@ -104,9 +141,7 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
                 + " (ServerAnwendung), setAktiv(" + flag + ")");
         aktiv = flag;
 
-        if (getState().equals(State.WAITING)) {
-            notifyAll();
-        }
+        notifyAll();
         if (!flag) {
             if (socket != null) {
                 socket.schliessen();
@@ -132,6 +167,11 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
                 + " (ServerAnwendung), starten()");
         super.starten();
         mitarbeiter = new LinkedList<ServerMitarbeiter>();
+        String name = getClass().getSimpleName() + "-Mitarbeiter";
+        ThreadFactory fabrik = aufgabe -> ThreadFabrik.getThreadFabrik().neuerThread(aufgabe, name);
+        mitarbeiterPool = new ThreadPoolExecutor(POOL_GROESSE, POOL_GROESSE, POOL_LEERLAUF, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), fabrik);
+        mitarbeiterPool.allowCoreThreadTimeOut(true);
 
         ausfuehren("annehmenVerbindungen", null);
     }
@@ -155,6 +195,9 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
                 thread.beenden();
             }
         }
+        if (null != mitarbeiterPool) {
+            mitarbeiterPool.shutdown();
+        }
 
         if (socket != null) {
             socket.beenden();
@@ -184,6 +227,25 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
         mitarbeiter.remove(thread);
     }
 
+    /**
+     * Uebergibt die Verarbeitung der eingegangenen Nachrichten eines Mitarbeiters an einen Thread aus dem Pool.
+     * 
+     * @return ob der Auftrag angenommen wurde; nach dem Beenden der Anwendung werden keine Auftraege mehr angenommen
+     */
+    boolean beauftragen(ServerMitarbeiter auftrag) {
+        ExecutorService pool = mitarbeiterPool;
+        if (pool == null) {
+            return false;
+        }
+        try {
+            pool.execute(auftrag);
+            return true;
+        } catch (RejectedExecutionException e) {
+            LOG.debug("message processing rejected, server application stopped.");
+            return false;
+        }
+    }
+
     /**
      * Die Aufgabe des Threads der Server-Anwendung besteht darin, wenn der Server aktiv ist, auf eingehende
      * Verbindungsanforderungen zu warten. Wenn eine Anforderung erfolgt, wird ein neuer Mitarbeiter mit der Methode
@@ -197,7 +259,7 @@ public abstract class ServerAnwendung extends Anwendung implements I18n {
         while (running) {
             if (aktiv) {
                 if (socket == null) {
-                    socket = new ServerSocket(getSystemSoftware(), port, transportProtokoll);
+                    socket = new ServerSocket(getSystemSoftware(), port, transportProtokoll, backlog);
                 }
 
                 if (socket != null) {
@@ -35,10 +35,10 @@ import filius.software.transportschicht.Socket;
  * In dieser Klasse erfolgt die Verarbeitung von eingehenden Nachrichten an einen Server.
  * </p>
  * <p>
- * Die Oberklasse <code>ServerMitarbeiter</code> erbt von der Klasse Thread. In der <code>run()</code>-Methode der
- * Oberklasse wird der Socket auf eingehende Nachrichten ueberwacht. Sobald eine Nachricht eintrifft, wird diese an die
- * Methode <code>verarbeiteNachricht(String)</code> zur weiteren Verarbeitung weiter gegeben. Ausserdem wird dort der
- * Socket automatisch geschlossen, wenn das Client-Programm den Verbindungsabbau initiiert.
+ * Die Oberklasse <code>ServerMitarbeiter</code> bekommt eingehende Nachrichten von ihrem Socket zugestellt. Sobald
+ * eine Nachricht eintrifft, wird diese an die Methode <code>verarbeiteNachricht(String)</code> zur weiteren
+ * Verarbeitung weiter gegeben. Ausserdem wird dort der Socket automatisch geschlossen, wenn das Client-Programm den
+ * Verbindungsabbau initiiert.
  * </p>
  * <p>
  * In dieser Klasse sollte nur die Methode <code>senden(String)</code> des Sockets verwendet werden!
@@ -25,19 +25,22 @@
  */
 package filius.software.clientserver;
 
+import java.util.LinkedList;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import filius.exception.VerbindungsException;
 import filius.rahmenprogramm.I18n;
 import filius.software.transportschicht.Socket;
 
 /**
- * Diese Klasse implementiert einen Thread, der von einem Server fuer eine eingegangene Verbindungsanfrage erzeugt wird.
- * Damit wird der neu erstellte Socket ueberwacht.
+ * Ein Mitarbeiter wird von einem Server fuer eine eingegangene Verbindungsanfrage erzeugt und verarbeitet die
+ * Nachrichten, die ueber den neu erstellten Socket eingehen. Der Mitarbeiter hat keinen eigenen Thread: Der Socket
+ * stellt ihm eingehende Nachrichten zu und die Verarbeitung uebernimmt ein Thread aus dem Pool der Server-Anwendung.
+ * Die Nachrichten eines Mitarbeiters werden dabei nacheinander in der Reihenfolge ihres Eingangs verarbeitet.
  * 
  */
-public abstract class ServerMitarbeiter extends Thread implements I18n {
+public abstract class ServerMitarbeiter implements Runnable, Socket.Empfaenger, I18n {
     private static Logger LOG = LoggerFactory.getLogger(ServerMitarbeiter.class);
 
     /** Die Server-Anwendung, die diesen Mitarbeiter verwaltet */
@@ -46,8 +49,17 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
     /** der Socket, der fuer den Datenaustausch verwendet wird */
     protected Socket socket;
 
-    /** Dieses Attribut zeigt an, ob der Thread laeuft. */
-    protected boolean running = false;
+    /** Dieses Attribut zeigt an, ob der Mitarbeiter eingehende Nachrichten verarbeitet. */
+    protected volatile boolean running = false;
+
+    /** eingegangene und noch nicht verarbeitete Nachrichten; null markiert das Ende der Verbindung */
+    private final LinkedList<String> eingang = new LinkedList<>();
+
+    /** ob die Verarbeitung des Eingangs bereits an den Pool der Server-Anwendung uebergeben wurde */
+    private boolean beauftragt = false;
+
+    /** der Thread, der gerade Nachrichten dieses Mitarbeiters verarbeitet, oder null */
+    private volatile Thread thread;
 
     /**
      * Konstruktor, in dem die zugehoerige ServerAnwendung und der Socket fuer den Datenaustausch implementiert werden.
@@ -62,6 +74,12 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         this.socket = socket;
     }
 
+    /** Die Kennung des verarbeitenden Threads (z. B. fuer Log-Ausgaben) oder -1 ausserhalb der Verarbeitung */
+    public long getId() {
+        Thread aktuellerThread = thread;
+        return aktuellerThread != null ? aktuellerThread.getId() : -1;
+    }
+
     /**
      * Mit dieser Methode werden eingehende Nachrichten verarbeitet. Sie enthaelt also die eigentliche Anwendungslogik
      * und muss daher von den Unterklassen implementiert werden.
@@ -89,37 +107,67 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         }
     }
 
+    public void nachrichtEmpfangen(String nachricht) {
+        einreihen(nachricht);
+    }
+
+    public void verbindungBeendet() {
+        einreihen(null);
+    }
+
+    /** Nimmt eine Nachricht in den Eingang auf. Wird vom Thread des Sockets aufgerufen und blockiert nicht. */
+    private void einreihen(String nachricht) {
+        synchronized (eingang) {
+            eingang.add(nachricht);
+        }
+        verarbeitungAnstossen();
+    }
+
+    /** Beauftragt den Pool der Server-Anwendung mit der Verarbeitung des Eingangs, falls noch nicht geschehen */
+    private void verarbeitungAnstossen() {
+        synchronized (eingang) {
+            if (eingang.isEmpty() || beauftragt || !running) {
+                return;
+            }
+            beauftragt = true;
+        }
+        if (!server.beauftragen(this)) {
+            synchronized (eingang) {
+                beauftragt = false;
+            }
+        }
+    }
+
     /**
-     * Hier wird auf eingehende Nachrichten gewartet und diese zum einen an Beobachter der Server-Anwendung und zum
-     * anderen zur Verarbeitung an die Methode verarbeitenNachricht() weiter gegeben.
+     * Hier werden die eingegangenen Nachrichten abgearbeitet und zum einen an Beobachter der Server-Anwendung und zum
+     * anderen zur Verarbeitung an die Methode verarbeiteNachricht() weiter gegeben. Die Methode kehrt zurueck, sobald
+     * der Eingang leer ist, damit der Thread des Pools fuer andere Mitarbeiter frei wird.
      */
     public void run() {
+        thread = Thread.currentThread();
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (ServerMitarbeiter), run()");
-        String nachricht = null;
-        while (running) {
-            try {
-                if (socket.istVerbunden()) {
-                    nachricht = socket.empfangen(Long.MAX_VALUE);
+        while (true) {
+            String nachricht;
+            synchronized (eingang) {
+                if (eingang.isEmpty() || !running) {
+                    thread = null;
+                    beauftragt = false;
+                    return;
                 }
-
+                nachricht = eingang.removeFirst();
+            }
+            try {
                 if (nachricht != null) {
                     server.benachrichtigeBeobachter(">>" + nachricht);
                     verarbeiteNachricht(nachricht);
-                } else if (socket != null) {
+                } else {
                     socket.schliessen();
                     running = false;
                     server.benachrichtigeBeobachter(
                             messages.getString("sw_servermitarbeiter_msg1") + " " + socket.holeZielIPAdresse() + ":"
                                     + socket.holeZielPort() + " " + messages.getString("sw_servermitarbeiter_msg2"));
                 }
-                nachricht = null;
-            } catch (VerbindungsException e) {
-                LOG.debug("", e);
-                server.benachrichtigeBeobachter(e.getMessage());
-                socket.schliessen();
-                running = false;
-                server.entferneMitarbeiter(this);
             } catch (Exception e) {
                 LOG.debug("", e);
                 server.benachrichtigeBeobachter(e.getMessage());
@@ -131,24 +179,22 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
     }
 
     /**
-     * Methode zum Starten des Threads beim Wechsel vom Entwurfs- in den Aktionsmodus. Wenn sich der Thread noch in
-     * einem wartenden oder blockierten Zustand wird kein neuer Thread gestartet, sondern lediglich gewaehrleistet, dass
-     * der Thread nicht beendet wird.
+     * Methode zum Starten des Mitarbeiters beim Wechsel vom Entwurfs- in den Aktionsmodus. Der Mitarbeiter meldet sich
+     * beim Socket als Empfaenger an; Nachrichten, die schon vorher eingegangen sind, werden dabei sofort zugestellt.
      */
     public void starten() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (ServerMitarbeiter), starten()");
         if (!running) {
             running = true;
-            if (!getState().equals(State.WAITING) && !getState().equals(State.BLOCKED)) {
-                start();
-            }
+            socket.setzeEmpfaenger(this);
+            verarbeitungAnstossen();
         }
     }
 
     /**
-     * Methode zum Beenden des Threads. Wenn der Thread noch in einem wartenden oder blockierten Zustand ist, wird
-     * interrupt() aufgerufen, um die Verarbeitung fortzusetzen, damit der Thread dann beendet werden kann.
+     * Methode zum Beenden des Mitarbeiters. Eine laufende Verarbeitung, die noch auf den Socket wartet, wird durch das
+     * Beenden des Sockets fortgesetzt, damit sie abgeschlossen werden kann.
      */
     public void beenden() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -164,8 +210,5 @@ public abstract class ServerMitarbeiter extends Thread implements I18n {
         } else if (socket != null) {
             socket.beenden();
         }
-        if (getState().equals(State.WAITING) || getState().equals(State.BLOCKED)) {
-            interrupt();
-        }
     }
 }
@@ -0,0 +1,154 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dateiaustausch;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.system.Datei;
+
+/**
+ * Index ueber die Namen der Dateien im Peer-to-Peer-Verzeichnis zur Beantwortung von Suchanfragen. Gesucht wird wie
+ * bisher nach Dateinamen, die den Suchbegriff ohne Beachtung von Gross- und Kleinschreibung enthalten. Damit das auch
+ * fuer Teile eines Wortes gilt, werden die Namen in N-Gramme (Teilzeichenketten der Laenge {@link #N_GRAMM_LAENGE})
+ * zerlegt. Zu jedem N-Gramm wird vermerkt, in welchen Dateinamen es vorkommt. Bei einer Suche werden nur die Dateien
+ * geprueft, deren Namen alle N-Gramme des Suchbegriffs enthalten. <br />
+ * Weil der Verzeichnisbaum auch ausserhalb des Dateisystems veraendert wird (z. B. Loeschen und Umbenennen im
+ * Datei-Explorer), wird vor jeder Suche durch Vergleich der Referenzen geprueft, ob sich Dateien oder Dateinamen
+ * geaendert haben. Nur dann wird der Index neu aufgebaut.
+ */
+class DateiIndex {
+    private static Logger LOG = LoggerFactory.getLogger(DateiIndex.class);
+
+    static final int N_GRAMM_LAENGE = 3;
+
+    /** das indizierte Verzeichnis */
+    private DefaultMutableTreeNode verzeichnis;
+    /** die Inhalte der Knoten des Verzeichnisses (Dateien und Verzeichnisnamen) zum Zeitpunkt der Indizierung */
+    private Object[] knoten = new Object[0];
+    /** die Namen der Dateien zum Zeitpunkt der Indizierung (fuer Unterverzeichnisse null) */
+    private String[] namen = new String[0];
+
+    private final List<Datei> dateien = new ArrayList<>();
+    private final List<String> kleingeschriebeneNamen = new ArrayList<>();
+    /** N-Gramm und die Positionen der Dateien in {@link #dateien}, deren Namen es enthalten */
+    private final Map<String, BitSet> nGramme = new HashMap<>();
+
+    /**
+     * Liefert die Dateien des Verzeichnisses, deren Namen den Suchbegriff enthalten, in der Reihenfolge des
+     * Verzeichnisses.
+     */
+    synchronized LinkedList<Datei> suchen(DefaultMutableTreeNode verzeichnis, String suchbegriff) {
+        if (!istAktuell(verzeichnis)) {
+            aufbauen(verzeichnis);
+        }
+        String gesucht = suchbegriff.toLowerCase();
+        BitSet kandidaten = kandidaten(gesucht);
+        LinkedList<Datei> ergebnis = new LinkedList<>();
+        for (int i = kandidaten.nextSetBit(0); i >= 0; i = kandidaten.nextSetBit(i + 1)) {
+            if (kleingeschriebeneNamen.get(i).contains(gesucht)) {
+                ergebnis.add(dateien.get(i));
+            }
+        }
+        return ergebnis;
+    }
+
+    synchronized int anzahlDateien() {
+        return dateien.size();
+    }
+
+    private BitSet kandidaten(String gesucht) {
+        BitSet kandidaten = new BitSet();
+        kandidaten.set(0, dateien.size());
+        for (int i = 0; i + N_GRAMM_LAENGE <= gesucht.length() && !kandidaten.isEmpty(); i++) {
+            BitSet treffer = nGramme.get(gesucht.substring(i, i + N_GRAMM_LAENGE));
+            if (treffer == null) {
+                kandidaten.clear();
+            } else {
+                kandidaten.and(treffer);
+            }
+        }
+        return kandidaten;
+    }
+
+    private boolean istAktuell(DefaultMutableTreeNode aktuellesVerzeichnis) {
+        if (aktuellesVerzeichnis != verzeichnis) {
+            return false;
+        }
+        if (aktuellesVerzeichnis == null) {
+            return true;
+        }
+        if (aktuellesVerzeichnis.getChildCount() != knoten.length) {
+            return false;
+        }
+        for (int i = 0; i < knoten.length; i++) {
+            Object inhalt = ((DefaultMutableTreeNode) aktuellesVerzeichnis.getChildAt(i)).getUserObject();
+            if (inhalt != knoten[i] || inhalt instanceof Datei && ((Datei) inhalt).getName() != namen[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void aufbauen(DefaultMutableTreeNode neuesVerzeichnis) {
+        verzeichnis = neuesVerzeichnis;
+        dateien.clear();
+        kleingeschriebeneNamen.clear();
+        nGramme.clear();
+        int anzahl = neuesVerzeichnis != null ? neuesVerzeichnis.getChildCount() : 0;
+        knoten = new Object[anzahl];
+        namen = new String[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            Object inhalt = ((DefaultMutableTreeNode) neuesVerzeichnis.getChildAt(i)).getUserObject();
+            knoten[i] = inhalt;
+            if (inhalt instanceof Datei) {
+                Datei datei = (Datei) inhalt;
+                namen[i] = datei.getName();
+                hinzufuegen(datei);
+            }
+        }
+        LOG.debug("p2p file index built with {} files and {} n-grams", dateien.size(), nGramme.size());
+    }
+
+    private void hinzufuegen(Datei datei) {
+        int position = dateien.size();
+        String name = datei.getName().toLowerCase();
+        dateien.add(datei);
+        kleingeschriebeneNamen.add(name);
+        for (int i = 0; i + N_GRAMM_LAENGE <= name.length(); i++) {
+            nGramme.computeIfAbsent(name.substring(i, i + N_GRAMM_LAENGE), k -> new BitSet()).set(position);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dateiaustausch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import filius.software.SimulationClock;
+
+/**
+ * Menge von GUIDs, die sich die Peer-to-Peer-Anwendung fuer eine begrenzte Zeit merkt, z. B. um bereits
+ * weitergeleitete Anfragen zu erkennen. Ein Eintrag wird nach {@link #GUELTIGKEIT_MILLIS} (gemessen mit der
+ * Simulationsuhr) vergessen; werden mehr als {@link #MAX_EINTRAEGE} GUIDs gemerkt, wird die aelteste verdraengt. Die
+ * Suche ist damit unabhaengig von der Laufzeit der Anwendung.
+ */
+class GuidCache {
+    /** so lange wird eine GUID gemerkt; in dieser Zeit sind Anfragen und Antworten laengst durch das Netz gelaufen */
+    static final long GUELTIGKEIT_MILLIS = 10 * 60 * 1000;
+
+    /** maximale Anzahl der Eintraege; darueber wird der aelteste Eintrag verdraengt */
+    static final int MAX_EINTRAEGE = 4096;
+
+    private final LongSupplier uhr;
+    /** GUID und Zeitpunkt des Eintragens, der aelteste Eintrag zuerst */
+    private final Map<Integer, Long> eintraege = new LinkedHashMap<Integer, Long>() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Long> eldest) {
+            return size() > MAX_EINTRAEGE;
+        }
+    };
+
+    GuidCache() {
+        this(() -> SimulationClock.getSimulationClock().jetzt());
+    }
+
+    GuidCache(LongSupplier uhr) {
+        this.uhr = uhr;
+    }
+
+    /**
+     * Merkt sich die GUID.
+     * 
+     * @return true, wenn die GUID bisher nicht bekannt war
+     */
+    synchronized boolean hinzufuegen(int guid) {
+        long jetzt = uhr.getAsLong();
+        aufraeumen(jetzt);
+        if (eintraege.containsKey(guid)) {
+            return false;
+        }
+        eintraege.put(guid, jetzt);
+        return true;
+    }
+
+    synchronized boolean enthaelt(int guid) {
+        aufraeumen(uhr.getAsLong());
+        return eintraege.containsKey(guid);
+    }
+
+    synchronized int anzahl() {
+        aufraeumen(uhr.getAsLong());
+        return eintraege.size();
+    }
+
+    /** Entfernt die abgelaufenen Eintraege; weil die aeltesten vorne stehen, endet die Suche beim ersten gueltigen. */
+    private void aufraeumen(long jetzt) {
+        Iterator<Long> zeitpunkte = eintraege.values().iterator();
+        while (zeitpunkte.hasNext() && zeitpunkte.next() + GUELTIGKEIT_MILLIS < jetzt) {
+            zeitpunkte.remove();
+        }
+    }
+}
@@ -62,18 +62,22 @@ public class PeerToPeerAnwendung extends Anwendung {
      */
     private LinkedList<String> bekanntePeerToPeerTeilnehmer = new LinkedList<String>();
 
-    /** Liste eigener Anfragen, die verschickt worden sind */
-    private LinkedList<Integer> eigeneAnfragen = new LinkedList<Integer>();
+    /** GUIDs eigener Anfragen, die verschickt worden sind */
+    private GuidCache eigeneAnfragen = new GuidCache();
 
     /**
-     * Eine Liste der Anfragen, die von anderen Teilnehmern im Peer-to-Peer-Netzwerk empfangen wurden. wofuer???
+     * GUIDs der Anfragen, die von anderen Teilnehmern im Peer-to-Peer-Netzwerk empfangen wurden. Antworten darauf
+     * werden in Richtung des Anfragenden weitergeleitet.
      */
-    private LinkedList<Integer> fremdeAnfragen = new LinkedList<Integer>();
+    private GuidCache fremdeAnfragen = new GuidCache();
 
     /**
-     * Liste bereits eingegangener und weitergeleiteter Anfragen (zur Verhinderung von Schleifen)
+     * GUIDs bereits eingegangener und weitergeleiteter Anfragen (zur Verhinderung von Schleifen)
      */
-    private LinkedList<Integer> schonmalVerschicktListe = new LinkedList<Integer>();
+    private GuidCache schonmalVerschicktListe = new GuidCache();
+
+    /** Index ueber die Namen der angebotenen Dateien zur Beantwortung von Suchanfragen */
+    private final DateiIndex dateiIndex = new DateiIndex();
 
     /**
      * Liste der Dateien, zu welchen eine Anfrage zum Herunterladen an einen bestimmten Teilnehmer verschickt wurde und
@@ -138,9 +142,9 @@ public class PeerToPeerAnwendung extends Anwendung {
                 + " (PeerToPeerAnwendung), starten()");
         super.starten();
 
-        eigeneAnfragen = new LinkedList<Integer>();
-        fremdeAnfragen = new LinkedList<Integer>();
-        schonmalVerschicktListe = new LinkedList<Integer>();
+        eigeneAnfragen = new GuidCache();
+        fremdeAnfragen = new GuidCache();
+        schonmalVerschicktListe = new GuidCache();
 
         peerToPeerServer = new PeerToPeerServer(this);
         peerToPeerServer.setSystemSoftware(getSystemSoftware());
@@ -179,7 +183,7 @@ public class PeerToPeerAnwendung extends Anwendung {
         long anzahlBytes = 0;
         Betriebssystem bs;
 
-        if (schonmalVerschicktListe.contains(ping.getGuid())) {
+        if (schonmalVerschicktListe.enthaelt(ping.getGuid())) {
             return null;
         } else {
             bs = (Betriebssystem) getSystemSoftware();
@@ -210,16 +214,16 @@ public class PeerToPeerAnwendung extends Anwendung {
     void sendePing(PingPaket ping, String absender) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), sendePing(" + ping + "," + absender + ")");
-        if (ping.getTtl() > 0 && !schonmalVerschicktListe.contains(ping.getGuid())) {
-            schonmalVerschicktListe.add(ping.getGuid());
-            fremdeAnfragen.add(ping.getGuid());
+        if (ping.getTtl() > 0 && schonmalVerschicktListe.hinzufuegen(ping.getGuid())) {
+            fremdeAnfragen.hinzufuegen(ping.getGuid());
             peerToPeerClient.sendePing("", ping, absender);
         }
     }
 
     /**
      * wenn eine neue Anfrage-Nachricht eingetroffen ist, wird diese Operation aufgerufen. Sie verarbeitet die Anfrage,
-     * schickt sie weiter, verwirft sie oder sendet ein Antwortpaket
+     * schickt sie weiter, verwirft sie oder sendet ein Antwortpaket. Die passenden Dateien werden ueber den Index der
+     * Dateinamen gesucht.
      * 
      * @param pufferElement
      *            die ampfangene Anfrage
@@ -228,26 +232,11 @@ public class PeerToPeerAnwendung extends Anwendung {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), verarbeiteAnfrage(" + absender + "," + anfrage + ")");
         LinkedList<Datei> ergebnisListe;
-        Datei ergebnis = null;
-        List<Datei> dateien;
-        String aktuellerName;
-        String gesuchte;
 
-        if (!schonmalVerschicktListe.contains(anfrage.getGuid())) {
-            fremdeAnfragen.add(anfrage.getGuid());
-            schonmalVerschicktListe.add(anfrage.getGuid());
+        if (schonmalVerschicktListe.hinzufuegen(anfrage.getGuid())) {
+            fremdeAnfragen.hinzufuegen(anfrage.getGuid());
 
-            dateien = getSystemSoftware().getDateisystem().holeDateien(verzeichnis);
-            ergebnisListe = new LinkedList<Datei>();
-            for (int i = 0; i < dateien.size(); i++) {
-                ergebnis = (Datei) dateien.get(i);
-
-                aktuellerName = ergebnis.getName().toLowerCase();
-                gesuchte = anfrage.getSuchKriterien().toLowerCase();
-                if (aktuellerName.contains(gesuchte)) {
-                    ergebnisListe.add(ergebnis);
-                }
-            }
+            ergebnisListe = dateiIndex.suchen(verzeichnis, anfrage.getSuchKriterien());
 
             if (anfrage.getTtl() > 0) {
                 anfrage.setTtl(anfrage.getTtl() - 1);
@@ -284,7 +273,7 @@ public class PeerToPeerAnwendung extends Anwendung {
         if (!bs.primaryIPAdresse().equals(teilnehmerIP)) {
             pingPaket = new PingPaket();
             pingPaket.setIp(bs.primaryIPAdresse());
-            eigeneAnfragen.add(pingPaket.getGuid());
+            eigeneAnfragen.hinzufuegen(pingPaket.getGuid());
 
             peerToPeerClient.sendePing(teilnehmerIP, pingPaket, bs.primaryIPAdresse());
         }
@@ -333,7 +322,7 @@ public class PeerToPeerAnwendung extends Anwendung {
 
         ergebnisse.clear();
         anfragePaket = new QueryPaket("1", datei);
-        eigeneAnfragen.add(anfragePaket.getGuid());
+        eigeneAnfragen.hinzufuegen(anfragePaket.getGuid());
 
         bs = (Betriebssystem) getSystemSoftware();
         peerToPeerClient.sendeAnfrage(anfragePaket, bs.primaryIPAdresse());
@@ -385,12 +374,12 @@ public class PeerToPeerAnwendung extends Anwendung {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerAnwendung), verarbeiteQueryHit(" + antwortPaket + ")");
         // warte ich selbst auf diese Antwort?
-        if (eigeneAnfragen.contains(antwortPaket.getGuid())) {
+        if (eigeneAnfragen.enthaelt(antwortPaket.getGuid())) {
             hinzuErgebnis(antwortPaket);
             benachrichtigeBeobachter();
         }
         // ich kenne die Anfrage, die Antwort ist nicht fuer mich
-        else if (fremdeAnfragen.contains(antwortPaket.getGuid())) {
+        else if (fremdeAnfragen.enthaelt(antwortPaket.getGuid())) {
             if (antwortPaket.getTtl() > 0) {
                 antwortPaket.setTtl(antwortPaket.getTtl() - 1);
                 antwortPaket.setHops(antwortPaket.getHops() + 1);
@@ -410,7 +399,7 @@ public class PeerToPeerAnwendung extends Anwendung {
                 + " (PeerToPeerAnwendung), verarbeitePong(" + pongPaket + ")" + "\n\tPong-Nachricht bei '"
                 + getSystemSoftware().getKnoten().holeAnzeigeName() + "' eingetroffen: " + pongPaket.toString());
 
-        if (eigeneAnfragen.contains(pongPaket.getGuid())) {
+        if (eigeneAnfragen.enthaelt(pongPaket.getGuid())) {
             hinzuTeilnehmer(pongPaket.getIpAdresse());
         } else {
             pongPaket.setTtl(pongPaket.getTtl() - 1);
@@ -493,12 +482,12 @@ public class PeerToPeerAnwendung extends Anwendung {
     }
 
     /**
-     * Methode fuer den Zugriff auf die Liste mit GUID's zu eigenen Anfragen, die im Peer-to-Peer-Netzwerk verschickt
-     * worden sind.
+     * Methode fuer den Zugriff auf die GUID's zu eigenen Anfragen, die im Peer-to-Peer-Netzwerk verschickt worden
+     * sind.
      * 
      * @return
      */
-    LinkedList<Integer> holeEigeneAnfragen() {
+    GuidCache holeEigeneAnfragen() {
         return eigeneAnfragen;
     }
 
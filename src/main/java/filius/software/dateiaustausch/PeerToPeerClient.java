@@ -198,7 +198,7 @@ class PeerToPeerClient extends Anwendung {
             nachbar = (String) dieNachbarn.get(i);
             if (!nachbar.equals(absenderIP)) {
                 lauscher = new PeerToPeerClientMitarbeiter(peerToPeerAnwendung, nachbar, anfragePaket);
-                if (peerToPeerAnwendung.holeEigeneAnfragen().contains(anfragePaket.getGuid())) {
+                if (peerToPeerAnwendung.holeEigeneAnfragen().enthaelt(anfragePaket.getGuid())) {
                     mitarbeiterEigeneAnfragen.add(lauscher);
                 } else {
                     mitarbeiterFremdeAnfragen.add(lauscher);
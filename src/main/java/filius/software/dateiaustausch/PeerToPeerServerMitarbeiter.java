@@ -137,14 +137,14 @@ public class PeerToPeerServerMitarbeiter extends ServerMitarbeiter {
     private void verarbeitePing(PingPaket pingPaket) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (PeerToPeerServerMitarbeiter), verarbeitePing(" + pingPaket + ")");
-        String pongNachricht;
+        PongPaket pong;
 
         peerToPeerAnwendung.hinzuTeilnehmer(pingPaket.getIp());
 
-        pongNachricht = peerToPeerAnwendung.erstellePong(pingPaket).toString();
-        if (pongNachricht != null) {
+        pong = peerToPeerAnwendung.erstellePong(pingPaket);
+        if (pong != null) {
             try {
-                socket.senden(pongNachricht);
+                socket.senden(pong.toString());
             } catch (Exception e) {
                 LOG.debug("", e);
             }
@@ -0,0 +1,128 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dhcp;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Belegung des Adressbereichs eines DHCP-Servers als Bitmap. Das Bit an Position i steht fuer die Adresse untergrenze +
+ * i und ist gesetzt, solange die Adresse in einer der registrierten Tabellen (vergeben, angeboten, gesperrt) vorkommt.
+ * <br />
+ * Die Bitmap wird neu aufgebaut, sobald sich die Grenzen des Adressbereichs aendern. Adressen ausserhalb des Bereichs
+ * werden nicht erfasst.
+ */
+class DHCPAddressPool {
+
+    private final List<DHCPAssignmentTable> tables = new ArrayList<>();
+    private final BitSet occupied = new BitSet();
+    private long lowerLimit = -1;
+    private long upperLimit = -1;
+
+    void register(DHCPAssignmentTable table) {
+        tables.add(table);
+    }
+
+    /**
+     * Sucht die naechste nicht belegte Adresse ab der Startadresse. Am Ende des Bereichs wird die Suche an der
+     * Untergrenze fortgesetzt.
+     * 
+     * @return die freie Adresse oder -1, wenn alle Adressen des Bereichs belegt sind
+     */
+    long nextFree(long lower, long upper, long start) {
+        if (upper < lower) {
+            return -1;
+        }
+        if (lower != lowerLimit || upper != upperLimit) {
+            rebuild(lower, upper);
+        }
+        int size = size();
+        int startOffset = start >= lowerLimit && start - lowerLimit < size ? (int) (start - lowerLimit) : 0;
+        int offset = occupied.nextClearBit(startOffset);
+        if (offset >= size) {
+            offset = occupied.nextClearBit(0);
+            if (offset >= startOffset) {
+                return -1;
+            }
+        }
+        return lowerLimit + offset;
+    }
+
+    void occupy(String ip) {
+        int offset = offset(ip);
+        if (offset >= 0) {
+            occupied.set(offset);
+        }
+    }
+
+    /** Gibt die Adresse frei, sofern sie in keiner der Tabellen mehr vorkommt. */
+    void release(String ip) {
+        int offset = offset(ip);
+        if (offset >= 0 && !isAssigned(ip)) {
+            occupied.clear(offset);
+        }
+    }
+
+    private boolean isAssigned(String ip) {
+        for (DHCPAssignmentTable table : tables) {
+            if (table.containsIp(ip)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rebuild(long lower, long upper) {
+        lowerLimit = lower;
+        upperLimit = upper;
+        occupied.clear();
+        for (DHCPAssignmentTable table : tables) {
+            for (DHCPAddressAssignment assignment : table) {
+                occupy(assignment.getIp());
+            }
+        }
+    }
+
+    /** Anzahl der Adressen im Bereich; sehr grosse Bereiche werden auf die Groesse einer Bitmap begrenzt. */
+    private int size() {
+        return (int) Math.min(upperLimit - lowerLimit + 1, Integer.MAX_VALUE);
+    }
+
+    private int offset(String ip) {
+        if (lowerLimit < 0 || ip == null) {
+            return -1;
+        }
+        long address;
+        try {
+            address = DHCPServer.ipToLong(ip);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long offset = address - lowerLimit;
+        return offset >= 0 && offset < size() ? (int) offset : -1;
+    }
+}
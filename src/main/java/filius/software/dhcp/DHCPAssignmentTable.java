@@ -0,0 +1,172 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dhcp;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Tabelle von Adresszuweisungen eines DHCP-Servers (z. B. die dynamisch vergebenen oder die angebotenen Adressen).
+ * <br />
+ * Die Eintraege bleiben in der Reihenfolge des Eintragens erhalten und werden zusaetzlich nach IP- und MAC-Adresse
+ * indiziert, so dass die Suche unabhaengig von der Anzahl der Eintraege ist. Ablaufende Eintraege werden in einer
+ * Prioritaetswarteschlange nach ihrer Leasezeit sortiert und erst beim naechsten Aufraeumen entfernt. Die Leasezeit
+ * einer Zuweisung darf deshalb nach dem Eintragen nicht mehr geaendert werden.
+ */
+class DHCPAssignmentTable implements Iterable<DHCPAddressAssignment> {
+
+    private final DHCPAddressPool pool;
+    private final Set<DHCPAddressAssignment> assignments = new LinkedHashSet<>();
+    private final Map<String, List<DHCPAddressAssignment>> ipIndex = new HashMap<>();
+    private final Map<String, List<DHCPAddressAssignment>> macIndex = new HashMap<>();
+    /**
+     * Zuweisungen mit begrenzter Leasezeit, die frueheste zuerst. Entfernte Eintraege bleiben hier stehen, bis ihre
+     * Leasezeit abgelaufen ist.
+     */
+    private final PriorityQueue<DHCPAddressAssignment> leaseExpiry = new PriorityQueue<>(
+            Comparator.comparingLong(DHCPAddressAssignment::getLeaseTime));
+
+    DHCPAssignmentTable(DHCPAddressPool pool) {
+        this.pool = pool;
+        pool.register(this);
+    }
+
+    boolean add(DHCPAddressAssignment assignment) {
+        if (!assignments.add(assignment)) {
+            return false;
+        }
+        index(ipIndex, assignment.getIp(), assignment);
+        index(macIndex, assignment.getMAC(), assignment);
+        if (assignment.getLeaseTime() != 0) {
+            leaseExpiry.add(assignment);
+        }
+        pool.occupy(assignment.getIp());
+        return true;
+    }
+
+    boolean remove(DHCPAddressAssignment assignment) {
+        if (!assignments.remove(assignment)) {
+            return false;
+        }
+        unindex(ipIndex, assignment.getIp(), assignment);
+        unindex(macIndex, assignment.getMAC(), assignment);
+        if (!containsIp(assignment.getIp())) {
+            pool.release(assignment.getIp());
+        }
+        return true;
+    }
+
+    void removeAll(List<DHCPAddressAssignment> toRemove) {
+        for (DHCPAddressAssignment assignment : new ArrayList<>(toRemove)) {
+            remove(assignment);
+        }
+    }
+
+    /** Entfernt alle Eintraege, deren Leasezeit abgelaufen ist. */
+    void removeExpired() {
+        while (!leaseExpiry.isEmpty() && leaseExpiry.peek().isExpired()) {
+            remove(leaseExpiry.poll());
+        }
+    }
+
+    void clear() {
+        List<String> ips = new ArrayList<>();
+        for (List<DHCPAddressAssignment> entries : ipIndex.values()) {
+            ips.add(entries.get(0).getIp());
+        }
+        assignments.clear();
+        ipIndex.clear();
+        macIndex.clear();
+        leaseExpiry.clear();
+        for (String ip : ips) {
+            pool.release(ip);
+        }
+    }
+
+    boolean containsIp(String ip) {
+        return ipIndex.containsKey(key(ip));
+    }
+
+    /** @return der zuerst eingetragene Eintrag mit dieser IP-Adresse oder null */
+    DHCPAddressAssignment findByIp(String ip) {
+        List<DHCPAddressAssignment> entries = ipIndex.get(key(ip));
+        return entries != null ? entries.get(0) : null;
+    }
+
+    /** @return alle Eintraege zu dieser MAC-Adresse in der Reihenfolge des Eintragens */
+    List<DHCPAddressAssignment> findByMac(String mac) {
+        List<DHCPAddressAssignment> entries = macIndex.get(key(mac));
+        return entries != null ? Collections.unmodifiableList(entries) : Collections.emptyList();
+    }
+
+    int size() {
+        return assignments.size();
+    }
+
+    boolean isEmpty() {
+        return assignments.isEmpty();
+    }
+
+    List<DHCPAddressAssignment> toList() {
+        return new ArrayList<>(assignments);
+    }
+
+    @Override
+    public Iterator<DHCPAddressAssignment> iterator() {
+        return Collections.unmodifiableSet(assignments).iterator();
+    }
+
+    private static void index(Map<String, List<DHCPAddressAssignment>> index, String value,
+            DHCPAddressAssignment assignment) {
+        index.computeIfAbsent(key(value), k -> new ArrayList<>(1)).add(assignment);
+    }
+
+    private static void unindex(Map<String, List<DHCPAddressAssignment>> index, String value,
+            DHCPAddressAssignment assignment) {
+        String key = key(value);
+        List<DHCPAddressAssignment> entries = index.get(key);
+        if (entries != null) {
+            entries.remove(assignment);
+            if (entries.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String key(String value) {
+        return StringUtils.lowerCase(value);
+    }
+}
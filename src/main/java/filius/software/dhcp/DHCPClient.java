@@ -33,6 +33,7 @@ import static filius.software.dhcp.DHCPClient.State.INIT;
 import static filius.software.dhcp.DHCPClient.State.REQUEST;
 import static filius.software.dhcp.DHCPClient.State.VALIDATE;
 
+import java.awt.GraphicsEnvironment;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,6 +48,7 @@ import filius.gui.GUIContainer;
 import filius.gui.netzwerksicht.GUIKnotenItem;
 import filius.hardware.Verbindung;
 import filius.hardware.knoten.Knoten;
+import filius.software.SimulationClock;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.system.Betriebssystem;
 import filius.software.system.InternetKnotenBetriebssystem;
@@ -105,6 +107,10 @@ public class DHCPClient extends ClientAnwendung {
     private List<DHCPServer> getDHCPServers() {
         SystemSoftware syssoft;
         List<DHCPServer> activeDHCPServers = new ArrayList<DHCPServer>();
+        if (GraphicsEnvironment.isHeadless()) {
+            // ohne Oberflaeche (Batch-Betrieb) startet der KnotenStarter die DHCP-Server in einer frueheren Phase
+            return activeDHCPServers;
+        }
         for (GUIKnotenItem knotenItem : GUIContainer.getGUIContainer().getKnotenItems()) {
             syssoft = knotenItem.getKnoten().getSystemSoftware();
             if (syssoft instanceof Betriebssystem) {
@@ -226,7 +232,7 @@ public class DHCPClient extends ClientAnwendung {
             String serverIdentifier, DHCPMessageType... messageTypes)
             throws NoValidDhcpResponseException, TimeOutException {
         DHCPMessage responseMessage = null;
-        long start = System.currentTimeMillis();
+        long start = SimulationClock.getSimulationClock().jetzt();
         long duration = 0;
         do {
             String response = socket.empfangen(socketTimeoutMillis - duration);
@@ -241,7 +247,7 @@ public class DHCPClient extends ClientAnwendung {
             if (invalidMessageType || forOtherClient || fromOtherServer) {
                 responseMessage = null;
             }
-            duration = System.currentTimeMillis() - start;
+            duration = SimulationClock.getSimulationClock().jetzt() - start;
         } while (null == responseMessage && duration < socketTimeoutMillis);
         if (null == responseMessage) {
             throw new NoValidDhcpResponseException("No valid server response received");
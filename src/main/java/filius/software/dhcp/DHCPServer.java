@@ -27,7 +27,6 @@ package filius.software.dhcp;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.StringTokenizer;
 
@@ -39,6 +38,7 @@ import filius.exception.AddressRequestNotAcceptedException;
 import filius.exception.NoAvailableAddressException;
 import filius.hardware.Verbindung;
 import filius.rahmenprogramm.EingabenUeberpruefung;
+import filius.software.SimulationClock;
 import filius.software.clientserver.UDPServerAnwendung;
 import filius.software.system.GatewayFirmware;
 import filius.software.transportschicht.Socket;
@@ -71,14 +71,16 @@ public class DHCPServer extends UDPServerAnwendung {
 
     /** Die zuletzt vergebene IP-Adresse */
     String lastOfferedAddress = null;
+    /** Belegung des Adressbereichs ueber alle folgenden Tabellen zur Suche nach der naechsten freien Adresse */
+    private final DHCPAddressPool addressPool = new DHCPAddressPool();
     /** Liste mit dynamisch vergebenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> dynamicAssignedAddresses = new ArrayList<DHCPAddressAssignment>();
+    final DHCPAssignmentTable dynamicAssignedAddresses = new DHCPAssignmentTable(addressPool);
     /** Liste mit statisch vergebenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> staticAssignedAddresses = new ArrayList<DHCPAddressAssignment>();
+    final DHCPAssignmentTable staticAssignedAddresses = new DHCPAssignmentTable(addressPool);
     /** Liste mit angebotenen IP-Adressen mit zugehoeriger MAC-Adresse */
-    List<DHCPAddressAssignment> offeredAddresses = new ArrayList<DHCPAddressAssignment>();
+    final DHCPAssignmentTable offeredAddresses = new DHCPAssignmentTable(addressPool);
     /** Liste mit IP-Adressen, die von anderen Servern angeboten wurden. */
-    List<DHCPAddressAssignment> blacklist = new ArrayList<DHCPAddressAssignment>();
+    final DHCPAssignmentTable blacklist = new DHCPAssignmentTable(addressPool);
 
     /** Konstruktor, in dem der UDP-Port 67 gesetzt wird. */
     public DHCPServer() {
@@ -106,45 +108,63 @@ public class DHCPServer extends UDPServerAnwendung {
     public synchronized String offerAddress(String mac) throws NoAvailableAddressException {
         String addressToOffer = findStaticOffer(mac);
         if (addressToOffer == null) {
-            addressToOffer = findDynamicOffer(mac);
+            cleanUpAssignments();
+            addressToOffer = findPreviousOffer(mac);
+            if (addressToOffer == null) {
+                addressToOffer = findDynamicOffer();
+            }
+            offeredAddresses.removeAll(offeredAddresses.findByMac(mac));
+            long leaseTime = SimulationClock.getSimulationClock().jetzt() + 4 * Verbindung.holeRTT();
+            offeredAddresses.add(new DHCPAddressAssignment(mac, addressToOffer, leaseTime));
         }
         return addressToOffer;
     }
 
-    private String findDynamicOffer(String mac) throws NoAvailableAddressException {
-        String addressToOffer;
-        addressToOffer = nextAddress();
-        String firstOffer = addressToOffer;
-        while (!checkAddressAvailable(addressToOffer)) {
-            addressToOffer = nextAddress();
-            if (StringUtils.equals(firstOffer, addressToOffer)) {
-                throw new NoAvailableAddressException();
-            }
+    /**
+     * Die naechste freie Adresse wird ab der zuletzt angebotenen Adresse in der Bitmap des Adressbereichs gesucht. Der
+     * Aufwand haengt damit nicht von der Anzahl der bereits vergebenen Adressen ab.
+     */
+    private String findDynamicOffer() throws NoAvailableAddressException {
+        long address = addressPool.nextFree(ipToLong(untergrenze), ipToLong(obergrenze), ipToLong(nextAddress()));
+        if (address < 0) {
+            throw new NoAvailableAddressException();
         }
-        long leaseTime = System.currentTimeMillis() + 4 * Verbindung.holeRTT();
-        offeredAddresses.add(new DHCPAddressAssignment(mac, addressToOffer, leaseTime));
-        return addressToOffer;
+        lastOfferedAddress = longToIp(address);
+        return lastOfferedAddress;
     }
 
-    private String findStaticOffer(String mac) {
+    /**
+     * Einem Client, dem bereits eine Adresse angeboten oder zugewiesen wurde, wird wieder dieselbe Adresse angeboten
+     * (vgl. RFC 2131, Abschnitt 4.3.1), damit wiederholte Anfragen keine weiteren Adressen belegen.
+     */
+    private String findPreviousOffer(String mac) {
         String addressToOffer = null;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(mac, entry.getMAC())) {
-                addressToOffer = entry.getIp();
-                break;
+        List<DHCPAddressAssignment> previous = offeredAddresses.findByMac(mac);
+        if (previous.isEmpty()) {
+            previous = dynamicAssignedAddresses.findByMac(mac);
+        }
+        if (!previous.isEmpty()) {
+            String ip = previous.get(previous.size() - 1).getIp();
+            if (inRange(ip) && !staticAssignedAddresses.containsIp(ip) && !blacklist.containsIp(ip)) {
+                addressToOffer = ip;
             }
         }
         return addressToOffer;
     }
 
+    private String findStaticOffer(String mac) {
+        List<DHCPAddressAssignment> entries = staticAssignedAddresses.findByMac(mac);
+        return entries.isEmpty() ? null : entries.get(0).getIp();
+    }
+
     public synchronized void blacklistAddress(String ip) {
-        long leaseTime = System.currentTimeMillis() + 4 * Verbindung.holeRTT();
+        long leaseTime = SimulationClock.getSimulationClock().jetzt() + 4 * Verbindung.holeRTT();
         blacklist.add(new DHCPAddressAssignment("", ip, leaseTime));
     }
 
     public synchronized DHCPAddressAssignment requestAddress(String mac, String ip)
             throws AddressRequestNotAcceptedException {
-        if (assignmentListContains(blacklist, ip)) {
+        if (blacklist.containsIp(ip)) {
             throw new AddressRequestNotAcceptedException();
         }
         DHCPAddressAssignment assignment = requestStaticAssignment(mac, ip);
@@ -156,8 +176,8 @@ public class DHCPServer extends UDPServerAnwendung {
 
     private DHCPAddressAssignment requestStaticAssignment(String mac, String ip) {
         DHCPAddressAssignment assignment = null;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(mac, entry.getMAC()) && StringUtils.equalsIgnoreCase(ip, entry.getIp())) {
+        for (DHCPAddressAssignment entry : staticAssignedAddresses.findByMac(mac)) {
+            if (StringUtils.equalsIgnoreCase(ip, entry.getIp())) {
                 assignment = entry;
                 break;
             }
@@ -167,25 +187,19 @@ public class DHCPServer extends UDPServerAnwendung {
 
     private DHCPAddressAssignment requestDynamicAssignment(String mac, String ip)
             throws AddressRequestNotAcceptedException {
-        boolean success = false;
-        for (DHCPAddressAssignment assignment : offeredAddresses) {
-            if (StringUtils.equalsIgnoreCase(ip, assignment.getIp())) {
-                if (StringUtils.equalsIgnoreCase(mac, assignment.getMAC())) {
-                    success = true;
-                    offeredAddresses.remove(assignment);
-                    break;
-                } else {
-                    success = false;
-                    break;
-                }
-            }
-        }
-        if (!success && checkAddressAvailable(ip)) {
-            success = true;
+        boolean success;
+        DHCPAddressAssignment offer = offeredAddresses.findByIp(ip);
+        if (offer != null) {
+            success = StringUtils.equalsIgnoreCase(mac, offer.getMAC());
+        } else {
+            success = checkAddressAvailable(ip);
         }
         DHCPAddressAssignment assignment;
         if (success) {
-            assignment = new DHCPAddressAssignment(mac, ip, System.currentTimeMillis() + DEFAULT_LEASE_TIME_MILLIS);
+            offeredAddresses.removeAll(offeredAddresses.findByMac(mac));
+            dynamicAssignedAddresses.removeAll(dynamicAssignedAddresses.findByMac(mac));
+            assignment = new DHCPAddressAssignment(mac, ip,
+                    SimulationClock.getSimulationClock().jetzt() + DEFAULT_LEASE_TIME_MILLIS);
             dynamicAssignedAddresses.add(assignment);
         } else {
             throw new AddressRequestNotAcceptedException();
@@ -204,29 +218,8 @@ public class DHCPServer extends UDPServerAnwendung {
     synchronized boolean checkAddressAvailable(String ip) {
         cleanUpAssignments();
 
-        boolean available = true;
-        if (assignmentListContains(dynamicAssignedAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(staticAssignedAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(offeredAddresses, ip)) {
-            available = false;
-        } else if (assignmentListContains(blacklist, ip)) {
-            available = false;
-        }
-
-        return available;
-    }
-
-    private boolean assignmentListContains(List<DHCPAddressAssignment> assignmentList, String ip) {
-        boolean contains = false;
-        for (DHCPAddressAssignment assignment : assignmentList) {
-            if (assignment.getIp().equalsIgnoreCase(ip)) {
-                contains = true;
-                break;
-            }
-        }
-        return contains;
+        return !dynamicAssignedAddresses.containsIp(ip) && !staticAssignedAddresses.containsIp(ip)
+                && !offeredAddresses.containsIp(ip) && !blacklist.containsIp(ip);
     }
 
     public void setOwnSettings(boolean val) {
@@ -235,32 +228,22 @@ public class DHCPServer extends UDPServerAnwendung {
 
     /**
      * Entfernt abgelaufene Eintraege. Wird automatisch vor jeder Suche nach der naechsten freien IP-Adresse
-     * ausgefuehrt.
+     * ausgefuehrt. Dabei werden nur die Eintraege betrachtet, deren Leasezeit tatsaechlich abgelaufen ist.
      */
     synchronized void cleanUpAssignments() {
-        cleanUpAssignmentList(dynamicAssignedAddresses);
-        cleanUpAssignmentList(staticAssignedAddresses);
-        cleanUpAssignmentList(offeredAddresses);
-        cleanUpAssignmentList(blacklist);
-    }
-
-    private void cleanUpAssignmentList(List<DHCPAddressAssignment> assignments) {
-        List<DHCPAddressAssignment> expiredAssignments = new LinkedList<>();
-        for (DHCPAddressAssignment assignment : assignments) {
-            if (assignment.isExpired()) {
-                expiredAssignments.add(assignment);
-            }
-        }
-        for (DHCPAddressAssignment expired : expiredAssignments) {
-            assignments.remove(expired);
-        }
+        dynamicAssignedAddresses.removeExpired();
+        staticAssignedAddresses.removeExpired();
+        offeredAddresses.removeExpired();
+        blacklist.removeExpired();
     }
 
     public void starten() {
         LOG.debug(
                 "INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (DHCPServer), starten()");
-        dynamicAssignedAddresses.clear();
-        lastOfferedAddress = null;
+        synchronized (this) {
+            dynamicAssignedAddresses.clear();
+            lastOfferedAddress = null;
+        }
         super.starten();
     }
 
@@ -382,11 +365,11 @@ public class DHCPServer extends UDPServerAnwendung {
         return getSystemSoftware().primarySubnetMask();
     }
 
-    public List<DHCPAddressAssignment> holeStaticAssignedAddresses() {
-        return Collections.unmodifiableList(staticAssignedAddresses);
+    public synchronized List<DHCPAddressAssignment> holeStaticAssignedAddresses() {
+        return Collections.unmodifiableList(staticAssignedAddresses.toList());
     }
 
-    public List<String> getStaticAssignedAddresses() {
+    public synchronized List<String> getStaticAssignedAddresses() {
         List<String> entries = new ArrayList<>();
         for (DHCPAddressAssignment entry : staticAssignedAddresses) {
             entries.add(String.format("%s %s", entry.getMAC(), entry.getIp()));
@@ -394,7 +377,7 @@ public class DHCPServer extends UDPServerAnwendung {
         return entries;
     }
 
-    public void setStaticAssignedAddresses(List<String> assignedAddresses) {
+    public synchronized void setStaticAssignedAddresses(List<String> assignedAddresses) {
         staticAssignedAddresses.clear();
         for (String entry : assignedAddresses) {
             String[] pair = StringUtils.split(entry);
@@ -402,21 +385,15 @@ public class DHCPServer extends UDPServerAnwendung {
         }
     }
 
-    public void addStaticAssignment(String mac, String ip) {
-        boolean alreadyExisting = false;
-        for (DHCPAddressAssignment entry : staticAssignedAddresses) {
-            if (StringUtils.equalsIgnoreCase(entry.getMAC(), mac)) {
-                alreadyExisting = true;
-                break;
-            }
-        }
+    public synchronized void addStaticAssignment(String mac, String ip) {
+        boolean alreadyExisting = !staticAssignedAddresses.findByMac(mac).isEmpty();
         if (!alreadyExisting && EingabenUeberpruefung.isGueltig(mac, EingabenUeberpruefung.musterMacAddress)
                 && EingabenUeberpruefung.isGueltig(ip, EingabenUeberpruefung.musterIpAdresse)) {
             staticAssignedAddresses.add(new DHCPAddressAssignment(mac, ip, 0));
         }
     }
 
-    public void clearStaticAssignments() {
+    public synchronized void clearStaticAssignments() {
         staticAssignedAddresses.clear();
     }
 }
@@ -0,0 +1,137 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dns;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import filius.software.SimulationClock;
+
+/**
+ * Cache fuer Ergebnisse der Namensaufloesung. Ein Eintrag gilt so lange, wie es die TTL der enthaltenen Resource
+ * Records erlaubt (die kleinste TTL bestimmt die Gueltigkeit). Ergebnisse ohne Resource Records werden als negative
+ * Antwort fuer {@link #NEGATIVE_TTL_MILLIS} gespeichert. Die Zeit wird mit der Simulationsuhr gemessen.
+ */
+class DNSCache<T> {
+    /** Gueltigkeit einer negativen Antwort, d. h. einer Antwort ohne passende Resource Records */
+    static final long NEGATIVE_TTL_MILLIS = 60000;
+
+    /** maximale Anzahl der Eintraege; darueber wird der am laengsten nicht genutzte Eintrag verdraengt */
+    static final int MAX_EINTRAEGE = 1024;
+
+    private static class Eintrag<T> {
+        final T wert;
+        final long gueltigBis;
+
+        Eintrag(T wert, long gueltigBis) {
+            this.wert = wert;
+            this.gueltigBis = gueltigBis;
+        }
+    }
+
+    private final LongSupplier uhr;
+    private final Map<String, Eintrag<T>> eintraege = new LinkedHashMap<String, Eintrag<T>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Eintrag<T>> eldest) {
+            return size() > MAX_EINTRAEGE;
+        }
+    };
+    private long treffer;
+    private long fehlschlaege;
+
+    DNSCache() {
+        this(() -> SimulationClock.getSimulationClock().jetzt());
+    }
+
+    DNSCache(LongSupplier uhr) {
+        this.uhr = uhr;
+    }
+
+    /** Der Schluessel eines Eintrags aus den uebergebenen Teilen, ohne Beachtung von Gross- und Kleinschreibung */
+    static String schluessel(String... teile) {
+        return String.join(" ", teile).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Die Gueltigkeitsdauer fuer ein Ergebnis mit den uebergebenen Resource Records in Millisekunden: die kleinste TTL
+     * der Records oder {@link #NEGATIVE_TTL_MILLIS}, wenn die Liste leer ist.
+     */
+    static long gueltigkeit(List<ResourceRecord> records) {
+        if (records.isEmpty()) {
+            return NEGATIVE_TTL_MILLIS;
+        }
+        long ttl = Long.MAX_VALUE;
+        for (ResourceRecord record : records) {
+            ttl = Math.min(ttl, Math.max(0, record.getTtl()));
+        }
+        return ttl * 1000;
+    }
+
+    /** @return der gespeicherte Wert oder null, wenn kein gueltiger Eintrag vorhanden ist */
+    synchronized T hole(String schluessel) {
+        Eintrag<T> eintrag = eintraege.get(schluessel);
+        if (eintrag != null && eintrag.gueltigBis <= uhr.getAsLong()) {
+            eintraege.remove(schluessel);
+            eintrag = null;
+        }
+        if (eintrag == null) {
+            fehlschlaege++;
+            return null;
+        }
+        treffer++;
+        return eintrag.wert;
+    }
+
+    /** Speichert einen Wert fuer die angegebene Dauer. Mit einer Dauer von 0 wird nichts gespeichert. */
+    synchronized void speichern(String schluessel, T wert, long gueltigkeitMillis) {
+        if (gueltigkeitMillis > 0) {
+            eintraege.put(schluessel, new Eintrag<>(wert, uhr.getAsLong() + gueltigkeitMillis));
+        } else {
+            eintraege.remove(schluessel);
+        }
+    }
+
+    synchronized void leeren() {
+        eintraege.clear();
+    }
+
+    synchronized int groesse() {
+        return eintraege.size();
+    }
+
+    synchronized long holeTreffer() {
+        return treffer;
+    }
+
+    synchronized long holeFehlschlaege() {
+        return fehlschlaege;
+    }
+}
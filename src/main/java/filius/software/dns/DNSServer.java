@@ -26,9 +26,7 @@
 package filius.software.dns;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.StringTokenizer;
 
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -47,6 +45,12 @@ public class DNSServer extends UDPServerAnwendung {
     private boolean recursiveResolutionEnabled = false;
     private Resolver resolver;
 
+    /** die zuletzt eingelesene Zone; sie wird erst neu erstellt, wenn sich die Datei /dns/hosts geaendert hat */
+    private volatile Zone zone;
+
+    /** Ergebnisse der rekursiven Aufloesung bei anderen DNS-Servern */
+    private final DNSCache<List<ResourceRecord>> rekursionsCache = new DNSCache<>();
+
     public boolean isRecursiveResolutionEnabled() {
         return recursiveResolutionEnabled;
     }
@@ -86,6 +90,18 @@ public class DNSServer extends UDPServerAnwendung {
     public void beenden() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (DNSServer), beenden()");
         super.beenden();
+        zone = null;
+        rekursionsCache.leeren();
+    }
+
+    /** Anzahl der rekursiven Anfragen, die aus dem Cache beantwortet wurden */
+    public long holeCacheTreffer() {
+        return rekursionsCache.holeTreffer();
+    }
+
+    /** Anzahl der rekursiven Anfragen, fuer die andere DNS-Server gefragt werden mussten */
+    public long holeCacheFehlschlaege() {
+        return rekursionsCache.holeFehlschlaege();
     }
 
     public List<ResourceRecord> holeResourceRecords() {
@@ -106,23 +122,29 @@ public class DNSServer extends UDPServerAnwendung {
     private List<ResourceRecord> leseRecordListe() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + ", initialisiereRecordListe()");
+        return Zone.lesen(holeHostsDatei());
+    }
 
+    private Datei holeHostsDatei() {
         Dateisystem dateisystem = getSystemSoftware().getDateisystem();
-        Datei hosts = dateisystem.holeDatei(Dateisystem.FILE_SEPARATOR + "dns" + Dateisystem.FILE_SEPARATOR + "hosts");
-
-        List<ResourceRecord> resourceRecords = new LinkedList<ResourceRecord>();
-        if (hosts != null) {
-            StringTokenizer tokenizer = new StringTokenizer(hosts.getDateiInhalt(), "\n");
+        return dateisystem.holeDatei(Dateisystem.FILE_SEPARATOR + "dns" + Dateisystem.FILE_SEPARATOR + "hosts");
+    }
 
-            while (tokenizer.hasMoreTokens()) {
-                String line = tokenizer.nextToken().trim();
-                if (!line.equals("") && !(line.split(" ", 5).length < 4)) {
-                    ResourceRecord rr = new ResourceRecord(line);
-                    resourceRecords.add(rr);
-                }
-            }
+    /**
+     * Die Zone fuer die Beantwortung von Anfragen. Sie wird nur neu eingelesen, wenn sich die Datei /dns/hosts seit dem
+     * letzten Aufruf geaendert hat. Weil sich damit auch Delegationen an andere DNS-Server aendern koennen, wird dann
+     * auch der Cache fuer die rekursive Aufloesung geleert.
+     */
+    Zone holeZone() {
+        Datei hosts = holeHostsDatei();
+        Zone aktuelleZone = zone;
+        if (aktuelleZone == null || !aktuelleZone.istAktuell(hosts)) {
+            aktuelleZone = new Zone(hosts);
+            zone = aktuelleZone;
+            rekursionsCache.leeren();
+            LOG.debug("dns zone loaded with {} resource records", aktuelleZone.holeRecords().size());
         }
-        return resourceRecords;
+        return aktuelleZone;
     }
 
     private void schreibeRecordListe(List<ResourceRecord> records) {
@@ -186,12 +208,12 @@ public class DNSServer extends UDPServerAnwendung {
 
     private List<ResourceRecord> defineNameserverRecords(Query query) {
         List<ResourceRecord> answerResourceRecords = new ArrayList<>();
-        List<ResourceRecord> records = leseRecordListe();
-        ResourceRecord nameserverNSRecord = ResourceRecord.findApplicableNSRecord(query.holeDomainname(), records);
+        Zone aktuelleZone = holeZone();
+        ResourceRecord nameserverNSRecord = aktuelleZone.findApplicableNSRecord(query.holeDomainname());
         if (null != nameserverNSRecord) {
             answerResourceRecords.add(nameserverNSRecord);
-            ResourceRecord nameserverARecord = ResourceRecord.findRecord(nameserverNSRecord.getRdata(),
-                    ResourceRecord.ADDRESS, records);
+            ResourceRecord nameserverARecord = aktuelleZone.findRecord(nameserverNSRecord.getRdata(),
+                    ResourceRecord.ADDRESS);
             if (null != nameserverARecord) {
                 answerResourceRecords.add(nameserverARecord);
             }
@@ -200,13 +222,18 @@ public class DNSServer extends UDPServerAnwendung {
     }
 
     List<ResourceRecord> answerWithRemoteData(Query query) {
+        Zone aktuelleZone = holeZone();
+        String schluessel = DNSCache.schluessel(query.holeDomainname(), query.holeTyp());
+        List<ResourceRecord> gespeichert = rekursionsCache.hole(schluessel);
+        if (gespeichert != null) {
+            return new ArrayList<>(gespeichert);
+        }
+
         List<ResourceRecord> answerResourceRecords = new ArrayList<>();
-        List<ResourceRecord> recordList = leseRecordListe();
-        ResourceRecord nsRecord = ResourceRecord.findApplicableNSRecord(query.holeDomainname(), recordList);
+        ResourceRecord nsRecord = aktuelleZone.findApplicableNSRecord(query.holeDomainname());
         String dnsServerAddress;
         if (null != nsRecord) {
-            ResourceRecord addressNsRecord = ResourceRecord.findRecord(nsRecord.getRdata(), ResourceRecord.ADDRESS,
-                    recordList);
+            ResourceRecord addressNsRecord = aktuelleZone.findRecord(nsRecord.getRdata(), ResourceRecord.ADDRESS);
             if (null != addressNsRecord) {
                 dnsServerAddress = addressNsRecord.getRdata();
                 answerResourceRecords.addAll(resolveWithNameserver(query, dnsServerAddress));
@@ -217,6 +244,10 @@ public class DNSServer extends UDPServerAnwendung {
             dnsServerAddress = getSystemSoftware().getDNSServer();
             answerResourceRecords.addAll(resolveWithNameserver(query, dnsServerAddress));
         }
+        if (!answerResourceRecords.isEmpty()) {
+            rekursionsCache.speichern(schluessel, new ArrayList<>(answerResourceRecords),
+                    DNSCache.gueltigkeit(answerResourceRecords));
+        }
         return answerResourceRecords;
     }
 
@@ -237,15 +268,14 @@ public class DNSServer extends UDPServerAnwendung {
 
     List<ResourceRecord> answerWithLocalData(Query query) {
         List<ResourceRecord> answerResourceRecords = new ArrayList<>();
-        List<ResourceRecord> recordList = leseRecordListe();
-        List<ResourceRecord> matchingRecordList = ResourceRecord.findRecords(query.holeDomainname(), query.holeTyp(),
-                recordList);
+        Zone aktuelleZone = holeZone();
+        List<ResourceRecord> matchingRecordList = aktuelleZone.findRecords(query.holeDomainname(), query.holeTyp());
         for (ResourceRecord responseRecord : matchingRecordList) {
             answerResourceRecords.add(responseRecord);
             if (responseRecord.getType().equals(ResourceRecord.MAIL_EXCHANGE)
                     || responseRecord.getType().equals(ResourceRecord.NAME_SERVER)) {
-                ResourceRecord addressForMxOrNsRecord = ResourceRecord.findRecord(responseRecord.getRdata(),
-                        ResourceRecord.ADDRESS, recordList);
+                ResourceRecord addressForMxOrNsRecord = aktuelleZone.findRecord(responseRecord.getRdata(),
+                        ResourceRecord.ADDRESS);
                 if (addressForMxOrNsRecord != null) {
                     answerResourceRecords.add(addressForMxOrNsRecord);
                 }
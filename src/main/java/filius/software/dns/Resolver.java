@@ -78,6 +78,33 @@ public class Resolver extends ClientAnwendung {
 
     private DNSQueryAgent queryAgent = new DNSQueryAgent();
 
+    /**
+     * Ergebnisse frueherer Aufloesungen je DNS-Server, Domainname und Typ. Positive Ergebnisse gelten entsprechend der
+     * TTL der Resource Records, Antworten ohne passende Records fuer {@link DNSCache#NEGATIVE_TTL_MILLIS}.
+     */
+    private final DNSCache<DNSNachricht> cache = new DNSCache<>();
+
+    void setzeQueryAgent(DNSQueryAgent queryAgent) {
+        this.queryAgent = queryAgent;
+    }
+
+    /** Beim Beenden der Simulation wird der Cache geleert, damit Aenderungen im Entwurfsmodus wirksam werden. */
+    @Override
+    public void beenden() {
+        super.beenden();
+        cache.leeren();
+    }
+
+    /** Anzahl der Aufloesungen, die aus dem Cache beantwortet wurden */
+    public long holeCacheTreffer() {
+        return cache.holeTreffer();
+    }
+
+    /** Anzahl der Aufloesungen, fuer die DNS-Server gefragt werden mussten */
+    public long holeCacheFehlschlaege() {
+        return cache.holeFehlschlaege();
+    }
+
     public String holeIPAdresse(String domainname) throws TimeOutException {
         return holeIPAdresse(domainname, getSystemSoftware().getDNSServer());
     }
@@ -154,18 +181,29 @@ public class Resolver extends ClientAnwendung {
 
         DNSNachricht response = new DNSNachricht(DNSNachricht.RESPONSE);
         String serverToQuery = null;
+        String schluessel = null;
         if (LOCALHOST_PATTERN.matcher(domainname).matches()) {
             response.setLocal();
             response.hinzuAntwortResourceRecord(ResourceRecord.LOCALHOST_ADDRESS);
         } else {
+            schluessel = DNSCache.schluessel(String.valueOf(dnsServerAddress), domainname, type);
+            DNSNachricht gespeichert = cache.hole(schluessel);
+            if (gespeichert != null) {
+                LOG.debug("dns query for {} {} answered from cache", domainname, type);
+                return kopie(gespeichert);
+            }
             serverToQuery = dnsServerAddress;
         }
+        boolean beantwortet = false;
         Set<String> queriedDnsServer = new HashSet<>();
         while (serverToQuery != null) {
             DNSNachricht remoteResponse = queryAgent.query(type, domainname, serverToQuery, getSystemSoftware());
             if (remoteResponse == null) {
+                // ohne Antwort eines Servers ist das Ergebnis unvollstaendig und wird nicht gespeichert
+                beantwortet = false;
                 break;
             }
+            beantwortet = true;
 
             copyResourceRecords(remoteResponse, response, domainname, type);
             List<ResourceRecord> data = extractRankedResourceRecordList(remoteResponse, type, domainname);
@@ -179,9 +217,20 @@ public class Resolver extends ClientAnwendung {
             serverToQuery = queriedDnsServer.add(nextServerToQuery) ? nextServerToQuery : null;
         }
         LOG.debug("resolved dns query for {} {}: {}", domainname, type, response.holeResourceRecords());
+        if (beantwortet) {
+            cache.speichern(schluessel, kopie(response), DNSCache.gueltigkeit(response.holeResourceRecords()));
+        }
         return response;
     }
 
+    /** Eine Kopie der Antwort, damit Aufrufer die Listen im Cache nicht veraendern koennen */
+    private static DNSNachricht kopie(DNSNachricht antwort) {
+        DNSNachricht kopie = new DNSNachricht(DNSNachricht.RESPONSE);
+        kopie.hinzuAntwortResourceRecords(antwort.holeAntwortResourceRecords());
+        kopie.hinzuAuthoritativeResourceRecords(antwort.holeAuthoritativeResourceRecords());
+        return kopie;
+    }
+
     private void copyResourceRecords(DNSNachricht source, DNSNachricht target, String domainname, String type) {
         target.hinzuAntwortResourceRecords(
                 extractResourceRecords(source.holeAntwortResourceRecords(), type, domainname));
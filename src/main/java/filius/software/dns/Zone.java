@@ -0,0 +1,110 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.dns;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+
+import filius.software.system.Datei;
+
+/**
+ * Die Resource Records aus der Datei <code>/dns/hosts</code> eines DNS-Servers. Die Datei wird einmal eingelesen und
+ * die Records werden nach Domainname und Typ indiziert. Solange sich die Datei nicht aendert, werden Anfragen ohne
+ * erneutes Einlesen beantwortet. Die Ergebnisse entsprechen den Suchmethoden in {@link ResourceRecord}.
+ */
+class Zone {
+    /** die Datei und ihr Inhalt, aus denen die Zone erstellt wurde */
+    private final Datei datei;
+    private final String inhalt;
+
+    private final List<ResourceRecord> records;
+    private final Map<String, List<ResourceRecord>> index = new HashMap<>();
+
+    Zone(Datei hosts) {
+        datei = hosts;
+        inhalt = hosts != null ? hosts.getDateiInhalt() : null;
+        records = Collections.unmodifiableList(lesen(hosts));
+        for (ResourceRecord record : records) {
+            index.computeIfAbsent(DNSCache.schluessel(record.getDomainname(), record.getType()),
+                    schluessel -> new ArrayList<>()).add(record);
+        }
+    }
+
+    /** Liest die Resource Records aus der Datei. Jeder Aufruf liefert eine neue Liste mit neuen Records. */
+    static List<ResourceRecord> lesen(Datei hosts) {
+        List<ResourceRecord> resourceRecords = new LinkedList<ResourceRecord>();
+        if (hosts != null && hosts.getDateiInhalt() != null) {
+            StringTokenizer tokenizer = new StringTokenizer(hosts.getDateiInhalt(), "\n");
+
+            while (tokenizer.hasMoreTokens()) {
+                String line = tokenizer.nextToken().trim();
+                if (!line.equals("") && !(line.split(" ", 5).length < 4)) {
+                    ResourceRecord rr = new ResourceRecord(line);
+                    resourceRecords.add(rr);
+                }
+            }
+        }
+        return resourceRecords;
+    }
+
+    /** ob die Zone noch dem Stand der uebergebenen Datei entspricht */
+    boolean istAktuell(Datei hosts) {
+        return hosts == datei && (hosts == null || hosts.getDateiInhalt() == inhalt);
+    }
+
+    List<ResourceRecord> holeRecords() {
+        return records;
+    }
+
+    List<ResourceRecord> findRecords(String domainname, String typ) {
+        List<ResourceRecord> treffer = index.get(DNSCache.schluessel(domainname, typ));
+        return treffer != null ? treffer : Collections.emptyList();
+    }
+
+    ResourceRecord findRecord(String domainname, String typ) {
+        List<ResourceRecord> treffer = findRecords(domainname, typ);
+        return treffer.isEmpty() ? null : treffer.get(0);
+    }
+
+    /** @see ResourceRecord#findApplicableNSRecord(String, List) */
+    ResourceRecord findApplicableNSRecord(String domainname) {
+        String[] parts = domainname.split("\\.");
+        for (int i = 0; i < parts.length; i++) {
+            String domain = String.join(".", Arrays.copyOfRange(parts, i, parts.length)) + ".";
+            ResourceRecord nsRecord = findRecord(domain, ResourceRecord.NAME_SERVER);
+            if (nsRecord != null) {
+                return nsRecord;
+            }
+        }
+        return findRecord(".", ResourceRecord.NAME_SERVER);
+    }
+}
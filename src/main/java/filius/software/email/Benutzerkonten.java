@@ -0,0 +1,189 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.email;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Liste der Benutzerkonten eines E-Mail-Servers mit einem Index ueber den Benutzernamen. Die Suche nach einem Konto
+ * ({@link #holeKonto(String)}) benoetigt damit konstante Zeit und Gross-/Kleinschreibung wird dabei nicht
+ * unterschieden. <br />
+ * Lesende Zugriffe sind nicht blockierend: Iteratoren arbeiten auf einer Momentaufnahme der Liste, so dass SMTP- und
+ * POP3-Mitarbeiter die Konten durchlaufen koennen, waehrend Konten hinzugefuegt oder entfernt werden. Aenderungen
+ * werden synchronisiert, damit Liste und Index uebereinstimmen. Da auch Aenderungen ueber die Methoden von
+ * {@link java.util.List} (z. B. beim Laden eines Projekts) in den Index uebernommen werden, kann die Liste wie bisher
+ * ueber {@link EmailServer#getListeBenutzerkonten()} bearbeitet werden.
+ */
+public class Benutzerkonten extends AbstractList<EmailKonto> {
+
+    private volatile CopyOnWriteArrayList<EmailKonto> konten = new CopyOnWriteArrayList<EmailKonto>();
+
+    private volatile Map<String, EmailKonto> index = new ConcurrentHashMap<String, EmailKonto>();
+
+    public Benutzerkonten() {}
+
+    /**
+     * Das Konto mit dem angegebenen Benutzernamen. Gibt es mehrere Konten mit diesem Namen, wird das zuerst
+     * hinzugefuegte zurueck gegeben.
+     * 
+     * @return das Konto oder null, wenn es kein Konto mit diesem Namen gibt
+     */
+    public EmailKonto holeKonto(String benutzername) {
+        if (benutzername == null) {
+            return null;
+        }
+        return index.get(schluessel(benutzername));
+    }
+
+    /**
+     * Fuegt das Konto hinzu, wenn es noch kein Konto mit demselben Benutzernamen gibt. Pruefung und Hinzufuegen
+     * erfolgen atomar.
+     * 
+     * @return ob das Konto hinzugefuegt wurde
+     */
+    public synchronized boolean hinzufuegenFallsNeu(EmailKonto konto) {
+        if (konto.getBenutzername() == null || holeKonto(konto.getBenutzername()) != null) {
+            return false;
+        }
+        add(konto);
+        return true;
+    }
+
+    /** Ersetzt alle Konten. Lesende Zugriffe sehen entweder die alten oder die neuen Konten. */
+    public synchronized void ersetzen(Collection<EmailKonto> neueKonten) {
+        CopyOnWriteArrayList<EmailKonto> neueListe = new CopyOnWriteArrayList<EmailKonto>(neueKonten);
+        Map<String, EmailKonto> neuerIndex = new ConcurrentHashMap<String, EmailKonto>();
+        for (EmailKonto konto : neueListe) {
+            if (konto.getBenutzername() != null) {
+                neuerIndex.putIfAbsent(schluessel(konto.getBenutzername()), konto);
+            }
+        }
+        konten = neueListe;
+        index = neuerIndex;
+        modCount++;
+    }
+
+    @Override
+    public EmailKonto get(int i) {
+        return konten.get(i);
+    }
+
+    @Override
+    public int size() {
+        return konten.size();
+    }
+
+    @Override
+    public Iterator<EmailKonto> iterator() {
+        return konten.iterator();
+    }
+
+    @Override
+    public ListIterator<EmailKonto> listIterator() {
+        return konten.listIterator();
+    }
+
+    @Override
+    public ListIterator<EmailKonto> listIterator(int i) {
+        return konten.listIterator(i);
+    }
+
+    @Override
+    public synchronized void add(int i, EmailKonto konto) {
+        konten.add(i, konto);
+        eintragen(konto);
+        modCount++;
+    }
+
+    @Override
+    public synchronized EmailKonto set(int i, EmailKonto konto) {
+        EmailKonto alt = konten.set(i, konto);
+        austragen(alt);
+        eintragen(konto);
+        return alt;
+    }
+
+    @Override
+    public synchronized EmailKonto remove(int i) {
+        EmailKonto konto = konten.remove(i);
+        austragen(konto);
+        modCount++;
+        return konto;
+    }
+
+    @Override
+    public synchronized boolean remove(Object konto) {
+        if (konten.remove(konto)) {
+            austragen((EmailKonto) konto);
+            modCount++;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized void clear() {
+        konten.clear();
+        index.clear();
+        modCount++;
+    }
+
+    private void eintragen(EmailKonto konto) {
+        if (konto != null && konto.getBenutzername() != null) {
+            index.putIfAbsent(schluessel(konto.getBenutzername()), konto);
+        }
+    }
+
+    /**
+     * Entfernt das Konto aus dem Index. Gibt es ein weiteres Konto mit diesem Namen, wird dieses anschliessend
+     * gefunden.
+     */
+    private void austragen(EmailKonto konto) {
+        if (konto == null || konto.getBenutzername() == null) {
+            return;
+        }
+        String schluessel = schluessel(konto.getBenutzername());
+        if (index.remove(schluessel, konto)) {
+            for (EmailKonto anderes : konten) {
+                if (anderes.getBenutzername() != null && schluessel(anderes.getBenutzername()).equals(schluessel)) {
+                    index.put(schluessel, anderes);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static String schluessel(String benutzername) {
+        return benutzername.toLowerCase(Locale.ROOT);
+    }
+}
@@ -25,8 +25,8 @@
  */
 package filius.software.email;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +46,11 @@ public class EmailKonto {
     private String pop3server, smtpserver, pop3port, smtpport;
     private String emailAdresse;
 
-    private List<Email> nachrichten = new LinkedList<Email>();
+    /**
+     * Die Nachrichten im Postfach. Iteratoren arbeiten auf einer Momentaufnahme, so dass POP3-Sitzungen das Postfach
+     * lesen koennen, waehrend per SMTP neue Nachrichten abgelegt werden.
+     */
+    private List<Email> nachrichten = new CopyOnWriteArrayList<Email>();
 
     public EmailKonto() {}
 
@@ -96,7 +100,7 @@ public class EmailKonto {
     }
 
     public void setNachrichten(List<Email> nachrichten) {
-        this.nachrichten = nachrichten;
+        this.nachrichten = new CopyOnWriteArrayList<Email>(nachrichten);
     }
 
     public String getNachname() {
@@ -30,6 +30,8 @@ import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.StringTokenizer;
 
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -57,7 +59,14 @@ public class EmailServer extends Anwendung implements I18n {
     private static Logger LOG = LoggerFactory.getLogger(EmailServer.class);
     public static final String LINE_SEPARATOR = "----";
 
-    private List<EmailKonto> listeBenutzerkonten = new LinkedList<EmailKonto>();
+    /** Datei mit den Benutzerkonten (ohne Nachrichten) im Verzeichnis des Mail-Servers */
+    static final String KONTEN_DATEI = "konten.txt";
+
+    /** Verzeichnis, in dem fuer jedes Konto eine Datei mit den Nachrichten des Postfachs abgelegt wird */
+    static final String POSTFACH_VERZEICHNIS = "postfaecher";
+
+    /** Die Benutzerkonten, indiziert ueber den Benutzernamen */
+    private final Benutzerkonten listeBenutzerkonten = new Benutzerkonten();
     private String mailDomain = "filius.de";
     private POP3Server pop3;
     private SMTPServer smtp;
@@ -67,6 +76,17 @@ public class EmailServer extends Anwendung implements I18n {
     private boolean aktiv = false;
     private DefaultMutableTreeNode verzeichnis;
 
+    /** Ob die Liste der Konten geaendert wurde und die Datei mit den Konten neu geschrieben werden muss */
+    private volatile boolean kontenGeaendert = false;
+
+    /**
+     * Konten, deren Postfach-Datei beim naechsten Speichern komplett neu geschrieben werden muss, weil Nachrichten
+     * entfernt wurden oder das Postfach noch nicht als eigene Datei vorliegt. Zugriffe auf ein Postfach (Liste der
+     * Nachrichten und Datei) werden ueber das Konto synchronisiert, so dass verschiedene Postfaecher unabhaengig
+     * voneinander bearbeitet werden koennen.
+     */
+    private Set<EmailKonto> geaendertePostfaecher = ConcurrentHashMap.newKeySet();
+
     // Konstruktoren
     // keine gesondert implementierten
 
@@ -122,9 +142,9 @@ public class EmailServer extends Anwendung implements I18n {
                 "INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (EmailServer), starten()");
         super.starten();
 
-        Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, "konten.txt");
+        Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, KONTEN_DATEI);
         if (konten == null) {
-            konten = new Datei("konten.txt", "txt", "");
+            konten = new Datei(KONTEN_DATEI, "txt", "");
             getSystemSoftware().getDateisystem().speicherDatei(verzeichnis, konten);
         }
         kontenLaden();
@@ -164,29 +184,20 @@ public class EmailServer extends Anwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), benutzerHinzufuegen(" + benutzername + "," + passwort + "," + nachname + ","
                 + vorname + ")");
+        if (nachname == null || nachname.isEmpty() || vorname == null || vorname.isEmpty()) {
+            return false;
+        }
         try {
             EmailKonto konto = new EmailKonto();
-
-            for (EmailKonto kontoAusListe : getListeBenutzerkonten()) {
-                if (kontoAusListe.getBenutzername().equalsIgnoreCase(benutzername)) {
-                    return false;
-                } else if (kontoAusListe.getBenutzername().equals(benutzername)
-                        && (kontoAusListe.getNachname().equalsIgnoreCase(nachname))
-                        && (kontoAusListe.getVorname().equals(vorname))) {
-                    return false;
-                } else if ((kontoAusListe.getNachname().equals("")) || (kontoAusListe.getVorname().equals(""))) {
-                    return false;
-                }
-            }
-
             konto.setBenutzername(benutzername);
             konto.setPasswort(passwort);
             konto.setNachname(nachname);
             konto.setVorname(vorname);
 
-            synchronized (getListeBenutzerkonten()) {
-                getListeBenutzerkonten().add(konto);
+            if (!listeBenutzerkonten.hinzufuegenFallsNeu(konto)) {
+                return false;
             }
+            kontenGeaendert = true;
             benachrichtigeBeobachter();
         } catch (Exception e) {
             throw new CreateAccountException("-ERR This account could not be created. Please try again!");
@@ -213,12 +224,10 @@ public class EmailServer extends Anwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), kontoLoeschen(" + benutzername + "," + passwort + ")");
         try {
-            for (EmailKonto konto : getListeBenutzerkonten()) {
-                if (konto.getBenutzername().equals(benutzername)) {
-                    if (konto.getPasswort().equals(passwort)) {
-                        return kontoLoeschen(konto);
-                    }
-                }
+            EmailKonto konto = listeBenutzerkonten.holeKonto(benutzername);
+            if (konto != null && konto.getBenutzername().equals(benutzername)
+                    && konto.getPasswort().equals(passwort)) {
+                return kontoLoeschen(konto);
             }
         } catch (Exception e) {
             throw new DeleteAccountException(messages.getString("sw_emailserver_msg1"));
@@ -227,8 +236,17 @@ public class EmailServer extends Anwendung implements I18n {
     }
 
     public boolean kontoLoeschen(EmailKonto konto) {
-        synchronized (getListeBenutzerkonten()) {
-            getListeBenutzerkonten().remove(konto);
+        listeBenutzerkonten.remove(konto);
+        kontenGeaendert = true;
+        synchronized (konto) {
+            geaendertePostfaecher.remove(konto);
+            synchronized (this) {
+                DefaultMutableTreeNode postfaecher = postfachVerzeichnis();
+                if (postfaecher != null && holePostfachDatei(konto) != null) {
+                    getSystemSoftware().getDateisystem().deleteFile(Dateisystem.absoluterPfad(postfaecher)
+                            + Dateisystem.FILE_SEPARATOR + postfachDateiname(konto.getBenutzername()));
+                }
+            }
         }
         kontenSpeichern();
         benachrichtigeBeobachter();
@@ -250,10 +268,9 @@ public class EmailServer extends Anwendung implements I18n {
     public EmailKonto sucheKonto(String benName, String passwd) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), sucheKonto(" + benName + "," + passwd + ")");
-        for (EmailKonto konto : getListeBenutzerkonten()) {
-            if (konto.getBenutzername().equalsIgnoreCase(benName) && konto.getPasswort().equals(passwd)) {
-                return konto;
-            }
+        EmailKonto konto = listeBenutzerkonten.holeKonto(benName);
+        if (konto != null && konto.getPasswort().equals(passwd)) {
+            return konto;
         }
         return null;
     }
@@ -267,27 +284,120 @@ public class EmailServer extends Anwendung implements I18n {
     public EmailKonto sucheKonto(String benName) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), sucheKonto(" + benName + ")");
-        for (EmailKonto tempKonto : listeBenutzerkonten) {
-            if (tempKonto.getBenutzername().equalsIgnoreCase(benName)) {
-                return tempKonto;
-            }
-        }
-        return null;
+        return listeBenutzerkonten.holeKonto(benName);
     }
 
     /**
-     * NACHTRAG 2008: Methode ist void, gibt aber boolean erfolg aus, außerdem wird sie in "nachrichtenKommunikation"
-     * aufgerufen, die selbst keinerlei Aufgabe mehr hat! Hier werden die Benutzerkonten zunaechst in einer Datei
-     * gespeichert, anschließend in das virtuelle Baumverzeichnis eingefuegt
-     * 
+     * Hier werden die geaenderten Daten in das Dateisystem geschrieben: die Datei mit den Konten nur, wenn Konten
+     * hinzugefuegt oder geloescht wurden, und die Postfach-Dateien nur fuer Konten, aus deren Postfach Nachrichten
+     * entfernt wurden. Neue Nachrichten werden bereits beim Ablegen an die Postfach-Datei angehaengt (siehe
+     * {@link #emailAblegen(EmailKonto, Email)}). Ohne Aenderungen wird nichts geschrieben.
      */
     public void kontenSpeichern() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), kontenSpeichern()");
 
-        String tmp = listeBenutzerkontenZuString(listeBenutzerkonten);
-        Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, "konten.txt");
-        konten.setDateiInhalt(tmp);
+        if (kontenGeaendert) {
+            synchronized (this) {
+                if (kontenGeaendert) {
+                    kontenGeaendert = false;
+                    Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, KONTEN_DATEI);
+                    if (konten == null) {
+                        konten = new Datei(KONTEN_DATEI, "txt", "");
+                        getSystemSoftware().getDateisystem().speicherDatei(verzeichnis, konten);
+                    }
+                    konten.setDateiInhalt(listeBenutzerkontenZuString(listeBenutzerkonten));
+                }
+            }
+        }
+        for (EmailKonto konto : geaendertePostfaecher) {
+            synchronized (konto) {
+                if (geaendertePostfaecher.remove(konto)) {
+                    StringBuilder nachrichten = new StringBuilder();
+                    for (Email email : konto.getNachrichten()) {
+                        nachrichten.append(emailZuString(email));
+                    }
+                    schreibePostfach(konto, nachrichten.toString(), false);
+                }
+            }
+        }
+    }
+
+    /**
+     * Legt eine Nachricht im Postfach des Kontos ab. Die Nachricht wird direkt an die Postfach-Datei des Kontos
+     * angehaengt, so dass weder die anderen Nachrichten noch andere Postfaecher neu geschrieben werden muessen.
+     */
+    public void emailAblegen(EmailKonto konto, Email email) {
+        LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
+                + " (EmailServer), emailAblegen(" + konto + "," + email + ")");
+        synchronized (konto) {
+            konto.getNachrichten().add(email);
+            if (!geaendertePostfaecher.contains(konto)) {
+                schreibePostfach(konto, emailZuString(email), true);
+            }
+        }
+    }
+
+    /**
+     * Markiert das Postfach des Kontos als geaendert, nachdem Nachrichten daraus entfernt wurden. Die Postfach-Datei
+     * wird beim naechsten Aufruf von {@link #kontenSpeichern()} neu geschrieben.
+     */
+    public void postfachGeaendert(EmailKonto konto) {
+        geaendertePostfaecher.add(konto);
+    }
+
+    /**
+     * Schreibt die Postfach-Datei des Kontos. Der Aufrufer muss das Konto synchronisieren. Das Anlegen einer neuen
+     * Datei wird zusaetzlich ueber den Server synchronisiert, weil dabei das gemeinsame Verzeichnis geaendert wird.
+     */
+    private void schreibePostfach(EmailKonto konto, String inhalt, boolean anhaengen) {
+        Datei postfach = holePostfachDatei(konto);
+        if (postfach == null) {
+            synchronized (this) {
+                postfach = holePostfachDatei(konto);
+                if (postfach == null) {
+                    Dateisystem dateisystem = getSystemSoftware().getDateisystem();
+                    dateisystem.erstelleVerzeichnis(verzeichnis, POSTFACH_VERZEICHNIS);
+                    postfach = new Datei(postfachDateiname(konto.getBenutzername()), "txt", inhalt);
+                    dateisystem.speicherDatei(postfachVerzeichnis(), postfach);
+                    return;
+                }
+            }
+        }
+        if (anhaengen) {
+            postfach.setDateiInhalt(postfach.getDateiInhalt() + inhalt);
+        } else {
+            postfach.setDateiInhalt(inhalt);
+        }
+    }
+
+    private DefaultMutableTreeNode postfachVerzeichnis() {
+        return Dateisystem.verzeichnisKnoten(verzeichnis, POSTFACH_VERZEICHNIS);
+    }
+
+    private Datei holePostfachDatei(EmailKonto konto) {
+        DefaultMutableTreeNode postfaecher = postfachVerzeichnis();
+        if (postfaecher == null) {
+            return null;
+        }
+        return getSystemSoftware().getDateisystem().holeDatei(postfaecher,
+                postfachDateiname(konto.getBenutzername()));
+    }
+
+    /**
+     * Der Name der Postfach-Datei eines Kontos. Zeichen, die in einem Dateinamen stoeren koennten, werden durch '%' und
+     * ihren hexadezimalen Zeichencode ersetzt.
+     */
+    static String postfachDateiname(String benutzername) {
+        StringBuilder name = new StringBuilder();
+        for (char zeichen : benutzername.toCharArray()) {
+            if (Character.isLetterOrDigit(zeichen) || zeichen == '.' || zeichen == '_' || zeichen == '-') {
+                name.append(zeichen);
+            } else {
+                name.append('%').append(Integer.toHexString(zeichen));
+            }
+        }
+        return name.append(".txt").toString();
     }
 
     private String nltobr(String originalText) {
@@ -315,9 +425,9 @@ public class EmailServer extends Anwendung implements I18n {
     }
 
     /**
-     * NACHTRAG 2008: 2te "while-Schleife" scheint ueberfluessig, scheint dennoch zu gehen. Hier wird ein Benutzerkonto
-     * aus der Liste der Benutzerkonten in einen String umgewandelt. Der String hat die Form
-     * benutzername+kontoDomain+passwort+nachname+vorname+nachrichten. Dies brauche ich fuer SPEICHERUNG
+     * Hier wird die Liste der Benutzerkonten in einen String umgewandelt. Eine Zeile hat die Form
+     * benutzername;kontoDomain;passwort;nachname;vorname; Die Nachrichten werden in den Postfach-Dateien gespeichert.
+     * Dies brauche ich fuer SPEICHERUNG
      * 
      * @param benutzerkonten
      * @return
@@ -325,28 +435,57 @@ public class EmailServer extends Anwendung implements I18n {
     private String listeBenutzerkontenZuString(List<EmailKonto> benutzerkonten) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), listeBenutzerkontenZuString(" + benutzerkonten + ")");
-        String ergebnis = "";
+        StringBuilder ergebnis = new StringBuilder();
 
         for (EmailKonto konto : benutzerkonten) {
-            String emailStr = "";
+            ergebnis.append(konto.getBenutzername()).append(";").append(this.mailDomain).append(";")
+                    .append(konto.getPasswort()).append(";").append(konto.getNachname()).append(";")
+                    .append(konto.getVorname()).append(";\n");
+        }
+        return ergebnis.toString();
+    }
 
-            for (Email email : konto.getNachrichten()) {
-                emailStr = emailStr + "#" + (email.getAbsender() != null ? email.getAbsender() : "") + "$"
-                        + EmailUtils.addressEntryListToString(email.getEmpfaenger()) + "$"
-                        + EmailUtils.addressEntryListToString(email.getCc()) + "$"
-                        + EmailUtils.addressEntryListToString(email.getBcc()) + "$" + email.getDateReceived() + "$"
-                        + (email.getBetreff() != null ? email.getBetreff() : "") + "$"
-                        + nltobr(replaceSpecialChar(email.getText()));
+    /** Eine Nachricht in der Form, in der sie in der Postfach-Datei gespeichert wird */
+    private String emailZuString(Email email) {
+        return "#" + (email.getAbsender() != null ? email.getAbsender() : "") + "$"
+                + EmailUtils.addressEntryListToString(email.getEmpfaenger()) + "$"
+                + EmailUtils.addressEntryListToString(email.getCc()) + "$"
+                + EmailUtils.addressEntryListToString(email.getBcc()) + "$" + email.getDateReceived() + "$"
+                + (email.getBetreff() != null ? email.getBetreff() : "") + "$"
+                + nltobr(replaceSpecialChar(email.getText()));
+    }
 
+    /** Das Gegenstueck zu emailZuString: die Nachrichten einer Postfach-Datei werden dem Konto hinzugefuegt. */
+    private void stringZuEmails(String nachrichten, EmailKonto konto) {
+        String[] strArray;
+        try {
+            String[] nachrichtenArray = nachrichten.split("#");
+            for (int i = 0; i < nachrichtenArray.length; i++) {
+                strArray = nachrichtenArray[i].split("\\$");
+
+                if (strArray.length == 7) {
+                    Email email = new Email();
+                    email.setAbsender(strArray[0]);
+                    email.setEmpfaenger(EmailUtils.stringToAddressEntryList(strArray[1]));
+                    email.setCc(EmailUtils.stringToAddressEntryList(strArray[2]));
+                    email.setBcc(EmailUtils.stringToAddressEntryList(strArray[3]));
+                    email.setDateReceived(strArray[4]);
+                    email.setBetreff(strArray[5]);
+                    email.setText(undoSpecialChar(brtonl(strArray[6])));
+
+                    konto.getNachrichten().add(email);
+                }
             }
-            ergebnis = ergebnis + konto.getBenutzername() + ";" + this.mailDomain + ";" + konto.getPasswort() + ";"
-                    + konto.getNachname() + ";" + konto.getVorname() + ";" + emailStr + "\n";
+        } catch (Exception e) {
+            LOG.debug("", e);
         }
-        return ergebnis;
     }
 
     /**
-     * Das brauche ich fuers LADEN, ist der Gegensatz zu listeBenutzerkontenZuString.
+     * Das brauche ich fuers LADEN, ist der Gegensatz zu listeBenutzerkontenZuString. Die Nachrichten eines Kontos
+     * werden aus seiner Postfach-Datei gelesen. Gibt es diese noch nicht, werden die Nachrichten verwendet, die in
+     * aelteren Versionen mit in der Zeile des Kontos gespeichert wurden. Diese Postfaecher werden beim naechsten
+     * Speichern in eigene Dateien uebertragen.
      * 
      * @param speicherung
      * @return
@@ -355,7 +494,6 @@ public class EmailServer extends Anwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), stringZuListeBenutzerkonten(" + speicherung + ")");
         List<EmailKonto> temp = new LinkedList<EmailKonto>();
-        String[] strArray;
 
         StringTokenizer speicherungTokenizer = new StringTokenizer(speicherung, "\n");
         while (speicherungTokenizer.hasMoreTokens()) {
@@ -368,30 +506,16 @@ public class EmailServer extends Anwendung implements I18n {
             konto.setPasswort(emailKontoInStringTokenizer.nextToken());
             konto.setNachname(emailKontoInStringTokenizer.nextToken());
             konto.setVorname(emailKontoInStringTokenizer.nextToken());
-            if (emailKontoInStringTokenizer.hasMoreTokens()) {
-                String nachrichten = emailKontoInStringTokenizer.nextToken();
-
-                try {
-                    String[] nachrichtenArray = nachrichten.split("#");
-                    for (int i = 0; i < nachrichtenArray.length; i++) {
-                        strArray = nachrichtenArray[i].split("\\$");
-
-                        if (strArray.length == 7) {
-                            Email email = new Email();
-                            email.setAbsender(strArray[0]);
-                            email.setEmpfaenger(EmailUtils.stringToAddressEntryList(strArray[1]));
-                            email.setCc(EmailUtils.stringToAddressEntryList(strArray[2]));
-                            email.setBcc(EmailUtils.stringToAddressEntryList(strArray[3]));
-                            email.setDateReceived(strArray[4]);
-                            email.setBetreff(strArray[5]);
-                            email.setText(undoSpecialChar(brtonl(strArray[6])));
-
-                            konto.getNachrichten().add(email);
-                        }
-                    }
-                } catch (Exception e) {
-                    LOG.debug("", e);
+
+            Datei postfach = holePostfachDatei(konto);
+            if (postfach != null) {
+                stringZuEmails(postfach.getDateiInhalt(), konto);
+            } else {
+                if (emailKontoInStringTokenizer.hasMoreTokens()) {
+                    stringZuEmails(emailKontoInStringTokenizer.nextToken(), konto);
+                    kontenGeaendert = true;
                 }
+                geaendertePostfaecher.add(konto);
             }
             temp.add(konto);
         }
@@ -400,12 +524,14 @@ public class EmailServer extends Anwendung implements I18n {
     }
 
     /** Hier werden die Benutzerkonten wieder geladen */
-    public void kontenLaden() {
+    public synchronized void kontenLaden() {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (EmailServer), kontenLaden()");
-        Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, "konten.txt");
+        Datei konten = getSystemSoftware().getDateisystem().holeDatei(verzeichnis, KONTEN_DATEI);
 
         if (konten != null) {
+            kontenGeaendert = false;
+            geaendertePostfaecher.clear();
             setListeBenutzerkonten(stringZuListeBenutzerkonten(konten.getDateiInhalt()));
         } else {
             LOG.debug("ERROR (" + this.hashCode() + "): Konten laden fehlgeschlagen");
@@ -421,8 +547,12 @@ public class EmailServer extends Anwendung implements I18n {
         this.verzeichnis = Dateisystem.verzeichnisKnoten(getSystemSoftware().getDateisystem().getRoot(), "mailserver");
     }
 
-    public synchronized void setListeBenutzerkonten(List<EmailKonto> listeBenutzerkonten) {
-        this.listeBenutzerkonten = listeBenutzerkonten;
+    /**
+     * Ersetzt die Benutzerkonten durch die Konten der uebergebenen Liste. Die Liste selbst wird nicht uebernommen,
+     * damit der Index ueber die Benutzernamen erhalten bleibt.
+     */
+    public void setListeBenutzerkonten(List<EmailKonto> listeBenutzerkonten) {
+        this.listeBenutzerkonten.ersetzen(listeBenutzerkonten);
     }
 
     public void setPOP3Server(POP3Server pop3) {
@@ -433,7 +563,7 @@ public class EmailServer extends Anwendung implements I18n {
         this.smtp = smtp;
     }
 
-    public synchronized List<EmailKonto> getListeBenutzerkonten() {
+    public List<EmailKonto> getListeBenutzerkonten() {
         return listeBenutzerkonten;
     }
 
@@ -515,7 +645,7 @@ public class EmailServer extends Anwendung implements I18n {
             AddressEntry senderAddress = new AddressEntry(sender);
             if (pruefeAufSelbeDomain(senderAddress.getMailAddress())) {
                 EmailKonto empfaengerKonto = sucheKonto(senderAddress.getMailAddress().split("@")[0]);
-                empfaengerKonto.getNachrichten().add(unknownRecipientResponse);
+                emailAblegen(empfaengerKonto, unknownRecipientResponse);
                 benachrichtigeBeobachter(messages.getString("sw_smtpmitarbeiter_msg12") + " "
                         + empfaengerKonto.getBenutzername() + " " + messages.getString("sw_smtpmitarbeiter_msg13"));
             } else {
@@ -433,11 +433,15 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
         String ergebnis = "";
         if (isTransactionState()) {
             try {
-                for (int idx = uebergebenesAktivesKonto.getNachrichten().size() - 1; idx >= 0; idx--) {
-                    if (((Email) uebergebenesAktivesKonto.getNachrichten().get(idx)).getDelete()) {
-                        uebergebenesAktivesKonto.getNachrichten().remove(idx);
+                synchronized (uebergebenesAktivesKonto) {
+                    for (int idx = uebergebenesAktivesKonto.getNachrichten().size() - 1; idx >= 0; idx--) {
+                        if (((Email) uebergebenesAktivesKonto.getNachrichten().get(idx)).getDelete()) {
+                            uebergebenesAktivesKonto.getNachrichten().remove(idx);
+                            emailServer.postfachGeaendert(uebergebenesAktivesKonto);
+                        }
                     }
                 }
+                emailServer.kontenSpeichern();
                 ergebnis = "+OK";
             } catch (Exception e) {
                 LOG.debug("EXCEPTION (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
@@ -492,13 +496,7 @@ public class POP3Mitarbeiter extends ServerMitarbeiter {
     public boolean sucheBenutzer(String benutzernamen) {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (POP3Mitarbeiter), sucheBenutzer(" + benutzernamen + ")");
-        for (ListIterator<EmailKonto> iter = emailServer.getListeBenutzerkonten().listIterator(); iter.hasNext();) {
-            EmailKonto konto = (EmailKonto) iter.next();
-            if ((konto.getBenutzername().equalsIgnoreCase(benutzernamen))) {
-                return true;
-            }
-        }
-        return false;
+        return emailServer.sucheKonto(benutzernamen) != null;
     }
 
     /**
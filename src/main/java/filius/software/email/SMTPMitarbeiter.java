@@ -182,7 +182,7 @@ public class SMTPMitarbeiter extends ServerMitarbeiter {
             if (emailServer.pruefeAufSelbeDomain(aktuellerEmpfaenger)) {
                 empfaengerKonto = emailServer.sucheKonto(benutzer);
                 if (empfaengerKonto != null) {
-                    empfaengerKonto.getNachrichten().add(new Email(email.toString()));
+                    emailServer.emailAblegen(empfaengerKonto, new Email(email.toString()));
                     emailServer.benachrichtigeBeobachter(messages.getString("sw_smtpmitarbeiter_msg12") + " "
                             + empfaengerKonto.getBenutzername() + " " + messages.getString("sw_smtpmitarbeiter_msg13"));
                 } else {
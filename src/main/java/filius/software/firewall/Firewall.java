@@ -25,8 +25,10 @@
  */
 package filius.software.firewall;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Vector;
 
 import org.slf4j.Logger;
@@ -41,7 +43,6 @@ import filius.software.transportschicht.Segment;
 import filius.software.transportschicht.TcpSegment;
 import filius.software.vermittlungsschicht.IcmpPaket;
 import filius.software.vermittlungsschicht.IpPaket;
-import filius.software.vermittlungsschicht.VermittlungsProtokoll;
 
 /**
  * Die Firewall kann in zwei verschiedenen Modi betrieben werden.
@@ -74,6 +75,14 @@ public class Firewall extends Anwendung implements I18n {
 
     private LinkedList<FirewallThread> firewallThreads = new LinkedList<FirewallThread>();
 
+    /** compiled ruleset; null after the ruleset has changed until the next packet is checked */
+    private volatile FirewallRuleClassifier classifier;
+    private final FirewallConnectionTracker connections = new FirewallConnectionTracker();
+
+    /** addresses and netmasks of the interfaces from which {@link #localNetworks} was computed */
+    private String[] localNetworksSource = new String[0];
+    private int[] localNetworks = new int[0];
+
     /**
      * startet die Anwendung Firewall.
      */
@@ -81,6 +90,7 @@ public class Firewall extends Anwendung implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass() + " (Firewall), starten()");
         super.starten();
 
+        rulesChanged();
         initFirewallThreads();
     }
 
@@ -152,6 +162,7 @@ public class Firewall extends Anwendung implements I18n {
             FirewallRule currRule = ruleset.get(idx - 1);
             ruleset.remove(idx - 1);
             ruleset.insertElementAt(currRule, idx - 2);
+            rulesChanged();
             return true;
         }
         return false;
@@ -167,38 +178,103 @@ public class Firewall extends Anwendung implements I18n {
         return accept;
     }
 
+    /**
+     * Check a TCP segment. If only SYN segments are filtered (see {@link #setFilterSYNSegmentsOnly(boolean)}), accepted
+     * connections are tracked: a repeated SYN of a tracked connection is accepted without evaluating the ruleset.
+     */
     boolean checkAcceptTCP(IpPaket packet) {
         boolean accept = true;
-        if (packet.getProtocol() == IpPaket.TCP && isSegmentApplicable(packet)) {
-            boolean foundRule = false;
-            Segment segment = (Segment) packet.getSegment();
-            for (int i = 0; i < ruleset.size() && !foundRule; i++) {
-                FirewallRule firewallRule = ruleset.get(i);
-                boolean ruleToBeApplied = isProtocolApplicable(packet, firewallRule)
-                        && (isEndpointsApplicable(packet.getSender(), packet.getEmpfaenger(), segment.getZielPort(),
-                                firewallRule)
-                                || isEndpointsApplicable(packet.getEmpfaenger(), packet.getSender(),
-                                        segment.getQuellPort(), firewallRule));
-
-                if (ruleToBeApplied) { // if rule matches to current packet, then
-                    notifyRuleApplication(i, firewallRule);
-                    accept = firewallRule.action == FirewallRule.ACCEPT;
-                    foundRule = true;
+        if (packet.getProtocol() == IpPaket.TCP) {
+            TcpSegment segment = (TcpSegment) packet.getSegment();
+            int sender = address(packet.getSender());
+            int receiver = address(packet.getEmpfaenger());
+            boolean tracking = filterSYNSegmentsOnly;
+            boolean tracked = tracking && connections.update(IpPaket.TCP, sender, segment.getQuellPort(), receiver,
+                    segment.getZielPort(), segment.isFin() || segment.isRst());
+            if (!tracked && isSegmentApplicable(packet)) {
+                accept = checkRules(packet);
+                if (accept && tracking) {
+                    connections.track(IpPaket.TCP, sender, segment.getQuellPort(), receiver, segment.getZielPort());
                 }
             }
-            if (!foundRule) {
-                accept = defaultPolicy == FirewallRule.ACCEPT;
-            }
         }
         return accept;
     }
 
-    private boolean isEndpointsApplicable(String endpoint1IPAddress, String endpoint2IPAddress, int endpoint2Port,
-            FirewallRule firewallRule) {
-        boolean ruleToBeApplied = isSourceAddressApplicable(endpoint1IPAddress, firewallRule);
-        ruleToBeApplied = ruleToBeApplied && isDestAddressApplicable(endpoint2IPAddress, firewallRule);
-        ruleToBeApplied = ruleToBeApplied && isPortApplicable(endpoint2Port, firewallRule);
-        return ruleToBeApplied;
+    /**
+     * Evaluate the ruleset for a TCP or UDP packet. A rule applies if it matches the packet in either direction.
+     * 
+     * @return whether the packet is accepted by the first applicable rule or - if there is none - by the default policy
+     */
+    private boolean checkRules(IpPaket packet) {
+        FirewallRuleClassifier currentClassifier = getClassifier();
+        int ruleIndex = FirewallRuleClassifier.NO_RULE;
+        if (currentClassifier.size() > 0) {
+            Segment segment = packet.getSegment();
+            ruleIndex = currentClassifier.classify(packet.getProtocol(), address(packet.getSender()),
+                    address(packet.getEmpfaenger()), segment.getQuellPort(), segment.getZielPort(),
+                    currentClassifier.hasSameNetworkRules() ? getLocalNetworks() : null);
+        }
+        if (ruleIndex == FirewallRuleClassifier.NO_RULE) {
+            return defaultPolicy == FirewallRule.ACCEPT;
+        }
+        FirewallRule firewallRule = currentClassifier.getRule(ruleIndex);
+        notifyRuleApplication(ruleIndex, firewallRule);
+        return firewallRule.action == FirewallRule.ACCEPT;
+    }
+
+    private FirewallRuleClassifier getClassifier() {
+        FirewallRuleClassifier currentClassifier = classifier;
+        if (currentClassifier == null) {
+            currentClassifier = new FirewallRuleClassifier(new ArrayList<FirewallRule>(ruleset));
+            classifier = currentClassifier;
+        }
+        return currentClassifier;
+    }
+
+    /**
+     * Must be called after the ruleset or the filter settings have been changed: the ruleset is compiled again and
+     * tracked connections are discarded, so the changed rules apply to all following packets.
+     */
+    public void rulesChanged() {
+        classifier = null;
+        connections.clear();
+    }
+
+    /** network address and netmask of each interface of this node, recomputed when an address has been changed */
+    private synchronized int[] getLocalNetworks() {
+        List<NetzwerkInterface> nics = getAllNetworkInterfaces();
+        boolean changed = localNetworksSource.length != 2 * nics.size();
+        for (int i = 0; i < nics.size() && !changed; i++) {
+            changed = !Objects.equals(nics.get(i).getIp(), localNetworksSource[2 * i])
+                    || !Objects.equals(nics.get(i).getSubnetzMaske(), localNetworksSource[2 * i + 1]);
+        }
+        if (changed) {
+            String[] source = new String[2 * nics.size()];
+            int[] networks = new int[2 * nics.size()];
+            for (int i = 0; i < nics.size(); i++) {
+                source[2 * i] = nics.get(i).getIp();
+                source[2 * i + 1] = nics.get(i).getSubnetzMaske();
+                try {
+                    networks[2 * i + 1] = FirewallRuleClassifier.ipAddress(source[2 * i + 1]);
+                    networks[2 * i] = FirewallRuleClassifier.ipAddress(source[2 * i]) & networks[2 * i + 1];
+                } catch (NumberFormatException e) {
+                    networks[2 * i + 1] = -1;
+                    networks[2 * i] = -1;
+                }
+            }
+            localNetworksSource = source;
+            localNetworks = networks;
+        }
+        return localNetworks;
+    }
+
+    private static int address(String ipAddress) {
+        try {
+            return FirewallRuleClassifier.ipAddress(ipAddress);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
     }
 
     private void notifyRuleApplication(int i, FirewallRule firewallRule) {
@@ -219,67 +295,29 @@ public class Firewall extends Anwendung implements I18n {
         return isApplicable;
     }
 
+    /**
+     * Check a UDP datagram. If only SYN segments are filtered (see {@link #setFilterSYNSegmentsOnly(boolean)}), UDP
+     * flows are tracked: further datagrams of an accepted flow in either direction are accepted without evaluating the
+     * ruleset.
+     */
     boolean checkAcceptUDP(IpPaket packet) {
         boolean accept = true;
         if (packet.getProtocol() == IpPaket.UDP && isSegmentApplicable(packet)) {
-            boolean foundRule = false;
-            Segment segment = (Segment) packet.getSegment();
-            for (int i = 0; i < ruleset.size() && !foundRule; i++) {
-                FirewallRule firewallRule = ruleset.get(i);
-                boolean ruleToBeApplied = isProtocolApplicable(packet, firewallRule)
-                        && (isEndpointsApplicable(packet.getSender(), packet.getEmpfaenger(), segment.getZielPort(),
-                                firewallRule)
-                                || isEndpointsApplicable(packet.getEmpfaenger(), packet.getSender(),
-                                        segment.getQuellPort(), firewallRule));
-
-                if (ruleToBeApplied) { // if rule matches to current packet, then
-                    notifyRuleApplication(i, firewallRule);
-                    accept = firewallRule.action == FirewallRule.ACCEPT;
-                    foundRule = true;
+            Segment segment = packet.getSegment();
+            int sender = address(packet.getSender());
+            int receiver = address(packet.getEmpfaenger());
+            boolean tracking = filterSYNSegmentsOnly;
+            if (!tracking || !connections.update(IpPaket.UDP, sender, segment.getQuellPort(), receiver,
+                    segment.getZielPort(), false)) {
+                accept = checkRules(packet);
+                if (accept && tracking) {
+                    connections.track(IpPaket.UDP, sender, segment.getQuellPort(), receiver, segment.getZielPort());
                 }
             }
-            if (!foundRule) {
-                accept = defaultPolicy == FirewallRule.ACCEPT;
-            }
         }
         return accept;
     }
 
-    private boolean isPortApplicable(int port, FirewallRule firewallRule) {
-        return firewallRule.port == FirewallRule.ALL_PORTS || port == firewallRule.port;
-    }
-
-    private boolean isProtocolApplicable(IpPaket packet, FirewallRule firewallRule) {
-        return firewallRule.protocol == FirewallRule.ALL_PROTOCOLS
-                || (packet.getProtocol() == (int) firewallRule.protocol);
-    }
-
-    private boolean isDestAddressApplicable(String ipAddress, FirewallRule firewallRule) {
-        return firewallRule.destIP.isEmpty()
-                || VermittlungsProtokoll.gleichesRechnernetz(ipAddress, firewallRule.destIP, firewallRule.destMask);
-    }
-
-    private boolean isSourceAddressApplicable(String ipAddress, FirewallRule firewallRule) {
-        boolean ruleToBeApplied = false;
-        if (firewallRule.srcIP.isEmpty()) {
-            ruleToBeApplied = true;
-        } else {
-            if (firewallRule.srcIP.equals(FirewallRule.SAME_NETWORK)) {
-                for (NetzwerkInterface iface : ((InternetKnoten) getSystemSoftware().getKnoten())
-                        .getNetzwerkInterfaces()) {
-                    if (VermittlungsProtokoll.gleichesRechnernetz(ipAddress, iface.getIp(), iface.getSubnetzMaske())) {
-                        ruleToBeApplied = true;
-                        break;
-                    }
-                }
-            } else {
-                ruleToBeApplied = VermittlungsProtokoll.gleichesRechnernetz(ipAddress, firewallRule.srcIP,
-                        firewallRule.srcMask);
-            }
-        }
-        return ruleToBeApplied;
-    }
-
     /**
      * @param idx
      *            following function assume to be human readable ID starting from 1; --> for internal processing reduce
@@ -290,6 +328,7 @@ public class Firewall extends Anwendung implements I18n {
             FirewallRule currRule = ruleset.get(idx - 1);
             ruleset.remove(idx - 1);
             ruleset.insertElementAt(currRule, idx);
+            rulesChanged();
             return true;
         }
         return false;
@@ -297,16 +336,19 @@ public class Firewall extends Anwendung implements I18n {
 
     public void addRule() {
         ruleset.add(new FirewallRule());
+        rulesChanged();
     }
 
     public void addRule(FirewallRule rule) {
         ruleset.add(rule);
+        rulesChanged();
     }
 
     public boolean updateRule(int idx, FirewallRule rule) {
         if (idx >= 0 && idx < ruleset.size()) {
             ruleset.set(idx, rule);
         }
+        rulesChanged();
         return true;
     }
 
@@ -319,6 +361,7 @@ public class Firewall extends Anwendung implements I18n {
 
         if (idx >= 0 && idx < ruleset.size()) {
             ruleset.remove(idx);
+            rulesChanged();
         }
     }
 
@@ -337,10 +380,12 @@ public class Firewall extends Anwendung implements I18n {
 
     public void setRuleset(Vector<FirewallRule> rules) {
         this.ruleset = rules;
+        rulesChanged();
     }
 
     public void setFilterUdp(boolean filterUdp) {
         this.filterUdp = filterUdp;
+        rulesChanged();
     }
 
     public boolean getFilterUdp() {
@@ -354,6 +399,7 @@ public class Firewall extends Anwendung implements I18n {
 
     public void setDefaultPolicy(short defPol) {
         defaultPolicy = defPol;
+        rulesChanged();
     }
 
     public short getDefaultPolicy() {
@@ -362,6 +408,7 @@ public class Firewall extends Anwendung implements I18n {
 
     public void setDropICMP(boolean selState) {
         dropICMP = selState;
+        rulesChanged();
     }
 
     public boolean getDropICMP() {
@@ -374,11 +421,12 @@ public class Firewall extends Anwendung implements I18n {
      */
     @Deprecated
     public void setAllowRelatedPackets(boolean selState) {
-        filterSYNSegmentsOnly = selState;
+        setFilterSYNSegmentsOnly(selState);
     }
 
     public void setFilterSYNSegmentsOnly(boolean selState) {
         filterSYNSegmentsOnly = selState;
+        rulesChanged();
     }
 
     public boolean getFilterSYNSegmentsOnly() {
@@ -387,6 +435,7 @@ public class Firewall extends Anwendung implements I18n {
 
     public void setActivated(boolean selState) {
         activated = selState;
+        rulesChanged();
     }
 
     public boolean isActivated() {
@@ -0,0 +1,175 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.firewall;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+import filius.software.SimulationClock;
+import filius.software.vermittlungsschicht.IpPaket;
+
+/**
+ * Connection tracking of the firewall: TCP connections and UDP flows whose first packet has been accepted by the
+ * ruleset. A connection is identified by the protocol and both endpoints (address and port) regardless of the
+ * direction, so replies belong to the same connection. Connections expire after an idle timeout (in simulation time);
+ * expired connections are removed when they are looked up and by a sweep that runs at most every
+ * {@link #SWEEP_INTERVAL_MILLIS} when connections are added. At most {@link #MAX_CONNECTIONS} connections are
+ * tracked; beyond that the least recently used connection is dropped.
+ */
+class FirewallConnectionTracker {
+    /** idle timeout of established TCP connections */
+    static final long TCP_TIMEOUT_MILLIS = 7440000;
+    /** idle timeout of TCP connections after a FIN or RST segment */
+    static final long TCP_CLOSING_TIMEOUT_MILLIS = 120000;
+    /** idle timeout of UDP flows */
+    static final long UDP_TIMEOUT_MILLIS = 180000;
+
+    static final int MAX_CONNECTIONS = 65536;
+    static final long SWEEP_INTERVAL_MILLIS = 10000;
+
+    private static class Key {
+        private final int protocol;
+        private final long endpoint1;
+        private final long endpoint2;
+
+        private Key(int protocol, int address1, int port1, int address2, int port2) {
+            this.protocol = protocol;
+            long first = endpoint(address1, port1);
+            long second = endpoint(address2, port2);
+            this.endpoint1 = Math.min(first, second);
+            this.endpoint2 = Math.max(first, second);
+        }
+
+        private static long endpoint(int address, int port) {
+            return ((address & 0xffffffffL) << 16) | (port & 0xffff);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return protocol == key.protocol && endpoint1 == key.endpoint1 && endpoint2 == key.endpoint2;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(protocol, endpoint1, endpoint2);
+        }
+    }
+
+    private static class Connection {
+        private long lastActivity;
+        private boolean closing;
+
+        private long timeout(int protocol) {
+            if (protocol != IpPaket.TCP) {
+                return UDP_TIMEOUT_MILLIS;
+            }
+            return closing ? TCP_CLOSING_TIMEOUT_MILLIS : TCP_TIMEOUT_MILLIS;
+        }
+    }
+
+    private final LinkedHashMap<Key, Connection> connections = new LinkedHashMap<Key, Connection>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Connection> eldest) {
+            return size() > MAX_CONNECTIONS;
+        }
+    };
+
+    private final LongSupplier clock;
+    private long lastSweep;
+
+    FirewallConnectionTracker() {
+        this(() -> SimulationClock.getSimulationClock().jetzt());
+    }
+
+    FirewallConnectionTracker(LongSupplier clock) {
+        this.clock = clock;
+        this.lastSweep = clock.getAsLong();
+    }
+
+    /**
+     * Looks up the connection of a packet. If it is tracked, its idle timer is restarted; with closing = true a TCP
+     * connection changes to the shorter timeout of closing connections.
+     * 
+     * @return whether the packet belongs to a tracked connection
+     */
+    synchronized boolean update(int protocol, int sender, int srcPort, int receiver, int destPort, boolean closing) {
+        Key key = new Key(protocol, sender, srcPort, receiver, destPort);
+        Connection connection = connections.get(key);
+        if (connection == null) {
+            return false;
+        }
+        long now = clock.getAsLong();
+        if (now - connection.lastActivity >= connection.timeout(protocol)) {
+            connections.remove(key);
+            return false;
+        }
+        connection.lastActivity = now;
+        connection.closing |= closing;
+        return true;
+    }
+
+    /** Starts tracking the connection of an accepted packet. */
+    synchronized void track(int protocol, int sender, int srcPort, int receiver, int destPort) {
+        long now = clock.getAsLong();
+        if (now - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            removeExpired(now);
+        }
+        Connection connection = new Connection();
+        connection.lastActivity = now;
+        connections.put(new Key(protocol, sender, srcPort, receiver, destPort), connection);
+    }
+
+    private void removeExpired(long now) {
+        lastSweep = now;
+        List<Key> expired = new ArrayList<>();
+        for (Map.Entry<Key, Connection> entry : connections.entrySet()) {
+            if (now - entry.getValue().lastActivity >= entry.getValue().timeout(entry.getKey().protocol)) {
+                expired.add(entry.getKey());
+            }
+        }
+        for (Key key : expired) {
+            connections.remove(key);
+        }
+    }
+
+    synchronized void clear() {
+        connections.clear();
+    }
+
+    synchronized int size() {
+        return connections.size();
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.firewall;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.vermittlungsschicht.IpPaket;
+
+/**
+ * Compiled form of a firewall ruleset. IP addresses and netmasks of the rules are converted to integers once, and the
+ * rules are sorted into buckets per protocol (TCP, UDP) and destination port. To classify a packet only the rules of
+ * the matching buckets are checked, in the order of the ruleset, so the result is the same as evaluating the whole
+ * ruleset from top to bottom: the index of the first rule that matches the packet in either direction.
+ * <p>
+ * The classifier is immutable. The firewall creates a new one whenever the ruleset changes.
+ * </p>
+ */
+class FirewallRuleClassifier {
+    private static Logger LOG = LoggerFactory.getLogger(FirewallRuleClassifier.class);
+
+    static final int NO_RULE = -1;
+
+    private static final byte ANY = 0;
+    private static final byte PREFIX = 1;
+    private static final byte SAME_NETWORK = 2;
+    private static final byte INVALID = 3;
+
+    private static final int[] EMPTY = new int[0];
+
+    /** rules of one protocol, sorted by destination port; all arrays contain rule indices in ascending order */
+    private static class Bucket {
+        private final Map<Integer, int[]> byPort = new HashMap<>();
+        private int[] allPorts = EMPTY;
+    }
+
+    private final FirewallRule[] rules;
+    private final byte[] srcType;
+    private final int[] srcNet;
+    private final int[] srcMask;
+    private final boolean[] anyDest;
+    private final int[] destNet;
+    private final int[] destMask;
+    private final Bucket tcp;
+    private final Bucket udp;
+    private final boolean sameNetworkRules;
+
+    FirewallRuleClassifier(List<FirewallRule> ruleset) {
+        int size = ruleset.size();
+        rules = ruleset.toArray(new FirewallRule[size]);
+        srcType = new byte[size];
+        srcNet = new int[size];
+        srcMask = new int[size];
+        anyDest = new boolean[size];
+        destNet = new int[size];
+        destMask = new int[size];
+        boolean sameNetwork = false;
+
+        Map<Integer, List<Integer>> tcpPorts = new HashMap<>();
+        Map<Integer, List<Integer>> udpPorts = new HashMap<>();
+        List<Integer> tcpAllPorts = new ArrayList<>();
+        List<Integer> udpAllPorts = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            FirewallRule rule = rules[i];
+            try {
+                compileAddresses(i, rule);
+            } catch (NumberFormatException e) {
+                LOG.debug("firewall rule #{} ({}) has an invalid address and is ignored", i + 1, rule);
+                srcType[i] = INVALID;
+            }
+            sameNetwork |= srcType[i] == SAME_NETWORK;
+            if (rule.protocol == FirewallRule.ALL_PROTOCOLS || rule.protocol == FirewallRule.TCP) {
+                sort(i, rule.port, tcpPorts, tcpAllPorts);
+            }
+            if (rule.protocol == FirewallRule.ALL_PROTOCOLS || rule.protocol == FirewallRule.UDP) {
+                sort(i, rule.port, udpPorts, udpAllPorts);
+            }
+        }
+        sameNetworkRules = sameNetwork;
+        tcp = createBucket(tcpPorts, tcpAllPorts);
+        udp = createBucket(udpPorts, udpAllPorts);
+    }
+
+    private void compileAddresses(int i, FirewallRule rule) {
+        if (rule.srcIP == null || rule.srcIP.isEmpty()) {
+            srcType[i] = ANY;
+        } else if (rule.srcIP.equals(FirewallRule.SAME_NETWORK)) {
+            srcType[i] = SAME_NETWORK;
+        } else {
+            srcType[i] = PREFIX;
+            srcMask[i] = ipAddress(rule.srcMask);
+            srcNet[i] = ipAddress(rule.srcIP) & srcMask[i];
+        }
+        anyDest[i] = rule.destIP == null || rule.destIP.isEmpty();
+        if (!anyDest[i]) {
+            destMask[i] = ipAddress(rule.destMask);
+            destNet[i] = ipAddress(rule.destIP) & destMask[i];
+        }
+    }
+
+    private static void sort(int index, int port, Map<Integer, List<Integer>> byPort, List<Integer> allPorts) {
+        if (port == FirewallRule.ALL_PORTS) {
+            allPorts.add(index);
+        } else {
+            byPort.computeIfAbsent(port, p -> new ArrayList<>()).add(index);
+        }
+    }
+
+    private static Bucket createBucket(Map<Integer, List<Integer>> byPort, List<Integer> allPorts) {
+        Bucket bucket = new Bucket();
+        for (Map.Entry<Integer, List<Integer>> entry : byPort.entrySet()) {
+            bucket.byPort.put(entry.getKey(), toArray(entry.getValue()));
+        }
+        bucket.allPorts = toArray(allPorts);
+        return bucket;
+    }
+
+    private static int[] toArray(List<Integer> indices) {
+        int[] array = new int[indices.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = indices.get(i);
+        }
+        return array;
+    }
+
+    /** whether a rule refers to the networks of the firewall's own interfaces ({@link FirewallRule#SAME_NETWORK}) */
+    boolean hasSameNetworkRules() {
+        return sameNetworkRules;
+    }
+
+    FirewallRule getRule(int index) {
+        return rules[index];
+    }
+
+    int size() {
+        return rules.length;
+    }
+
+    /**
+     * @param localNetworks
+     *            network address and netmask of each interface of the firewall (alternating); only used if
+     *            {@link #hasSameNetworkRules()}
+     * @return index of the first rule matching the packet with the given addresses in either direction or
+     *         {@link #NO_RULE}
+     */
+    int classify(int protocol, int sender, int receiver, int srcPort, int destPort, int[] localNetworks) {
+        Bucket bucket;
+        if (protocol == IpPaket.TCP) {
+            bucket = tcp;
+        } else if (protocol == IpPaket.UDP) {
+            bucket = udp;
+        } else {
+            return NO_RULE;
+        }
+        int first = Integer.MAX_VALUE;
+        for (int i : bucket.allPorts) {
+            if (i >= first) {
+                break;
+            }
+            if (matches(i, sender, receiver, localNetworks) || matches(i, receiver, sender, localNetworks)) {
+                first = i;
+            }
+        }
+        first = firstMatch(bucket.byPort.get(destPort), first, sender, receiver, localNetworks);
+        first = firstMatch(bucket.byPort.get(srcPort), first, receiver, sender, localNetworks);
+        return first == Integer.MAX_VALUE ? NO_RULE : first;
+    }
+
+    private int firstMatch(int[] indices, int first, int src, int dest, int[] localNetworks) {
+        if (indices != null) {
+            for (int i : indices) {
+                if (i >= first) {
+                    break;
+                }
+                if (matches(i, src, dest, localNetworks)) {
+                    return i;
+                }
+            }
+        }
+        return first;
+    }
+
+    private boolean matches(int i, int src, int dest, int[] localNetworks) {
+        boolean srcMatches;
+        switch (srcType[i]) {
+        case ANY:
+            srcMatches = true;
+            break;
+        case PREFIX:
+            srcMatches = (src & srcMask[i]) == srcNet[i];
+            break;
+        case SAME_NETWORK:
+            srcMatches = false;
+            for (int n = 0; n + 1 < localNetworks.length && !srcMatches; n += 2) {
+                srcMatches = (src & localNetworks[n + 1]) == localNetworks[n];
+            }
+            break;
+        default:
+            srcMatches = false;
+        }
+        return srcMatches && (anyDest[i] || (dest & destMask[i]) == destNet[i]);
+    }
+
+    /**
+     * Converts an IP address in dotted decimal notation into an integer. Like
+     * {@link filius.software.vermittlungsschicht.VermittlungsProtokoll#gleichesRechnernetz(String, String, String)} an
+     * empty string (e.g. an empty netmask) is converted to 0.
+     * 
+     * @throws NumberFormatException
+     *             if the address contains anything else than digits and dots
+     */
+    static int ipAddress(String address) {
+        int result = 0;
+        if (address == null) {
+            return result;
+        }
+        int part = 0;
+        boolean digits = false;
+        for (int i = 0; i < address.length(); i++) {
+            char c = address.charAt(i);
+            if (c >= '0' && c <= '9') {
+                part = part * 10 + (c - '0');
+                digits = true;
+            } else if (c == '.') {
+                if (digits) {
+                    result = (result << 8) + part;
+                }
+                part = 0;
+                digits = false;
+            } else {
+                throw new NumberFormatException("invalid IP address: " + address);
+            }
+        }
+        if (digits) {
+            result = (result << 8) + part;
+        }
+        return result;
+    }
+}
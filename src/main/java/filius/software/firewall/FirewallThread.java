@@ -25,8 +25,6 @@
  */
 package filius.software.firewall;
 
-import java.util.LinkedList;
-
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +32,7 @@ import filius.hardware.NetzwerkInterface;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.ProtokollThread;
+import filius.software.Puffer;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.vermittlungsschicht.IpPaket;
 
@@ -46,7 +45,7 @@ import filius.software.vermittlungsschicht.IpPaket;
 public class FirewallThread extends ProtokollThread<EthernetFrame> implements I18n {
     private static Logger LOG = LoggerFactory.getLogger(FirewallThread.class);
 
-    private LinkedList<EthernetFrame> ausgangsPuffer;
+    private Puffer<EthernetFrame> ausgangsPuffer;
     private Firewall firewall;
     private NetzwerkInterface netzwerkInterface = null;
 
@@ -55,7 +54,7 @@ public class FirewallThread extends ProtokollThread<EthernetFrame> implements I1
     }
 
     public FirewallThread(Firewall firewall, NetzwerkInterface nic) {
-        super(new LinkedList<EthernetFrame>());
+        super(new Puffer<EthernetFrame>());
         LOG.trace("INVOKED-2 (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (FirewallThread), constr: FirewallThread(" + firewall + ")");
         this.firewall = firewall;
@@ -72,7 +71,7 @@ public class FirewallThread extends ProtokollThread<EthernetFrame> implements I1
         super.starten();
 
         this.ausgangsPuffer = netzwerkInterface.getPort().holeEingangsPuffer();
-        LinkedList<EthernetFrame> eingangsPuffer = holeEingangsPuffer();
+        Puffer<EthernetFrame> eingangsPuffer = holeEingangsPuffer();
         netzwerkInterface.getPort().setzeEingangsPuffer(eingangsPuffer);
     }
 
@@ -93,10 +92,7 @@ public class FirewallThread extends ProtokollThread<EthernetFrame> implements I1
     }
 
     protected void forwardFrame(EthernetFrame frame) {
-        synchronized (ausgangsPuffer) {
-            ausgangsPuffer.add(frame);
-            ausgangsPuffer.notify();
-        }
+        ausgangsPuffer.add(frame);
     }
 
     protected boolean checkDiscardByFirewall(EthernetFrame frame) {
@@ -42,6 +42,7 @@ import filius.rahmenprogramm.EingabenUeberpruefung;
 import filius.rahmenprogramm.I18n;
 import filius.rahmenprogramm.Information;
 import filius.rahmenprogramm.nachrichten.Lauscher;
+import filius.software.SimulationClock;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.dns.DNSNachricht;
 import filius.software.dns.Resolver;
@@ -838,18 +839,19 @@ public class Terminal extends ClientAnwendung implements I18n {
         int loopNumber = Information.isPosixCommandLineToolBehaviour() ? 10 : 4;
         for (num = 0; !interrupted && num < loopNumber; num++) {
             try {
-                timeStart = System.currentTimeMillis();
+                timeStart = SimulationClock.getSimulationClock().jetzt();
                 IcmpPaket pingResponse = getSystemSoftware().holeICMP().startSinglePing(targetIp, num + 1);
-                timeDiff = 1000 - (System.currentTimeMillis() - timeStart);
+                long laufzeit = SimulationClock.getSimulationClock().jetzt() - timeStart;
+                timeDiff = 1000 - laufzeit;
                 if (pingResponse.getTtl() >= 0) {
                     benachrichtigeBeobachter("\nFrom " + pingResponse.getSender() + ": icmp_seq=" + (num + 1) + " ttl="
-                            + pingResponse.getTtl() + " time=" + (System.currentTimeMillis() - timeStart) + "ms");
+                            + pingResponse.getTtl() + " time=" + laufzeit + "ms");
                     receivedReplies++;
                 }
                 if (timeDiff > 0) {
                     try {
                         LOG.debug("DEBUG: Terminal waits for " + timeDiff + " ms");
-                        Thread.sleep(timeDiff);
+                        SimulationClock.getSimulationClock().schlafen(timeDiff);
                     } catch (InterruptedException e) {}
                 }
             } catch (java.util.concurrent.TimeoutException e) {
@@ -884,19 +886,20 @@ public class Terminal extends ClientAnwendung implements I18n {
 
         Lauscher lauscher = Lauscher.getLauscher();
         String localMacAddress = ((Betriebssystem) getSystemSoftware()).primaryMACAddress();
-        int offset = lauscher.getOffsetByTimestamp(localMacAddress, System.currentTimeMillis());
+        long offset = lauscher.getOffsetByTimestamp(localMacAddress,
+                SimulationClock.getSimulationClock().jetzt());
         while (!interrupted) {
             Object[][] data = lauscher.getDaten(localMacAddress, true, offset);
             for (int i = 0; i < data.length; i++) {
                 Object[] packetData = data[i];
-                int currentFrameSerialNumber = Integer.parseInt(packetData[0].toString());
-                int nextFrameSerialNumber = data.length > i + 1 ? Integer.parseInt(data[i + 1][0].toString())
-                        : Integer.MAX_VALUE;
+                long currentFrameSerialNumber = Long.parseLong(packetData[0].toString());
+                long nextFrameSerialNumber = data.length > i + 1 ? Long.parseLong(data[i + 1][0].toString())
+                        : Long.MAX_VALUE;
                 if (currentFrameSerialNumber < nextFrameSerialNumber) {
                     String message = packetData[1] + " " + packetData[4] + " " + packetData[2] + " > " + packetData[3]
                             + " " + packetData[6];
                     benachrichtigeBeobachter("\n  " + message.trim().replace("\n", "  "));
-                    offset++;
+                    offset = currentFrameSerialNumber + 1;
                 }
             }
             try {
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.knoten.Gateway;
 import filius.rahmenprogramm.I18n;
 import filius.software.firewall.Firewall;
+import filius.software.transportschicht.TcpSegment;
 import filius.software.vermittlungsschicht.IpPaket;
 
 public class NatGateway extends Firewall implements I18n {
@@ -40,6 +41,10 @@ public class NatGateway extends Firewall implements I18n {
 
     private NetworkAddressTranslationTable natTable = new NetworkAddressTranslationTable();
 
+    public NatGateway() {
+        natTable.setReleaseListener(this::releasePort);
+    }
+
     @Override
     protected void initFirewallThreads() {
         Gateway gateway = (Gateway) getSystemSoftware().getKnoten();
@@ -57,20 +62,32 @@ public class NatGateway extends Firewall implements I18n {
             } else if (protocol == IpPaket.UDP) {
                 port = getSystemSoftware().holeUdp().reserviereFreienPort();
             }
-            LOG.debug("New connection in NAT table: protocol={}, port={}, address={}", protocol, port, lanAddress);
+            LOG.debug("New connection in NAT table: protocol={}, port={}, address={} (active={}, evicted={})",
+                    protocol, port, lanAddress, natTable.countActiveMappings(), natTable.countEvictedMappings());
             natTable.addDynamic(port, protocol, lanAddress);
             natTable.print();
         }
     }
 
+    /** Release the port reserved for an expired mapping. */
+    private void releasePort(PortProtocolPair mapping) {
+        if (mapping.getProtocol() == IpPaket.TCP) {
+            getSystemSoftware().holeTcp().gibPortFrei(mapping.getPort());
+        } else if (mapping.getProtocol() == IpPaket.UDP) {
+            getSystemSoftware().holeUdp().gibPortFrei(mapping.getPort());
+        }
+    }
+
     public void replaceSource(IpPaket packet) {
         Gateway gateway = (Gateway) getSystemSoftware().getKnoten();
+        int port = PSEUDO_PORT_ICMP;
         if (packet.getProtocol() == IpPaket.TCP || packet.getProtocol() == IpPaket.UDP) {
             InetAddress lanAddress = new InetAddress(packet.getSender(), packet.getSegment().getQuellPort(),
                     packet.getProtocol());
-            int port = natTable.findPort(lanAddress);
+            port = natTable.findPort(lanAddress);
             packet.getSegment().setQuellPort(port);
         }
+        natTable.touch(port, packet.getProtocol(), false, isClosing(packet));
         packet.setSender(gateway.holeWANInterface().getIp());
     }
 
@@ -80,10 +97,19 @@ public class NatGateway extends Firewall implements I18n {
                 : PSEUDO_PORT_ICMP;
         InetAddress dest = natTable.find(port, packet.getProtocol());
         if (dest != null) {
+            natTable.touch(port, packet.getProtocol(), true, isClosing(packet));
             packet.setEmpfaenger(dest.getIpAddress());
             if (packet.getProtocol() == IpPaket.TCP || packet.getProtocol() == IpPaket.UDP) {
                 packet.getSegment().setZielPort(dest.getPort());
             }
         }
     }
+
+    private static boolean isClosing(IpPaket packet) {
+        if (packet.getSegment() instanceof TcpSegment) {
+            TcpSegment segment = (TcpSegment) packet.getSegment();
+            return segment.isFin() || segment.isRst();
+        }
+        return false;
+    }
 }
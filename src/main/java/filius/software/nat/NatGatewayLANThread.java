@@ -56,8 +56,7 @@ public class NatGatewayLANThread extends FirewallThread implements I18n {
 
         if (!checkDiscardByFirewall(frame) && !checkTTLExceeded(frame)) {
             updateNatTable(frame);
-            modifyOutgoingFrame(frame);
-            forwardFrame(frame);
+            forwardFrame(modifyOutgoingFrame(frame));
         }
     }
 
@@ -77,14 +76,21 @@ public class NatGatewayLANThread extends FirewallThread implements I18n {
         return exceeded;
     }
 
-    protected void modifyOutgoingFrame(EthernetFrame frame) {
+    /**
+     * Replace the source address of outgoing packets. The received frame is shared with other nodes and therefore not
+     * modified; a copy is returned instead.
+     */
+    protected EthernetFrame modifyOutgoingFrame(EthernetFrame frame) {
         if (frame.getDaten() instanceof IpPaket
                 && !((IpPaket) frame.getDaten()).getEmpfaenger().equals(wanNic.getIp())) {
             IpPaket packet = (IpPaket) frame.getDaten();
             if (isOutgoingPacket(packet)) {
-                natGateway.replaceSource(packet);
+                IpPaket modifiedPacket = packet.cloneWithSegment();
+                natGateway.replaceSource(modifiedPacket);
+                return frame.kopieMitDaten(modifiedPacket);
             }
         }
+        return frame;
     }
 
     protected void updateNatTable(EthernetFrame frame) {
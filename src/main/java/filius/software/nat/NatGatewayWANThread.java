@@ -51,18 +51,24 @@ public class NatGatewayWANThread extends FirewallThread implements I18n {
     protected void verarbeiteDatenEinheit(EthernetFrame frame) {
         Lauscher.getLauscher().addDatenEinheit(wanNic.getMac(), frame);
         if (!checkToLANAddress(frame) && !checkDiscardByFirewall(frame)) {
-            modifyIncomingFrame(frame);
-            forwardFrame(frame);
+            forwardFrame(modifyIncomingFrame(frame));
         }
     }
 
-    private void modifyIncomingFrame(EthernetFrame frame) {
+    /**
+     * Replace the destination address of incoming packets. The received frame is shared with other nodes and therefore
+     * not modified; a copy is returned instead.
+     */
+    private EthernetFrame modifyIncomingFrame(EthernetFrame frame) {
         if (frame.getDaten() instanceof IpPaket) {
             IpPaket packet = (IpPaket) frame.getDaten();
             if (packet.getEmpfaenger().contentEquals(wanNic.getIp())) {
-                natGateway.replaceDestination(packet);
+                IpPaket modifiedPacket = packet.cloneWithSegment();
+                natGateway.replaceDestination(modifiedPacket);
+                return frame.kopieMitDaten(modifiedPacket);
             }
         }
+        return frame;
     }
 
     private boolean checkToLANAddress(EthernetFrame frame) {
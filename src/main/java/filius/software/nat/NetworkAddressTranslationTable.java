@@ -25,20 +25,93 @@
  */
 package filius.software.nat;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import filius.software.SimulationClock;
+import filius.software.vermittlungsschicht.IpPaket;
+
+/**
+ * NAT table of the gateway. Dynamic mappings are indexed by the WAN side port/protocol pair (for incoming packets) and
+ * by the LAN side address (for outgoing packets), so both lookups take constant time. Dynamic mappings expire after an
+ * idle timeout depending on the protocol and - for TCP - on the connection state. Expired mappings are removed when
+ * they are looked up and by a sweep over the whole table, which runs at most every {@link #SWEEP_INTERVAL_MILLIS} when
+ * new mappings are added. The table is accessed by the LAN and the WAN thread of the gateway; all methods are
+ * synchronized.
+ */
 public class NetworkAddressTranslationTable {
     private static Logger LOG = LoggerFactory.getLogger(NetworkAddressTranslationTable.class);
 
-    private Map<PortProtocolPair, InetAddress> dynamicNATTable = new HashMap<>();
+    /** idle timeout of established TCP connections (RFC 5382: at least 2 hours and 4 minutes) */
+    public static final long TCP_ESTABLISHED_TIMEOUT_MILLIS = 7440000;
+    /** idle timeout of TCP connections that are being opened or closed (RFC 5382: 4 minutes) */
+    public static final long TCP_TRANSITORY_TIMEOUT_MILLIS = 240000;
+    /** idle timeout of UDP mappings (RFC 4787: 5 minutes recommended) */
+    public static final long UDP_TIMEOUT_MILLIS = 300000;
+    /** idle timeout of ICMP query mappings (RFC 5508: at least 60 seconds) */
+    public static final long ICMP_TIMEOUT_MILLIS = 60000;
+
+    static final long SWEEP_INTERVAL_MILLIS = 10000;
+
+    private enum TcpState {
+        OPENING, ESTABLISHED, CLOSING
+    }
+
+    private static class Mapping {
+        private final PortProtocolPair wanKey;
+        private final InetAddress lanAddress;
+        private long lastActivity;
+        private TcpState tcpState = TcpState.OPENING;
+
+        private Mapping(PortProtocolPair wanKey, InetAddress lanAddress, long now) {
+            this.wanKey = wanKey;
+            this.lanAddress = lanAddress;
+            this.lastActivity = now;
+        }
+
+        private long timeout() {
+            switch (wanKey.getProtocol()) {
+            case IpPaket.TCP:
+                return tcpState == TcpState.ESTABLISHED ? TCP_ESTABLISHED_TIMEOUT_MILLIS
+                        : TCP_TRANSITORY_TIMEOUT_MILLIS;
+            case IpPaket.UDP:
+                return UDP_TIMEOUT_MILLIS;
+            default:
+                return ICMP_TIMEOUT_MILLIS;
+            }
+        }
+
+        private boolean isExpired(long now) {
+            return now - lastActivity >= timeout();
+        }
+    }
+
+    private final Map<PortProtocolPair, Mapping> dynamicNATTable = new HashMap<>();
+    private final Map<InetAddress, Mapping> lanIndex = new HashMap<>();
     private Map<PortProtocolPair, InetAddress> staticNATTable = new HashMap<>();
 
+    private final LongSupplier clock;
+    private Consumer<PortProtocolPair> releaseListener;
+    private long lastSweep;
+    private long evictedMappings;
+
+    public NetworkAddressTranslationTable() {
+        this(() -> SimulationClock.getSimulationClock().jetzt());
+    }
+
+    NetworkAddressTranslationTable(LongSupplier clock) {
+        this.clock = clock;
+        this.lastSweep = clock.getAsLong();
+    }
+
     public Map<PortProtocolPair, InetAddress> getStaticNATTable() {
         return Collections.unmodifiableMap(staticNATTable);
     }
@@ -47,40 +120,110 @@ public class NetworkAddressTranslationTable {
         this.staticNATTable = new HashMap<PortProtocolPair, InetAddress>(staticNATTable);
     }
 
-    void addDynamic(int port, int protocol, InetAddress address) {
-        dynamicNATTable.put(new PortProtocolPair(port, protocol), address);
+    /** The listener is called for each evicted dynamic mapping, e.g. to release the reserved port of the gateway. */
+    public synchronized void setReleaseListener(Consumer<PortProtocolPair> releaseListener) {
+        this.releaseListener = releaseListener;
     }
 
-    public InetAddress find(int port, int protocol) {
-        PortProtocolPair lookup = new PortProtocolPair(port, protocol);
-        return dynamicNATTable.get(lookup);
+    synchronized void addDynamic(int port, int protocol, InetAddress address) {
+        long now = clock.getAsLong();
+        if (now - lastSweep >= SWEEP_INTERVAL_MILLIS) {
+            removeExpired(now);
+        }
+        PortProtocolPair key = new PortProtocolPair(port, protocol);
+        remove(dynamicNATTable.get(key));
+        remove(lanIndex.get(address));
+        Mapping mapping = new Mapping(key, address, now);
+        dynamicNATTable.put(key, mapping);
+        lanIndex.put(address, mapping);
     }
 
-    public boolean hasConnection(InetAddress lanAddress) {
-        boolean exists = false;
-        for (PortProtocolPair key : dynamicNATTable.keySet()) {
-            if (dynamicNATTable.get(key).equals(lanAddress)) {
-                exists = true;
-                break;
+    public synchronized InetAddress find(int port, int protocol) {
+        Mapping mapping = valid(dynamicNATTable.get(new PortProtocolPair(port, protocol)));
+        return mapping != null ? mapping.lanAddress : null;
+    }
+
+    public synchronized boolean hasConnection(InetAddress lanAddress) {
+        return valid(lanIndex.get(lanAddress)) != null;
+    }
+
+    public synchronized int findPort(InetAddress lanAddress) {
+        Mapping mapping = valid(lanIndex.get(lanAddress));
+        return mapping != null ? mapping.wanKey.getPort() : 0;
+    }
+
+    /**
+     * Record a packet of the mapping with the given WAN side port and protocol. A TCP mapping becomes established with
+     * the first incoming packet and changes to the transitory timeout when a FIN or RST is seen in either direction.
+     */
+    public synchronized void touch(int port, int protocol, boolean incoming, boolean closing) {
+        Mapping mapping = valid(dynamicNATTable.get(new PortProtocolPair(port, protocol)));
+        if (mapping != null) {
+            mapping.lastActivity = clock.getAsLong();
+            if (closing) {
+                mapping.tcpState = TcpState.CLOSING;
+            } else if (incoming && mapping.tcpState == TcpState.OPENING) {
+                mapping.tcpState = TcpState.ESTABLISHED;
             }
         }
-        return exists;
     }
 
-    public int findPort(InetAddress lanAddress) {
-        int port = 0;
-        for (PortProtocolPair key : dynamicNATTable.keySet()) {
-            if (dynamicNATTable.get(key).equals(lanAddress)) {
-                port = key.getPort();
-                break;
+    /** Remove all expired dynamic mappings. */
+    public synchronized void removeExpired() {
+        removeExpired(clock.getAsLong());
+    }
+
+    private void removeExpired(long now) {
+        lastSweep = now;
+        List<Mapping> expired = new ArrayList<>();
+        for (Mapping mapping : dynamicNATTable.values()) {
+            if (mapping.isExpired(now)) {
+                expired.add(mapping);
             }
         }
-        return port;
+        for (Mapping mapping : expired) {
+            evict(mapping);
+        }
+    }
+
+    /** @return the mapping if it has not expired; an expired mapping is removed and null is returned */
+    private Mapping valid(Mapping mapping) {
+        if (mapping != null && mapping.isExpired(clock.getAsLong())) {
+            evict(mapping);
+            return null;
+        }
+        return mapping;
+    }
+
+    private void evict(Mapping mapping) {
+        LOG.debug("NAT mapping expired: {} -> {}", mapping.wanKey, mapping.lanAddress);
+        remove(mapping);
+        evictedMappings++;
+        if (releaseListener != null) {
+            releaseListener.accept(mapping.wanKey);
+        }
+    }
+
+    private void remove(Mapping mapping) {
+        if (mapping != null) {
+            dynamicNATTable.remove(mapping.wanKey, mapping);
+            lanIndex.remove(mapping.lanAddress, mapping);
+        }
+    }
+
+    /** @return the number of dynamic mappings in the table (including expired ones that were not yet removed) */
+    public synchronized int countActiveMappings() {
+        return dynamicNATTable.size();
+    }
+
+    /** @return the number of dynamic mappings removed because of their idle timeout */
+    public synchronized long countEvictedMappings() {
+        return evictedMappings;
     }
 
-    public void print() {
-        for (Entry<PortProtocolPair, InetAddress> entry : dynamicNATTable.entrySet()) {
-            LOG.debug("{} -> {}", entry.getKey(), entry.getValue());
+    public synchronized void print() {
+        for (Mapping mapping : dynamicNATTable.values()) {
+            LOG.debug("{} -> {}", mapping.wanKey, mapping.lanAddress);
         }
     }
 }
@@ -34,6 +34,7 @@ import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
 import filius.rahmenprogramm.nachrichten.Lauscher;
 import filius.software.Protokoll;
+import filius.software.Puffer;
 import filius.software.system.SystemSoftware;
 import filius.software.vermittlungsschicht.ArpPaket;
 import filius.software.vermittlungsschicht.IcmpPaket;
@@ -51,13 +52,13 @@ public class Ethernet extends Protokoll {
     private LinkedList<EthernetThread> threads = new LinkedList<EthernetThread>();
 
     /** Puffer fuer eingehende ARP-Pakete */
-    private LinkedList<ArpPaket> arpPakete = new LinkedList<ArpPaket>();
+    private Puffer<ArpPaket> arpPakete = new Puffer<ArpPaket>();
 
     /** Puffer fuer eingehende IP-Pakete */
-    private LinkedList<IpPaket> ipPakete = new LinkedList<IpPaket>();
+    private Puffer<IpPaket> ipPakete = new Puffer<IpPaket>();
 
     /** Puffer fuer eingehende ICMP-Pakete */
-    private LinkedList<IcmpPaket> icmpPakete = new LinkedList<IcmpPaket>();
+    private Puffer<IcmpPaket> icmpPakete = new Puffer<IcmpPaket>();
 
     /** Konstruktor zur Initialisierung der Systemsoftware */
     public Ethernet(SystemSoftware systemSoftware) {
@@ -67,22 +68,22 @@ public class Ethernet extends Protokoll {
     }
 
     /** Methode fuer den Zugriff auf den Puffer mit ARP-Paketen */
-    public LinkedList<ArpPaket> holeARPPuffer() {
+    public Puffer<ArpPaket> holeARPPuffer() {
         return arpPakete;
     }
 
     /** Methode fuer den Zugriff auf den Puffer mit IP-Paketen */
-    public LinkedList<IpPaket> holeIPPuffer() {
+    public Puffer<IpPaket> holeIPPuffer() {
         return ipPakete;
     }
 
     /** Methode fuer den Zugriff auf den Puffer mit ICMP-Paketen */
-    public LinkedList<IcmpPaket> holeICMPPuffer() {
+    public Puffer<IcmpPaket> holeICMPPuffer() {
         return icmpPakete;
     }
 
     /** Methode fuer den Zugriff auf den Puffer mit IP-Paketen */
-    public void setzeIPPuffer(LinkedList<IpPaket> puffer) {
+    public void setzeIPPuffer(Puffer<IpPaket> puffer) {
         ipPakete = puffer;
     }
 
@@ -101,10 +102,7 @@ public class Ethernet extends Protokoll {
 
         for (NetzwerkInterface nic : ((InternetKnoten) holeSystemSoftware().getKnoten()).getNetzwerkInterfaces()) {
             if (nic.getMac().equalsIgnoreCase(zielMAC)) {
-                synchronized (nic.getPort().holeEingangsPuffer()) {
-                    nic.getPort().holeEingangsPuffer().add(ethernetFrame);
-                    nic.getPort().holeEingangsPuffer().notify();
-                }
+                nic.getPort().holeEingangsPuffer().add(ethernetFrame);
                 gesendet = true;
             }
         }
@@ -112,10 +110,7 @@ public class Ethernet extends Protokoll {
         if (!gesendet) {
             for (NetzwerkInterface nic : ((InternetKnoten) holeSystemSoftware().getKnoten()).getNetzwerkInterfaces()) {
                 if (nic.getMac().equalsIgnoreCase(startMAC)) {
-                    synchronized (nic.getPort().holeAusgangsPuffer()) {
-                        nic.getPort().holeAusgangsPuffer().add(ethernetFrame);
-                        nic.getPort().holeAusgangsPuffer().notify();
-                    }
+                    nic.getPort().senden(ethernetFrame);
                     Lauscher.getLauscher().addDatenEinheit(nic.getMac(), ethernetFrame);
                 }
             }
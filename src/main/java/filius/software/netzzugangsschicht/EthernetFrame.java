@@ -26,14 +26,17 @@
 package filius.software.netzzugangsschicht;
 
 import java.io.Serializable;
-import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Diese Klasse implementiert einen Frame auf der Netzzugangsschicht.
+ * Diese Klasse implementiert einen Frame auf der Netzzugangsschicht. <br />
+ * Ein Frame wird nach dem Versenden nicht mehr veraendert und daher ohne Kopie ueber alle Verbindungen und Knoten
+ * weitergereicht. Wer die enthaltenen Daten aendern muss (z. B. TTL oder NAT), erzeugt dazu eine Kopie des Pakets (siehe
+ * {@link #kopieMitDaten(Object)}).
  */
 public class EthernetFrame implements Serializable {
     private static Logger LOG = LoggerFactory.getLogger(EthernetFrame.class);
@@ -44,18 +47,19 @@ public class EthernetFrame implements Serializable {
     public static final String IP = "0x800", ARP = "0x806";
 
     /** Die Ziel-Adresse des Frames */
-    private String zielMacAdresse;
+    private final String zielMacAdresse;
 
     /** Die MAC-Adresse, von dem sendenden Rechner */
-    private String quellMacAdresse;
+    private final String quellMacAdresse;
 
     /** Typ des uebergeordneten Protokolls (ARP oder IP) */
-    private String typ;
+    private final String typ;
 
     /** die Nutzdaten */
-    private Object daten;
+    private final Object daten;
 
-    private Set<String> readByLauscherForMac = new HashSet<>();
+    /** MAC-Adressen, fuer die der Frame bereits aufgezeichnet wurde; wird von mehreren Knoten gleichzeitig genutzt */
+    private final Set<String> readByLauscherForMac = ConcurrentHashMap.newKeySet();
 
     /** Konstruktor zur Initialisierung der Attribute des Frames */
     public EthernetFrame(Object daten, String quellMacAdresse, String zielMacAdresse, String typ) {
@@ -67,6 +71,16 @@ public class EthernetFrame implements Serializable {
         this.daten = daten;
     }
 
+    /**
+     * Erzeugt einen Frame mit denselben Adressen und neuen Nutzdaten. Die Information, fuer welche Schnittstellen der
+     * Frame bereits aufgezeichnet wurde, wird uebernommen.
+     */
+    public EthernetFrame kopieMitDaten(Object neueDaten) {
+        EthernetFrame kopie = new EthernetFrame(neueDaten, quellMacAdresse, zielMacAdresse, typ);
+        kopie.readByLauscherForMac.addAll(readByLauscherForMac);
+        return kopie;
+    }
+
     public void setReadByLauscherForMac(String mac) {
         readByLauscherForMac.add(mac);
     }
@@ -71,17 +71,9 @@ public class EthernetThread extends ProtokollThread<EthernetFrame> {
         if (etp.getTyp().equals(EthernetFrame.IP)) {
             IpPaket ipPacket = (IpPaket) etp.getDaten();
             if (ipPacket.getProtocol() == IcmpPaket.ICMP_PROTOCOL) {
-                synchronized (ethernet.holeICMPPuffer()) {
-                    ethernet.holeICMPPuffer().add((IcmpPaket) ipPacket);
-                    ethernet.holeICMPPuffer().notifyAll();
-                    // 'all' means: Terminal ping command (if any in this instance) and default network packet
-                    // processing
-                }
+                ethernet.holeICMPPuffer().add((IcmpPaket) ipPacket);
             } else {
-                synchronized (ethernet.holeIPPuffer()) {
-                    ethernet.holeIPPuffer().add(ipPacket);
-                    ethernet.holeIPPuffer().notify();
-                }
+                ethernet.holeIPPuffer().add(ipPacket);
             }
         } else if (etp.getTyp().equals(EthernetFrame.ARP)) {
             // if ARP packet is not addressed to this specific NIC, but possibly
@@ -98,10 +90,7 @@ public class EthernetThread extends ProtokollThread<EthernetFrame> {
                 return;
             }
             // otherwise process ARP packet
-            synchronized (ethernet.holeARPPuffer()) {
-                ethernet.holeARPPuffer().add((ArpPaket) etp.getDaten());
-                ethernet.holeARPPuffer().notify();
-            }
+            ethernet.holeARPPuffer().add((ArpPaket) etp.getDaten());
         } else {
             LOG.debug("ERROR (" + this.hashCode() + "): Paket konnte nicht zugeordnet werden");
         }
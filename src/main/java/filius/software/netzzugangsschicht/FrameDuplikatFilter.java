@@ -0,0 +1,152 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.netzzugangsschicht;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import filius.hardware.Verbindung;
+import filius.software.SimulationClock;
+
+/**
+ * Filter fuer bereits weitergeleitete Frames, mit dem ein Switch Frames verwirft, die durch einen Zyklus im Netzwerk
+ * erneut eintreffen. Frames werden ohne Kopie weitergereicht (siehe {@link EthernetFrame}); ein Frame wird daher
+ * anhand seiner Identitaet wiedererkannt. <br />
+ * Die Eintraege werden in der Reihenfolge des Eintreffens gehalten. Eintraege, die aelter als die Aufbewahrungszeit
+ * sind, und die aeltesten Eintraege bei Ueberschreiten der Kapazitaet werden verdraengt. Suche, Einfuegen und
+ * Verdraengen benoetigen konstanten Aufwand.
+ */
+public class FrameDuplikatFilter {
+
+    /** Standardwert fuer die maximale Anzahl gemerkter Frames */
+    public static final int STANDARD_KAPAZITAET = 10000;
+
+    /** Schluessel, der einen Frame ueber seine Identitaet und nicht ueber equals() vergleicht */
+    private static final class FrameSchluessel {
+        private final EthernetFrame frame;
+
+        private FrameSchluessel(EthernetFrame frame) {
+            this.frame = frame;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(frame);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof FrameSchluessel && ((FrameSchluessel) obj).frame == frame;
+        }
+    }
+
+    private final int kapazitaet;
+
+    /** Zeitpunkt des ersten Eintreffens je Frame, in der Reihenfolge des Eintreffens */
+    private final LinkedHashMap<FrameSchluessel, Long> frames;
+
+    private long anzahlTreffer = 0;
+
+    private long anzahlVerdraengt = 0;
+
+    public FrameDuplikatFilter() {
+        this(STANDARD_KAPAZITAET);
+    }
+
+    public FrameDuplikatFilter(int kapazitaet) {
+        this.kapazitaet = kapazitaet;
+        this.frames = new LinkedHashMap<FrameSchluessel, Long>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<FrameSchluessel, Long> eldest) {
+                if (size() > FrameDuplikatFilter.this.kapazitaet) {
+                    anzahlVerdraengt++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Die Aufbewahrungszeit orientiert sich an der maximalen Round-Trip-Time. Ein Frame, der durch einen Zyklus
+     * laeuft, trifft innerhalb dieser Zeit erneut beim Switch ein.
+     */
+    long aufbewahrungszeit() {
+        return 2L * Verbindung.holeRTT();
+    }
+
+    /**
+     * Merkt sich einen Frame, sofern er noch nicht durchgelaufen ist.
+     * 
+     * @return true, wenn der Frame zum ersten Mal eintrifft und weitergeleitet werden soll, false, wenn es sich um
+     *         eine Wiederholung handelt
+     */
+    public synchronized boolean hinzufuegen(EthernetFrame frame) {
+        return hinzufuegen(frame, SimulationClock.getSimulationClock().jetzt());
+    }
+
+    synchronized boolean hinzufuegen(EthernetFrame frame, long jetzt) {
+        veralteteEntfernen(jetzt);
+        FrameSchluessel schluessel = new FrameSchluessel(frame);
+        if (frames.containsKey(schluessel)) {
+            anzahlTreffer++;
+            return false;
+        }
+        frames.put(schluessel, jetzt);
+        return true;
+    }
+
+    private void veralteteEntfernen(long jetzt) {
+        long grenze = jetzt - aufbewahrungszeit();
+        Iterator<Long> it = frames.values().iterator();
+        while (it.hasNext() && it.next() < grenze) {
+            it.remove();
+            anzahlVerdraengt++;
+        }
+    }
+
+    /** Anzahl der derzeit gemerkten Frames */
+    public synchronized int groesse() {
+        return frames.size();
+    }
+
+    /** Anzahl der verworfenen Wiederholungen. Ein stark steigender Wert deutet auf einen Zyklus im Netzwerk hin. */
+    public synchronized long getAnzahlTreffer() {
+        return anzahlTreffer;
+    }
+
+    /** Anzahl der Frames, die wegen Alter oder Kapazitaet aus dem Filter verdraengt wurden */
+    public synchronized long getAnzahlVerdraengt() {
+        return anzahlVerdraengt;
+    }
+
+    public synchronized void leeren() {
+        frames.clear();
+    }
+}
@@ -66,7 +66,7 @@ public class ModemEmpfaenger extends ProtokollThread<EthernetFrame> {
     }
 
     /**
-     * Die run()-Methode der Oberklasse muss ueberschrieben werden, weil hier kein Puffer als LinkedList sondern ein
+     * Die run()-Methode der Oberklasse muss ueberschrieben werden, weil hier kein Puffer sondern ein
      * Socket bzw. Stream ueberwacht wird.
      */
     public void run() {
@@ -98,10 +98,7 @@ public class ModemEmpfaenger extends ProtokollThread<EthernetFrame> {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (ModemAnschlussBeobachterExtern), verarbeiteDatenEinheit(" + datenEinheit.toString() + ")");
         if (firmware.isStarted()) {
-            synchronized (((Modem) firmware.getKnoten()).getErstenAnschluss().holeAusgangsPuffer()) {
-                ((Modem) firmware.getKnoten()).getErstenAnschluss().holeAusgangsPuffer().add(datenEinheit);
-                ((Modem) firmware.getKnoten()).getErstenAnschluss().holeAusgangsPuffer().notify();
-            }
+            ((Modem) firmware.getKnoten()).getErstenAnschluss().senden(datenEinheit);
         }
     }
 
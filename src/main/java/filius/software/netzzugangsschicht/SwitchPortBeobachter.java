@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.Port;
 import filius.hardware.knoten.Switch;
 import filius.software.ProtokollThread;
+import filius.software.SimulationClock;
 import filius.software.system.SwitchFirmware;
 
 /**
@@ -68,7 +69,7 @@ public class SwitchPortBeobachter extends ProtokollThread<EthernetFrame> {
      * <ol>
      * <li>Dazu wird zunaechst geprueft, ob der Frame bereits weitergeleitet wurde. Wenn es eine Wiederholung ist, die
      * durch einen Zyklus im Netzwerk entstanden sein kann, wird der Frame verworfen.</li>
-     * <li>Dann wird der Frame zu der von der Firmware verwalteten Liste der weitergeleiteten Frames hinzugefuegt.</li>
+     * <li>Andernfalls merkt sich der von der Firmware verwaltete Filter den Frame.</li>
      * <li>Die SAT-Tabelle wird ergaenzt.</li>
      * <li>Der Frame wird an einen Anschluss weitergeleitet, wenn fuer die Ziel-MAC-Adresse ein Eintrag in der SAT
      * existiert.</li>
@@ -80,24 +81,17 @@ public class SwitchPortBeobachter extends ProtokollThread<EthernetFrame> {
         LOG.trace("INVOKED (" + this.hashCode() + ", T" + this.getId() + ") " + getClass()
                 + " (SwitchPortBeobachter), verarbeiteDatenEinheit(" + etp.toString() + ")");
 
-        if (!switchFirmware.holeDurchgelaufeneFrames().contains(etp)) {
-            switchFirmware.holeDurchgelaufeneFrames().add(etp);
-            Date letztes_update = new Date();
+        if (switchFirmware.holeDurchgelaufeneFrames().hinzufuegen(etp)) {
+            Date letztes_update = new Date(SimulationClock.getSimulationClock().jetzt());
             switchFirmware.hinzuSatEintrag(etp.getQuellMacAdresse(), anschluss, letztes_update);
 
             Port zielAnschluss = switchFirmware.holeAnschlussFuerMAC(etp.getZielMacAdresse());
             if (zielAnschluss != null) {
-                synchronized (zielAnschluss.holeAusgangsPuffer()) {
-                    zielAnschluss.holeAusgangsPuffer().add(etp);
-                    zielAnschluss.holeAusgangsPuffer().notify();
-                }
+                zielAnschluss.senden(etp);
             } else {
                 for (Port aktiverAnschluss : ((Switch) switchFirmware.getKnoten()).getAnschluesse()) {
                     if (!aktiverAnschluss.isPortFrei() && (aktiverAnschluss != anschluss)) {
-                        synchronized (aktiverAnschluss.holeAusgangsPuffer()) {
-                            aktiverAnschluss.holeAusgangsPuffer().add(etp);
-                            aktiverAnschluss.holeAusgangsPuffer().notify();
-                        }
+                        aktiverAnschluss.senden(etp);
                     }
                 }
             }
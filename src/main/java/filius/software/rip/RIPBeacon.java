@@ -30,6 +30,7 @@ import java.util.Random;
 import filius.exception.VerbindungsException;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
+import filius.software.SimulationClock;
 import filius.software.clientserver.ClientAnwendung;
 import filius.software.system.VermittlungsrechnerBetriebssystem;
 import filius.software.transportschicht.UDPSocket;
@@ -66,7 +67,7 @@ public class RIPBeacon extends ClientAnwendung {
 			synchronized (table) {
 				while (table.getNextBeacon() - RIPUtil.getTime() > 0) {
 					try {
-						table.wait(table.getNextBeacon() - RIPUtil.getTime());
+						SimulationClock.getSimulationClock().warten(table, table.getNextBeacon() - RIPUtil.getTime());
 					} catch (InterruptedException e) {
 					}
 				}
@@ -53,6 +53,13 @@ public class RIPTable {
 
 	private long nextBeacon;
 
+	/**
+	 * incremented whenever routes are added or the table is reset. the
+	 * forwarding table uses it to detect that its compiled lookup structure is
+	 * outdated.
+	 */
+	private int version = 0;
+
 	private InternetKnotenBetriebssystem bs;
 
 	public RIPTable(InternetKnotenBetriebssystem bs) {
@@ -62,11 +69,17 @@ public class RIPTable {
 
 	public void reset() {
 		this.routes = new LinkedList<RIPRoute>();
+		version++;
 		this.setNextBeacon(RIPUtil.getTime() + 1000);
 	}
 
 	public void addRoute(RIPRoute route) {
 		routes.add(route);
+		version++;
+	}
+
+	public int getVersion() {
+		return version;
 	}
 
 	public void addLocalRoutes(InternetKnoten knoten) {
@@ -25,7 +25,7 @@
  */
 package filius.software.rip;
 
-import java.util.Calendar;
+import filius.software.SimulationClock;
 
 /**
  * 
@@ -37,6 +37,6 @@ public class RIPUtil {
 	}
 
 	public static long getTime() {
-		return Calendar.getInstance().getTimeInMillis();
+		return SimulationClock.getSimulationClock().jetzt();
 	}
 }
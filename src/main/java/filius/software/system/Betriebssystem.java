@@ -66,9 +66,9 @@ public class Betriebssystem extends InternetKnotenBetriebssystem {
      * DHCP-Server wird hier auch gestartet.
      */
     @Override
-    public synchronized void starten() {
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Betriebssystem), starten()");
-        super.starten();
+    public synchronized void starten(Startphase phase) {
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Betriebssystem), starten(" + phase + ")");
+        super.starten(phase);
     }
 
     /**
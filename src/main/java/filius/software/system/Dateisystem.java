@@ -29,7 +29,10 @@ import java.io.Serializable;
 import java.util.Enumeration;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.TreeNode;
@@ -65,6 +68,14 @@ public class Dateisystem implements Serializable {
      */
     private DefaultMutableTreeNode root;
 
+    /**
+     * Index der bereits aufgeloesten Pfade. Schluessel ist der normalisierte absolute Pfad in Kleinbuchstaben, Wert der
+     * zugehoerige Knoten. Da der Verzeichnisbaum auch ausserhalb dieser Klasse veraendert wird (z. B. Umbenennen im
+     * Datei-Explorer), wird jeder Treffer vor der Verwendung geprueft; ungueltige Eintraege werden verworfen und der Pfad
+     * komponentenweise neu aufgeloest. Der Index wird nicht persistiert.
+     */
+    private transient Map<String, DefaultMutableTreeNode> pfadIndex = new ConcurrentHashMap<>();
+
     /**
      * Diese Klasse muss fuer die persistente Speicherung einer Filius-Projektdatei den Anforderungen einer JavaBean
      * genuegen. Daher ist der Paramterlose Konstruktor wichtig!
@@ -88,6 +99,7 @@ public class Dateisystem implements Serializable {
     @Deprecated
     public void setArbeitsVerzeichnis(DefaultMutableTreeNode arbeitsVerzeichnis) {
         this.root = arbeitsVerzeichnis;
+        indexLeeren();
     }
 
     // print entire tree, starting from root node
@@ -124,19 +136,49 @@ public class Dateisystem implements Serializable {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Dateisystem), dateiVorhanden(" + verzeichnis
                 + "," + dateiName + ")");
 
-        if (verzeichnis == null) {
-            return false;
-        } else {
-            for (Enumeration<TreeNode> e = verzeichnis.children(); e.hasMoreElements();) {
-                DefaultMutableTreeNode enode = (DefaultMutableTreeNode) e.nextElement();
+        return kindKnoten(verzeichnis, dateiName) != null;
+    }
 
-                if (enode.getUserObject().toString().equalsIgnoreCase(dateiName)) {
-                    return true;
-                }
+    /**
+     * Sucht in einem Verzeichnis nach dem direkten Kindknoten mit dem angegebenen Namen. Gross- und Kleinschreibung
+     * werden nicht unterschieden.
+     * 
+     * @param verzeichnis
+     *            das zu durchsuchende Verzeichnis
+     * @param name
+     *            Name der Datei oder des Verzeichnisses (keine Pfadangabe!)
+     * @return der Kindknoten oder null, wenn es keinen Eintrag mit diesem Namen gibt
+     */
+    public static DefaultMutableTreeNode kindKnoten(DefaultMutableTreeNode verzeichnis, String name) {
+        if (verzeichnis == null || name == null) {
+            return null;
+        }
+        for (Enumeration<TreeNode> e = verzeichnis.children(); e.hasMoreElements();) {
+            DefaultMutableTreeNode enode = (DefaultMutableTreeNode) e.nextElement();
+            if (enode.getUserObject() != null && enode.getUserObject().toString().equalsIgnoreCase(name)) {
+                return enode;
             }
         }
+        return null;
+    }
 
-        return false;
+    /**
+     * Loest einen normalisierten Pfad Komponente fuer Komponente ausgehend von einem Verzeichnis auf. Je Ebene wird nur
+     * das jeweilige Verzeichnis durchsucht, nicht der gesamte Baum.
+     * 
+     * @param start
+     *            Verzeichnis, in dem die Aufloesung beginnt
+     * @param pfad
+     *            der Pfad relativ zu start, ohne '.' und '..' (vgl. evaluatePathString(String))
+     * @return der Knoten oder null, wenn eine Komponente nicht existiert
+     */
+    public static DefaultMutableTreeNode aufloesen(DefaultMutableTreeNode start, String pfad) {
+        DefaultMutableTreeNode node = start;
+        StringTokenizer tk = new StringTokenizer(pfad, FILE_SEPARATOR);
+        while (node != null && tk.hasMoreTokens()) {
+            node = kindKnoten(node, tk.nextToken());
+        }
+        return node;
     }
 
     /**
@@ -194,19 +236,25 @@ public class Dateisystem implements Serializable {
         if (pfad.equals(FILE_SEPARATOR) || pfad.isEmpty()) {
             return root;
         }
-        Enumeration<TreeNode> enumeration;
-        DefaultMutableTreeNode node;
+        if (!pfad.startsWith(FILE_SEPARATOR)) {
+            return null;
+        }
 
-        enumeration = root.preorderEnumeration();
-        while (enumeration.hasMoreElements()) {
-            node = (DefaultMutableTreeNode) enumeration.nextElement();
-            // LOG.debug("DEBUG: verzeichnisKnoten:\n\t'"+pfad+"' =?= '"+absoluterPfad(node)+"'");
-            if (pfad.equalsIgnoreCase(absoluterPfad(node))) {
+        String schluessel = pfad.toLowerCase(Locale.ROOT);
+        Map<String, DefaultMutableTreeNode> index = index();
+        DefaultMutableTreeNode node = index.get(schluessel);
+        if (node != null) {
+            if (node.getRoot() == root && pfad.equalsIgnoreCase(absoluterPfad(node))) {
                 return node;
             }
+            index.remove(schluessel, node);
         }
 
-        return null;
+        node = aufloesen(root, pfad);
+        if (node != null) {
+            index.put(schluessel, node);
+        }
+        return node;
     }
 
     /**
@@ -222,7 +270,6 @@ public class Dateisystem implements Serializable {
     public static DefaultMutableTreeNode verzeichnisKnoten(DefaultMutableTreeNode verzeichnis, String pfad) {
         LOG.trace("INVOKED (static) filius.software.system.Dateisystem, verzeichnisKnoten(" + verzeichnis + "," + pfad
                 + ")");
-        DefaultMutableTreeNode node;
         String absolutePath;
 
         if (pfad.length() > 0 && pfad.substring(0, 1).equals(FILE_SEPARATOR)) {
@@ -231,14 +278,11 @@ public class Dateisystem implements Serializable {
             absolutePath = evaluatePathString(absoluterPfad(verzeichnis) + FILE_SEPARATOR + pfad);
         }
 
-        Enumeration<TreeNode> enumeration = verzeichnis.preorderEnumeration();
-        while (enumeration.hasMoreElements()) {
-            node = (DefaultMutableTreeNode) enumeration.nextElement();
-            if (absolutePath.equalsIgnoreCase(absoluterPfad(node))) {
-                return node;
-            }
+        // wie bisher werden nur Knoten unterhalb von verzeichnis (einschliesslich) gefunden
+        DefaultMutableTreeNode node = aufloesen((DefaultMutableTreeNode) verzeichnis.getRoot(), absolutePath);
+        if (node != null && verzeichnis.isNodeDescendant(node)) {
+            return node;
         }
-
         return null;
     }
 
@@ -251,7 +295,11 @@ public class Dateisystem implements Serializable {
                 "INVOKED (" + this.hashCode() + ") " + getClass() + " (Dateisystem), deleteFile(" + absolutePath + ")");
         DefaultMutableTreeNode node = verzeichnisKnoten(absolutePath);
         if (node != null) {
+            String schluessel = absoluterPfad(node).toLowerCase(Locale.ROOT);
             node.removeFromParent();
+            Map<String, DefaultMutableTreeNode> index = index();
+            index.remove(schluessel);
+            index.keySet().removeIf(pfad -> pfad.startsWith(schluessel + FILE_SEPARATOR));
             return true;
         } else {
             return false;
@@ -361,11 +409,13 @@ public class Dateisystem implements Serializable {
         node = verzeichnisKnoten(verzeichnisPfad);
 
         if (node != null) {
-            if (!dateiVorhanden(node, datei.getName())) {
+            DefaultMutableTreeNode vorhanden = kindKnoten(node, datei.getName());
+            if (vorhanden == null) {
                 DefaultMutableTreeNode dateiNode = new DefaultMutableTreeNode(datei);
                 node.add(dateiNode);
+                index().put(absoluterPfad(dateiNode).toLowerCase(Locale.ROOT), dateiNode);
             } else {
-                node = verzeichnisKnoten(verzeichnisPfad + FILE_SEPARATOR + datei.getName());
+                node = vorhanden;
                 Datei file = (Datei) node.getUserObject();
                 file.setDateiInhalt(datei.getDateiInhalt());
                 file.setDateiTyp(datei.getDateiTyp());
@@ -429,6 +479,7 @@ public class Dateisystem implements Serializable {
             } else {
                 neuerNode = new DefaultMutableTreeNode(neuesVerzeichnis);
                 node.add(neuerNode);
+                index().put(absoluterPfad(neuerNode).toLowerCase(Locale.ROOT), neuerNode);
                 // LOG.debug("DEBUG ("+this.hashCode()+"): Verzeichnis "
                 // + neuesVerzeichnis + " wurde erstellt.");
             }
@@ -507,6 +558,21 @@ public class Dateisystem implements Serializable {
 
     public void setRoot(DefaultMutableTreeNode root) {
         this.root = root;
+        indexLeeren();
+    }
+
+    private Map<String, DefaultMutableTreeNode> index() {
+        Map<String, DefaultMutableTreeNode> index = pfadIndex;
+        if (index == null) {
+            // nach Deserialisierung ist das transiente Feld nicht gesetzt
+            index = new ConcurrentHashMap<>();
+            pfadIndex = index;
+        }
+        return index;
+    }
+
+    private void indexLeeren() {
+        index().clear();
     }
 
     public void fixDirectory(DefaultMutableTreeNode root) {
@@ -520,6 +586,7 @@ public class Dateisystem implements Serializable {
         } else if (root.getUserObject() instanceof Datei && ((Datei) root.getUserObject()).getName().isEmpty()) {
             ((Datei) root.getUserObject()).setName("restored-" + System.currentTimeMillis());
         }
+        indexLeeren();
     }
 
     // change current working directory
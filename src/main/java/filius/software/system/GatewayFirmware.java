@@ -116,11 +116,14 @@ public class GatewayFirmware extends InternetKnotenBetriebssystem {
     /**
      * Starten des Webservers
      * 
-     * @see filius.software.system.InternetKnotenBetriebssystem.starten()
+     * @see filius.software.system.InternetKnotenBetriebssystem.starten(Startphase)
      */
-    public void starten() {
-        super.starten();
-        holeWebServer().setAktiv(true);
+    @Override
+    public void starten(Startphase phase) {
+        super.starten(phase);
+        if (phase == Startphase.ANWENDUNGEN) {
+            holeWebServer().setAktiv(true);
+        }
     }
 
     public void beenden() {
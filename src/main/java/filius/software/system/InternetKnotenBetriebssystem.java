@@ -221,38 +221,45 @@ public abstract class InternetKnotenBetriebssystem extends SystemSoftware {
     }
 
     /**
-     * Methode zum starten der Protokoll-Threads und der Anwendungen.
+     * Methode zum starten der Protokoll-Threads und der Anwendungen. Die Protokoll-Threads der einzelnen Schichten
+     * werden beginnend mit der untersten Schicht gestartet.
      * 
-     * @see filius.software.system.SystemSoftware.starten()
+     * @see filius.software.system.SystemSoftware.starten(Startphase)
      */
     @Override
-    public synchronized void starten() {
-        super.starten();
-        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (InternetKnotenBetriebssystem), starten()");
-
-        dateisystem.fixDirectory(dateisystem.getRoot());
-
-        // Die Protokoll-Threads der einzelnen Schichten werden
-        // beginnend mit der untersten Schicht gestartet.
-        ethernet.starten();
-        arpVermittlung.starten();
-        vermittlung.starten();
-        icmpVermittlung.starten();
-        tcp.starten();
-        udp.starten();
-
-        if (dhcpServer.isAktiv()) {
-            dhcpServer.starten();
-        }
-        if (isDHCPKonfiguration()) {
-            dhcpClient = new DHCPClient();
-            dhcpClient.setSystemSoftware(this);
-            dhcpClient.starten();
-        }
-        for (Anwendung anwendung : installierteAnwendung.values()) {
-            if (anwendung != null) {
-                anwendung.starten();
+    public synchronized void starten(Startphase phase) {
+        super.starten(phase);
+        LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (InternetKnotenBetriebssystem), starten("
+                + phase + ")");
+
+        switch (phase) {
+        case NETZZUGANG:
+            dateisystem.fixDirectory(dateisystem.getRoot());
+            ethernet.starten();
+            break;
+        case VERMITTLUNG:
+            arpVermittlung.starten();
+            vermittlung.starten();
+            icmpVermittlung.starten();
+            tcp.starten();
+            udp.starten();
+
+            if (dhcpServer.isAktiv()) {
+                dhcpServer.starten();
+            }
+            break;
+        case ANWENDUNGEN:
+            if (isDHCPKonfiguration()) {
+                dhcpClient = new DHCPClient();
+                dhcpClient.setSystemSoftware(this);
+                dhcpClient.starten();
+            }
+            for (Anwendung anwendung : installierteAnwendung.values()) {
+                if (anwendung != null) {
+                    anwendung.starten();
+                }
             }
+            break;
         }
     }
 
@@ -0,0 +1,165 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.system;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import filius.software.ThreadFabrik;
+import filius.software.system.SystemSoftware.Startphase;
+
+/**
+ * Startet bzw. beendet die Systemsoftware aller Knoten eines Rechnernetzes parallel auf einer begrenzten Anzahl von
+ * Threads. Der Start erfolgt in den {@link Startphase Phasen} der Systemsoftware: Eine Phase beginnt erst, wenn alle
+ * Knoten die vorherige Phase abgeschlossen haben. Innerhalb einer Phase ist die Reihenfolge der Knoten beliebig.
+ */
+public class KnotenStarter {
+    private static Logger LOG = LoggerFactory.getLogger(KnotenStarter.class);
+
+    /** Meldet den Fortschritt beim Starten bzw. Beenden. Der Aufruf erfolgt aus den Threads des Starters. */
+    public interface Fortschritt {
+        void melden(int erledigt, int gesamt);
+    }
+
+    private final int threads;
+
+    /** Verwendet so viele Threads, wie Prozessoren zur Verfuegung stehen. */
+    public KnotenStarter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public KnotenStarter(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Startet die Systemsoftware der uebergebenen Knoten und kehrt zurueck, wenn alle Phasen abgeschlossen sind.
+     * Scheitert der Start eines Knotens, wird das protokolliert und mit den uebrigen Knoten fortgefahren.
+     * 
+     * @param fortschritt
+     *            optional; gezaehlt wird jede abgeschlossene Phase eines Knotens
+     * @return die Dauer des Starts in Millisekunden
+     */
+    public long starten(Collection<? extends SystemSoftware> systeme, Fortschritt fortschritt) {
+        long start = System.nanoTime();
+        int gesamt = systeme.size() * Startphase.values().length;
+        AtomicInteger erledigt = new AtomicInteger();
+        ExecutorService executor = erzeugeExecutor(systeme.size(), "Knotenstart");
+        try {
+            for (Startphase phase : Startphase.values()) {
+                List<Callable<Void>> aufgaben = new ArrayList<>();
+                for (SystemSoftware system : systeme) {
+                    aufgaben.add(() -> {
+                        system.starten(phase);
+                        melden(fortschritt, erledigt.incrementAndGet(), gesamt);
+                        return null;
+                    });
+                }
+                if (!ausfuehren(executor, aufgaben, "start (" + phase + ")")) {
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long dauer = (System.nanoTime() - start) / 1000000;
+        LOG.debug("{} nodes started in {} ms using {} threads", systeme.size(), dauer, threads);
+        return dauer;
+    }
+
+    /**
+     * Beendet die Systemsoftware der uebergebenen Knoten parallel und kehrt zurueck, wenn alle Knoten beendet sind.
+     * 
+     * @param fortschritt
+     *            optional; gezaehlt wird jeder beendete Knoten
+     * @return die Dauer in Millisekunden
+     */
+    public long beenden(Collection<? extends SystemSoftware> systeme, Fortschritt fortschritt) {
+        long start = System.nanoTime();
+        int gesamt = systeme.size();
+        AtomicInteger erledigt = new AtomicInteger();
+        ExecutorService executor = erzeugeExecutor(systeme.size(), "Knotenstopp");
+        try {
+            List<Callable<Void>> aufgaben = new ArrayList<>();
+            for (SystemSoftware system : systeme) {
+                aufgaben.add(() -> {
+                    system.beenden();
+                    melden(fortschritt, erledigt.incrementAndGet(), gesamt);
+                    return null;
+                });
+            }
+            ausfuehren(executor, aufgaben, "stop");
+        } finally {
+            executor.shutdown();
+        }
+        long dauer = (System.nanoTime() - start) / 1000000;
+        LOG.debug("{} nodes stopped in {} ms using {} threads", systeme.size(), dauer, threads);
+        return dauer;
+    }
+
+    private ExecutorService erzeugeExecutor(int anzahlKnoten, String name) {
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(threads, anzahlKnoten)),
+                aufgabe -> ThreadFabrik.getThreadFabrik().neuerThread(aufgabe, name));
+    }
+
+    private static void melden(Fortschritt fortschritt, int erledigt, int gesamt) {
+        if (fortschritt != null) {
+            fortschritt.melden(erledigt, gesamt);
+        }
+    }
+
+    /** @return false, wenn der aufrufende Thread unterbrochen wurde */
+    private static boolean ausfuehren(ExecutorService executor, List<Callable<Void>> aufgaben, String schritt) {
+        List<Future<Void>> ergebnisse;
+        try {
+            ergebnisse = executor.invokeAll(aufgaben);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        for (Future<Void> ergebnis : ergebnisse) {
+            try {
+                ergebnis.get();
+            } catch (ExecutionException e) {
+                LOG.warn("node " + schritt + " failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.hardware.knoten.Modem;
 import filius.rahmenprogramm.I18n;
+import filius.software.ThreadFabrik;
 import filius.software.netzzugangsschicht.ModemEmpfaenger;
 import filius.software.netzzugangsschicht.ModemSender;
 
@@ -107,7 +108,7 @@ public class ModemFirmware extends SystemSoftware implements Runnable, I18n {
      */
     public synchronized void starteServer() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ModemFirmware), starteServer()");
-        (new Thread(this)).start();
+        ThreadFabrik.getThreadFabrik().neuerThread(this, "ModemFirmware").start();
     }
 
     /**
@@ -226,9 +227,7 @@ public class ModemFirmware extends SystemSoftware implements Runnable, I18n {
      */
     private void leerePortPuffer() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ModemFirmware), leerePortPuffer()");
-        synchronized (((Modem) getKnoten()).getErstenAnschluss().holeEingangsPuffer()) {
-            ((Modem) getKnoten()).getErstenAnschluss().holeEingangsPuffer().clear();
-        }
+        ((Modem) getKnoten()).getErstenAnschluss().holeEingangsPuffer().clear();
     }
 
     /**
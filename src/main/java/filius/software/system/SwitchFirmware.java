@@ -30,8 +30,6 @@ import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.LinkedList;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.UUID;
 import java.util.Vector;
 
@@ -41,7 +39,8 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.Port;
 import filius.hardware.knoten.Switch;
 import filius.rahmenprogramm.I18n;
-import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.SimulationClock;
+import filius.software.netzzugangsschicht.FrameDuplikatFilter;
 import filius.software.netzzugangsschicht.SwitchPortBeobachter;
 
 /** Diese Klasse erweitert den Wert der HashMap für die SAT um einen Eintrag für das letzte Update.
@@ -94,12 +93,15 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
      * 
      * @see filius.software.netzzugangsschicht.SwitchPortBeobachter
      */
-    private LinkedList<EthernetFrame> durchgelaufeneFrames = new LinkedList<EthernetFrame>();
+    private FrameDuplikatFilter durchgelaufeneFrames = new FrameDuplikatFilter();
 
     private String ssid = UUID.randomUUID().toString().substring(0, 6);
 
     private long retentionTime = 300000;
 
+    /** die geplante Pruefung der SAT auf veraltete Eintraege oder null, solange die SAT leer ist */
+    private volatile SimulationClock.Termin satPruefung;
+
     public long getRetentionTime() {
         return retentionTime;
     }
@@ -111,12 +113,17 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
     /**
      * Hier wird die Netzzugangsschicht des Switch initialisiert und gestartet. Ausserdem wird die SAT zurueckgesetzt.
      */
-    public void starten() {
-        super.starten();
+    @Override
+    public void starten(Startphase phase) {
+        super.starten(phase);
+        if (phase != Startphase.NETZZUGANG) {
+            return;
+        }
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SwitchFirmware), starten()");
         SwitchPortBeobachter anschlussBeobachter;
 
         sat = new ConcurrentHashMap<String, satEntry>();
+        durchgelaufeneFrames = new FrameDuplikatFilter();
         switchBeobachter = new LinkedList<SwitchPortBeobachter>();
 
         for (Port anschluss : ((Switch) getKnoten()).getAnschluesse()) {
@@ -125,25 +132,43 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
             switchBeobachter.add(anschlussBeobachter);
         }
         firePropertyChanged(new PropertyChangeEvent(this, "sat_entry", null, null));
-        
-        Timer timer = new Timer();
-       
-        timer.scheduleAtFixedRate(new TimerTask(){
-        	@Override
-        	public void run() {
-        		if(!isStarted()) {
-        			timer.cancel();
-        		} else if (!sat.isEmpty()) {
-        			checkSAT();	
-        		}
-        	}
-        }, 1000, 1000);
+    }
+
+    /**
+     * Die SAT wird zu dem Zeitpunkt (in simulierter Zeit) geprueft, an dem ihr aeltester Eintrag veraltet. Solange die
+     * SAT leer ist, ist keine Pruefung geplant. So entstehen keine Termine ohne Wirkung, die im schnellen Modus der
+     * {@link SimulationClock} das Ueberspringen von Leerlauf verhindern.
+     */
+    private synchronized void planeSatPruefung(long verzoegerung) {
+        satPruefung = SimulationClock.getSimulationClock().planen(() -> {
+            synchronized (this) {
+                satPruefung = null;
+            }
+            if (isStarted()) {
+                checkSAT();
+                long aeltester = Long.MAX_VALUE;
+                for (satEntry eintrag : sat.values()) {
+                    aeltester = Math.min(aeltester, eintrag.holeLetztesUpdate().getTime());
+                }
+                if (aeltester != Long.MAX_VALUE) {
+                    planeSatPruefung(aeltester + getRetentionTime() - SimulationClock.getSimulationClock().jetzt());
+                }
+            }
+        }, verzoegerung);
+    }
+
+    private synchronized void satPruefungAbbrechen() {
+        if (satPruefung != null) {
+            satPruefung.abbrechen();
+            satPruefung = null;
+        }
     }
 
     /** Hier wird die Netzzugangsschicht des Switch gestoppt. */
     public void beenden() {
         super.beenden();
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (SwitchFirmware), beenden()");
+        satPruefungAbbrechen();
         for (SwitchPortBeobachter anschlussBeobachter : switchBeobachter) {
             anschlussBeobachter.beenden();
         }
@@ -187,6 +212,13 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
         eintrag.setPort(anschluss);
         eintrag.hinzuLetztesUpdate(letztes_Update);	
         sat.put(macAdresse, eintrag);
+        if (satPruefung == null) {
+            synchronized (this) {
+                if (satPruefung == null) {
+                    planeSatPruefung(getRetentionTime());
+                }
+            }
+        }
         firePropertyChanged(new PropertyChangeEvent(this, "sat_entry", null, anschluss));
     }
 
@@ -212,9 +244,9 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
      * Methode zum Zugriff auf die bereits durchgelaufenen Frames. Diese wird dazu genutzt um Fehler durch Zyklen zu
      * vermeiden.
      * 
-     * @return Liste der bereits weitergeleiteten Frames.
+     * @return Filter der bereits weitergeleiteten Frames.
      */
-    public LinkedList<EthernetFrame> holeDurchgelaufeneFrames() {
+    public FrameDuplikatFilter holeDurchgelaufeneFrames() {
         return durchgelaufeneFrames;
     }
 
@@ -238,7 +270,7 @@ public class SwitchFirmware extends SystemSoftware implements I18n {
      * Methode zum Überprüfen der SAT
      */
     public void checkSAT() {
-    	Date jetzt = new Date();
+    	Date jetzt = new Date(SimulationClock.getSimulationClock().jetzt());
     	sat.forEach((mac,eintrag) -> {
     		if (jetzt.getTime()-eintrag.holeLetztesUpdate().getTime() >= getRetentionTime()) {
     			sat.remove(mac);
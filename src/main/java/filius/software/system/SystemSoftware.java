@@ -50,14 +50,39 @@ public abstract class SystemSoftware extends Observable implements Serializable
 
     private boolean started;
 
+    /**
+     * Die Phasen, in denen die Systemsoftware gestartet wird. Beim Start eines ganzen Rechnernetzes (siehe
+     * {@link KnotenStarter}) beginnt eine Phase erst, wenn alle Knoten die vorherige Phase abgeschlossen haben. So sind
+     * z. B. alle DHCP-Server bereit, bevor der erste DHCP-Client startet.
+     */
+    public enum Startphase {
+        /** Netzzugangsschicht (Ethernet, Switch-Ports, Modem) */
+        NETZZUGANG,
+        /** Vermittlungs- und Transportschicht sowie DHCP-Server */
+        VERMITTLUNG,
+        /** DHCP-Client und installierte Anwendungen */
+        ANWENDUNGEN
+    }
+
     /**
      * Diese Methode wird beim Wechsel vom Konfigurationsmodus (zum Aufbau des Rechnernetzes und Konfiguration der
      * Komponenten) zum Aktionsmodus (mit der Moeglichkeit den Datenaustausch zu simulieren) ausgefuehrt! <br />
-     * In den implementierenden Unterklassen sollen an dieser Stelle alle Threads zur Simulation des virtuellen
-     * Netzwerks gestartet werden.
+     * Dabei werden alle Phasen nacheinander ausgefuehrt (siehe {@link #starten(Startphase)}).
      */
     public void starten() {
-        started = true;
+        for (Startphase phase : Startphase.values()) {
+            starten(phase);
+        }
+    }
+
+    /**
+     * Fuehrt eine Phase des Starts aus. In den implementierenden Unterklassen sollen an dieser Stelle die Threads zur
+     * Simulation des virtuellen Netzwerks gestartet werden, die zu der jeweiligen Phase gehoeren.
+     */
+    public void starten(Startphase phase) {
+        if (phase == Startphase.NETZZUGANG) {
+            started = true;
+        }
     }
 
     /**
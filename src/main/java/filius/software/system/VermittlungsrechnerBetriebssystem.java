@@ -124,13 +124,17 @@ public class VermittlungsrechnerBetriebssystem extends InternetKnotenBetriebssys
     /**
      * Starten des Webservers
      * 
-     * @see filius.software.system.InternetKnotenBetriebssystem.starten()
+     * @see filius.software.system.InternetKnotenBetriebssystem.starten(Startphase)
      */
-    public void starten() {
-        LOG.debug(
-                "INVOKED (" + this.hashCode() + ") " + getClass() + " (VermittlungsrechnerBetriebssystem), starten()");
+    @Override
+    public void starten(Startphase phase) {
+        LOG.debug("INVOKED (" + this.hashCode() + ") " + getClass()
+                + " (VermittlungsrechnerBetriebssystem), starten(" + phase + ")");
 
-        super.starten();
+        super.starten(phase);
+        if (phase != Startphase.ANWENDUNGEN) {
+            return;
+        }
 
         // Startet den Web-Server
         holeWebServer().setAktiv(true);
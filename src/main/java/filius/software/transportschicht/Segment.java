@@ -27,14 +27,31 @@ package filius.software.transportschicht;
 
 import java.io.Serializable;
 
+/**
+ * Gemeinsame Felder der Segmente der Transportschicht. <br />
+ * Ein Segment wird mit seinem {@link filius.software.vermittlungsschicht.IpPaket} ohne Kopie zwischen den Knoten
+ * weitergereicht und darf deshalb nach dem Versenden nicht mehr veraendert werden. Muessen Felder geaendert werden
+ * (z. B. Ports bei NAT), wird das Paket mit {@link filius.software.vermittlungsschicht.IpPaket#cloneWithSegment()}
+ * kopiert und die Kopie geaendert.
+ */
 @SuppressWarnings("serial")
-public class Segment implements Serializable {
+public class Segment implements Serializable, Cloneable {
 
     private int quellPort;
     private int zielPort;
     private int pruefSumme;
     private String daten;
 
+    /** Flache Kopie des Segments mit allen Header-Feldern; die Nutzdaten sind unveraenderlich. */
+    @Override
+    public Segment clone() {
+        try {
+            return (Segment) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     public String getDaten() {
         return daten;
     }
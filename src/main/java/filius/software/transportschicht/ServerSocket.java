@@ -25,7 +25,12 @@
  */
 package filius.software.transportschicht;
 
+import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,13 +47,21 @@ import filius.software.vermittlungsschicht.IpPaket;
  * Server-Socket verwaltet dazu eine Liste mit TCP-Sockets, die im Passiv-Modus gestartet werden. D. h., dass ein
  * solcher Socket auf eingehende Verbindungsanfragen wartet. <br />
  * Der Server-Socket leitet ankommende Segmente an Hand von entfernter IP-Adresse und entferntem TCP-Port an den
- * richtigen lokalen TCP-Socket weiter.
+ * richtigen lokalen TCP-Socket weiter. <br />
+ * Fuer TCP wird fuer jede Verbindungsanfrage (SYN-Segment) eines noch unbekannten Clients ein eigener Socket erzeugt,
+ * der den Verbindungsaufbau durchfuehrt. Mehrere Verbindungen koennen so gleichzeitig aufgebaut werden. Die Anzahl der
+ * Verbindungen, die sich im Aufbau befinden oder aufgebaut, aber noch nicht mit {@link #oeffnen()} bzw.
+ * {@link #annehmen()} abgeholt wurden, ist durch den Backlog begrenzt. Weitere Verbindungsanfragen werden verworfen und
+ * vom Client nach einem Timeout wiederholt.
  * 
  * @author carsten
  */
 public class ServerSocket implements SocketSchnittstelle, I18n {
     private static Logger LOG = LoggerFactory.getLogger(ServerSocket.class);
 
+    /** Standardgroesse des Backlogs */
+    public static final int STANDARD_BACKLOG = 16;
+
     /**
      * Tabelle zur Verwaltung der TCP-Sockets. Der Key in der Tabelle besteht aus einem String, der durch zusammensetzen
      * von Sender-IP-Adresse und Sender-TCP-Port besteht (Bsp.: 192.168.0.1:1100). Als Value ist der Socket abgelegt.
@@ -56,11 +69,29 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
     private Hashtable<String, Socket> socketListe = new Hashtable<String, Socket>();
 
     /**
-     * Ein aktuell erstellter Socket, der auf eine eingehende Verbindungsanfrage wartet. Dieser Socket ist noch nicht in
-     * die Socketliste eingetragen, weil die IP-Adresse und der TCP-Port des entfernten Sockets vor Eintreffen der
-     * Anfrage fuer einen Verbindungsaufbau noch nicht bekannt sind.
+     * TCP-Sockets, die sich im Verbindungsaufbau befinden (halboffene Verbindungen). Der Key wird wie bei der
+     * Socketliste aus der entfernten IP-Adresse und dem entfernten Port gebildet.
+     */
+    private Map<String, TCPSocket> halboffen = new LinkedHashMap<String, TCPSocket>();
+
+    /** TCP-Sockets mit aufgebauter Verbindung, die noch nicht von der Server-Anwendung angenommen wurden */
+    private LinkedList<Socket> warteschlange = new LinkedList<Socket>();
+
+    /** maximale Anzahl halboffener und noch nicht angenommener Verbindungen */
+    private int backlog;
+
+    /** ob der Server-Socket (TCP) auf Verbindungsanfragen wartet */
+    private boolean lauscht;
+
+    /** ob der Server-Socket geschlossen wurde; danach werden keine Verbindungen mehr angenommen */
+    private boolean geschlossen;
+
+    /**
+     * Ein aktuell erstellter UDP-Socket, der auf ein eingehendes Datagramm wartet. Dieser Socket ist noch nicht in die
+     * Socketliste eingetragen, weil die IP-Adresse und der Port des entfernten Sockets vor Eintreffen des ersten
+     * Datagramms noch nicht bekannt sind.
      */
-    private Socket aktuellerSocket;
+    private volatile Socket aktuellerSocket;
 
     /** Das Betriebssystem */
     private InternetKnotenBetriebssystem betriebssystem;
@@ -84,10 +115,22 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
      *            - Lokaler Port, auf dem der Server laufen soll. Bsp.: http-Anwendungen zumeist auf Port 80
      */
     public ServerSocket(InternetKnotenBetriebssystem betriebssystem, int lokalerPort, int transportProtokoll) {
+        this(betriebssystem, lokalerPort, transportProtokoll, STANDARD_BACKLOG);
+    }
+
+    /**
+     * Konstruktor fuer einen Server-Socket mit der angegebenen Groesse des Backlogs.
+     * 
+     * @param backlog
+     *            maximale Anzahl der Verbindungen, die gleichzeitig aufgebaut werden oder auf die Annahme warten
+     */
+    public ServerSocket(InternetKnotenBetriebssystem betriebssystem, int lokalerPort, int transportProtokoll,
+            int backlog) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ServerSocket), constr: ServerSocket("
-                + betriebssystem + "," + lokalerPort + "," + transportProtokoll + ")");
+                + betriebssystem + "," + lokalerPort + "," + transportProtokoll + "," + backlog + ")");
         this.betriebssystem = betriebssystem;
         this.lokalerPort = lokalerPort;
+        this.backlog = Math.max(1, backlog);
 
         if (transportProtokoll == IpPaket.TCP) {
             protokoll = betriebssystem.holeTcp();
@@ -104,6 +147,28 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
         return socketListe;
     }
 
+    public synchronized int holeBacklog() {
+        return backlog;
+    }
+
+    public synchronized void setzeBacklog(int backlog) {
+        this.backlog = Math.max(1, backlog);
+    }
+
+    /** Anzahl der Verbindungen, die sich gerade im Aufbau befinden */
+    public synchronized int anzahlHalboffen() {
+        return halboffen.size();
+    }
+
+    synchronized TCPSocket holeHalboffenenSocket(String start) {
+        return halboffen.get(start);
+    }
+
+    /** Anzahl der aufgebauten Verbindungen, die noch nicht angenommen wurden */
+    public synchronized int anzahlWartend() {
+        return warteschlange.size();
+    }
+
     /**
      * Methode zum Eintragen eines neuen Sockets in die Socket-Liste
      */
@@ -111,6 +176,14 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
         String ziel = socket.holeZielIPAdresse() + ":" + socket.holeZielPort();
         socketListe.put(ziel, socket);
         LOG.debug("[port={}] socket for remote client {} added.", lokalerPort, ziel);
+
+        synchronized (this) {
+            if (halboffen.get(ziel) == socket) {
+                halboffen.remove(ziel);
+                warteschlange.add(socket);
+                notifyAll();
+            }
+        }
     }
 
     /**
@@ -120,73 +193,159 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
      */
     public void austragenSocket(Socket socket) {
         String ziel = socket.holeZielIPAdresse() + ":" + socket.holeZielPort();
-        socketListe.remove(ziel);
+        if (socketListe.get(ziel) == socket) {
+            socketListe.remove(ziel);
+        }
         LOG.debug("[port={}] socket for remote client {} removed.", lokalerPort, ziel);
 
-        if (socketListe.isEmpty() && aktuellerSocket == null) {
-            protokoll.gibPortFrei(lokalerPort);
+        synchronized (this) {
+            if (halboffen.get(ziel) == socket) {
+                halboffen.remove(ziel);
+            }
+            warteschlange.remove(socket);
+            if (socketListe.isEmpty() && aktuellerSocket == null && !lauscht && halboffen.isEmpty()) {
+                protokoll.gibPortFrei(lokalerPort);
+            }
         }
     }
 
     /**
-     * Mit dieser Methode wird ein neuer 'lauschender' TCP-Socket erzeugt und zurueck gegeben. Diese Methode
-     * <b>blockiert</b> den Thread, bis eine Verbindung zu dem Socket aufgebaut wurde! Der Eintrag in die Socketliste
-     * wird vom TCP-Socket nach erfolgreichem Verbindungsaufbau initiiert.
+     * Mit dieser Methode wird die naechste eingehende Verbindung angenommen. Fuer TCP wird der Socket einer Verbindung
+     * zurueck gegeben, deren Aufbau abgeschlossen ist. Diese Methode <b>blockiert</b> den Thread, bis eine solche
+     * Verbindung vorliegt oder der Server-Socket geschlossen wird. Fuer UDP wird ein Socket erzeugt, der auf das erste
+     * Datagramm wartet.
      * 
+     * @return der verbundene Socket oder null, wenn der Server-Socket zwischenzeitlich geschlossen wurde
      * @throws ServerSocketException
      *             - Diese Exception wird geworfen, wenn auf dem angeforderten Port schon eine Anwendung laeuft.
      */
-    public synchronized Socket oeffnen() throws VerbindungsException, ServerSocketException {
+    public Socket oeffnen() throws VerbindungsException, ServerSocketException {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ServerSocket), oeffnen()");
-        // Falls schon eine Anwendung auf dem vorgeschlagenen Port laeuft
-        // wird eine Exception ausgeloest
-        if (!protokoll.reservierePort(lokalerPort, this)) {
-            throw new ServerSocketException(messages.getString("sw_serversocket_msg1") + " " + lokalerPort + " "
-                    + messages.getString("sw_serversocket_msg2"));
+        if (protokoll instanceof TCP) {
+            synchronized (this) {
+                lauschen();
+                while (lauscht && warteschlange.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return null;
+                    }
+                }
+                return warteschlange.pollFirst();
+            }
         }
+        return oeffnenUdp();
+    }
 
-        if (protokoll instanceof TCP) {
-            aktuellerSocket = new TCPSocket(betriebssystem, lokalerPort);
-        } else {
-            aktuellerSocket = new UDPSocket(betriebssystem, lokalerPort);
+    /**
+     * Nicht blockierende Annahme einer Verbindung (nur TCP). Zurueck gegeben wird der Socket der am laengsten
+     * wartenden aufgebauten Verbindung oder null, wenn keine Verbindung vorliegt.
+     * 
+     * @throws ServerSocketException
+     *             - Diese Exception wird geworfen, wenn auf dem angeforderten Port schon eine Anwendung laeuft.
+     */
+    public synchronized Socket annehmen() throws ServerSocketException {
+        lauschen();
+        return warteschlange.pollFirst();
+    }
+
+    /** Reserviert beim ersten Aufruf den Port, so dass Verbindungsanfragen angenommen werden. */
+    private synchronized void lauschen() throws ServerSocketException {
+        if (!lauscht && !geschlossen) {
+            if (!protokoll.reservierePort(lokalerPort, this)) {
+                throw new ServerSocketException(messages.getString("sw_serversocket_msg1") + " " + lokalerPort + " "
+                        + messages.getString("sw_serversocket_msg2"));
+            }
+            lauscht = true;
+        }
+    }
+
+    /**
+     * Erzeugt den UDP-Socket, der auf das erste Datagramm wartet. Waehrend des Wartens wird der Monitor des
+     * Server-Sockets nicht gehalten, damit {@link #beenden()} und {@link #schliessen()} den Socket jederzeit stoppen
+     * koennen.
+     */
+    private Socket oeffnenUdp() throws VerbindungsException, ServerSocketException {
+        Socket socket;
+        synchronized (this) {
+            // Falls schon eine Anwendung auf dem vorgeschlagenen Port laeuft
+            // wird eine Exception ausgeloest
+            if (!protokoll.reservierePort(lokalerPort, this)) {
+                throw new ServerSocketException(messages.getString("sw_serversocket_msg1") + " " + lokalerPort + " "
+                        + messages.getString("sw_serversocket_msg2"));
+            }
+            socket = new UDPSocket(betriebssystem, lokalerPort);
+            aktuellerSocket = socket;
         }
 
         try {
-            aktuellerSocket.verbinden();
+            socket.verbinden();
         } catch (TimeOutException e) {
-            aktuellerSocket = null;
+            synchronized (this) {
+                if (aktuellerSocket == socket) {
+                    aktuellerSocket = null;
+                }
+            }
             LOG.debug("[port={}] unexpected timeout exception while listening for incoming connection.", lokalerPort,
                     e);
+            return null;
         }
 
-        if (aktuellerSocket != null && aktuellerSocket.istVerbunden()) {
-            return aktuellerSocket;
+        if (socket.istVerbunden()) {
+            return socket;
         } else {
             return null;
         }
     }
 
     /**
-     * Ankommende Segmente werden von dieser Methode an den richtigen Socket weitergegeben. Wenn kein Scoket aus der
-     * Socketliste zur entfernten IP-Adresse und dem entfernten TCP-Port passt, wird das Segment an den
-     * 'aktuellerSocket' weitergegeben. Dieser Socket wurde gerade erst erzeugt und wartet auf eingehende
-     * Verbindungsanfragen.
+     * Ankommende Segmente werden von dieser Methode an den richtigen Socket weitergegeben. Wenn kein Socket aus der
+     * Socketliste zur entfernten IP-Adresse und dem entfernten TCP-Port passt, wird das Segment an den halboffenen
+     * Socket dieses Clients weitergegeben. Fuer ein SYN-Segment eines unbekannten Clients wird ein neuer Socket fuer
+     * den Verbindungsaufbau erzeugt, sofern der Backlog nicht ausgeschoepft ist. Bei UDP wird das Segment an den
+     * 'aktuellerSocket' weitergegeben, der auf das erste Datagramm wartet.
      */
     public void hinzufuegen(String startIp, int startPort, Object segment) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ServerSocket), hinzufuegen(" + startIp + ","
                 + startPort + "," + segment + ")");
-        String start;
-        Socket socket;
-
-        start = startIp + ":" + startPort;
-        if (socketListe.containsKey(start)) {
-            socket = (Socket) socketListe.get(start);
+        String start = startIp + ":" + startPort;
+        Socket socket = socketListe.get(start);
+        if (socket == null && segment instanceof TcpSegment) {
+            socket = halboffenerSocket(start, startIp, startPort, (TcpSegment) segment);
+        } else if (socket == null) {
+            socket = aktuellerSocket;
+        }
+        if (socket != null) {
             socket.hinzufuegen(startIp, startPort, segment);
-        } else if (aktuellerSocket != null) {
-            aktuellerSocket.hinzufuegen(startIp, startPort, segment);
         }
     }
 
+    /**
+     * Der Socket fuer den Verbindungsaufbau mit dem angegebenen Client. Fuer ein SYN-Segment eines neuen Clients wird
+     * er erzeugt und der Verbindungsaufbau gestartet, wenn der Server-Socket lauscht und der Backlog nicht voll ist.
+     * 
+     * @return der Socket oder null, wenn das Segment verworfen wird
+     */
+    private synchronized Socket halboffenerSocket(String start, String startIp, int startPort, TcpSegment segment) {
+        TCPSocket socket = halboffen.get(start);
+        if (socket == null && lauscht && segment.isSyn() && !segment.isAck()) {
+            if (halboffen.size() + warteschlange.size() >= backlog) {
+                LOG.debug("[port={}] backlog full, connection request from {} dropped.", lokalerPort, start);
+            } else {
+                try {
+                    socket = new TCPSocket(betriebssystem, lokalerPort);
+                    halboffen.put(start, socket);
+                    socket.verbindungsaufbauStarten();
+                } catch (VerbindungsException e) {
+                    LOG.debug("[port={}] socket for connection request from {} could not be created.", lokalerPort,
+                            start, e);
+                    socket = null;
+                }
+            }
+        }
+        return socket;
+    }
+
     /**
      * Methode zum Schliessen des Server-Sockets. Das heisst, dass keine Verbindungsanfragen mehr angenommen werden. Die
      * von dem Server-Socket verwalteten Sockets werden dadurch <b>nicht</b> geschlossen! <br />
@@ -198,10 +357,32 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
     public void schliessen() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ServerSocket), schliessen()");
 
-        if (aktuellerSocket != null) {
-            aktuellerSocket.schliessen();
+        Socket udpSocket = aktuellerSocket;
+        if (udpSocket != null) {
+            udpSocket.schliessen();
             protokoll.gibPortFrei(lokalerPort);
         }
+        for (Socket socket : nichtAngenommeneSockets()) {
+            socket.schliessen();
+        }
+    }
+
+    /**
+     * Beendet das Lauschen und gibt die Sockets zurueck, deren Verbindung im Aufbau ist oder noch nicht angenommen
+     * wurde. Ein Aufruf von oeffnen(), der auf eine Verbindung wartet, wird dabei geweckt. Der Port wird freigegeben.
+     */
+    private synchronized List<Socket> nichtAngenommeneSockets() {
+        List<Socket> sockets = new ArrayList<Socket>(halboffen.values());
+        sockets.addAll(warteschlange);
+        halboffen.clear();
+        warteschlange.clear();
+        geschlossen = true;
+        if (lauscht) {
+            lauscht = false;
+            protokoll.gibPortFrei(lokalerPort);
+        }
+        notifyAll();
+        return sockets;
     }
 
     /**
@@ -211,7 +392,12 @@ public class ServerSocket implements SocketSchnittstelle, I18n {
      */
     public void beenden() {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ServerSocket), beenden()");
-        if (aktuellerSocket != null)
-            aktuellerSocket.beenden();
+        Socket udpSocket = aktuellerSocket;
+        if (udpSocket != null) {
+            udpSocket.beenden();
+        }
+        for (Socket socket : nichtAngenommeneSockets()) {
+            socket.beenden();
+        }
     }
 }
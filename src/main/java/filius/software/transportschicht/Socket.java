@@ -49,6 +49,19 @@ public abstract class Socket implements SocketSchnittstelle, I18n {
      */
     protected static final int AKTIV = 1, PASSIV = 2;
 
+    /**
+     * Schnittstelle fuer den nicht blockierenden Empfang. Statt mit empfangen() auf die naechste Nachricht zu warten,
+     * bekommt der Empfaenger jede Nachricht zugestellt, sobald sie vollstaendig eingegangen ist. Die Methoden werden
+     * von dem Thread aufgerufen, der die Segmente verarbeitet, und sollten deshalb nicht blockieren.
+     */
+    public interface Empfaenger {
+        /** wird fuer jede eingegangene Nachricht in der Reihenfolge des Eingangs aufgerufen */
+        void nachrichtEmpfangen(String nachricht);
+
+        /** wird einmal aufgerufen, wenn die Verbindung beendet ist und keine weiteren Nachrichten folgen */
+        void verbindungBeendet();
+    }
+
     /**
      * Ob der Socket im Passiv- oder Aktiv-Modus betrieben wird. AKTIV bedeutet, dass der Verbindungsaufbau zu einem
      * anderen Socket initiiert wird, PASSIV bedeutet, dass der Socket auf eingehende Verbindungsanfragen wartet. Dieses
@@ -177,6 +190,13 @@ public abstract class Socket implements SocketSchnittstelle, I18n {
      */
     public abstract String empfangen(long timeoutMillis) throws VerbindungsException, TimeOutException;
 
+    /**
+     * Registriert einen Empfaenger, an den eingehende Nachrichten zugestellt werden, statt sie fuer empfangen()
+     * zwischenzuspeichern. Bereits zwischengespeicherte Nachrichten werden sofort zugestellt. Mit null wird wieder auf
+     * den Empfang mit empfangen() umgeschaltet.
+     */
+    public abstract void setzeEmpfaenger(Empfaenger empfaenger);
+
     /**
      * Test, ob der uebergebene String eine gueltige IP-Adresse ist. Zurueckgegeben wird die IP-Adresse ohne
      * ueberfluessige Nullen.
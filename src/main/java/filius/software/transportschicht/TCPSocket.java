@@ -25,6 +25,7 @@
  */
 package filius.software.transportschicht;
 
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.ListIterator;
 
@@ -36,6 +37,8 @@ import filius.exception.SocketException;
 import filius.exception.TimeOutException;
 import filius.exception.VerbindungsException;
 import filius.hardware.Verbindung;
+import filius.software.SimulationClock;
+import filius.software.ThreadFabrik;
 import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.vermittlungsschicht.IpPaket;
 
@@ -64,8 +67,9 @@ import filius.software.vermittlungsschicht.IpPaket;
  * ob der Zustand des Sockets ESTABLISHED ist.</li>
  * <li>Wenn eine Verbindung erfolgreich aufgebaut werden konnte, ist es moeglich Nachrichten mit der Methode
  * <b>sende(String)</b> an den entfernten Socket zu verschicken. Diese Methode blockiert, bis die Nachricht erfolgreich
- * uebertragen werden konnte oder eine Ausnahme ausgeloest wurde. Die Uebertragung erfolgt mit einem
- * Stop-And-Wait-Algorithmus.</li>
+ * uebertragen werden konnte oder eine Ausnahme ausgeloest wurde. Die Uebertragung erfolgt mit einem Sendefenster nach
+ * dem Go-Back-N-Verfahren und kumulativen Bestaetigungen. Mit einem Sendefenster der Groesse 1 wird der
+ * Stop-And-Wait-Algorithmus verwendet.</li>
  * <li>Ebenso kann nach efolgtem Verbindungsaufbau mit Aufruf der Methode <b>empfangen()</b> auf eine eingehende
  * Nachricht gewartet werden. Es wird ein String zurueck gegeben, wenn die Nachricht vollstaendig empfangen wurde.</li>
  * <li>Der Verbindungsabbau wird durch Aufruf der Methode <b>schliessen()</b> initiiert. Allerdings erfolgt der
@@ -147,10 +151,17 @@ public class TCPSocket extends Socket implements Runnable {
      * Der aktuelle Zustand des Sockets. Zustandsuebergaenge werden in den Methoden verbinden(), schliessen() und
      * hinzufuegen() ausgeloest.
      */
-    private int zustand = CLOSED;
+    private volatile int zustand = CLOSED;
     private boolean timeout;
-    private boolean stopThread;
-    private boolean closeSocket;
+    private volatile boolean stopThread;
+    private volatile boolean closeSocket;
+
+    /**
+     * Monitor, ueber den verbinden() benachrichtigt wird, sobald der Verbindungsaufbau im Thread des Sockets
+     * abgeschlossen oder abgebrochen ist.
+     */
+    private final Object verbindungsaufbau = new Object();
+    private volatile boolean verbindungsaufbauBeendet;
 
     /**
      * Anzahl der maximalen Sendeversuche, in Fehlersituationen, d. h., dass ein Segment nicht bestaetigt wurde.
@@ -160,10 +171,33 @@ public class TCPSocket extends Socket implements Runnable {
     /** Maximum Segment Size (MSS) */
     protected final static int MSS = 1460;
 
+    /** Standardgroesse des Sendefensters in Segmenten */
+    public static final int STANDARD_SENDEFENSTER = 8;
+
+    /**
+     * Groesse des Sendefensters in Segmenten. Mit der Groesse 1 wird der Stop-and-Wait-Algorithmus verwendet, z. B. um
+     * ihn im Unterricht in der Nachrichtenansicht zu zeigen.
+     */
+    private static int sendefenster = STANDARD_SENDEFENSTER;
+
+    /** ob das Sendefenster mit Slow-Start und Congestion-Avoidance an den Empfang von Bestaetigungen angepasst wird */
+    private static boolean staukontrolle = false;
+
+    /**
+     * geglaettete Round-Trip-Time und deren Schwankung in Millisekunden nach RFC 6298. Solange noch keine Messung
+     * vorliegt, ist srtt negativ.
+     */
+    private long srtt = -1;
+    private long rttvar;
+
     /** Puffer fuer eingegangene Segmente. */
     private LinkedList<TcpSegment> puffer = new LinkedList<>();
     private LinkedList<String> receivedPayload = new LinkedList<>();
 
+    /** der Empfaenger fuer den nicht blockierenden Empfang oder null (geschuetzt durch receivedPayload) */
+    private Empfaenger empfaenger;
+    private boolean empfangBeendet;
+
     private static long synInitValue = 1l;
     /**
      * dieses Attribut ist immer die Sequenznummer des als naechstes zu sendenden Segments. Die Sequenznummer wird
@@ -265,14 +299,14 @@ public class TCPSocket extends Socket implements Runnable {
      */
     public synchronized void verbinden() throws VerbindungsException, TimeOutException {
         LOG.debug("initiate new tcp socket connection");
-        stopThread = false;
-        closeSocket = false;
-        new Thread(this).start();
+        verbindungsaufbauStarten();
 
-        while (zustand != ESTABLISHED && !closeSocket && !stopThread) {
-            try {
-                Thread.sleep(100);
-            } catch (InterruptedException e) {}
+        synchronized (verbindungsaufbau) {
+            while (!verbindungsaufbauBeendet && zustand != ESTABLISHED && !closeSocket && !stopThread) {
+                try {
+                    verbindungsaufbau.wait();
+                } catch (InterruptedException e) {}
+            }
         }
         if (closeSocket) {
             if (timeout) {
@@ -285,12 +319,45 @@ public class TCPSocket extends Socket implements Runnable {
         }
     }
 
-    protected void connect() {
-        puffer.clear();
+    /**
+     * Startet den Verbindungsaufbau im Thread des Sockets, ohne auf dessen Ende zu warten. Ein Socket im passiven Modus
+     * ist danach sofort im Zustand LISTEN, so dass ein Segment, das direkt anschliessend uebergeben wird, dem
+     * Verbindungsaufbau zugeordnet wird. So nutzt der {@link ServerSocket} diese Methode fuer Verbindungsanfragen aus
+     * seinem Backlog.
+     */
+    void verbindungsaufbauStarten() {
+        stopThread = false;
+        closeSocket = false;
+        verbindungsaufbauBeendet = false;
+        synchronized (receivedPayload) {
+            empfangBeendet = false;
+        }
+        synchronized (puffer) {
+            puffer.clear();
+        }
         if (modus == PASSIV) {
-            connectServerMode();
-        } else {
-            connectClientMode();
+            zustand = LISTEN;
+        }
+        ThreadFabrik.getThreadFabrik().neuerThread(this, "TCPSocket").start();
+    }
+
+    protected void connect() {
+        try {
+            if (modus == PASSIV) {
+                connectServerMode();
+            } else {
+                connectClientMode();
+            }
+        } finally {
+            verbindungsaufbauBeendet = true;
+            benachrichtigeVerbindungsaufbau();
+        }
+    }
+
+    /** weckt einen Aufruf von verbinden(), der auf das Ende des Verbindungsaufbaus wartet */
+    private void benachrichtigeVerbindungsaufbau() {
+        synchronized (verbindungsaufbau) {
+            verbindungsaufbau.notifyAll();
         }
     }
 
@@ -313,13 +380,13 @@ public class TCPSocket extends Socket implements Runnable {
             synchronized (puffer) {
                 if (puffer.size() < 1) {
                     try {
-                        puffer.wait(defaultTimeout());
+                        SimulationClock.getSimulationClock().warten(puffer, defaultTimeout());
                     } catch (InterruptedException e) {}
                 }
             }
 
             if (puffer.size() >= 1) {
-                sendezeit = System.currentTimeMillis();
+                sendezeit = SimulationClock.getSimulationClock().jetzt();
 
                 TcpSegment segment = (TcpSegment) puffer.removeFirst();
                 if (zustand == LISTEN && segment.isSyn()) {
@@ -344,7 +411,7 @@ public class TCPSocket extends Socket implements Runnable {
                 } else {
                     closeSocket = true;
                 }
-            } else if (System.currentTimeMillis() - sendezeit > defaultTimeout()) {
+            } else if (SimulationClock.getSimulationClock().jetzt() - sendezeit > defaultTimeout()) {
                 timeout = true;
                 closeSocket = true;
             }
@@ -364,7 +431,7 @@ public class TCPSocket extends Socket implements Runnable {
                 synchronized (puffer) {
                     if (puffer.size() < 1) {
                         try {
-                            puffer.wait(defaultTimeout());
+                            SimulationClock.getSimulationClock().warten(puffer, defaultTimeout());
                         } catch (InterruptedException e) {}
                     }
                 }
@@ -430,9 +497,10 @@ public class TCPSocket extends Socket implements Runnable {
     }
 
     /**
-     * Mit dieser Methode wird eine Nachricht auf Segmente aufgeteilt und versendet. Bevor das naechste Segment
-     * verschickt wird, blockiert die Methode bis zur Bestaetigung mit einem ACK-Segment. Es wird also ein
-     * Stop-and-Wait-Algorithmus umgesetzt. <br />
+     * Mit dieser Methode wird eine Nachricht auf Segmente aufgeteilt und versendet. Die Methode blockiert, bis alle
+     * Segmente mit ACK-Segmenten bestaetigt sind. Abhaengig von der Groesse des Sendefensters werden dabei mehrere
+     * Segmente ohne Bestaetigung verschickt (Go-Back-N) oder vor jedem weiteren Segment auf die Bestaetigung gewartet
+     * (Stop-and-Wait). <br />
      * Diese Methode ist <b>synchronized</b>, weil sonst die durchgaengig aufsteigende Sequenznummer der Segmente nicht
      * gewaehrleistet wird.
      * 
@@ -444,10 +512,6 @@ public class TCPSocket extends Socket implements Runnable {
      */
     public synchronized void senden(String nachricht) throws VerbindungsException, TimeOutException {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TCPSocket), senden(" + nachricht + ")");
-        TcpSegment segment;
-        boolean bestaetigt = true;
-        long versendeZeitpunkt = Long.MAX_VALUE;
-        long rtt;
 
         if (zustand != ESTABLISHED) {
             LOG.debug("EXCEPTION: " + getClass() + " (" + this.hashCode() + "); zustand=" + zustand);
@@ -456,6 +520,20 @@ public class TCPSocket extends Socket implements Runnable {
         }
 
         LinkedList<TcpSegment> liste = erstelleSegmente(nachricht);
+        if (sendefenster > 1) {
+            sendenMitFenster(nachricht, liste);
+        } else {
+            sendenStopAndWait(nachricht, liste);
+        }
+    }
+
+    /** Versand der Segmente einer Nachricht mit dem Stop-and-Wait-Algorithmus */
+    private void sendenStopAndWait(String nachricht, LinkedList<TcpSegment> liste)
+            throws VerbindungsException, TimeOutException {
+        TcpSegment segment;
+        boolean bestaetigt = true;
+        long versendeZeitpunkt = Long.MAX_VALUE;
+        long rtt;
 
         // Die erstellten Segmente werden verschickt
         // und auf die Bestaetigung gewartet, bevor das
@@ -480,7 +558,7 @@ public class TCPSocket extends Socket implements Runnable {
                 }
 
                 sendeSegment(segment, i > 0);
-                versendeZeitpunkt = System.currentTimeMillis();
+                versendeZeitpunkt = SimulationClock.getSimulationClock().jetzt();
 
                 // In dieser Schleife werden alle eingehenden
                 // Segmente geprueft, ob sie das ACK-Segment und
@@ -491,7 +569,7 @@ public class TCPSocket extends Socket implements Runnable {
                     synchronized (puffer) {
                         if (puffer.size() < 1) {
                             try {
-                                puffer.wait(defaultTimeout());
+                                SimulationClock.getSimulationClock().warten(puffer, defaultTimeout());
                             } catch (InterruptedException e) {
                                 LOG.debug("", e);
                             }
@@ -504,7 +582,7 @@ public class TCPSocket extends Socket implements Runnable {
                             }
                         }
                     }
-                    rtt = System.currentTimeMillis() - versendeZeitpunkt;
+                    rtt = SimulationClock.getSimulationClock().jetzt() - versendeZeitpunkt;
                 } while (!bestaetigt && (rtt < defaultTimeout()) && zustand == ESTABLISHED && !closeSocket
                         && !stopThread);
             }
@@ -517,6 +595,168 @@ public class TCPSocket extends Socket implements Runnable {
         }
     }
 
+    /**
+     * Versand der Segmente einer Nachricht mit einem Sendefenster nach dem Go-Back-N-Verfahren. Es werden bis zu
+     * {@link #holeSendefenster()} Segmente verschickt, ohne auf deren Bestaetigung zu warten. Eine kumulative
+     * Bestaetigung schiebt das Fenster weiter. Bleibt sie fuer das aelteste unbestaetigte Segment innerhalb des aus der
+     * gemessenen Round-Trip-Time berechneten Timeouts aus, werden alle Segmente ab diesem erneut verschickt. Mit
+     * eingeschalteter Staukontrolle waechst das Fenster zunaechst exponentiell (Slow-Start) und ab dem Schwellwert
+     * linear (Congestion-Avoidance); nach einem Timeout beginnt es wieder bei einem Segment.
+     */
+    private void sendenMitFenster(String nachricht, LinkedList<TcpSegment> liste)
+            throws VerbindungsException, TimeOutException {
+        TcpSegment[] segmente = liste.toArray(new TcpSegment[liste.size()]);
+        long[] sendezeit = new long[segmente.length];
+        boolean[] wiederholt = new boolean[segmente.length];
+        int basis = 0, naechstes = 0, gesendet = 0;
+        double staufenster = staukontrolle ? 1 : sendefenster;
+        double schwellwert = sendefenster;
+        long timeout = retransmissionTimeout();
+        long timerStart = SimulationClock.getSimulationClock().jetzt();
+        long letzterFortschritt = timerStart;
+
+        while (basis < segmente.length && !closeSocket && !stopThread) {
+            if (zustand != ESTABLISHED) {
+                closeSocket = true;
+                throw new VerbindungsException(messages.getString("sw_tcpsocket_msg7"));
+            }
+
+            int fenster = Math.max(1, Math.min(sendefenster, (int) staufenster));
+            while (naechstes < segmente.length && naechstes - basis < fenster) {
+                if (naechstes < gesendet) {
+                    wiederholt[naechstes] = true;
+                    protokoll.senden(zielIp, segmente[naechstes]);
+                } else {
+                    sendeSegment(segmente[naechstes], false);
+                    gesendet++;
+                }
+                sendezeit[naechstes] = SimulationClock.getSimulationClock().jetzt();
+                if (naechstes == basis) {
+                    timerStart = sendezeit[naechstes];
+                }
+                naechstes++;
+            }
+
+            long ackNummer = warteAufBestaetigung(timerStart + timeout - SimulationClock.getSimulationClock().jetzt());
+            long jetzt = SimulationClock.getSimulationClock().jetzt();
+            int bestaetigt = basis;
+            if (ackNummer >= 0) {
+                for (int i = basis; i < gesendet; i++) {
+                    if (nextSequenceNumber(segmente[i]) == ackNummer) {
+                        bestaetigt = i + 1;
+                    }
+                }
+            }
+            if (bestaetigt > basis) {
+                // nach Karn werden wiederholte Segmente nicht fuer die Messung der Round-Trip-Time verwendet
+                if (!wiederholt[bestaetigt - 1]) {
+                    rttMessen(jetzt - sendezeit[bestaetigt - 1]);
+                }
+                if (staukontrolle) {
+                    for (int i = basis; i < bestaetigt; i++) {
+                        staufenster += staufenster < schwellwert ? 1 : 1 / staufenster;
+                    }
+                }
+                basis = bestaetigt;
+                naechstes = Math.max(naechstes, basis);
+                timeout = retransmissionTimeout();
+                timerStart = jetzt;
+                letzterFortschritt = jetzt;
+            } else if (jetzt - timerStart >= timeout) {
+                if (jetzt - letzterFortschritt >= MAX_SENDEVERSUCHE * defaultTimeout()) {
+                    break;
+                }
+                LOG.debug("[port={}] timeout; retransmit {} segment(s)", lokalerPort, naechstes - basis);
+                naechstes = basis;
+                timeout = Math.min(2 * timeout, defaultTimeout());
+                if (staukontrolle) {
+                    schwellwert = Math.max(fenster / 2.0, 2);
+                    staufenster = 1;
+                }
+            }
+        }
+        if (basis < segmente.length && zustand != CLOSED && !stopThread) {
+            LOG.debug("[port={}] message '{}' could not be transferred. socket will be closed.", lokalerPort,
+                    nachricht);
+            schliessen();
+            throw new TimeOutException(messages.getString("sw_tcpsocket_msg8"));
+        }
+    }
+
+    /**
+     * Entnimmt alle Bestaetigungen aus dem Puffer. Liegt keine vor, wird hoechstens die angegebene Zeit auf eine
+     * Bestaetigung gewartet. Andere Segmente verbleiben fuer listen() im Puffer.
+     * 
+     * @return die Acknowledge-Nummer der zuletzt eingegangenen Bestaetigung oder -1
+     */
+    private long warteAufBestaetigung(long wartezeit) {
+        synchronized (puffer) {
+            long ackNummer = entnehmeBestaetigungen();
+            if (ackNummer < 0 && wartezeit > 0) {
+                try {
+                    SimulationClock.getSimulationClock().warten(puffer, wartezeit);
+                } catch (InterruptedException e) {}
+                ackNummer = entnehmeBestaetigungen();
+            }
+            return ackNummer;
+        }
+    }
+
+    /** Der Aufrufer muss die Sperre des Puffers halten. */
+    private long entnehmeBestaetigungen() {
+        long ackNummer = -1;
+        for (Iterator<TcpSegment> it = puffer.iterator(); it.hasNext();) {
+            TcpSegment segment = it.next();
+            if (segment.isAck()) {
+                it.remove();
+                ackNummer = segment.getAckNummer();
+            }
+        }
+        return ackNummer;
+    }
+
+    /** Aktualisiert die geglaettete Round-Trip-Time mit einer neuen Messung (RFC 6298) */
+    void rttMessen(long messung) {
+        if (srtt < 0) {
+            srtt = messung;
+            rttvar = messung / 2;
+        } else {
+            rttvar = (3 * rttvar + Math.abs(srtt - messung)) / 4;
+            srtt = (7 * srtt + messung) / 8;
+        }
+    }
+
+    /**
+     * Der Timeout fuer die Wiederholung von Segmenten. Er wird aus der gemessenen Round-Trip-Time berechnet und ist
+     * hoechstens so gross wie der bisher feste Timeout {@link #defaultTimeout()}.
+     */
+    long retransmissionTimeout() {
+        if (srtt < 0) {
+            return defaultTimeout();
+        }
+        long rto = srtt + Math.max(Verbindung.holeVerzoegerung(), 4 * rttvar);
+        return Math.max(2 * Verbindung.holeVerzoegerung(), Math.min(rto, defaultTimeout()));
+    }
+
+    public static int holeSendefenster() {
+        return sendefenster;
+    }
+
+    /**
+     * Setzt die Groesse des Sendefensters in Segmenten. Mit 1 wird der Stop-and-Wait-Algorithmus verwendet.
+     */
+    public static void setzeSendefenster(int segmente) {
+        sendefenster = Math.max(1, segmente);
+    }
+
+    public static boolean isStaukontrolle() {
+        return staukontrolle;
+    }
+
+    public static void setzeStaukontrolle(boolean aktiv) {
+        staukontrolle = aktiv;
+    }
+
     /**
      * Beim Aufruf dieser Methode werden die eingehenden TCP-Segmente zu einer Nachricht zusammen gefuegt und wenn das
      * Ende der Nachricht erreicht ist, wird diese zurueck gegeben. Das Ende einer Nachricht wird hier mit dem Flag
@@ -558,15 +798,19 @@ public class TCPSocket extends Socket implements Runnable {
             throw new VerbindungsException(messages.getString("sw_tcpsocket_msg9"));
         }
 
-        long startTime = System.currentTimeMillis();
+        long startTime = SimulationClock.getSimulationClock().jetzt();
         synchronized (receivedPayload) {
             if (receivedPayload.size() < 1) {
                 try {
-                    receivedPayload.wait(timeoutMillis);
+                    if (timeoutMillis > 0) {
+                        SimulationClock.getSimulationClock().warten(receivedPayload, timeoutMillis);
+                    } else {
+                        receivedPayload.wait();
+                    }
                 } catch (InterruptedException e) {}
             }
         }
-        long stopTime = System.currentTimeMillis();
+        long stopTime = SimulationClock.getSimulationClock().jetzt();
         String data = null;
         if (zustand == ESTABLISHED && !receivedPayload.isEmpty()) {
             synchronized (receivedPayload) {
@@ -601,31 +845,57 @@ public class TCPSocket extends Socket implements Runnable {
                     puffer.remove(segment);
                     puffer.notifyAll();
                 }
-                // ist das Segment schon bestaetigt worden?
-                long ack = nextSequenceNumber(segment);
-                if (ack <= remoteSequenceNumber) {
-                    sendeAck(segment, null);
-                } else if (ack > remoteSequenceNumber) {
-                    sendeAck(segment, null);
-                    remoteSequenceNumber = ack;
+                // Nur das naechste erwartete Segment wird angenommen. Bereits empfangene oder nach einem Verlust
+                // vorzeitig eingetroffene Segmente werden verworfen. In jedem Fall wird kumulativ bestaetigt, was
+                // bisher lueckenlos empfangen wurde.
+                if (segment.getSeqNummer() == remoteSequenceNumber) {
+                    remoteSequenceNumber = nextSequenceNumber(segment);
                     nachricht.append(segment.getDaten());
-                }
 
-                if (segment.isPush()) {
-                    synchronized (receivedPayload) {
-                        receivedPayload.add(nachricht.toString());
-                        nachricht = new StringBuffer();
-                        receivedPayload.notifyAll();
+                    if (segment.isPush()) {
+                        synchronized (receivedPayload) {
+                            if (empfaenger != null) {
+                                empfaenger.nachrichtEmpfangen(nachricht.toString());
+                            } else {
+                                receivedPayload.add(nachricht.toString());
+                                receivedPayload.notifyAll();
+                            }
+                            nachricht = new StringBuffer();
+                        }
                     }
                 }
+                sendeAck(remoteSequenceNumber, null);
             }
         }
         synchronized (receivedPayload) {
+            empfangBeendet = true;
+            if (empfaenger != null) {
+                empfaenger.verbindungBeendet();
+            }
             receivedPayload.notifyAll();
         }
         LOG.debug("[port={}] stop listening for incoming data.", lokalerPort);
     }
 
+    /**
+     * Registriert einen Empfaenger fuer den nicht blockierenden Empfang. Vollstaendige Nachrichten werden dann direkt
+     * aus dem Thread des Sockets an den Empfaenger uebergeben, so dass kein weiterer Thread in empfangen() auf den
+     * Eingang warten muss. Wenn der Empfang bereits beendet ist, wird der Empfaenger sofort darueber informiert.
+     */
+    public void setzeEmpfaenger(Empfaenger empfaenger) {
+        synchronized (receivedPayload) {
+            this.empfaenger = empfaenger;
+            if (empfaenger != null) {
+                while (!receivedPayload.isEmpty()) {
+                    empfaenger.nachrichtEmpfangen(receivedPayload.removeFirst());
+                }
+                if (empfangBeendet) {
+                    empfaenger.verbindungBeendet();
+                }
+            }
+        }
+    }
+
     /**
      * Mit dieser Methode wird ein Verbindungsabbau mit dem FIN-Flag eingeleitet. <b>Diese Methode darf nicht
      * blockieren, wenn sich der Socket im Zustand LISTEN befindet!</b> <br />
@@ -660,6 +930,7 @@ public class TCPSocket extends Socket implements Runnable {
         synchronized (puffer) {
             puffer.notifyAll();
         }
+        benachrichtigeVerbindungsaufbau();
     }
 
     public void run() {
@@ -701,7 +972,7 @@ public class TCPSocket extends Socket implements Runnable {
                 synchronized (puffer) {
                     if (puffer.size() < 1) {
                         try {
-                            puffer.wait(defaultTimeout());
+                            SimulationClock.getSimulationClock().warten(puffer, defaultTimeout());
                         } catch (InterruptedException e) {}
                     }
                     if (zustand == TIME_WAIT) {
@@ -762,12 +1033,17 @@ public class TCPSocket extends Socket implements Runnable {
     private void sendeAck(TcpSegment empfangSegment, TcpSegment sendeSegment) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TCPSocket), sendeAck(" + empfangSegment + ","
                 + sendeSegment + ")");
+        sendeAck(nextSequenceNumber(empfangSegment), sendeSegment);
+    }
+
+    /** Sendet eine Bestaetigung mit der uebergebenen Acknowledge-Nummer, z. B. als kumulative Bestaetigung. */
+    private void sendeAck(long ackNummer, TcpSegment sendeSegment) {
         if (sendeSegment == null) {
             sendeSegment = new TcpSegment();
         }
 
         sendeSegment.setAck(true);
-        sendeSegment.setAckNummer(nextSequenceNumber(empfangSegment));
+        sendeSegment.setAckNummer(ackNummer);
         sendeSegment(sendeSegment, false);
     }
 
@@ -823,6 +1099,7 @@ public class TCPSocket extends Socket implements Runnable {
         synchronized (puffer) {
             puffer.notifyAll();
         }
+        benachrichtigeVerbindungsaufbau();
     }
 
     /**
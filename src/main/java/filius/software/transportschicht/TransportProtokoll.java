@@ -28,7 +28,6 @@ package filius.software.transportschicht;
 import java.lang.Thread.State;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -39,6 +38,8 @@ import org.slf4j.LoggerFactory;
 import filius.exception.SocketException;
 import filius.rahmenprogramm.I18n;
 import filius.software.Protokoll;
+import filius.software.Puffer;
+import filius.software.ThreadFabrik;
 import filius.software.system.InternetKnotenBetriebssystem;
 
 public abstract class TransportProtokoll extends Protokoll implements I18n, Runnable {
@@ -53,7 +54,7 @@ public abstract class TransportProtokoll extends Protokoll implements I18n, Runn
     private int typ;
 
     /** IP-Adresse und Segment, das in einem neuen Thread verschickt wird */
-    private LinkedList<Object[]> segmentListe = new LinkedList<Object[]>();
+    private Puffer<Object[]> segmentListe = new Puffer<Object[]>();
 
     private Map<Integer, SocketSchnittstelle> portTabelle = new HashMap<Integer, SocketSchnittstelle>();
 
@@ -189,10 +190,7 @@ public abstract class TransportProtokoll extends Protokoll implements I18n, Runn
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (TransportProtokoll), senden(" + zielIp + ","
                 + segment + ")");
 
-        synchronized (segmentListe) {
-            segmentListe.addLast((new Object[] { zielIp, quellIp, segment }));
-            segmentListe.notifyAll();
-        }
+        segmentListe.add(new Object[] { zielIp, quellIp, segment });
     }
 
     public void run() {
@@ -202,17 +200,10 @@ public abstract class TransportProtokoll extends Protokoll implements I18n, Runn
         Object[] temp;
 
         while (running) {
-            synchronized (segmentListe) {
-                if (segmentListe.size() < 1) {
-                    try {
-                        segmentListe.wait();
-                    } catch (InterruptedException e1) {}
-                }
-                if (segmentListe.size() > 0) {
-                    temp = (Object[]) segmentListe.removeFirst();
-                    bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
-                    bs.holeIP().senden((String) temp[0], (String) temp[1], holeTyp(), TTL, (Segment) temp[2]);
-                }
+            temp = segmentListe.entnehmen();
+            if (temp != null) {
+                bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
+                bs.holeIP().senden((String) temp[0], (String) temp[1], holeTyp(), TTL, (Segment) temp[2]);
             }
         }
     }
@@ -227,7 +218,7 @@ public abstract class TransportProtokoll extends Protokoll implements I18n, Runn
             running = true;
             if (sendeThread == null || (!sendeThread.getState().equals(State.WAITING)
                     && !sendeThread.getState().equals(State.BLOCKED))) {
-                sendeThread = new Thread(this);
+                sendeThread = ThreadFabrik.getThreadFabrik().neuerThread(this, getClass().getSimpleName());
                 sendeThread.start();
             }
         }
@@ -242,6 +233,7 @@ public abstract class TransportProtokoll extends Protokoll implements I18n, Runn
                 && (sendeThread.getState().equals(State.WAITING) || sendeThread.getState().equals(State.BLOCKED))) {
             sendeThread.interrupt();
         }
+        segmentListe.aufwecken();
         portTabelle.clear();
     }
 }
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.exception.SocketException;
 import filius.exception.VerbindungsException;
+import filius.software.SimulationClock;
 import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.vermittlungsschicht.IpPaket;
 
@@ -52,6 +53,10 @@ public class UDPSocket extends Socket {
     private boolean verbunden;
     private boolean stopListening;
 
+    /** der Empfaenger fuer den nicht blockierenden Empfang oder null */
+    private Empfaenger empfaenger;
+    private boolean empfaengerBeendet;
+
     /**
      * Konstruktor zur Initialisierung des Sockets. Dazu wird das mit dem Socket verbundene Transport-Protokoll
      * initialisiert und ein beliebiger Port wird reserviert.
@@ -114,8 +119,32 @@ public class UDPSocket extends Socket {
         zielPort = startPort;
 
         synchronized (puffer) {
-            puffer.add((UdpSegment) segment);
-            puffer.notifyAll();
+            if (empfaenger != null) {
+                empfaenger.nachrichtEmpfangen(((UdpSegment) segment).getDaten());
+            } else {
+                puffer.add((UdpSegment) segment);
+                puffer.notifyAll();
+            }
+        }
+    }
+
+    public void setzeEmpfaenger(Empfaenger empfaenger) {
+        synchronized (puffer) {
+            this.empfaenger = empfaenger;
+            while (empfaenger != null && !puffer.isEmpty()) {
+                empfaenger.nachrichtEmpfangen(puffer.removeFirst().getDaten());
+            }
+            if (stopListening) {
+                benachrichtigeEmpfaenger();
+            }
+        }
+    }
+
+    /** Der Aufrufer muss die Sperre des Puffers halten. */
+    private void benachrichtigeEmpfaenger() {
+        if (empfaenger != null && !empfaengerBeendet) {
+            empfaengerBeendet = true;
+            empfaenger.verbindungBeendet();
         }
     }
 
@@ -132,7 +161,11 @@ public class UDPSocket extends Socket {
         synchronized (puffer) {
             if (puffer.size() < 1) {
                 try {
-                    puffer.wait(millis);
+                    if (millis > 0) {
+                        SimulationClock.getSimulationClock().warten(puffer, millis);
+                    } else {
+                        puffer.wait();
+                    }
                 } catch (InterruptedException e) {
                     LOG.debug("UDP socket interrupted");
                 }
@@ -196,6 +229,7 @@ public class UDPSocket extends Socket {
         stopListening = true;
         synchronized (puffer) {
             puffer.notifyAll();
+            benachrichtigeEmpfaenger();
         }
         if (verbunden) {
             austragenPort();
@@ -213,6 +247,7 @@ public class UDPSocket extends Socket {
         stopListening = true;
         synchronized (puffer) {
             puffer.notifyAll();
+            benachrichtigeEmpfaenger();
         }
     }
 
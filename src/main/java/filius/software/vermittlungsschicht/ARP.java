@@ -26,8 +26,10 @@
 package filius.software.vermittlungsschicht;
 
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.Verbindung;
 import filius.hardware.knoten.InternetKnoten;
+import filius.software.SimulationClock;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.system.SystemSoftware;
@@ -57,6 +60,41 @@ public class ARP extends VermittlungsProtokoll {
      */
     private ARPThread thread;
 
+    /** maximale Anzahl von Paketen, die je Nachbar auf die Aufloesung der MAC-Adresse warten */
+    public static final int MAX_WARTENDE_PAKETE = 50;
+
+    /**
+     * Eine laufende Aufloesung einer IP-Adresse. Solange keine Antwort eingegangen ist, werden die Pakete fuer diesen
+     * Nachbarn in der Reihenfolge ihres Eintreffens zurueckgehalten.
+     */
+    private class AusstehendeAufloesung {
+        private final String zielIp;
+        private final int maxVersuche;
+        private int versuche = 0;
+        private SimulationClock.Termin zeitgeber;
+        private final LinkedList<Consumer<String>> beiErfolg = new LinkedList<Consumer<String>>();
+        private final LinkedList<Runnable> beiFehlschlag = new LinkedList<Runnable>();
+
+        private AusstehendeAufloesung(String zielIp, int maxVersuche) {
+            this.zielIp = zielIp;
+            this.maxVersuche = maxVersuche;
+        }
+
+        private void anfrageSenden() {
+            versuche++;
+            LOG.debug("Send ARP query for " + versuche + ". time.");
+            sendeARPBroadcast(zielIp);
+            zeitgeber = SimulationClock.getSimulationClock().planen(() -> zeitUeberschritten(this),
+                    Verbindung.holeRTT());
+        }
+    }
+
+    /**
+     * Die laufenden Aufloesungen mit der IP-Adresse als Schluessel. Die Map dient zugleich als Sperre, damit
+     * zurueckgehaltene Pakete vor neuen Paketen an denselben Nachbarn verschickt werden.
+     */
+    private final Map<String, AusstehendeAufloesung> ausstehend = new HashMap<String, AusstehendeAufloesung>();
+
     /**
      * Standard-Konstruktor zur Initialisierung der zugehoerigen Systemsoftware
      * 
@@ -85,6 +123,12 @@ public class ARP extends VermittlungsProtokoll {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ARP), beenden()");
         if (thread != null)
             thread.beenden();
+        synchronized (ausstehend) {
+            for (AusstehendeAufloesung aufloesung : ausstehend.values()) {
+                aufloesung.zeitgeber.abbrechen();
+            }
+            ausstehend.clear();
+        }
     }
 
     /**
@@ -98,13 +142,23 @@ public class ARP extends VermittlungsProtokoll {
     public void hinzuARPTabellenEintrag(String ipAdresse, String macAdresse) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ARP), hinzuARPTabellenEintrag(" + ipAdresse
                 + "," + macAdresse + ")");
-        String tmpTime = "" + System.currentTimeMillis();
+        String tmpTime = "" + SimulationClock.getSimulationClock().jetzt();
         String[] tmpString = { macAdresse, tmpTime };
 
         synchronized (arpTabelle) {
             arpTabelle.put(ipAdresse, tmpString);
             arpTabelle.notify();
         }
+        synchronized (ausstehend) {
+            AusstehendeAufloesung aufloesung = ausstehend.remove(ipAdresse);
+            if (aufloesung != null) {
+                aufloesung.zeitgeber.abbrechen();
+                LOG.debug("ARP entry for {} resolved, send {} pending packets", ipAdresse, aufloesung.beiErfolg.size());
+                for (Consumer<String> senden : aufloesung.beiErfolg) {
+                    senden.accept(macAdresse);
+                }
+            }
+        }
     }
 
     public void removeARPTableEntry(String ipAddress) {
@@ -172,7 +226,7 @@ public class ARP extends VermittlungsProtokoll {
                 sendeARPBroadcast(zielIp);
                 synchronized (arpTabelle) {
                     try {
-                        arpTabelle.wait(Verbindung.holeRTT());
+                        SimulationClock.getSimulationClock().warten(arpTabelle, Verbindung.holeRTT());
                     } catch (InterruptedException e) {
                         LOG.debug("EXCEPTION (" + this.hashCode() + "): keine Anwort auf ARP-Broadcast fuer IP-Adresse "
                                 + zielIp + " eingegangen!", e);
@@ -191,8 +245,91 @@ public class ARP extends VermittlungsProtokoll {
         return null;
     }
 
+    /**
+     * Bestimmt die MAC-Adresse zu einer IP-Adresse, ohne den aufrufenden Thread zu blockieren. Ist die Adresse bekannt,
+     * wird beiErfolg sofort aufgerufen. Andernfalls wird eine ARP-Anfrage verschickt und die Aktion fuer diesen
+     * Nachbarn zurueckgehalten, bis die Antwort im {@link ARPThread} eingeht. Bleibt die Antwort auch nach maxRetries
+     * Anfragen im Abstand der RTT aus, werden alle zurueckgehaltenen Aktionen verworfen und jeweils beiFehlschlag
+     * aufgerufen.
+     * 
+     * @param zielIp
+     *            die aufzuloesende IP-Adresse
+     * @param maxRetries
+     *            die maximale Anzahl von ARP-Anfragen
+     * @param beiErfolg
+     *            wird mit der MAC-Adresse aufgerufen, sobald sie bekannt ist
+     * @param beiFehlschlag
+     *            wird aufgerufen, wenn die Adresse nicht aufgeloest werden konnte
+     */
+    public void aufloesen(String zielIp, int maxRetries, Consumer<String> beiErfolg, Runnable beiFehlschlag) {
+        String macAdresse = null;
+        synchronized (ausstehend) {
+            AusstehendeAufloesung aufloesung = ausstehend.get(zielIp);
+            if (aufloesung == null) {
+                macAdresse = bekannteMacAdresse(zielIp);
+                if (macAdresse == null) {
+                    if (maxRetries < 1) {
+                        beiFehlschlag.run();
+                        return;
+                    }
+                    aufloesung = new AusstehendeAufloesung(zielIp, maxRetries);
+                    ausstehend.put(zielIp, aufloesung);
+                    aufloesung.anfrageSenden();
+                }
+            }
+            if (aufloesung != null) {
+                if (aufloesung.beiErfolg.size() >= MAX_WARTENDE_PAKETE) {
+                    LOG.debug("Too many packets waiting for ARP resolution of {}; drop oldest", zielIp);
+                    aufloesung.beiErfolg.removeFirst();
+                    aufloesung.beiFehlschlag.removeFirst();
+                }
+                aufloesung.beiErfolg.add(beiErfolg);
+                aufloesung.beiFehlschlag.add(beiFehlschlag);
+                return;
+            }
+        }
+        beiErfolg.accept(macAdresse);
+    }
+
+    /** Die MAC-Adresse aus der ARP-Tabelle oder einer eigenen Schnittstelle, sonst null */
+    private String bekannteMacAdresse(String zielIp) {
+        if (zielIp.equals("127.0.0.1")) {
+            return ((InternetKnotenBetriebssystem) holeSystemSoftware()).primaryMACAddress();
+        }
+        if (holeSystemSoftware() instanceof InternetKnotenBetriebssystem) {
+            if (zielIp.equals(((InternetKnotenBetriebssystem) holeSystemSoftware()).primaryIPAdresse())) {
+                return ((InternetKnotenBetriebssystem) holeSystemSoftware()).primaryMACAddress();
+            }
+        }
+        synchronized (arpTabelle) {
+            String[] arpEntry = arpTabelle.get(zielIp);
+            return arpEntry != null ? arpEntry[0] : null;
+        }
+    }
+
+    /**
+     * Wird von der Simulationsuhr aufgerufen, wenn auf eine ARP-Anfrage innerhalb der RTT keine Antwort eingegangen
+     * ist.
+     */
+    private void zeitUeberschritten(AusstehendeAufloesung aufloesung) {
+        synchronized (ausstehend) {
+            if (ausstehend.get(aufloesung.zielIp) != aufloesung) {
+                return;
+            }
+            if (aufloesung.versuche < aufloesung.maxVersuche) {
+                aufloesung.anfrageSenden();
+            } else {
+                ausstehend.remove(aufloesung.zielIp);
+                LOG.debug("ERROR (" + this.hashCode() + "): kein ARP-Tabellen-Eintrag fuer " + aufloesung.zielIp);
+                for (Runnable verwerfen : aufloesung.beiFehlschlag) {
+                    verwerfen.run();
+                }
+            }
+        }
+    }
+
     /** Hilfsmethode zum Versenden einer ARP-Anfrage */
-    private void sendeARPBroadcast(String suchIp) {
+    void sendeARPBroadcast(String suchIp) {
         NetzwerkInterface nic = getBroadcastNic(suchIp);
         if (nic == null) {
             return;
@@ -27,7 +27,6 @@ package filius.software.vermittlungsschicht;
 
 import static filius.software.netzzugangsschicht.Ethernet.ETHERNET_BROADCAST;
 
-import java.util.LinkedList;
 import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
@@ -85,12 +84,7 @@ public class ICMP extends VermittlungsProtokoll implements I18n {
     private void placeLocalICMPPacket(IcmpPaket icmpPacket) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (ICMP), placeLocalICMPPacket("
                 + icmpPacket.toString() + ")");
-        LinkedList<IcmpPaket> icmpPakete = ((InternetKnotenBetriebssystem) holeSystemSoftware()).holeEthernet()
-                .holeICMPPuffer();
-        synchronized (icmpPakete) {
-            icmpPakete.add(icmpPacket);
-            icmpPakete.notify();
-        }
+        ((InternetKnotenBetriebssystem) holeSystemSoftware()).holeEthernet().holeICMPPuffer().add(icmpPacket);
     }
 
     /** Hilfsmethode zum Versenden eines ICMP Echo Requests */
@@ -177,23 +171,24 @@ public class ICMP extends VermittlungsProtokoll implements I18n {
      */
     private void sendUnicastToNextHop(IcmpPaket paket, String ziel, String macOfNicToUse) {
         InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
-        String zielMacAdresse = bs.holeARP().holeARPTabellenEintrag(ziel, 2);
 
         if (this.isLocalAddress(ziel)) {
             placeLocalICMPPacket(paket);
-        } else if (zielMacAdresse != null) {
-            // MAC-Adresse konnte bestimmt werden
-            bs.holeEthernet().senden(paket, macOfNicToUse, zielMacAdresse, EthernetFrame.IP);
         } else {
-            // Es konnte keine MAC-Adresse bestimmt werden.
-            // Falls das weiterzuleitende Paket ein ICMP Echo Request ist,
-            // muss ein ICMP Destination Unreachable: Host Unreachable (3/1)
-            // zurueckgesendet werden. Andere ICMP-Paket muessen verworfen
-            // werden.
-            if (paket.isEchoRequest()) {
-                sendeICMP(TYPE_DESTINATION_UNREACHABLE, CODE_DEST_HOST_UNREACHABLE, paket.getSeqNr(), null,
-                        paket.getSender());
-            }
+            bs.holeARP().aufloesen(ziel, 2, zielMacAdresse -> {
+                // MAC-Adresse konnte bestimmt werden
+                bs.holeEthernet().senden(paket, macOfNicToUse, zielMacAdresse, EthernetFrame.IP);
+            }, () -> {
+                // Es konnte keine MAC-Adresse bestimmt werden.
+                // Falls das weiterzuleitende Paket ein ICMP Echo Request ist,
+                // muss ein ICMP Destination Unreachable: Host Unreachable (3/1)
+                // zurueckgesendet werden. Andere ICMP-Paket muessen verworfen
+                // werden.
+                if (paket.isEchoRequest()) {
+                    sendeICMP(TYPE_DESTINATION_UNREACHABLE, CODE_DEST_HOST_UNREACHABLE, paket.getSeqNr(), null,
+                            paket.getSender());
+                }
+            });
         }
     }
 
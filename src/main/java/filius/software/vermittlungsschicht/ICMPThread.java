@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import filius.hardware.Verbindung;
 import filius.software.ProtokollThread;
+import filius.software.SimulationClock;
 import filius.software.system.InternetKnotenBetriebssystem;
 
 /**
@@ -90,7 +91,7 @@ public class ICMPThread extends ProtokollThread<IcmpPaket> {
         IcmpPaket response = null;
         synchronized (rcvdPackets) {
             try {
-                rcvdPackets.wait(Verbindung.holeRTT());
+                SimulationClock.getSimulationClock().warten(rcvdPackets, Verbindung.holeRTT());
             } catch (InterruptedException e) {}
 
             if (rcvdPackets.size() > 0) {
@@ -27,7 +27,6 @@ package filius.software.vermittlungsschicht;
 
 import static filius.software.netzzugangsschicht.Ethernet.ETHERNET_BROADCAST;
 
-import java.util.LinkedList;
 import java.util.NoSuchElementException;
 import java.util.StringTokenizer;
 import java.util.regex.Matcher;
@@ -40,6 +39,7 @@ import filius.exception.VerbindungsException;
 import filius.hardware.NetzwerkInterface;
 import filius.hardware.knoten.InternetKnoten;
 import filius.rahmenprogramm.I18n;
+import filius.software.Puffer;
 import filius.software.netzzugangsschicht.EthernetFrame;
 import filius.software.system.InternetKnotenBetriebssystem;
 import filius.software.transportschicht.Segment;
@@ -61,10 +61,10 @@ public class IP extends VermittlungsProtokoll implements I18n {
     public static final String LOCALHOST = "127.0.0.1";
 
     /** Puffer fuer eingehende IP-Pakete fuer TCP */
-    private LinkedList<IpPaket> ipPaketListeTCP = new LinkedList<IpPaket>();
+    private Puffer<IpPaket> ipPaketListeTCP = new Puffer<IpPaket>();
 
     /** Puffer fuer eingehende IP-Pakete fuer UDP */
-    private LinkedList<IpPaket> ipPaketListeUDP = new LinkedList<IpPaket>();
+    private Puffer<IpPaket> ipPaketListeUDP = new Puffer<IpPaket>();
 
     /**
      * Der Thread zur Ueberwachung des IP-Pakete-Puffers der Ethernet-Schicht
@@ -180,15 +180,9 @@ public class IP extends VermittlungsProtokoll implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (IP), benachrichtigeTransportschicht("
                 + paket.toString() + ")");
         if (paket.getSegment() instanceof TcpSegment) {
-            synchronized (ipPaketListeTCP) {
-                ipPaketListeTCP.add(paket);
-                ipPaketListeTCP.notify();
-            }
+            ipPaketListeTCP.add(paket);
         } else if (paket.getSegment() instanceof UdpSegment) {
-            synchronized (ipPaketListeUDP) {
-                ipPaketListeUDP.add(paket);
-                ipPaketListeUDP.notify();
-            }
+            ipPaketListeUDP.add(paket);
         }
     }
 
@@ -214,20 +208,22 @@ public class IP extends VermittlungsProtokoll implements I18n {
         }
     }
 
+    /**
+     * Das Paket wird verschickt, sobald die MAC-Adresse des naechsten Knotens bekannt ist. Bis dahin wartet es in der
+     * ARP-Schicht, ohne den aufrufenden Thread zu blockieren.
+     */
     private void sendeUnicastLokal(IpPaket paket, String ziel, NetzwerkInterface nic) {
         InternetKnotenBetriebssystem bs = (InternetKnotenBetriebssystem) holeSystemSoftware();
-        String zielMacAdresse = bs.holeARP().holeARPTabellenEintrag(ziel, 2);
-
-        if (zielMacAdresse != null) {
+        bs.holeARP().aufloesen(ziel, 2, zielMacAdresse -> {
             // MAC-Adresse konnte bestimmt werden
             bs.holeEthernet().senden(paket, nic.getMac(), zielMacAdresse, EthernetFrame.IP);
-        } else {
+        }, () -> {
             // Es konnte keine MAC-Adresse bestimmt werden.
             // Es muss ein ICMP Destination Unreachable: Host Unreachable
             // (3/1) zurueckgesendet werden:
             bs.holeICMP().sendeICMP(ICMP.TYPE_DESTINATION_UNREACHABLE, ICMP.CODE_DEST_HOST_UNREACHABLE,
                     paket.getSender());
-        }
+        });
     }
 
     /**
@@ -307,7 +303,7 @@ public class IP extends VermittlungsProtokoll implements I18n {
      *            der Protokolltyp UDP oder TCP (Konstanten der Klasse TransportProtokoll)
      * @return die Liste mit Segmenten fuer UDP- oder TCP-Segmente
      */
-    public LinkedList<IpPaket> holePaketListe(int protokollTyp) {
+    public Puffer<IpPaket> holePaketListe(int protokollTyp) {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (IP), holePaketListe(" + protokollTyp + ")");
         if (protokollTyp == IpPaket.TCP) {
             return ipPaketListeTCP;
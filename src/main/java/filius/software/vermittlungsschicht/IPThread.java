@@ -52,13 +52,11 @@ public class IPThread extends ProtokollThread<IpPaket> {
     }
 
     /**
-     * In dieser Methode wird zunaechst das Feld Time-to-Live (TTL) des eingehenden Pakets dekrementiert. Anschliessend
-     * wird es an die Methode weiterleitenPaket() des IP uebergeben. Dort werden Pakete, die fuer diesen Rechner
-     * bestimmt sind, an die Transportschicht weiter gegeben und Pakete an andere Rechner weitergeleitet.
+     * In dieser Methode werden Pakete, die fuer diesen Rechner bestimmt sind, an die Transportschicht weiter gegeben
+     * und Pakete an andere Rechner an die Methode weiterleitenPaket() des IP uebergeben. Dort wird eine Kopie mit
+     * dekrementiertem Time-to-Live (TTL) erzeugt, da das eingehende Paket nicht veraendert werden darf.
      */
-    protected void verarbeiteDatenEinheit(IpPaket datenEinheit) {
-        IpPaket ipPaket = datenEinheit.clone();
-
+    protected void verarbeiteDatenEinheit(IpPaket ipPaket) {
         if (vermittlung.isLocalAddress(ipPaket.getEmpfaenger()) || ipPaket.getEmpfaenger().equals("255.255.255.255")) {
             vermittlung.benachrichtigeTransportschicht(ipPaket);
         } else if (vermittlung.isIPForwardingEnabled()) {
@@ -30,7 +30,11 @@ import java.io.Serializable;
 import filius.software.transportschicht.Segment;
 
 /**
- * Diese Klasse umfasst die Attribute bzw. Felder eines IP-Pakets
+ * Diese Klasse umfasst die Attribute bzw. Felder eines IP-Pakets <br />
+ * Ein Paket wird wie der {@link filius.software.netzzugangsschicht.EthernetFrame} ohne Kopie zwischen den Knoten
+ * weitergereicht. Nach dem Versenden darf es deshalb nicht mehr veraendert werden, auch wenn die Setter dies technisch
+ * zulassen: Wer ein Feld aendern muss (z. B. die TTL bei der Weiterleitung oder Adressen bei NAT), aendert eine Kopie
+ * ({@link #clone()} bzw. {@link #cloneWithSegment()}, wenn auch das Segment geaendert wird).
  */
 @SuppressWarnings("serial")
 public class IpPaket implements Serializable, Cloneable {
@@ -56,6 +60,18 @@ public class IpPaket implements Serializable, Cloneable {
         return clone;
     }
 
+    /**
+     * Kopie des Pakets einschliesslich des Segments. Wird benoetigt, wenn Felder des Segments (z. B. Ports bei NAT)
+     * geaendert werden, da das urspruengliche Paket noch von anderen Knoten referenziert werden kann.
+     */
+    public IpPaket cloneWithSegment() {
+        IpPaket clone = clone();
+        if (data != null) {
+            clone.data = data.clone();
+        }
+        return clone;
+    }
+
     void copyIpPacketAttributes(IpPaket clone) {
         clone.ttl = ttl;
         clone.empfaenger = empfaenger;
@@ -0,0 +1,127 @@
+/*
+ ** This file is part of Filius, a network construction and simulation software.
+ ** 
+ ** Originally created at the University of Siegen, Institute "Didactics of
+ ** Informatics and E-Learning" by a students' project group:
+ **     members (2006-2007): 
+ **         André Asschoff, Johannes Bade, Carsten Dittich, Thomas Gerding,
+ **         Nadja Haßler, Ernst Johannes Klebert, Michell Weyer
+ **     supervisors:
+ **         Stefan Freischlad (maintainer until 2009), Peer Stechert
+ ** Project is maintained since 2010 by Christian Eibl <filius@c.fameibl.de>
+ **         and Stefan Freischlad
+ ** Filius is free software: you can redistribute it and/or modify
+ ** it under the terms of the GNU General Public License as published by
+ ** the Free Software Foundation, either version 2 of the License, or
+ ** (at your option) version 3.
+ ** 
+ ** Filius is distributed in the hope that it will be useful,
+ ** but WITHOUT ANY WARRANTY; without even the implied
+ ** warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR
+ ** PURPOSE. See the GNU General Public License for more details.
+ ** 
+ ** You should have received a copy of the GNU General Public License
+ ** along with Filius.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package filius.software.vermittlungsschicht;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Binaerer Praefixbaum ueber IPv4-Adressen fuer die Suche nach dem laengsten passenden Praefix. Jeder Knoten auf Tiefe
+ * n entspricht einem Praefix der Laenge n; dort werden die Eintraege mit genau diesem Netz und dieser Netzmaske in der
+ * Reihenfolge ihres Einfuegens abgelegt. Eine Suche betrachtet hoechstens 33 Knoten, unabhaengig von der Anzahl der
+ * Eintraege. <br />
+ * Adressen und Netzmasken werden wie bei {@link IP#inetAton(String)} als long-Werte uebergeben. Netzmasken, die nicht
+ * zusammenhaengend sind (z. B. 255.0.255.0), koennen nicht im Baum abgelegt werden.
+ */
+class Praefixbaum<T> {
+
+    private static class Knoten<T> {
+        private Knoten<T> null0, eins;
+        private List<T> eintraege;
+    }
+
+    private final Knoten<T> wurzel = new Knoten<T>();
+
+    /** @return die Praefixlaenge der Netzmaske oder -1, wenn sie nicht zusammenhaengend ist */
+    static int praefixLaenge(long maske) {
+        long invertiert = ~maske & 0xFFFFFFFFL;
+        if ((invertiert & (invertiert + 1)) != 0) {
+            return -1;
+        }
+        return Long.bitCount(maske & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Fuegt einen Eintrag fuer das uebergebene Netz ein.
+     * 
+     * @return false, wenn die Netzmaske nicht zusammenhaengend ist und der Eintrag daher nicht eingefuegt wurde
+     */
+    boolean einfuegen(long netz, long maske, T eintrag) {
+        int laenge = praefixLaenge(maske);
+        if (laenge < 0) {
+            return false;
+        }
+        Knoten<T> knoten = wurzel;
+        for (int i = 0; i < laenge; i++) {
+            if (bit(netz, i)) {
+                if (knoten.eins == null) {
+                    knoten.eins = new Knoten<T>();
+                }
+                knoten = knoten.eins;
+            } else {
+                if (knoten.null0 == null) {
+                    knoten.null0 = new Knoten<T>();
+                }
+                knoten = knoten.null0;
+            }
+        }
+        if (knoten.eintraege == null) {
+            knoten.eintraege = new ArrayList<T>(1);
+        }
+        knoten.eintraege.add(eintrag);
+        return true;
+    }
+
+    /** @return der zuerst eingefuegte Eintrag mit dem laengsten zur Adresse passenden Praefix oder null */
+    T sucheLaengstenPraefix(long adresse) {
+        T ergebnis = null;
+        Knoten<T> knoten = wurzel;
+        for (int i = 0; knoten != null; i++) {
+            if (knoten.eintraege != null) {
+                ergebnis = knoten.eintraege.get(0);
+            }
+            if (i == 32) {
+                break;
+            }
+            knoten = bit(adresse, i) ? knoten.eins : knoten.null0;
+        }
+        return ergebnis;
+    }
+
+    /**
+     * @return alle zur Adresse passenden Eintraege, beginnend mit dem laengsten Praefix; Eintraege mit gleichem Praefix
+     *         in der Reihenfolge ihres Einfuegens
+     */
+    List<T> suche(long adresse) {
+        LinkedList<T> ergebnis = new LinkedList<T>();
+        Knoten<T> knoten = wurzel;
+        for (int i = 0; knoten != null; i++) {
+            if (knoten.eintraege != null) {
+                ergebnis.addAll(0, knoten.eintraege);
+            }
+            if (i == 32) {
+                break;
+            }
+            knoten = bit(adresse, i) ? knoten.eins : knoten.null0;
+        }
+        return ergebnis;
+    }
+
+    private static boolean bit(long adresse, int index) {
+        return ((adresse >>> (31 - index)) & 1) == 1;
+    }
+}
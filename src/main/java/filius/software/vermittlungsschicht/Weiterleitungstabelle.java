@@ -25,7 +25,10 @@
  */
 package filius.software.vermittlungsschicht;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +70,52 @@ public class Weiterleitungstabelle implements I18n {
     /** Die Systemsoftware */
     private InternetKnotenBetriebssystem firmware = null;
 
+    /** Zaehler fuer Aenderungen an den manuellen Eintraegen; wird zur Erkennung einer veralteten FIB genutzt */
+    private int manuelleAenderungen = 0;
+
+    /**
+     * Ein Eintrag der kompilierten Weiterleitungstabelle mit bereits umgerechneter Netz-ID und Netzmaske.
+     */
+    private static class FibEintrag {
+        private final long netz;
+        private final long maske;
+        private final Route route;
+
+        private FibEintrag(long netz, long maske, Route route) {
+            this.netz = netz;
+            this.maske = maske;
+            this.route = route;
+        }
+    }
+
+    /**
+     * Die kompilierte Form der statischen Weiterleitungstabelle (Forwarding Information Base). Sie enthaelt alle
+     * Eintraege von holeTabelle() in einem Praefixbaum und merkt sich die Konfiguration, aus der sie erzeugt wurde.
+     * Solange sich weder die manuellen Eintraege noch die Adressen der Netzwerkkarten oder das Standard-Gateway
+     * aendern, wird sie fuer alle Abfragen wiederverwendet.
+     */
+    private static class StatischeFib {
+        private final Praefixbaum<FibEintrag> baum = new Praefixbaum<FibEintrag>();
+        /** Eintraege mit nicht zusammenhaengender Netzmaske in der Reihenfolge der Tabelle */
+        private final List<FibEintrag> sonstige = new ArrayList<FibEintrag>();
+        private LinkedList<String[]> manuelleTabelle;
+        private int manuelleAenderungen;
+        private int anzahlManuell;
+        private String[] konfiguration;
+    }
+
+    /** Die kompilierte Form der dynamischen Weiterleitungstabelle (RIP) */
+    private static class DynamischeFib {
+        private final Praefixbaum<RIPRoute> baum = new Praefixbaum<RIPRoute>();
+        private final List<RIPRoute> sonstige = new ArrayList<RIPRoute>();
+        private LinkedList<RIPRoute> routen;
+        private int version;
+    }
+
+    private volatile StatischeFib statischeFib = null;
+
+    private DynamischeFib dynamischeFib = null;
+
     /**
      * Im Standard-Konstruktor wird die Methode reset() aufgerufen. Damit werden alle manuellen Eintraege geloescht
      */
@@ -89,6 +138,7 @@ public class Weiterleitungstabelle implements I18n {
      */
     public void setManuelleTabelle(LinkedList<String[]> tabelle) {
         this.manuelleTabelle = tabelle;
+        manuelleAenderungen++;
     }
 
     /**
@@ -117,6 +167,7 @@ public class Weiterleitungstabelle implements I18n {
         LOG.trace("INVOKED (" + this.hashCode() + ") " + getClass() + " (Weiterleitungstabelle), addManuellenEintrag("
                 + netzwerkziel + "," + netzwerkmaske + "," + gateway + "," + schnittstelle + ")");
         manuelleEintraege = null;
+        manuelleAenderungen++;
 
         manuelleTabelle.addLast(new String[] { IP.ipCheck(netzwerkziel), IP.ipCheck(netzwerkmaske), IP.ipCheck(gateway),
                 IP.ipCheck(schnittstelle) });
@@ -157,6 +208,7 @@ public class Weiterleitungstabelle implements I18n {
     public void reset() {
         manuelleTabelle = new LinkedList<String[]>();
         manuelleEintraege = null;
+        manuelleAenderungen++;
     }
 
     /**
@@ -279,8 +331,90 @@ public class Weiterleitungstabelle implements I18n {
         return bestRoute;
     }
 
+    /**
+     * Sucht die Route mit dem laengsten passenden Praefix. Dazu wird die kompilierte Tabelle verwendet, die nur bei
+     * Aenderungen der Konfiguration neu erzeugt wird. Bei gleich langen Praefixen gewinnt der erste Eintrag in der
+     * Reihenfolge von holeTabelle().
+     */
     public Route determineRouteFromStaticRoutingTable(String targetIPAddress) throws RouteNotFoundException {
-        long netAddr, maskAddr, zielAddr = IP.inetAton(targetIPAddress);
+        long zielAddr = IP.inetAton(targetIPAddress);
+        if (zielAddr == -1) {
+            return determineRouteByTableScan(zielAddr);
+        }
+        StatischeFib fib = aktuelleStatischeFib();
+
+        FibEintrag bester = fib.baum.sucheLaengstenPraefix(zielAddr);
+        long bestMask = (bester == null) ? -1 : bester.maske;
+        for (FibEintrag eintrag : fib.sonstige) {
+            if (eintrag.maske > bestMask && eintrag.netz == (eintrag.maske & zielAddr)) {
+                bester = eintrag;
+                bestMask = eintrag.maske;
+            }
+        }
+        if (bester != null) {
+            return bester.route;
+        } else {
+            throw new RouteNotFoundException();
+        }
+    }
+
+    /** Liefert die kompilierte Tabelle und erzeugt sie neu, wenn sich die Konfiguration geaendert hat. */
+    private StatischeFib aktuelleStatischeFib() {
+        StatischeFib fib = statischeFib;
+        String[] konfiguration = konfigurationErmitteln();
+        if (fib == null || fib.manuelleTabelle != manuelleTabelle || fib.manuelleAenderungen != manuelleAenderungen
+                || fib.anzahlManuell != manuelleTabelle.size() || !Arrays.equals(fib.konfiguration, konfiguration)) {
+            fib = statischeFibErzeugen(konfiguration);
+            statischeFib = fib;
+        }
+        return fib;
+    }
+
+    /**
+     * Die automatisch erzeugten Eintraege haengen nur von den Adressen und Netzmasken der Netzwerkkarten und vom
+     * Standard-Gateway ab.
+     */
+    private String[] konfigurationErmitteln() {
+        if (firmware == null) {
+            return new String[0];
+        }
+        List<NetzwerkInterface> nics = ((InternetKnoten) firmware.getKnoten()).getNetzwerkInterfaces();
+        String[] konfiguration = new String[2 * nics.size() + 1];
+        int i = 0;
+        for (NetzwerkInterface nic : nics) {
+            konfiguration[i++] = nic.getIp();
+            konfiguration[i++] = nic.getSubnetzMaske();
+        }
+        konfiguration[i] = firmware.getStandardGateway();
+        return konfiguration;
+    }
+
+    private StatischeFib statischeFibErzeugen(String[] konfiguration) {
+        LOG.debug("Compile forwarding table of {}", firmware != null ? firmware.getKnoten().getName() : null);
+        StatischeFib fib = new StatischeFib();
+        fib.manuelleTabelle = manuelleTabelle;
+        fib.manuelleAenderungen = manuelleAenderungen;
+        fib.anzahlManuell = manuelleTabelle.size();
+        fib.konfiguration = konfiguration;
+
+        for (String[] route : holeTabelle()) {
+            long maskAddr = IP.inetAton(route[1]);
+            long netAddr = IP.inetAton(route[0]);
+            // Eintraege, deren Netz-ID Bits ausserhalb der Netzmaske enthaelt, koennen nie passen
+            if (maskAddr == -1 || netAddr == -1 || (netAddr & maskAddr) != netAddr) {
+                continue;
+            }
+            FibEintrag eintrag = new FibEintrag(netAddr, maskAddr, new Route(route));
+            if (!fib.baum.einfuegen(netAddr, maskAddr, eintrag)) {
+                fib.sonstige.add(eintrag);
+            }
+        }
+        return fib;
+    }
+
+    /** Lineare Suche ueber die Tabelle fuer Zieladressen, die keine gueltige IP-Adresse sind. */
+    private Route determineRouteByTableScan(long zielAddr) throws RouteNotFoundException {
+        long netAddr, maskAddr;
 
         long bestMask = -1;
         Route bestRoute = null;
@@ -303,22 +437,38 @@ public class Weiterleitungstabelle implements I18n {
         }
     }
 
+    /**
+     * Sucht unter den zur Zieladresse passenden RIP-Routen die mit den wenigsten Hops und bei gleicher Anzahl die mit
+     * dem laengsten Praefix. Die passenden Routen werden ueber einen Praefixbaum bestimmt, der nur neu erzeugt wird,
+     * wenn Routen hinzukommen oder die Tabelle zurueckgesetzt wird. Die Anzahl der Hops wird bei jeder Abfrage aktuell
+     * ausgewertet.
+     */
     public Route determineRouteFromDynamicRoutingTable(String ip) throws RouteNotFoundException {
         RIPTable table = firmware.getRIPTable();
+        long zielAddr = IP.inetAton(ip);
         Route bestRoute = null;
         synchronized (table) {
             int bestHops = RIPTable.INFINITY - 1;
             long bestMask = -1;
 
-            for (RIPRoute route : table.routes) {
-                if (route.getNetAddress().equals(berechneNetzkennung(ip, route.getNetMask()))) {
+            DynamischeFib fib = dynamischeFib;
+            if (fib == null || fib.routen != table.routes || fib.version != table.getVersion()) {
+                fib = dynamischeFibErzeugen(table);
+                dynamischeFib = fib;
+            }
+            List<RIPRoute> kandidaten = fib.baum.suche(zielAddr);
+            kandidaten.addAll(fib.sonstige);
+
+            for (RIPRoute route : kandidaten) {
+                long maskAddr = IP.inetAton(route.getNetMask());
+                if (route.getNetAddress().equals(IP.inetNtoa(zielAddr & maskAddr))) {
                     if (bestHops < route.hops) {
                         continue;
                     }
-                    if (bestHops > route.hops || bestMask < IP.inetAton(route.getNetMask())) {
+                    if (bestHops > route.hops || bestMask < maskAddr) {
                         bestRoute = route;
                         bestHops = route.hops;
-                        bestMask = IP.inetAton(route.getNetMask());
+                        bestMask = maskAddr;
                     }
                 }
             }
@@ -329,4 +479,19 @@ public class Weiterleitungstabelle implements I18n {
             throw new RouteNotFoundException();
         }
     }
+
+    private DynamischeFib dynamischeFibErzeugen(RIPTable table) {
+        DynamischeFib fib = new DynamischeFib();
+        fib.routen = table.routes;
+        fib.version = table.getVersion();
+        for (RIPRoute route : table.routes) {
+            long netAddr = IP.inetAton(route.getNetAddress());
+            long maskAddr = IP.inetAton(route.getNetMask());
+            if (netAddr == -1 || maskAddr == -1 || (netAddr & maskAddr) != netAddr
+                    || !fib.baum.einfuegen(netAddr, maskAddr, route)) {
+                fib.sonstige.add(route);
+            }
+        }
+        return fib;
+    }
 }
@@ -0,0 +1,53 @@
+package filius.gui.nachrichtensicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.rahmenprogramm.nachrichten.Lauscher;
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.vermittlungsschicht.ArpPaket;
+
+public class LauscherTableModelTest {
+
+    private static EthernetFrame arpFrame() {
+        ArpPaket arp = new ArpPaket();
+        arp.setSenderIP("192.168.0.1");
+        arp.setTargetIP("192.168.0.2");
+        arp.setOperation(ArpPaket.REQUEST);
+        return new EthernetFrame(arp, "01:01:01:01:01:01", "FF:FF:FF:FF:FF:FF", EthernetFrame.ARP);
+    }
+
+    @Test
+    public void testAktualisieren_EineZeileJeFrame() throws Exception {
+        String id = "modell-aggregiert";
+        Lauscher.getLauscher().addDatenEinheit(id, arpFrame());
+        Lauscher.getLauscher().addDatenEinheit(id, arpFrame());
+        LauscherTableModel model = new LauscherTableModel(id);
+
+        model.aktualisieren();
+        Lauscher.getLauscher().addDatenEinheit(id, arpFrame());
+        model.aktualisieren();
+
+        assertThat(model.getRowCount(), is(3));
+        assertThat(model.holeNummer(2), is(3L));
+        assertThat(model.getValueAt(2, 4), is((Object) Lauscher.ARP));
+    }
+
+    @Test
+    public void testAktualisieren_NurSichtbareSchichten() throws Exception {
+        String id = "modell-schichten";
+        Lauscher.getLauscher().addDatenEinheit(id, arpFrame());
+        LauscherTableModel alle = new LauscherTableModel(id, new boolean[] { true, true, true, true });
+        LauscherTableModel ohneNetzzugang = new LauscherTableModel(id, new boolean[] { false, true, true, true });
+
+        alle.aktualisieren();
+        ohneNetzzugang.aktualisieren();
+
+        assertThat(alle.getRowCount(), is(2));
+        assertThat(alle.getValueAt(0, 5), is((Object) Lauscher.PROTOKOLL_SCHICHTEN[0]));
+        assertThat(ohneNetzzugang.getRowCount(), is(1));
+        assertThat(ohneNetzzugang.getValueAt(0, 5), is((Object) Lauscher.PROTOKOLL_SCHICHTEN[1]));
+    }
+}
@@ -0,0 +1,108 @@
+package filius.hardware;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.apache.commons.lang3.SerializationUtils;
+
+import filius.hardware.knoten.Switch;
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.UdpSegment;
+import filius.software.vermittlungsschicht.IpPaket;
+
+/**
+ * Vergleicht die Weiterleitung von Frames ueber eine Kette von 10 Switches mit geteilten Frames (aktuelles Verhalten)
+ * und mit einer Kopie des Frames je Hop (Verhalten vor dem Verzicht auf die Serialisierungskopie). Die Kopie wird durch
+ * Anschluesse nachgebildet, die jeden Frame vor dem Senden mit {@link SerializationUtils#clone} kopieren. <br />
+ * Weil jede Verbindung hoechstens einen Frame je Verzoegerung ({@link Verbindung#holeVerzoegerung()}) uebertraegt, ist
+ * der Durchsatz der Kette durch die Verzoegerung begrenzt. Ausgegeben wird deshalb neben den Frames pro Sekunde die
+ * Prozessorzeit des Prozesses je Frame. <br />
+ * Kein JUnit-Test; der Aufruf erfolgt als Java-Anwendung mit dem Klassenpfad der Tests, z. B. aus der IDE.
+ */
+public class FrameDurchsatzBenchmark {
+
+    private static final int ANZAHL_SWITCHES = 10;
+    private static final int ANZAHL_FRAMES = 1000;
+    private static final int NUTZDATEN_LAENGE = 1400;
+
+    /** bildet die frueher je Hop erstellte Kopie eines Frames nach */
+    @SuppressWarnings("serial")
+    private static class KopierenderPort extends Port {
+        @Override
+        public void senden(EthernetFrame frame) {
+            super.senden(SerializationUtils.clone(frame));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Verbindung.setzeVerzoegerungsFaktor(1);
+        messen(false);
+        messen(false);
+        messen(true);
+        messen(true);
+        System.exit(0);
+    }
+
+    private static void messen(boolean kopieren) throws Exception {
+        Port quelle = new Port();
+        Port ziel = new Port();
+        List<Switch> kette = new LinkedList<>();
+        List<Kabel> kabel = new LinkedList<>();
+        Port vorheriger = quelle;
+        for (int i = 0; i < ANZAHL_SWITCHES; i++) {
+            Switch sw = new Switch();
+            if (kopieren) {
+                LinkedList<Port> anschluesse = new LinkedList<>();
+                anschluesse.add(new KopierenderPort());
+                anschluesse.add(new KopierenderPort());
+                sw.setAnschluesse(anschluesse);
+            }
+            kabel.add(new Kabel(vorheriger, sw.getAnschluesse().get(0)));
+            vorheriger = sw.getAnschluesse().get(1);
+            kette.add(sw);
+        }
+        kabel.add(new Kabel(vorheriger, ziel));
+        for (Switch sw : kette) {
+            sw.getSystemSoftware().starten();
+        }
+
+        long cpuStart = prozessorzeitNanos();
+        long start = System.nanoTime();
+        for (int i = 0; i < ANZAHL_FRAMES; i++) {
+            quelle.senden(frame(i));
+        }
+        while (ziel.holeEingangsPuffer().size() < ANZAHL_FRAMES) {
+            Thread.sleep(1);
+        }
+        long dauer = System.nanoTime() - start;
+        long cpu = prozessorzeitNanos() - cpuStart;
+
+        for (Switch sw : kette) {
+            sw.getSystemSoftware().beenden();
+        }
+        for (Kabel k : kabel) {
+            k.anschluesseTrennen();
+        }
+        System.out.printf("%s: %d Frames ueber %d Switches, %.0f Frames/s, %.1f us Prozessorzeit je Frame%n",
+                kopieren ? "Kopie je Hop" : "geteilt     ", ANZAHL_FRAMES, ANZAHL_SWITCHES,
+                ANZAHL_FRAMES * 1e9 / dauer, cpu / 1e3 / ANZAHL_FRAMES);
+    }
+
+    private static EthernetFrame frame(int nummer) {
+        UdpSegment segment = new UdpSegment();
+        segment.setQuellPort(4711);
+        segment.setZielPort(53);
+        segment.setDaten(nummer + ":" + new String(new char[NUTZDATEN_LAENGE]).replace('\0', 'x'));
+        IpPaket paket = new IpPaket(IpPaket.UDP);
+        paket.setSender("192.168.0.1");
+        paket.setEmpfaenger("192.168.0.2");
+        paket.setSegment(segment);
+        return new EthernetFrame(paket, "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP);
+    }
+
+    private static long prozessorzeitNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean())
+                .getProcessCpuTime();
+    }
+}
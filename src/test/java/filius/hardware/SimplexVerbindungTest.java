@@ -0,0 +1,88 @@
+package filius.hardware;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+
+public class SimplexVerbindungTest {
+    private Port sender = new Port();
+    private Port empfaenger = new Port();
+    private Kabel kabel;
+
+    @Before
+    public void setUp() {
+        Verbindung.setzeVerzoegerungsFaktor(1);
+        kabel = new Kabel(sender, empfaenger);
+    }
+
+    @After
+    public void tearDown() {
+        kabel.anschluesseTrennen();
+        Verbindung.setzeVerzoegerungsFaktor(10);
+    }
+
+    @Test
+    public void testSenden_FramesAreDeliveredInOrder() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            sender.senden(new EthernetFrame("" + i, "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP));
+        }
+
+        List<EthernetFrame> eingang = warteAufFrames(empfaenger, 5);
+
+        assertThat(eingang.size(), is(5));
+        for (int i = 0; i < 5; i++) {
+            assertThat((String) eingang.get(i).getDaten(), is("" + i));
+        }
+        assertThat(sender.holeAusgangsPuffer().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testSenden_FrameIsDeliveredWithoutCopy() throws Exception {
+        EthernetFrame frame = new EthernetFrame("daten", "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP);
+        sender.senden(frame);
+
+        assertThat(warteAufFrames(empfaenger, 1).get(0), sameInstance(frame));
+    }
+
+    @Test
+    public void testSenden_BothDirections() throws Exception {
+        sender.senden(new EthernetFrame("hin", "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP));
+        empfaenger.senden(new EthernetFrame("rueck", "02:02:02:02:02:02", "01:01:01:01:01:01", EthernetFrame.IP));
+
+        assertThat((String) warteAufFrames(empfaenger, 1).get(0).getDaten(), is("hin"));
+        assertThat((String) warteAufFrames(sender, 1).get(0).getDaten(), is("rueck"));
+    }
+
+    @Test
+    public void testSenden_QueuedFramesAreSentWhenConnected() throws Exception {
+        Port ungebunden = new Port();
+        Port gegenstelle = new Port();
+        EthernetFrame frame = new EthernetFrame("wartend", "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP);
+        ungebunden.senden(frame);
+        assertThat(ungebunden.holeAusgangsPuffer().peek(), sameInstance(frame));
+
+        Kabel spaeteresKabel = new Kabel(ungebunden, gegenstelle);
+        try {
+            assertThat((String) warteAufFrames(gegenstelle, 1).get(0).getDaten(), is("wartend"));
+        } finally {
+            spaeteresKabel.anschluesseTrennen();
+        }
+    }
+
+    private List<EthernetFrame> warteAufFrames(Port port, int anzahl) throws InterruptedException {
+        long ende = System.currentTimeMillis() + 5000;
+        while (port.holeEingangsPuffer().size() < anzahl && System.currentTimeMillis() < ende) {
+            Thread.sleep(10);
+        }
+        return new ArrayList<EthernetFrame>(port.holeEingangsPuffer());
+    }
+}
@@ -13,6 +13,8 @@ import java.io.PrintStream;
 import org.apache.commons.io.output.ByteArrayOutputStream;
 import org.junit.Test;
 
+import filius.software.SimulationClock;
+
 public class FiliusArgsTest {
     FiliusArgs filiusArgs = new FiliusArgs();
 
@@ -94,6 +96,7 @@ public class FiliusArgsTest {
     public void testParseCommandLine_ProjectFile() throws Exception {
         File testFile = new File("test.fls");
         testFile.createNewFile();
+        testFile.deleteOnExit();
 
         filiusArgs.parseCommandLine(new String[] { testFile.getPath() });
 
@@ -109,6 +112,43 @@ public class FiliusArgsTest {
         assertThat(filiusArgs.projectFile, nullValue());
     }
 
+    @Test
+    public void testParseCommandLine_Pcapng() throws Exception {
+        filiusArgs.parseCommandLine(new String[] { "--pcapng", "/any/capture.pcapng" });
+
+        assertThat(filiusArgs.pcapngFile, is("/any/capture.pcapng"));
+    }
+
+    @Test
+    public void testParseCommandLine_Batch() throws Exception {
+        filiusArgs.parseCommandLine(new String[] { "--batch", "/any/script.txt", "--batch-output", "/any/out.jsonl" });
+
+        assertThat(filiusArgs.batchScript, is("/any/script.txt"));
+        assertThat(filiusArgs.batchOutput, is("/any/out.jsonl"));
+    }
+
+    @Test
+    public void testParseCommandLine_ClockFast() throws Exception {
+        filiusArgs.parseCommandLine(new String[] { "--clock", "fast" });
+
+        assertThat(filiusArgs.clockMode, is(SimulationClock.Modus.SCHNELL));
+    }
+
+    @Test
+    public void testParseCommandLine_ClockFactor() throws Exception {
+        filiusArgs.parseCommandLine(new String[] { "--clock", "10" });
+
+        assertThat(filiusArgs.clockMode, is(SimulationClock.Modus.SKALIERT));
+        assertThat(filiusArgs.clockFactor, is(10.0));
+    }
+
+    @Test
+    public void testParseCommandLine_ClockInvalid() throws Exception {
+        filiusArgs.parseCommandLine(new String[] { "--clock", "-1" });
+
+        assertThat(filiusArgs.clockMode, is(SimulationClock.Modus.ECHTZEIT));
+    }
+
     @Test
     public void testShowUsage() throws Exception {
         ByteArrayOutputStream buffer = new ByteArrayOutputStream();
@@ -0,0 +1,96 @@
+package filius.rahmenprogramm;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.Enumeration;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import filius.gui.netzwerksicht.GUIDocuItem;
+import filius.gui.netzwerksicht.GUIKabelItem;
+import filius.gui.netzwerksicht.GUIKnotenItem;
+
+/**
+ * Misst das Laden und Speichern der Beispielprojekte aus dem Ordner <code>beispiele</code> mit
+ * {@link SzenarioVerwaltung#laden(String, List, List, List)} und
+ * {@link SzenarioVerwaltung#speichern(String, List, List, List)}. Zum Vergleich wird die Zeit angegeben, die allein
+ * das Lesen aller Eintraege des ZIP-Archivs benoetigt; die Differenz zum Laden entfaellt auf das Dekodieren des
+ * Modells (XMLDecoder) und den Aufbau der Knoten. Jede Datei wird {@value #WIEDERHOLUNGEN}-mal geladen und
+ * gespeichert, der erste Durchlauf dient zum Aufwaermen. <br />
+ * Laden leert den Ordner der eigenen Anwendungen im Arbeitsbereich; der Aufruf sollte daher mit einem eigenen
+ * <code>user.home</code> und <code>-Djava.awt.headless=true</code> erfolgen. Kein JUnit-Test; der Aufruf erfolgt als
+ * Java-Anwendung mit dem Klassenpfad der Tests, z. B. aus der IDE.
+ */
+public class SzenarioBenchmark {
+
+    private static final int WIEDERHOLUNGEN = 20;
+
+    public static void main(String[] args) throws Exception {
+        Information.getInformation().setLocale(Locale.GERMANY);
+        File ordner = new File(args.length > 0 ? args[0] : "beispiele");
+        File ziel = File.createTempFile("filius-benchmark", ".fls");
+        ziel.deleteOnExit();
+
+        File[] dateien = ordner.listFiles((verzeichnis, name) -> name.endsWith(".fls"));
+        if (dateien == null) {
+            System.out.println(ordner.getAbsolutePath() + " enthaelt keine Projektdateien");
+            System.exit(1);
+        }
+        messen(dateien[0], ziel);
+        for (File datei : dateien) {
+            try {
+                messen(datei, ziel);
+            } catch (Exception | LinkageError e) {
+                // z. B. eigene Anwendungen im Projekt, die fuer eine neuere Java-Version uebersetzt wurden
+                System.out.printf("%-40s nicht messbar: %s%n", datei.getName(), e);
+            }
+        }
+        System.exit(0);
+    }
+
+    private static void messen(File datei, File ziel) throws Exception {
+        List<GUIKnotenItem> knoten = new LinkedList<>();
+        List<GUIKabelItem> kabel = new LinkedList<>();
+        List<GUIDocuItem> doku = new LinkedList<>();
+        long zipLesen = 0;
+        long laden = 0;
+        long speichern = 0;
+
+        for (int i = 0; i < WIEDERHOLUNGEN; i++) {
+            long start = System.nanoTime();
+            leseAlleEintraege(datei);
+            zipLesen += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            if (!SzenarioVerwaltung.getInstance().laden(datei.getPath(), knoten, kabel, doku)) {
+                throw new IllegalStateException(datei + " konnte nicht geladen werden");
+            }
+            laden += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            if (!SzenarioVerwaltung.getInstance().speichern(ziel.getPath(), knoten, kabel, doku)) {
+                throw new IllegalStateException(datei + " konnte nicht gespeichert werden");
+            }
+            speichern += System.nanoTime() - start;
+        }
+
+        System.out.printf("%-40s %3d Knoten, %7d Bytes: nur ZIP lesen %6.2f ms, laden %6.2f ms, speichern %6.2f ms%n",
+                datei.getName(), knoten.size(), datei.length(), zipLesen / 1e6 / WIEDERHOLUNGEN,
+                laden / 1e6 / WIEDERHOLUNGEN, speichern / 1e6 / WIEDERHOLUNGEN);
+    }
+
+    private static void leseAlleEintraege(File datei) throws Exception {
+        byte[] puffer = new byte[8192];
+        try (ZipFile zf = new ZipFile(datei)) {
+            for (Enumeration<? extends ZipEntry> e = zf.entries(); e.hasMoreElements();) {
+                try (InputStream in = zf.getInputStream(e.nextElement())) {
+                    while (in.read(puffer) != -1) {
+                    }
+                }
+            }
+        }
+    }
+}
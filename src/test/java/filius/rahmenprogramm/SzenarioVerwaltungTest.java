@@ -0,0 +1,80 @@
+package filius.rahmenprogramm;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SzenarioVerwaltungTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void testLeseFormatVersion_AlteProjektdatei() throws Exception {
+        try (ZipFile zf = new ZipFile("beispiele/modem_beispiel.fls")) {
+            assertThat(SzenarioVerwaltung.leseFormatVersion(zf), is(1));
+        }
+    }
+
+    @Test
+    public void testLeseFormatVersion_MitFormatEintrag() throws Exception {
+        File datei = erzeugeArchiv(SzenarioVerwaltung.FORMAT_EINTRAG, "format=2\n");
+
+        try (ZipFile zf = new ZipFile(datei)) {
+            assertThat(SzenarioVerwaltung.leseFormatVersion(zf), is(2));
+        }
+    }
+
+    @Test
+    public void testEntpackeVerzeichnis() throws Exception {
+        File datei = erzeugeArchiv(SzenarioVerwaltung.ANWENDUNGEN_EINTRAG + "filius/Test.java", "class Test {}",
+                SzenarioVerwaltung.KONFIGURATION_EINTRAG, "<xml/>");
+        File ziel = tmp.newFolder("anwendungen");
+
+        try (ZipFile zf = new ZipFile(datei)) {
+            assertThat(SzenarioVerwaltung.entpackeVerzeichnis(zf, SzenarioVerwaltung.ANWENDUNGEN_EINTRAG,
+                    ziel.getAbsolutePath()), is(true));
+        }
+
+        File entpackt = new File(ziel, "filius/Test.java");
+        assertThat(new String(Files.readAllBytes(entpackt.toPath()), StandardCharsets.UTF_8), is("class Test {}"));
+        assertThat(new File(ziel, "konfiguration.xml").exists(), is(false));
+    }
+
+    @Test
+    public void testEntpackeVerzeichnis_EintragAusserhalbDesZielordners() throws Exception {
+        File datei = erzeugeArchiv(SzenarioVerwaltung.ANWENDUNGEN_EINTRAG + "../../boese.txt", "x");
+        File ziel = tmp.newFolder("anwendungen");
+
+        try (ZipFile zf = new ZipFile(datei)) {
+            assertThat(SzenarioVerwaltung.entpackeVerzeichnis(zf, SzenarioVerwaltung.ANWENDUNGEN_EINTRAG,
+                    ziel.getAbsolutePath()), is(false));
+        }
+
+        assertThat(new File(tmp.getRoot(), "boese.txt").exists(), is(false));
+    }
+
+    private File erzeugeArchiv(String... namenUndInhalte) throws IOException {
+        File datei = tmp.newFile("projekt.fls");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(datei))) {
+            for (int i = 0; i < namenUndInhalte.length; i += 2) {
+                out.putNextEntry(new ZipEntry(namenUndInhalte[i]));
+                out.write(namenUndInhalte[i + 1].getBytes(StandardCharsets.UTF_8));
+                out.closeEntry();
+            }
+        }
+        return datei;
+    }
+}
@@ -0,0 +1,73 @@
+package filius.rahmenprogramm.batch;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+import java.io.StringReader;
+import java.util.List;
+
+import org.junit.Test;
+
+public class BatchSkriptTest {
+
+    @Test
+    public void testLesen_BefehleUndPausen() throws Exception {
+        BatchSkript skript = BatchSkript.lesen(new StringReader(
+                "# Kommentar\n\nRechner 1: ping 192.168.0.12\nsleep 5000\ntimeout 2000\nRechner 2:ipconfig\n"));
+
+        List<BatchSkript.Schritt> schritte = skript.getSchritte();
+        assertThat(schritte.size(), is(3));
+
+        BatchSkript.Schritt ping = schritte.get(0);
+        assertFalse(ping.isPause());
+        assertThat(ping.getZeile(), is(3));
+        assertThat(ping.getKnoten(), is("Rechner 1"));
+        assertThat(ping.getBefehl(), is("ping"));
+        assertThat(ping.getParameter()[0], is("192.168.0.12"));
+        assertThat(ping.getParameter()[1], is(""));
+        assertThat(ping.getMillis(), is(BatchSkript.STANDARD_TIMEOUT_MILLIS));
+        assertThat(ping.getKommandozeile(), is("ping 192.168.0.12"));
+
+        BatchSkript.Schritt pause = schritte.get(1);
+        assertTrue(pause.isPause());
+        assertThat(pause.getMillis(), is(5000L));
+
+        BatchSkript.Schritt ipconfig = schritte.get(2);
+        assertThat(ipconfig.getKnoten(), is("Rechner 2"));
+        assertThat(ipconfig.getBefehl(), is("ipconfig"));
+        assertThat(ipconfig.getMillis(), is(2000L));
+    }
+
+    @Test
+    public void testLesen_UngueltigeZeile() throws Exception {
+        try {
+            BatchSkript.lesen(new StringReader("sleep 10\nping 192.168.0.12\n"));
+            assertTrue("exception expected", false);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("line 2"));
+        }
+    }
+
+    @Test
+    public void testLesen_UngueltigeDauer() throws Exception {
+        try {
+            BatchSkript.lesen(new StringReader("sleep -5\n"));
+            assertTrue("exception expected", false);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("'-5'"));
+        }
+    }
+
+    @Test
+    public void testLesen_OhneBefehl() throws Exception {
+        try {
+            BatchSkript.lesen(new StringReader("Rechner 1:   \n"));
+            assertTrue("exception expected", false);
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("line 1"));
+        }
+    }
+}
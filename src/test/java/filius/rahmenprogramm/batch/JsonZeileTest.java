@@ -0,0 +1,22 @@
+package filius.rahmenprogramm.batch;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class JsonZeileTest {
+
+    @Test
+    public void testFelder() {
+        String zeile = new JsonZeile().feld("text", "a\"b\\c\nd").feld("zahl", 42).feld("wahr", true)
+                .feld("leer", null).toString();
+
+        assertThat(zeile, is("{\"text\":\"a\\\"b\\\\c\\nd\",\"zahl\":42,\"wahr\":true,\"leer\":null}"));
+    }
+
+    @Test
+    public void testSteuerzeichen() {
+        assertThat(new JsonZeile().feld("x", "\u0001").toString(), is("{\"x\":\"\\u0001\"}"));
+    }
+}
@@ -0,0 +1,141 @@
+package filius.rahmenprogramm.nachrichten;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.TcpSegment;
+import filius.software.transportschicht.UdpSegment;
+import filius.software.vermittlungsschicht.ArpPaket;
+import filius.software.vermittlungsschicht.IcmpPaket;
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class LauscherTest {
+
+    private static EthernetFrame arpFrame() {
+        ArpPaket arp = new ArpPaket();
+        arp.setSenderIP("192.168.0.1");
+        arp.setTargetIP("192.168.0.2");
+        arp.setOperation(ArpPaket.REQUEST);
+        return new EthernetFrame(arp, "01:01:01:01:01:01", "FF:FF:FF:FF:FF:FF", EthernetFrame.ARP);
+    }
+
+    @Test
+    public void testGetDaten_AbNummer() throws Exception {
+        Lauscher lauscher = Lauscher.getLauscher();
+        String id = "delta";
+        for (int i = 0; i < 5; i++) {
+            lauscher.addDatenEinheit(id, arpFrame());
+        }
+
+        Object[][] neue = lauscher.getDaten(id, false, 4);
+
+        // je ARP-Frame eine Zeile fuer Ethernet und eine fuer ARP
+        assertThat(neue.length, is(4));
+        assertThat(neue[0][0], is((Object) "4"));
+        assertThat(neue[3][0], is((Object) "5"));
+        assertThat(lauscher.getLetzteNummer(id), is(5L));
+    }
+
+    @Test
+    public void testAddDatenEinheit_BenachrichtigungenWerdenZusammengefasst() throws Exception {
+        Lauscher lauscher = Lauscher.getLauscher();
+        String id = "zusammenfassen";
+        CountDownLatch ersteBenachrichtigung = new CountDownLatch(1);
+        CountDownLatch weiter = new CountDownLatch(1);
+        CountDownLatch zweiteBenachrichtigung = new CountDownLatch(2);
+        AtomicInteger anzahl = new AtomicInteger();
+        lauscher.addBeobachter(id, new LauscherBeobachter() {
+            @Override
+            public void update() {
+                anzahl.incrementAndGet();
+                ersteBenachrichtigung.countDown();
+                zweiteBenachrichtigung.countDown();
+                try {
+                    weiter.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {}
+            }
+
+            @Override
+            public void writeToStream(OutputStream outputStream) {}
+        });
+
+        lauscher.addDatenEinheit(id, arpFrame());
+        assertTrue(ersteBenachrichtigung.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50; i++) {
+            lauscher.addDatenEinheit(id, arpFrame());
+        }
+        weiter.countDown();
+
+        assertTrue(zweiteBenachrichtigung.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertThat(anzahl.get(), is(2));
+        assertThat(lauscher.getLetzteNummer(id), is(51L));
+    }
+
+    @Test
+    public void testReset_NummerierungWirdFortgesetzt() throws Exception {
+        Lauscher lauscher = Lauscher.getLauscher();
+        String id = "reset";
+        lauscher.addDatenEinheit(id, arpFrame());
+        lauscher.addDatenEinheit(id, arpFrame());
+
+        lauscher.reset();
+
+        assertThat(lauscher.getDaten(id, false, 0).length, is(0));
+        assertThat(lauscher.getErsteNummer(id), is(3L));
+        lauscher.addDatenEinheit(id, arpFrame());
+        assertThat(lauscher.getDaten(id, false, 0)[0][0], is((Object) "3"));
+    }
+
+    private static EthernetFrame ipFrame(int protokoll, String nutzdaten) {
+        IpPaket ip = new IpPaket(protokoll);
+        ip.setSender("192.168.0.1");
+        ip.setEmpfaenger("192.168.0.2");
+        if (protokoll == IpPaket.TCP) {
+            TcpSegment tcp = new TcpSegment();
+            tcp.setDaten(nutzdaten);
+            ip.setSegment(tcp);
+        } else {
+            UdpSegment udp = new UdpSegment();
+            udp.setDaten(nutzdaten);
+            ip.setSegment(udp);
+        }
+        return new EthernetFrame(ip, "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP);
+    }
+
+    @Test
+    public void testGetSchichten_PasstZuAufbereitetenZeilen() throws Exception {
+        Lauscher lauscher = Lauscher.getLauscher();
+        String id = "schichten";
+        lauscher.addDatenEinheit(id, arpFrame());
+        lauscher.addDatenEinheit(id, ipFrame(IpPaket.TCP, "GET / HTTP/1.1"));
+        lauscher.addDatenEinheit(id, ipFrame(IpPaket.TCP, ""));
+        lauscher.addDatenEinheit(id, ipFrame(IpPaket.UDP, "ID=1 QR=0 RCODE=0"));
+        IcmpPaket icmp = new IcmpPaket();
+        icmp.setIcmpType(8);
+        lauscher.addDatenEinheit(id,
+                new EthernetFrame(icmp, "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP));
+
+        for (long nummer = 1; nummer <= 5; nummer++) {
+            int[] schichten = lauscher.getSchichten(id, nummer);
+            Object[][] zeilen = lauscher.getDatenEinheit(id, nummer, false);
+            assertThat(schichten.length, is(zeilen.length));
+            for (int i = 0; i < schichten.length; i++) {
+                assertThat(zeilen[i][5], is((Object) Lauscher.PROTOKOLL_SCHICHTEN[schichten[i]]));
+                assertThat(lauscher.getZeile(id, nummer, schichten[i], false)[6], is(zeilen[i][6]));
+            }
+        }
+        assertThat(lauscher.getSchichten(id, 2).length, is(4));
+        assertThat(lauscher.getSchichten(id, 3).length, is(3));
+        assertThat(lauscher.getSchichten(id, 6).length, is(0));
+    }
+}
@@ -0,0 +1,77 @@
+package filius.rahmenprogramm.nachrichten;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+
+public class MitschnittTest {
+
+    private static EthernetFrame frame(int i) {
+        return new EthernetFrame("" + i, "01:01:01:01:01:01", "02:02:02:02:02:02", EthernetFrame.IP);
+    }
+
+    @Test
+    public void testHinzufuegen_FortlaufendeNummern() throws Exception {
+        Mitschnitt mitschnitt = new Mitschnitt(100);
+
+        assertThat(mitschnitt.hinzufuegen(10, frame(1)), is(1L));
+        assertThat(mitschnitt.hinzufuegen(20, frame(2)), is(2L));
+
+        assertThat(mitschnitt.ersteNummer(), is(1L));
+        assertThat(mitschnitt.letzteNummer(), is(2L));
+        assertThat(mitschnitt.holen(2).zeitstempel, is(20L));
+    }
+
+    @Test
+    public void testHinzufuegen_KapazitaetUeberschritten() throws Exception {
+        Mitschnitt mitschnitt = new Mitschnitt(40);
+        EthernetFrame letzter = null;
+        for (int i = 1; i <= 100; i++) {
+            letzter = frame(i);
+            mitschnitt.hinzufuegen(i, letzter);
+        }
+
+        assertThat(mitschnitt.anzahl(), is(40));
+        assertThat(mitschnitt.ersteNummer(), is(61L));
+        assertThat(mitschnitt.holen(60), nullValue());
+        assertThat(mitschnitt.holen(61).zeitstempel, is(61L));
+        assertThat(mitschnitt.holen(100).frame, sameInstance(letzter));
+    }
+
+    @Test
+    public void testAb_NurNeueEintraege() throws Exception {
+        Mitschnitt mitschnitt = new Mitschnitt(10);
+        for (int i = 1; i <= 15; i++) {
+            mitschnitt.hinzufuegen(i, frame(i));
+        }
+
+        List<Mitschnitt.Eintrag> neue = mitschnitt.ab(14);
+        List<Mitschnitt.Eintrag> alle = mitschnitt.ab(0);
+
+        assertThat(neue.size(), is(2));
+        assertThat(neue.get(0).nummer, is(14L));
+        assertThat(alle.size(), is(10));
+        assertThat(alle.get(0).nummer, is(6L));
+        assertThat(mitschnitt.ab(16).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testLeeren_NummerierungWirdFortgesetzt() throws Exception {
+        Mitschnitt mitschnitt = new Mitschnitt(10);
+        mitschnitt.hinzufuegen(1, frame(1));
+        mitschnitt.hinzufuegen(2, frame(2));
+
+        mitschnitt.leeren();
+
+        assertThat(mitschnitt.anzahl(), is(0));
+        assertThat(mitschnitt.ersteNummer(), is(3L));
+        assertThat(mitschnitt.hinzufuegen(3, frame(3)), is(3L));
+    }
+}
@@ -0,0 +1,105 @@
+package filius.rahmenprogramm.nachrichten;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.vermittlungsschicht.ArpPaket;
+
+public class PcapngSchreiberTest {
+
+    @Rule
+    public TemporaryFolder ordner = new TemporaryFolder();
+
+    /** @return die Blocktypen der Datei; dabei wird geprueft, dass Anfangs- und Endlaenge jedes Blocks gleich sind */
+    private static List<Integer> blockTypen(byte[] datei) {
+        ByteBuffer puffer = ByteBuffer.wrap(datei).order(ByteOrder.LITTLE_ENDIAN);
+        List<Integer> typen = new ArrayList<>();
+        while (puffer.hasRemaining()) {
+            int start = puffer.position();
+            typen.add(puffer.getInt());
+            int laenge = puffer.getInt();
+            assertThat(laenge % 4, is(0));
+            assertThat(puffer.getInt(start + laenge - 4), is(laenge));
+            puffer.position(start + laenge);
+        }
+        return typen;
+    }
+
+    @Test
+    public void testBlockStruktur() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PcapngSchreiber schreiber = new PcapngSchreiber(out, "Filius");
+        schreiber.paket("eth0", 1000, new byte[61]);
+        schreiber.paket("eth1", 1001, new byte[60]);
+        schreiber.paket("eth0", 1002, new byte[64]);
+        schreiber.verworfen("eth0", 1003, 5);
+        schreiber.close();
+
+        byte[] datei = out.toByteArray();
+        ByteBuffer puffer = ByteBuffer.wrap(datei).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(puffer.getInt(8), is(PcapngSchreiber.BYTE_ORDER_MAGIC));
+        assertThat(blockTypen(datei),
+                is(List.of(PcapngSchreiber.SECTION_HEADER_BLOCK, PcapngSchreiber.INTERFACE_DESCRIPTION_BLOCK,
+                        PcapngSchreiber.ENHANCED_PACKET_BLOCK, PcapngSchreiber.INTERFACE_DESCRIPTION_BLOCK,
+                        PcapngSchreiber.ENHANCED_PACKET_BLOCK, PcapngSchreiber.ENHANCED_PACKET_BLOCK,
+                        PcapngSchreiber.INTERFACE_STATISTICS_BLOCK)));
+    }
+
+    @Test
+    public void testEnhancedPacketBlock() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PcapngSchreiber schreiber = new PcapngSchreiber(out, "Filius");
+        int start = out.size();
+        schreiber.schnittstelle("eth0");
+        int paket = out.size();
+        schreiber.paket("eth0", 0x100000002L, new byte[] { 1, 2, 3, 4, 5 });
+
+        ByteBuffer puffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(puffer.getShort(start + 8), is((short) PcapngSchreiber.LINKTYPE_ETHERNET));
+        assertThat(puffer.getInt(paket + 4), is(8 + 20 + 8 + 4));
+        assertThat(puffer.getInt(paket + 8), is(0));
+        assertThat(puffer.getInt(paket + 12), is(1));
+        assertThat(puffer.getInt(paket + 16), is(2));
+        assertThat(puffer.getInt(paket + 20), is(5));
+        assertThat(puffer.get(paket + 28), is((byte) 1));
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        File datei = ordner.newFile("mitschnitt.pcapng");
+        PcapngExport export = new PcapngExport(datei);
+        for (int i = 0; i < 3; i++) {
+            export.hinzufuegen("eth0", i, new EthernetFrame(new ArpPaket(), "01:01:01:01:01:01",
+                    "FF:FF:FF:FF:FF:FF", EthernetFrame.ARP));
+        }
+        export.beenden();
+
+        List<Integer> typen = blockTypen(Files.readAllBytes(datei.toPath()));
+        assertThat(typen.size(), is(5));
+        assertThat(typen.get(4), is(PcapngSchreiber.ENHANCED_PACKET_BLOCK));
+    }
+
+    @Test
+    public void testExport_FrameNachBeendenWirdVerworfen() throws Exception {
+        PcapngExport export = new PcapngExport(ordner.newFile("mitschnitt.pcapng"));
+        export.beenden();
+
+        export.hinzufuegen("eth0", 0, new EthernetFrame(new ArpPaket(), "01:01:01:01:01:01", "FF:FF:FF:FF:FF:FF",
+                EthernetFrame.ARP));
+
+        assertThat(export.anzahlVerworfen("eth0"), is(1L));
+    }
+}
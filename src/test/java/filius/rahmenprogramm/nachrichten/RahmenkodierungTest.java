@@ -0,0 +1,134 @@
+package filius.rahmenprogramm.nachrichten;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import filius.software.netzzugangsschicht.EthernetFrame;
+import filius.software.transportschicht.TcpSegment;
+import filius.software.transportschicht.UdpSegment;
+import filius.software.vermittlungsschicht.ArpPaket;
+import filius.software.vermittlungsschicht.IcmpPaket;
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class RahmenkodierungTest {
+
+    private static int wert16(byte[] daten, int index) {
+        return ((daten[index] & 0xFF) << 8) | (daten[index + 1] & 0xFF);
+    }
+
+    private static IpPaket ipPaket(int protokoll) {
+        IpPaket ip = new IpPaket(protokoll);
+        ip.setSender("192.168.0.1");
+        ip.setEmpfaenger("192.168.0.20");
+        ip.setTtl(64);
+        return ip;
+    }
+
+    /** Pruefsumme ueber Pseudo-Header und Segment; bei korrekt gesetzter Pruefsumme ist das Ergebnis 0 */
+    private static int pruefeTransport(byte[] frame, int protokoll) {
+        int laenge = wert16(frame, 16) - 20;
+        byte[] pseudo = new byte[12 + laenge];
+        System.arraycopy(frame, 26, pseudo, 0, 8);
+        pseudo[9] = (byte) protokoll;
+        pseudo[10] = (byte) (laenge >> 8);
+        pseudo[11] = (byte) laenge;
+        System.arraycopy(frame, 34, pseudo, 12, laenge);
+        return Rahmenkodierung.pruefsumme(0, pseudo, 0, pseudo.length);
+    }
+
+    @Test
+    public void testKodieren_Arp() throws Exception {
+        ArpPaket arp = new ArpPaket();
+        arp.setOperation(ArpPaket.REQUEST);
+        arp.setSenderIP("10.0.0.1");
+        arp.setSenderMAC("0A:0B:0C:0D:0E:0F");
+        arp.setTargetIP("10.0.0.2");
+        arp.setTargetMAC("FF:FF:FF:FF:FF:FF");
+        EthernetFrame frame = new EthernetFrame(arp, "0A:0B:0C:0D:0E:0F", "FF:FF:FF:FF:FF:FF", EthernetFrame.ARP);
+
+        byte[] bytes = Rahmenkodierung.kodieren(frame);
+
+        assertThat(bytes.length, is(60));
+        assertThat(Arrays.copyOfRange(bytes, 0, 6), is(Rahmenkodierung.macAdresse("FF:FF:FF:FF:FF:FF")));
+        assertThat(bytes[6], is((byte) 0x0A));
+        assertThat(wert16(bytes, 12), is(0x0806));
+        assertThat(wert16(bytes, 20), is(ArpPaket.REQUEST));
+        assertThat(Arrays.copyOfRange(bytes, 28, 32), is(new byte[] { 10, 0, 0, 1 }));
+        assertThat(Arrays.copyOfRange(bytes, 38, 42), is(new byte[] { 10, 0, 0, 2 }));
+    }
+
+    @Test
+    public void testKodieren_Tcp() throws Exception {
+        TcpSegment tcp = new TcpSegment();
+        tcp.setQuellPort(50000);
+        tcp.setZielPort(80);
+        tcp.setSeqNummer(4294967295L);
+        tcp.setAckNummer(17);
+        tcp.setSyn(true);
+        tcp.setAck(true);
+        tcp.setDaten("GET /");
+        IpPaket ip = ipPaket(IpPaket.TCP);
+        ip.setSegment(tcp);
+
+        byte[] bytes = Rahmenkodierung.kodieren(new EthernetFrame(ip, "01:02:03:04:05:06", "06:05:04:03:02:01",
+                EthernetFrame.IP));
+
+        assertThat(wert16(bytes, 12), is(0x0800));
+        assertThat(bytes[14], is((byte) 0x45));
+        assertThat(wert16(bytes, 16), is(20 + 20 + 5));
+        assertThat(bytes[22], is((byte) 64));
+        assertThat(bytes[23], is((byte) IpPaket.TCP));
+        assertThat(Rahmenkodierung.pruefsumme(0, bytes, 14, 20), is(0));
+        assertThat(wert16(bytes, 34), is(50000));
+        assertThat(wert16(bytes, 36), is(80));
+        assertThat(Arrays.copyOfRange(bytes, 38, 42), is(new byte[] { -1, -1, -1, -1 }));
+        assertThat(bytes[47], is((byte) 0x12));
+        assertThat(new String(bytes, 54, 5), is("GET /"));
+        assertThat(pruefeTransport(bytes, IpPaket.TCP), is(0));
+    }
+
+    @Test
+    public void testKodieren_Udp() throws Exception {
+        UdpSegment udp = new UdpSegment();
+        udp.setQuellPort(53);
+        udp.setZielPort(40000);
+        udp.setDaten("antwort");
+        IpPaket ip = ipPaket(IpPaket.UDP);
+        ip.setSegment(udp);
+
+        byte[] bytes = Rahmenkodierung.kodieren(new EthernetFrame(ip, "01:02:03:04:05:06", "06:05:04:03:02:01",
+                EthernetFrame.IP));
+
+        assertThat(bytes[23], is((byte) IpPaket.UDP));
+        assertThat(wert16(bytes, 38), is(8 + 7));
+        assertThat(pruefeTransport(bytes, IpPaket.UDP), is(0));
+    }
+
+    @Test
+    public void testKodieren_Icmp() throws Exception {
+        IcmpPaket icmp = new IcmpPaket();
+        icmp.setSender("192.168.0.1");
+        icmp.setEmpfaenger("192.168.0.20");
+        icmp.setIcmpType(8);
+        icmp.setSeqNr(3);
+
+        byte[] bytes = Rahmenkodierung.kodieren(new EthernetFrame(icmp, "01:02:03:04:05:06", "06:05:04:03:02:01",
+                EthernetFrame.IP));
+
+        assertThat(bytes[23], is((byte) IcmpPaket.ICMP_PROTOCOL));
+        assertThat(bytes[34], is((byte) 8));
+        assertThat(wert16(bytes, 40), is(3));
+        assertThat(Rahmenkodierung.pruefsumme(0, bytes, 34, 8), is(0));
+    }
+
+    @Test
+    public void testAdressen_Ungueltig() throws Exception {
+        assertThat(Rahmenkodierung.ipAdresse("keine adresse"), is(new byte[4]));
+        assertThat(Rahmenkodierung.ipAdresse(null), is(new byte[4]));
+        assertThat(Rahmenkodierung.macAdresse("GG:00:00:00:00:00"), is(new byte[6]));
+    }
+}
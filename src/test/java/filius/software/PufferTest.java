@@ -0,0 +1,79 @@
+package filius.software;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class PufferTest {
+
+    @Test
+    public void testEntnehmen_Reihenfolge() throws Exception {
+        Puffer<String> puffer = new Puffer<String>();
+        puffer.add("a");
+        puffer.add("b");
+
+        assertThat(puffer.entnehmen(), is("a"));
+        assertThat(puffer.entnehmen(), is("b"));
+        assertThat(puffer.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testEntnehmen_WartetAufErzeuger() throws Exception {
+        Puffer<String> puffer = new Puffer<String>();
+        Thread erzeuger = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {}
+            puffer.add("daten");
+        });
+        erzeuger.start();
+
+        String ergebnis = null;
+        long ende = System.currentTimeMillis() + 5000;
+        while (ergebnis == null && System.currentTimeMillis() < ende) {
+            ergebnis = puffer.entnehmen();
+        }
+
+        assertThat(ergebnis, is("daten"));
+    }
+
+    @Test
+    public void testEntnehmen_AufweckenOhneDaten() throws Exception {
+        Puffer<String> puffer = new Puffer<String>();
+        Thread.currentThread().interrupt();
+
+        assertThat(puffer.entnehmen(), is(nullValue()));
+        assertThat(Thread.currentThread().isInterrupted(), is(false));
+    }
+
+    @Test
+    public void testEntnehmen_MehrereErzeuger() throws Exception {
+        Puffer<Integer> puffer = new Puffer<Integer>();
+        Thread[] erzeuger = new Thread[4];
+        for (int t = 0; t < erzeuger.length; t++) {
+            int start = t * 1000;
+            erzeuger[t] = new Thread(() -> {
+                for (int i = start; i < start + 1000; i++) {
+                    puffer.add(i);
+                }
+            });
+            erzeuger[t].start();
+        }
+
+        Set<Integer> empfangen = new HashSet<Integer>();
+        long ende = System.currentTimeMillis() + 5000;
+        while (empfangen.size() < 4000 && System.currentTimeMillis() < ende) {
+            Integer wert = puffer.entnehmen();
+            if (wert != null) {
+                empfangen.add(wert);
+            }
+        }
+
+        assertThat(empfangen.size(), is(4000));
+    }
+}
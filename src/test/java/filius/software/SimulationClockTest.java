@@ -0,0 +1,138 @@
+package filius.software;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+public class SimulationClockTest {
+
+    private SimulationClock uhr = new SimulationClock();
+
+    @Test
+    public void testJetzt_Echtzeit() throws Exception {
+        long differenz = uhr.jetzt() - System.currentTimeMillis();
+
+        assertTrue(Math.abs(differenz) < 100);
+    }
+
+    @Test
+    public void testWarten_Skaliert() throws Exception {
+        uhr.setzeModus(SimulationClock.Modus.SKALIERT, 100);
+        Object monitor = new Object();
+        long start = uhr.jetzt();
+        long realStart = System.nanoTime();
+
+        synchronized (monitor) {
+            uhr.warten(monitor, 2000);
+        }
+
+        assertTrue(System.nanoTime() - realStart < TimeUnit.SECONDS.toNanos(1));
+        assertTrue(uhr.jetzt() - start >= 2000);
+    }
+
+    @Test
+    public void testSchlafen_SchnellUeberspringtLeerlauf() throws Exception {
+        uhr.setzeModus(SimulationClock.Modus.SCHNELL, 1);
+        long start = uhr.jetzt();
+        long realStart = System.nanoTime();
+
+        uhr.schlafen(10 * 60 * 1000);
+
+        assertTrue(System.nanoTime() - realStart < TimeUnit.SECONDS.toNanos(5));
+        assertTrue(uhr.jetzt() - start >= 10 * 60 * 1000);
+    }
+
+    @Test
+    public void testWarten_NichtPositiv() throws Exception {
+        Object monitor = new Object();
+        long realStart = System.nanoTime();
+
+        synchronized (monitor) {
+            uhr.warten(monitor, 0);
+            uhr.warten(monitor, -5);
+        }
+
+        assertTrue(System.nanoTime() - realStart < TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testPlanen_Schnell() throws Exception {
+        uhr.setzeModus(SimulationClock.Modus.SCHNELL, 1);
+        CountDownLatch ausgefuehrt = new CountDownLatch(1);
+        long start = uhr.jetzt();
+
+        uhr.planen(ausgefuehrt::countDown, 30000);
+
+        assertThat(ausgefuehrt.await(5, TimeUnit.SECONDS), is(true));
+        assertTrue(uhr.jetzt() - start >= 30000);
+    }
+
+    @Test
+    public void testPlanen_Skaliert() throws Exception {
+        uhr.setzeModus(SimulationClock.Modus.SKALIERT, 10);
+        CountDownLatch ausgefuehrt = new CountDownLatch(2);
+        long start = uhr.jetzt();
+
+        uhr.planen(ausgefuehrt::countDown, 20);
+        uhr.planen(ausgefuehrt::countDown, 2000);
+
+        assertThat(ausgefuehrt.await(5, TimeUnit.SECONDS), is(true));
+        assertTrue(uhr.jetzt() - start >= 2000);
+        assertThat(uhr.anzahlTermine(), is(0));
+    }
+
+    @Test
+    public void testPlanen_Abbrechen() throws Exception {
+        AtomicBoolean ausgefuehrt = new AtomicBoolean();
+        CountDownLatch spaeter = new CountDownLatch(1);
+
+        uhr.planen(() -> ausgefuehrt.set(true), 20).abbrechen();
+        uhr.planen(spaeter::countDown, 40);
+
+        assertThat(spaeter.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(ausgefuehrt.get(), is(false));
+    }
+
+    @Test
+    public void testSchnell_PufferUebergabeVerhindertSprung() throws Exception {
+        SimulationClock gemeinsameUhr = SimulationClock.getSimulationClock();
+        Puffer<String> puffer = new Puffer<>();
+        gemeinsameUhr.setzeModus(SimulationClock.Modus.SCHNELL, 1);
+        try {
+            CountDownLatch ausgefuehrt = new CountDownLatch(1);
+            long start = gemeinsameUhr.jetzt();
+            gemeinsameUhr.planen(ausgefuehrt::countDown, 60000);
+
+            long ende = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+            while (System.nanoTime() < ende) {
+                puffer.offer("frame");
+                puffer.poll();
+                Thread.sleep(5);
+            }
+            assertThat(ausgefuehrt.getCount(), is(1L));
+            assertTrue(gemeinsameUhr.jetzt() - start < 60000);
+
+            assertThat(ausgefuehrt.await(5, TimeUnit.SECONDS), is(true));
+        } finally {
+            gemeinsameUhr.setzeModus(SimulationClock.Modus.ECHTZEIT, 1);
+        }
+    }
+
+    @Test
+    public void testSetzeModus_ZeitLaeuftOhneSprungWeiter() throws Exception {
+        uhr.setzeModus(SimulationClock.Modus.SKALIERT, 1000);
+        Thread.sleep(20);
+        long vorher = uhr.jetzt();
+
+        uhr.setzeModus(SimulationClock.Modus.ECHTZEIT, 1);
+
+        assertTrue(uhr.jetzt() >= vorher);
+        assertTrue(uhr.jetzt() - vorher < 100);
+    }
+}
@@ -0,0 +1,77 @@
+package filius.software;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ThreadFabrikTest {
+
+    @After
+    public void tearDown() {
+        ThreadFabrik.getThreadFabrik().setzeThreadFactory(null);
+    }
+
+    @Test
+    public void testProtokollThread_WirdUeberFabrikErzeugt() throws Exception {
+        AtomicInteger erzeugt = new AtomicInteger();
+        ThreadFabrik.getThreadFabrik().setzeThreadFactory(aufgabe -> {
+            erzeugt.incrementAndGet();
+            return new Thread(aufgabe);
+        });
+        CountDownLatch verarbeitet = new CountDownLatch(1);
+        Puffer<String> puffer = new Puffer<String>();
+        ProtokollThread<String> protokollThread = new ProtokollThread<String>(puffer) {
+            @Override
+            protected void verarbeiteDatenEinheit(String datenEinheit) {
+                verarbeitet.countDown();
+            }
+        };
+
+        protokollThread.starten();
+        puffer.add("daten");
+
+        try {
+            assertThat(verarbeitet.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(erzeugt.get(), is(1));
+        } finally {
+            protokollThread.beenden();
+        }
+    }
+
+    @Test
+    public void testVirtuelleThreads_ThreadFuehrtAufgabeAus() throws Exception {
+        ThreadFabrik fabrik = ThreadFabrik.getThreadFabrik();
+        ThreadFactory vorher = fabrik.holeThreadFactory();
+        boolean virtuell = fabrik.virtuelleThreadsVerwenden();
+        AtomicReference<Thread> ausfuehrender = new AtomicReference<>();
+        CountDownLatch ausgefuehrt = new CountDownLatch(1);
+
+        Thread thread = fabrik.neuerThread(() -> {
+            ausfuehrender.set(Thread.currentThread());
+            ausgefuehrt.countDown();
+        }, "test-thread");
+        thread.start();
+
+        assertThat(ausgefuehrt.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(ausfuehrender.get(), sameInstance(thread));
+        assertThat(thread.getName(), is("test-thread"));
+        if (virtuell) {
+            // virtuelle Threads sind immer Daemon-Threads
+            assertThat(thread.isDaemon(), is(true));
+            assertThat(fabrik.holeThreadFactory(), not(sameInstance(vorher)));
+        } else {
+            assertThat(thread.isDaemon(), is(false));
+            assertThat(fabrik.holeThreadFactory(), sameInstance(vorher));
+        }
+    }
+}
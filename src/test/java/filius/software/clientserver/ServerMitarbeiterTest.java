@@ -0,0 +1,165 @@
+package filius.software.clientserver;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.transportschicht.Socket;
+
+public class ServerMitarbeiterTest {
+
+    private static class TestSocket extends Socket {
+        Empfaenger empfaenger;
+        CountDownLatch geschlossen = new CountDownLatch(1);
+
+        @Override
+        public void setzeEmpfaenger(Empfaenger empfaenger) {
+            this.empfaenger = empfaenger;
+        }
+
+        @Override
+        public void schliessen() {
+            geschlossen.countDown();
+        }
+
+        @Override
+        public void beenden() {}
+
+        @Override
+        public void senden(String nachricht) {}
+
+        @Override
+        public String empfangen() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String empfangen(long timeoutMillis) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void verbinden() {}
+
+        @Override
+        public boolean istVerbunden() {
+            return true;
+        }
+
+        @Override
+        public String getStateAsString() {
+            return "ESTABLISHED";
+        }
+
+        @Override
+        public void hinzufuegen(String startIp, int startPort, Object segment) {}
+    }
+
+    private static class TestServer extends TCPServerAnwendung {
+        @Override
+        protected void neuerMitarbeiter(Socket socket) {}
+    }
+
+    private static class TestMitarbeiter extends ServerMitarbeiter {
+        List<String> verarbeitet = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch fertig;
+
+        TestMitarbeiter(ServerAnwendung server, Socket socket, int erwartet) {
+            super(server, socket);
+            fertig = new CountDownLatch(erwartet);
+        }
+
+        @Override
+        protected void verarbeiteNachricht(String nachricht) {
+            verarbeitet.add(nachricht);
+            fertig.countDown();
+        }
+    }
+
+    private TestServer server;
+
+    @Before
+    public void setUp() {
+        server = new TestServer();
+        server.starten();
+    }
+
+    @After
+    public void tearDown() {
+        server.beenden();
+    }
+
+    @Test
+    public void testStarten_MeldetEmpfaengerAmSocketAn() throws Exception {
+        TestSocket socket = new TestSocket();
+        TestMitarbeiter mitarbeiter = new TestMitarbeiter(server, socket, 0);
+
+        mitarbeiter.starten();
+
+        assertThat(socket.empfaenger == mitarbeiter, is(true));
+        assertThat(mitarbeiter.getId(), is(-1l));
+    }
+
+    @Test
+    public void testNachrichtEmpfangen_ReihenfolgeBleibtErhalten() throws Exception {
+        TestSocket socket = new TestSocket();
+        TestMitarbeiter mitarbeiter = new TestMitarbeiter(server, socket, 500);
+        mitarbeiter.starten();
+
+        List<String> erwartet = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            erwartet.add("nachricht " + i);
+            socket.empfaenger.nachrichtEmpfangen("nachricht " + i);
+        }
+
+        assertTrue(mitarbeiter.fertig.await(10, TimeUnit.SECONDS));
+        assertThat(mitarbeiter.verarbeitet, is(erwartet));
+    }
+
+    @Test
+    public void testNachrichtEmpfangen_VieleMitarbeiterParallel() throws Exception {
+        List<TestMitarbeiter> alle = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TestMitarbeiter mitarbeiter = new TestMitarbeiter(server, new TestSocket(), 10);
+            mitarbeiter.starten();
+            alle.add(mitarbeiter);
+        }
+
+        for (int n = 0; n < 10; n++) {
+            for (TestMitarbeiter mitarbeiter : alle) {
+                ((TestSocket) mitarbeiter.socket).empfaenger.nachrichtEmpfangen(String.valueOf(n));
+            }
+        }
+
+        for (TestMitarbeiter mitarbeiter : alle) {
+            assertTrue(mitarbeiter.fertig.await(10, TimeUnit.SECONDS));
+            assertThat(mitarbeiter.verarbeitet.size(), is(10));
+            assertThat(mitarbeiter.verarbeitet.get(9), is("9"));
+        }
+    }
+
+    @Test
+    public void testVerbindungBeendet_SchliesstSocket() throws Exception {
+        TestSocket socket = new TestSocket();
+        TestMitarbeiter mitarbeiter = new TestMitarbeiter(server, socket, 1);
+        mitarbeiter.starten();
+
+        socket.empfaenger.nachrichtEmpfangen("letzte");
+        socket.empfaenger.verbindungBeendet();
+        socket.empfaenger.nachrichtEmpfangen("zu spaet");
+
+        assertTrue(socket.geschlossen.await(10, TimeUnit.SECONDS));
+        assertThat(mitarbeiter.verarbeitet, is(Collections.singletonList("letzte")));
+        assertThat(mitarbeiter.running, is(false));
+    }
+}
@@ -0,0 +1,95 @@
+package filius.software.dateiaustausch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.tree.DefaultMutableTreeNode;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.system.Datei;
+import filius.software.system.Dateisystem;
+
+public class DateiIndexTest {
+
+    private Dateisystem dateisystem;
+    private DefaultMutableTreeNode verzeichnis;
+    private DateiIndex index;
+
+    @Before
+    public void setUp() {
+        dateisystem = new Dateisystem();
+        dateisystem.erstelleVerzeichnis(dateisystem.getRoot(), "peer2peer");
+        verzeichnis = dateisystem
+                .verzeichnisKnoten(dateisystem.holeRootPfad() + Dateisystem.FILE_SEPARATOR + "peer2peer");
+        speichern("Sommer-Hit.mp3");
+        speichern("Winterreise.txt");
+        speichern("hit-liste.doc");
+        index = new DateiIndex();
+    }
+
+    @Test
+    public void testSuchen_TeilDesNamensOhneGrossKleinschreibung() throws Exception {
+        assertThat(namen(index.suchen(verzeichnis, "HIT")), is(namen("Sommer-Hit.mp3", "hit-liste.doc")));
+        assertThat(namen(index.suchen(verzeichnis, "terrei")), is(namen("Winterreise.txt")));
+        assertThat(namen(index.suchen(verzeichnis, "reisen")), is(namen()));
+    }
+
+    @Test
+    public void testSuchen_KurzerUndLeererSuchbegriff() throws Exception {
+        assertThat(namen(index.suchen(verzeichnis, "e.")), is(namen("Winterreise.txt", "hit-liste.doc")));
+        assertThat(index.suchen(verzeichnis, "").size(), is(3));
+    }
+
+    @Test
+    public void testSuchen_NeueDatei() throws Exception {
+        index.suchen(verzeichnis, "hit");
+
+        speichern("Hitparade.txt");
+
+        assertThat(namen(index.suchen(verzeichnis, "hit")),
+                is(namen("Sommer-Hit.mp3", "hit-liste.doc", "Hitparade.txt")));
+    }
+
+    @Test
+    public void testSuchen_GeloeschteUndUmbenannteDatei() throws Exception {
+        index.suchen(verzeichnis, "hit");
+
+        verzeichnis.remove(0);
+        dateisystem.holeDatei(verzeichnis, "Winterreise.txt").setName("Hit-Reise.txt");
+
+        assertThat(namen(index.suchen(verzeichnis, "hit")), is(namen("Hit-Reise.txt", "hit-liste.doc")));
+        assertThat(index.anzahlDateien(), is(2));
+    }
+
+    @Test
+    public void testSuchen_UnterverzeichnisWirdNichtGefunden() throws Exception {
+        dateisystem.erstelleVerzeichnis(verzeichnis, "hits");
+
+        assertThat(namen(index.suchen(verzeichnis, "hits")), is(namen()));
+    }
+
+    private void speichern(String name) {
+        dateisystem.speicherDatei(verzeichnis, new Datei(name, "txt", ""));
+    }
+
+    private static List<String> namen(List<Datei> dateien) {
+        List<String> namen = new ArrayList<>();
+        for (Datei datei : dateien) {
+            namen.add(datei.getName());
+        }
+        return namen;
+    }
+
+    private static List<String> namen(String... namen) {
+        List<String> liste = new ArrayList<>();
+        for (String name : namen) {
+            liste.add(name);
+        }
+        return liste;
+    }
+}
@@ -0,0 +1,53 @@
+package filius.software.dateiaustausch;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GuidCacheTest {
+
+    private AtomicLong uhr;
+    private GuidCache cache;
+
+    @Before
+    public void setUp() {
+        uhr = new AtomicLong(1000);
+        cache = new GuidCache(uhr::get);
+    }
+
+    @Test
+    public void testHinzufuegen_NurBeimErstenMal() throws Exception {
+        assertThat(cache.hinzufuegen(42), is(true));
+        assertThat(cache.hinzufuegen(42), is(false));
+        assertThat(cache.enthaelt(42), is(true));
+        assertThat(cache.enthaelt(43), is(false));
+    }
+
+    @Test
+    public void testEnthaelt_NachAblaufVergessen() throws Exception {
+        cache.hinzufuegen(1);
+        uhr.addAndGet(GuidCache.GUELTIGKEIT_MILLIS / 2);
+        cache.hinzufuegen(2);
+
+        uhr.addAndGet(GuidCache.GUELTIGKEIT_MILLIS / 2 + 1);
+
+        assertThat(cache.enthaelt(1), is(false));
+        assertThat(cache.enthaelt(2), is(true));
+        assertThat(cache.hinzufuegen(1), is(true));
+    }
+
+    @Test
+    public void testHinzufuegen_AeltesterEintragWirdVerdraengt() throws Exception {
+        for (int guid = 0; guid <= GuidCache.MAX_EINTRAEGE; guid++) {
+            cache.hinzufuegen(guid);
+        }
+
+        assertThat(cache.anzahl(), is(GuidCache.MAX_EINTRAEGE));
+        assertThat(cache.enthaelt(0), is(false));
+        assertThat(cache.enthaelt(GuidCache.MAX_EINTRAEGE), is(true));
+    }
+}
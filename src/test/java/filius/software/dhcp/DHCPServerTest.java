@@ -5,6 +5,9 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.junit.Test;
 
 import filius.exception.AddressRequestNotAcceptedException;
@@ -286,6 +289,98 @@ public class DHCPServerTest {
         verifyAssignment(server, mac, ip, assignment);
     }
 
+    @Test
+    public void testOfferAddress_RepeatedDiscoverGetsSameAddress() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+
+        String firstOffer = server.offerAddress(mac);
+        String secondOffer = server.offerAddress(mac);
+
+        assertThat(secondOffer, is(firstOffer));
+        assertThat(server.offeredAddresses.size(), is(1));
+    }
+
+    @Test
+    public void testOfferAddress_AssignedClientGetsSameAddress() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+        server.requestAddress(mac, server.offerAddress(mac));
+
+        String offeredAddress = server.offerAddress(mac);
+        server.requestAddress(mac, offeredAddress);
+
+        assertThat(offeredAddress, is("10.0.0.100"));
+        assertThat(server.dynamicAssignedAddresses.size(), is(1));
+        assertThat(server.offeredAddresses.size(), is(0));
+    }
+
+    @Test
+    public void testOfferAddress_WrapAroundToReleasedAddress() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.102");
+        server.offerAddress("aa:aa:aa:aa:aa:01");
+        server.offerAddress("aa:aa:aa:aa:aa:02");
+        server.offerAddress("aa:aa:aa:aa:aa:03");
+        server.offeredAddresses.remove(server.offeredAddresses.findByIp("10.0.0.100"));
+
+        String offeredAddress = server.offerAddress("aa:aa:aa:aa:aa:04");
+
+        assertThat(offeredAddress, is("10.0.0.100"));
+    }
+
+    @Test
+    public void testOfferAddress_ExpiredAssignmentIsReleased() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.101");
+        server.dynamicAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.0.100", 0));
+        server.dynamicAssignedAddresses
+                .add(new DHCPAddressAssignment("other-mac", "10.0.0.101", System.currentTimeMillis() - 100));
+
+        String offeredAddress = server.offerAddress("01:02:03:04:05:06");
+
+        assertThat(offeredAddress, is("10.0.0.101"));
+    }
+
+    @Test
+    public void testOfferAddress_ChangedRange() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        server.offerAddress("aa:aa:aa:aa:aa:01");
+        server.staticAssignedAddresses.add(new DHCPAddressAssignment("mac", "10.0.1.1", 0));
+        server.setUntergrenze("10.0.1.1");
+        server.setObergrenze("10.0.1.10");
+
+        String offeredAddress = server.offerAddress("aa:aa:aa:aa:aa:02");
+
+        assertThat(offeredAddress, is("10.0.1.2"));
+    }
+
+    @Test
+    public void testRequestAddress_ReplacesPreviousAssignment() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.100", "10.0.0.104");
+        String mac = "01:02:03:04:05:06";
+        server.requestAddress(mac, "10.0.0.101");
+
+        DHCPAddressAssignment assignment = server.requestAddress(mac, "10.0.0.102");
+
+        verifyAssignment(server, mac, "10.0.0.102", assignment);
+        assertThat(server.dynamicAssignedAddresses.size(), is(1));
+        assertTrue(server.checkAddressAvailable("10.0.0.101"));
+    }
+
+    @Test(timeout = 10000)
+    public void testOfferAndRequestAddress_5000Clients() throws Exception {
+        DHCPServer server = prepareDhcpServer("10.0.0.1", "10.0.255.254");
+        Set<String> addresses = new HashSet<>();
+
+        for (int i = 0; i < 5000; i++) {
+            String mac = String.format("02:00:00:00:%02x:%02x", i >> 8, i & 255);
+            addresses.add(server.requestAddress(mac, server.offerAddress(mac)).getIp());
+        }
+
+        assertThat(addresses.size(), is(5000));
+        assertThat(server.dynamicAssignedAddresses.size(), is(5000));
+        assertThat(server.offeredAddresses.size(), is(0));
+    }
+
     private DHCPServer prepareDhcpServer(String lowerLimit, String upperLimit) {
         DHCPServer server = new DHCPServer();
         server.setUntergrenze(lowerLimit);
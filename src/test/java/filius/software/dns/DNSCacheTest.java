@@ -0,0 +1,70 @@
+package filius.software.dns;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class DNSCacheTest {
+
+    private long jetzt = 0;
+
+    private DNSCache<String> cache = new DNSCache<>(() -> jetzt);
+
+    @Test
+    public void testHole_GueltigBisAblaufDerTtl() throws Exception {
+        cache.speichern("web.de. a", "1.2.3.4", 1000);
+
+        jetzt = 999;
+        assertThat(cache.hole("web.de. a"), is("1.2.3.4"));
+        jetzt = 1000;
+        assertThat(cache.hole("web.de. a"), is(nullValue()));
+        assertThat(cache.groesse(), is(0));
+    }
+
+    @Test
+    public void testHole_ZaehltTrefferUndFehlschlaege() throws Exception {
+        cache.hole("web.de. a");
+        cache.speichern("web.de. a", "1.2.3.4", 1000);
+        cache.hole("web.de. a");
+        cache.hole("web.de. a");
+
+        assertThat(cache.holeTreffer(), is(2l));
+        assertThat(cache.holeFehlschlaege(), is(1l));
+    }
+
+    @Test
+    public void testGueltigkeit_KleinsteTtlOderNegativeTtl() throws Exception {
+        ResourceRecord lang = new ResourceRecord("web.de. A 3600 1.2.3.4");
+        ResourceRecord kurz = new ResourceRecord("web.de. A 60 1.2.3.5");
+
+        assertThat(DNSCache.gueltigkeit(Arrays.asList(lang, kurz)), is(60000l));
+        assertThat(DNSCache.gueltigkeit(Collections.emptyList()), is(DNSCache.NEGATIVE_TTL_MILLIS));
+    }
+
+    @Test
+    public void testSpeichern_TtlNullWirdNichtGespeichert() throws Exception {
+        cache.speichern("web.de. a", "1.2.3.4", 0);
+
+        assertThat(cache.hole("web.de. a"), is(nullValue()));
+    }
+
+    @Test
+    public void testSpeichern_BegrenzteAnzahlEintraege() throws Exception {
+        for (int i = 0; i <= DNSCache.MAX_EINTRAEGE; i++) {
+            cache.speichern("host" + i + ". a", "10.0.0.1", 1000);
+        }
+
+        assertThat(cache.groesse(), is(DNSCache.MAX_EINTRAEGE));
+        assertThat(cache.hole("host0. a"), is(nullValue()));
+    }
+
+    @Test
+    public void testSchluessel_OhneGrossUndKleinschreibung() throws Exception {
+        assertThat(DNSCache.schluessel("Web.DE.", "A"), is(DNSCache.schluessel("web.de.", "a")));
+    }
+}
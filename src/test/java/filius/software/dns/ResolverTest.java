@@ -0,0 +1,120 @@
+package filius.software.dns;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.exception.TimeOutException;
+import filius.software.system.InternetKnotenBetriebssystem;
+
+public class ResolverTest {
+
+    private static class TestQueryAgent extends DNSQueryAgent {
+        int anfragen;
+        String antwort = "web.de. A 3600 1.2.3.4";
+        boolean timeout;
+        /** Server, der nur auf den Name-Server ns.web.de verweist; alle anderen Server antworten nicht */
+        String verweisendeServer;
+
+        @Override
+        public DNSNachricht query(String typ, String domainname, String dnsServer, InternetKnotenBetriebssystem os)
+                throws TimeOutException {
+            anfragen++;
+            if (timeout) {
+                throw new TimeOutException();
+            }
+            if (verweisendeServer != null) {
+                if (!verweisendeServer.equals(dnsServer)) {
+                    return null;
+                }
+                DNSNachricht verweis = new DNSNachricht(DNSNachricht.RESPONSE);
+                verweis.hinzuAuthoritativeResourceRecord("web.de. NS 3600 ns.web.de.");
+                verweis.hinzuAuthoritativeResourceRecord("ns.web.de. A 3600 10.0.0.99");
+                return verweis;
+            }
+            DNSNachricht nachricht = new DNSNachricht(DNSNachricht.RESPONSE);
+            if (antwort != null) {
+                nachricht.hinzuAntwortResourceRecord(antwort);
+            }
+            return nachricht;
+        }
+    }
+
+    private Resolver resolver = new Resolver();
+    private TestQueryAgent agent = new TestQueryAgent();
+
+    @Before
+    public void setUp() {
+        resolver.setzeQueryAgent(agent);
+    }
+
+    @Test
+    public void testResolve_ZweiteAnfrageAusDemCache() throws Exception {
+        DNSNachricht erste = resolver.resolve("web.de", ResourceRecord.ADDRESS, "10.0.0.53");
+        DNSNachricht zweite = resolver.resolve("WEB.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        assertThat(agent.anfragen, is(1));
+        assertThat(zweite.holeAntwortResourceRecords().getFirst().getRdata(), is("1.2.3.4"));
+        assertThat(erste.holeAntwortResourceRecords().size(), is(1));
+        assertThat(resolver.holeCacheTreffer(), is(1l));
+        assertThat(resolver.holeCacheFehlschlaege(), is(1l));
+    }
+
+    @Test
+    public void testResolve_AndererServerOderTypNichtAusDemCache() throws Exception {
+        resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+        resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.54");
+        resolver.resolve("web.de.", ResourceRecord.MAIL_EXCHANGE, "10.0.0.53");
+
+        assertThat(agent.anfragen, is(3));
+    }
+
+    @Test
+    public void testResolve_NegativeAntwortWirdGespeichert() throws Exception {
+        agent.antwort = null;
+
+        resolver.resolve("unbekannt.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+        DNSNachricht antwort = resolver.resolve("unbekannt.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        assertThat(agent.anfragen, is(1));
+        assertThat(antwort.holeResourceRecords().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testResolve_TimeoutWirdNichtGespeichert() throws Exception {
+        agent.timeout = true;
+        try {
+            resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+            fail();
+        } catch (TimeOutException e) {}
+
+        agent.timeout = false;
+        resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        assertThat(agent.anfragen, is(2));
+    }
+
+    @Test
+    public void testResolve_VerweisOhneAntwortWirdNichtGespeichert() throws Exception {
+        agent.verweisendeServer = "10.0.0.53";
+
+        DNSNachricht antwort = resolver.resolve("www.web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+        resolver.resolve("www.web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        assertThat(antwort.holeAntwortResourceRecords().isEmpty(), is(true));
+        assertThat(agent.anfragen, is(4));
+    }
+
+    @Test
+    public void testBeenden_LeertCache() throws Exception {
+        resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        resolver.beenden();
+        resolver.resolve("web.de.", ResourceRecord.ADDRESS, "10.0.0.53");
+
+        assertThat(agent.anfragen, is(2));
+    }
+}
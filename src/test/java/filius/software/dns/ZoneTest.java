@@ -0,0 +1,71 @@
+package filius.software.dns;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.software.system.Datei;
+
+public class ZoneTest {
+
+    private static final String HOSTS = "www.example.com. A 3600 10.0.0.1\n" //
+            + "WWW.example.com. A 3600 10.0.0.2\n" //
+            + "example.com. MX 3600 mail.example.com.\n" //
+            + "mail.example.com. A 3600 10.0.0.3\n" //
+            + "com. NS 3600 ns.com.\n" //
+            + "example.com. NS 3600 ns.example.com.\n" //
+            + ". NS 3600 root.\n" //
+            + "\n" //
+            + "unvollstaendig A\n";
+
+    private static Datei hosts(String inhalt) {
+        return new Datei("hosts", "text", inhalt);
+    }
+
+    @Test
+    public void testFindRecords_WieSucheInListe() throws Exception {
+        Zone zone = new Zone(hosts(HOSTS));
+        List<ResourceRecord> liste = zone.holeRecords();
+
+        for (String domain : Arrays.asList("www.example.com.", "Www.Example.com.", "example.com.",
+                "mail.example.com.", "com.", "unbekannt.")) {
+            for (String typ : Arrays.asList(ResourceRecord.ADDRESS, ResourceRecord.MAIL_EXCHANGE,
+                    ResourceRecord.NAME_SERVER)) {
+                assertThat(zone.findRecords(domain, typ), is(ResourceRecord.findRecords(domain, typ, liste)));
+                assertThat(zone.findRecord(domain, typ), is(ResourceRecord.findRecord(domain, typ, liste)));
+            }
+        }
+        assertThat(liste.size(), is(7));
+    }
+
+    @Test
+    public void testFindApplicableNSRecord_WieSucheInListe() throws Exception {
+        Zone zone = new Zone(hosts(HOSTS));
+        List<ResourceRecord> liste = zone.holeRecords();
+
+        for (String domain : Arrays.asList("www.example.com.", "host.other.com.", "www.example.org.", ".")) {
+            assertThat(zone.findApplicableNSRecord(domain),
+                    sameInstance(ResourceRecord.findApplicableNSRecord(domain, liste)));
+        }
+        assertThat(zone.findApplicableNSRecord("www.example.com.").getRdata(), is("ns.example.com."));
+        assertThat(zone.findApplicableNSRecord("www.example.org.").getRdata(), is("root."));
+    }
+
+    @Test
+    public void testIstAktuell_NurBeiUnveraenderterDatei() throws Exception {
+        Datei datei = hosts(HOSTS);
+        Zone zone = new Zone(datei);
+
+        assertThat(zone.istAktuell(datei), is(true));
+        assertThat(zone.istAktuell(hosts(HOSTS)), is(false));
+        assertThat(zone.istAktuell(null), is(false));
+
+        datei.setDateiInhalt(HOSTS + "neu.example.com. A 3600 10.0.0.4\n");
+        assertThat(zone.istAktuell(datei), is(false));
+    }
+}
@@ -0,0 +1,253 @@
+package filius.software.email;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.system.Betriebssystem;
+import filius.software.system.Datei;
+import filius.software.system.Dateisystem;
+
+public class EmailServerTest {
+
+    private static final String VERZEICHNIS = "/mailserver";
+    private static final String POSTFAECHER = VERZEICHNIS + "/" + EmailServer.POSTFACH_VERZEICHNIS;
+
+    private Betriebssystem bs;
+    private EmailServer server;
+
+    @Before
+    public void setUp() {
+        bs = new Betriebssystem();
+        server = neuerServer();
+    }
+
+    @Test
+    public void testKontenLaden_NachrichtenAusAltemFormat() throws Exception {
+        bs.getDateisystem().speicherDatei(VERZEICHNIS, new Datei(EmailServer.KONTEN_DATEI, "txt",
+                "alice;filius.de;geheim;Muster;Alice;#bob@filius.de$alice@filius.de$$$1.1.2020$Hallo$Zeile 1|Zeile 2\n"
+                        + "bob;filius.de;geheim;Muster;Bob;\n"));
+
+        server.kontenLaden();
+
+        EmailKonto alice = server.sucheKonto("alice");
+        assertThat(alice.getNachrichten().size(), is(1));
+        assertThat(alice.getNachrichten().get(0).getBetreff(), is("Hallo"));
+        assertThat(alice.getNachrichten().get(0).getText(), is("Zeile 1\nZeile 2"));
+        assertThat(server.sucheKonto("bob").getNachrichten().size(), is(0));
+    }
+
+    @Test
+    public void testKontenSpeichern_AltesFormatWirdInPostfaecherUebertragen() throws Exception {
+        bs.getDateisystem().speicherDatei(VERZEICHNIS, new Datei(EmailServer.KONTEN_DATEI, "txt",
+                "alice;filius.de;geheim;Muster;Alice;#bob@filius.de$alice@filius.de$$$1.1.2020$Hallo$Text\n"));
+        server.kontenLaden();
+
+        server.kontenSpeichern();
+
+        assertThat(konten().getDateiInhalt(), is("alice;filius.de;geheim;Muster;Alice;\n"));
+        assertThat(postfach("alice"), is(notNullValue()));
+        EmailServer neu = neuerServer();
+        neu.kontenLaden();
+        assertThat(neu.sucheKonto("alice").getNachrichten().size(), is(1));
+        assertThat(neu.sucheKonto("alice").getNachrichten().get(0).getText(), is("Text"));
+    }
+
+    @Test
+    public void testEmailAblegen_SchreibtNurDasPostfachDesEmpfaengers() throws Exception {
+        server.benutzerHinzufuegen("alice", "geheim", "Muster", "Alice");
+        server.benutzerHinzufuegen("bob", "geheim", "Muster", "Bob");
+        server.emailAblegen(server.sucheKonto("bob"), email("Erste"));
+        String kontenInhalt = konten().getDateiInhalt();
+        String bobInhalt = postfach("bob").getDateiInhalt();
+
+        server.emailAblegen(server.sucheKonto("alice"), email("Zweite"));
+        server.emailAblegen(server.sucheKonto("alice"), email("Dritte"));
+        server.kontenSpeichern();
+
+        assertThat(konten().getDateiInhalt(), is(sameInstance(kontenInhalt)));
+        assertThat(postfach("bob").getDateiInhalt(), is(sameInstance(bobInhalt)));
+        EmailServer neu = neuerServer();
+        neu.kontenLaden();
+        assertThat(neu.sucheKonto("alice").getNachrichten().size(), is(2));
+        assertThat(neu.sucheKonto("alice").getNachrichten().get(1).getBetreff(), is("Dritte"));
+        assertThat(neu.sucheKonto("bob").getNachrichten().size(), is(1));
+    }
+
+    @Test
+    public void testPostfachGeaendert_PostfachWirdNeuGeschrieben() throws Exception {
+        server.benutzerHinzufuegen("alice", "geheim", "Muster", "Alice");
+        EmailKonto alice = server.sucheKonto("alice");
+        server.emailAblegen(alice, email("Erste"));
+        server.emailAblegen(alice, email("Zweite"));
+
+        alice.getNachrichten().remove(0);
+        server.postfachGeaendert(alice);
+        server.kontenSpeichern();
+
+        EmailServer neu = neuerServer();
+        neu.kontenLaden();
+        assertThat(neu.sucheKonto("alice").getNachrichten().size(), is(1));
+        assertThat(neu.sucheKonto("alice").getNachrichten().get(0).getBetreff(), is("Zweite"));
+    }
+
+    @Test
+    public void testKontoLoeschen_EntferntPostfach() throws Exception {
+        server.benutzerHinzufuegen("alice", "geheim", "Muster", "Alice");
+        server.emailAblegen(server.sucheKonto("alice"), email("Erste"));
+
+        server.kontoLoeschen(server.sucheKonto("alice"));
+
+        assertThat(postfach("alice"), is(nullValue()));
+        assertThat(konten().getDateiInhalt(), is(""));
+    }
+
+    @Test
+    public void testPostfachDateiname_ErsetztSonderzeichen() throws Exception {
+        assertThat(EmailServer.postfachDateiname("max.muster-1"), is("max.muster-1.txt"));
+        assertThat(EmailServer.postfachDateiname("a/b"), is("a%2fb.txt"));
+    }
+
+    @Test
+    public void testSucheKonto_OhneBeachtungDerGrossKleinschreibung() throws Exception {
+        server.benutzerHinzufuegen("Alice", "geheim", "Muster", "Alice");
+
+        assertThat(server.sucheKonto("alice").getBenutzername(), is("Alice"));
+        assertThat(server.sucheKonto("ALICE", "geheim").getBenutzername(), is("Alice"));
+        assertThat(server.sucheKonto("alice", "falsch"), is(nullValue()));
+        assertThat(server.benutzerHinzufuegen("aLiCe", "x", "Muster", "Alice"), is(false));
+    }
+
+    @Test
+    public void testBenutzerHinzufuegen_OhneNameWirdAbgelehnt() throws Exception {
+        assertThat(server.benutzerHinzufuegen("carol", "geheim", "", "Carol"), is(false));
+        assertThat(server.benutzerHinzufuegen("carol", "geheim", "Muster", ""), is(false));
+        assertThat(server.sucheKonto("carol"), is(nullValue()));
+
+        assertThat(server.benutzerHinzufuegen("carol", "geheim", "Muster", "Carol"), is(true));
+    }
+
+    @Test
+    public void testSucheKonto_UeberListeHinzugefuegtesKonto() throws Exception {
+        EmailKonto konto = new EmailKonto();
+        konto.setBenutzername("bob");
+        konto.setPasswort("geheim");
+
+        server.getListeBenutzerkonten().add(konto);
+
+        assertThat(server.sucheKonto("bob"), is(sameInstance(konto)));
+        server.getListeBenutzerkonten().remove(konto);
+        assertThat(server.sucheKonto("bob"), is(nullValue()));
+    }
+
+    @Test(timeout = 60000)
+    public void testNebenlaeufigeZustellungUndAbruf_1000Konten() throws Exception {
+        final int konten = 1000;
+        final int zustellungenProThread = 2500;
+        for (int i = 0; i < konten; i++) {
+            server.benutzerHinzufuegen("user" + i, "pw" + i, "Muster", "Vorname");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> zustellungen = new ArrayList<>();
+        List<Future<Integer>> abrufe = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            zustellungen.add(pool.submit(() -> {
+                for (int n = 0; n < zustellungenProThread; n++) {
+                    int i = ThreadLocalRandom.current().nextInt(konten);
+                    server.emailAblegen(server.sucheKonto("user" + i), email("Nachricht " + n));
+                    server.kontenSpeichern();
+                }
+                return zustellungenProThread;
+            }));
+        }
+        for (int t = 0; t < 4; t++) {
+            abrufe.add(pool.submit(abrufen(konten, zustellungenProThread)));
+        }
+        int zugestellt = 0;
+        for (Future<Integer> zustellung : zustellungen) {
+            zugestellt += zustellung.get();
+        }
+        int geloescht = 0;
+        for (Future<Integer> abruf : abrufe) {
+            geloescht += abruf.get();
+        }
+        pool.shutdown();
+        server.kontenSpeichern();
+
+        assertThat(anzahlNachrichten(server), is(zugestellt - geloescht));
+        EmailServer neu = neuerServer();
+        neu.kontenLaden();
+        assertThat(neu.getListeBenutzerkonten().size(), is(konten));
+        assertThat(anzahlNachrichten(neu), is(zugestellt - geloescht));
+    }
+
+    /** Wie eine POP3-Sitzung: Anmelden, Postfach auflisten und die erste Nachricht loeschen */
+    private Callable<Integer> abrufen(int konten, int sitzungen) {
+        return () -> {
+            int geloescht = 0;
+            for (int n = 0; n < sitzungen; n++) {
+                int i = ThreadLocalRandom.current().nextInt(konten);
+                EmailKonto konto = server.sucheKonto("user" + i, "pw" + i);
+                int groesse = 0;
+                for (Email email : konto.getNachrichten()) {
+                    groesse += email.getText().length();
+                }
+                assertThat(groesse >= 0, is(true));
+                synchronized (konto) {
+                    if (!konto.getNachrichten().isEmpty()) {
+                        konto.getNachrichten().remove(0);
+                        server.postfachGeaendert(konto);
+                        geloescht++;
+                    }
+                }
+                server.kontenSpeichern();
+            }
+            return geloescht;
+        };
+    }
+
+    private static int anzahlNachrichten(EmailServer emailServer) {
+        int anzahl = 0;
+        for (EmailKonto konto : emailServer.getListeBenutzerkonten()) {
+            anzahl += konto.getNachrichten().size();
+        }
+        return anzahl;
+    }
+
+    private EmailServer neuerServer() {
+        EmailServer emailServer = new EmailServer();
+        emailServer.setSystemSoftware(bs);
+        return emailServer;
+    }
+
+    private Datei konten() {
+        return bs.getDateisystem().holeDatei(VERZEICHNIS + Dateisystem.FILE_SEPARATOR + EmailServer.KONTEN_DATEI);
+    }
+
+    private Datei postfach(String benutzername) {
+        return bs.getDateisystem()
+                .holeDatei(POSTFAECHER + Dateisystem.FILE_SEPARATOR + EmailServer.postfachDateiname(benutzername));
+    }
+
+    private static Email email(String betreff) {
+        Email email = new Email();
+        email.setAbsender("carol@filius.de");
+        email.setBetreff(betreff);
+        email.setText("Text");
+        return email;
+    }
+}
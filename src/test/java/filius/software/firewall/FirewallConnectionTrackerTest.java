@@ -0,0 +1,64 @@
+package filius.software.firewall;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class FirewallConnectionTrackerTest {
+    private static final int CLIENT = 0x0a000001;
+    private static final int SERVER = 0xc0a80102;
+
+    private AtomicLong now = new AtomicLong(1000);
+    private FirewallConnectionTracker tracker = new FirewallConnectionTracker(now::get);
+
+    @Test
+    public void testUpdate_BothDirections() throws Exception {
+        tracker.track(IpPaket.UDP, CLIENT, 5000, SERVER, 53);
+
+        assertTrue(tracker.update(IpPaket.UDP, CLIENT, 5000, SERVER, 53, false));
+        assertTrue(tracker.update(IpPaket.UDP, SERVER, 53, CLIENT, 5000, false));
+        assertFalse(tracker.update(IpPaket.UDP, CLIENT, 5001, SERVER, 53, false));
+        assertFalse(tracker.update(IpPaket.TCP, CLIENT, 5000, SERVER, 53, false));
+    }
+
+    @Test
+    public void testUpdate_IdleTimeout() throws Exception {
+        tracker.track(IpPaket.UDP, CLIENT, 5000, SERVER, 53);
+
+        now.addAndGet(FirewallConnectionTracker.UDP_TIMEOUT_MILLIS - 1);
+        assertTrue(tracker.update(IpPaket.UDP, SERVER, 53, CLIENT, 5000, false));
+        now.addAndGet(FirewallConnectionTracker.UDP_TIMEOUT_MILLIS);
+
+        assertFalse(tracker.update(IpPaket.UDP, CLIENT, 5000, SERVER, 53, false));
+        assertThat(tracker.size(), is(0));
+    }
+
+    @Test
+    public void testUpdate_TcpClosing() throws Exception {
+        tracker.track(IpPaket.TCP, CLIENT, 5000, SERVER, 80);
+        assertTrue(tracker.update(IpPaket.TCP, SERVER, 80, CLIENT, 5000, true));
+
+        now.addAndGet(FirewallConnectionTracker.TCP_CLOSING_TIMEOUT_MILLIS);
+
+        assertFalse(tracker.update(IpPaket.TCP, CLIENT, 5000, SERVER, 80, false));
+    }
+
+    @Test
+    public void testTrack_SweepsExpiredConnections() throws Exception {
+        for (int port = 5000; port < 5010; port++) {
+            tracker.track(IpPaket.UDP, CLIENT, port, SERVER, 53);
+        }
+        now.addAndGet(FirewallConnectionTracker.UDP_TIMEOUT_MILLIS);
+
+        tracker.track(IpPaket.UDP, CLIENT, 6000, SERVER, 53);
+
+        assertThat(tracker.size(), is(1));
+    }
+}
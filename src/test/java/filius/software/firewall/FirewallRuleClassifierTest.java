@@ -0,0 +1,142 @@
+package filius.software.firewall;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import filius.software.vermittlungsschicht.IpPaket;
+import filius.software.vermittlungsschicht.VermittlungsProtokoll;
+
+public class FirewallRuleClassifierTest {
+
+    private static final String LOCAL_IP = "192.168.0.1";
+    private static final String LOCAL_MASK = "255.255.255.0";
+
+    @Test
+    public void testIpAddress() throws Exception {
+        assertThat(FirewallRuleClassifier.ipAddress("192.168.0.1"), is(0xc0a80001));
+        assertThat(FirewallRuleClassifier.ipAddress("255.255.255.0"), is(0xffffff00));
+        assertThat(FirewallRuleClassifier.ipAddress(""), is(0));
+        assertThat(FirewallRuleClassifier.ipAddress(null), is(0));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testIpAddress_Invalid() throws Exception {
+        FirewallRuleClassifier.ipAddress("192.168.a.1");
+    }
+
+    @Test
+    public void testClassify_FirstMatchingRuleInEitherDirection() throws Exception {
+        List<FirewallRule> rules = new ArrayList<>();
+        rules.add(new FirewallRule("10.0.0.0", "255.0.0.0", "", "", 80, FirewallRule.UDP, FirewallRule.DROP));
+        rules.add(new FirewallRule("", "", "192.168.1.0", "255.255.255.0", 80, FirewallRule.TCP,
+                FirewallRule.DROP));
+        rules.add(new FirewallRule("", "", "", "", FirewallRule.ALL_PORTS, FirewallRule.ALL_PROTOCOLS,
+                FirewallRule.ACCEPT));
+        FirewallRuleClassifier classifier = new FirewallRuleClassifier(rules);
+
+        int client = FirewallRuleClassifier.ipAddress("10.1.1.1");
+        int server = FirewallRuleClassifier.ipAddress("192.168.1.2");
+        assertThat(classifier.classify(IpPaket.TCP, client, server, 4000, 80, null), is(1));
+        assertThat(classifier.classify(IpPaket.TCP, server, client, 80, 4000, null), is(1));
+        assertThat(classifier.classify(IpPaket.TCP, client, server, 4000, 81, null), is(2));
+        assertThat(classifier.classify(IpPaket.UDP, client, server, 4000, 80, null), is(0));
+        assertThat(classifier.classify(FirewallRule.ICMP, client, server, 0, 0, null),
+                is(FirewallRuleClassifier.NO_RULE));
+    }
+
+    /**
+     * Compares the classifier with the linear evaluation of the ruleset (as implemented before the classifier) for
+     * 1,000 random rules and 10,000 random packets.
+     */
+    @Test
+    public void testClassify_1000Rules_SameResultAsLinearEvaluation() throws Exception {
+        Random random = new Random(4711);
+        List<FirewallRule> rules = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rules.add(randomRule(random));
+        }
+        FirewallRuleClassifier classifier = new FirewallRuleClassifier(rules);
+        int localMask = FirewallRuleClassifier.ipAddress(LOCAL_MASK);
+        int[] localNetworks = { FirewallRuleClassifier.ipAddress(LOCAL_IP) & localMask, localMask };
+
+        for (int i = 0; i < 10000; i++) {
+            int protocol = random.nextBoolean() ? IpPaket.TCP : IpPaket.UDP;
+            String sender = randomAddress(random);
+            String receiver = randomAddress(random);
+            int srcPort = randomPort(random);
+            int destPort = randomPort(random);
+
+            int expected = linear(rules, protocol, sender, receiver, srcPort, destPort);
+            int actual = classifier.classify(protocol, FirewallRuleClassifier.ipAddress(sender),
+                    FirewallRuleClassifier.ipAddress(receiver), srcPort, destPort, localNetworks);
+            assertThat(sender + " -> " + receiver + " " + srcPort + "/" + destPort, actual, is(expected));
+        }
+    }
+
+    private static FirewallRule randomRule(Random random) {
+        String srcIP = "";
+        String srcMask = "";
+        int src = random.nextInt(4);
+        if (src == 1) {
+            srcIP = FirewallRule.SAME_NETWORK;
+        } else if (src > 1) {
+            srcIP = randomAddress(random);
+            srcMask = randomMask(random);
+        }
+        String destIP = "";
+        String destMask = "";
+        if (random.nextBoolean()) {
+            destIP = randomAddress(random);
+            destMask = randomMask(random);
+        }
+        int port = random.nextInt(3) == 0 ? FirewallRule.ALL_PORTS : randomPort(random);
+        short[] protocols = { FirewallRule.TCP, FirewallRule.UDP, FirewallRule.ALL_PROTOCOLS };
+        return new FirewallRule(srcIP, srcMask, destIP, destMask, port, protocols[random.nextInt(3)],
+                random.nextBoolean() ? FirewallRule.ACCEPT : FirewallRule.DROP);
+    }
+
+    private static String randomAddress(Random random) {
+        return "192.168." + random.nextInt(4) + "." + random.nextInt(4);
+    }
+
+    private static String randomMask(Random random) {
+        String[] masks = { "255.255.255.0", "255.255.0.0", "255.255.255.255", "" };
+        return masks[random.nextInt(masks.length)];
+    }
+
+    private static int randomPort(Random random) {
+        return 20 + random.nextInt(20);
+    }
+
+    private static int linear(List<FirewallRule> rules, int protocol, String sender, String receiver, int srcPort,
+            int destPort) {
+        for (int i = 0; i < rules.size(); i++) {
+            FirewallRule rule = rules.get(i);
+            if ((rule.protocol == FirewallRule.ALL_PROTOCOLS || rule.protocol == protocol)
+                    && (matches(rule, sender, receiver, destPort) || matches(rule, receiver, sender, srcPort))) {
+                return i;
+            }
+        }
+        return FirewallRuleClassifier.NO_RULE;
+    }
+
+    private static boolean matches(FirewallRule rule, String src, String dest, int port) {
+        boolean srcMatches;
+        if (rule.srcIP.isEmpty()) {
+            srcMatches = true;
+        } else if (rule.srcIP.equals(FirewallRule.SAME_NETWORK)) {
+            srcMatches = VermittlungsProtokoll.gleichesRechnernetz(src, LOCAL_IP, LOCAL_MASK);
+        } else {
+            srcMatches = VermittlungsProtokoll.gleichesRechnernetz(src, rule.srcIP, rule.srcMask);
+        }
+        boolean destMatches = rule.destIP.isEmpty()
+                || VermittlungsProtokoll.gleichesRechnernetz(dest, rule.destIP, rule.destMask);
+        return srcMatches && destMatches && (rule.port == FirewallRule.ALL_PORTS || rule.port == port);
+    }
+}
@@ -2,9 +2,13 @@ package filius.software.firewall;
 
 import static filius.software.firewall.FirewallRule.ACCEPT;
 import static filius.software.firewall.FirewallRule.DROP;
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import filius.hardware.knoten.Rechner;
@@ -264,4 +268,52 @@ public class FirewallTest {
         paket.setSegment(segment);
         return paket;
     }
+
+    @Test
+    public void testCheckAcceptUDP_TrackedFlow_RulesNotEvaluated() throws Exception {
+        IpPaket request = createIPPacketUDP(SENDER_IP_ADDRESS, DEST_IP_ADDRESS, 53);
+        IpPaket reply = createIPPacketUDP(DEST_IP_ADDRESS, SENDER_IP_ADDRESS, 5555);
+        ((UdpSegment) reply.getSegment()).setQuellPort(53);
+
+        Firewall firewall = createActiveFirewall(DROP);
+        firewall.setFilterUdp(true);
+        firewall.setFilterSYNSegmentsOnly(true);
+        firewall.addRule(createRule("", DEST_IP_ADDRESS, 53, FirewallRule.UDP, ACCEPT));
+        AtomicInteger ruleApplications = new AtomicInteger();
+        firewall.hinzuBeobachter((source, message) -> ruleApplications.incrementAndGet());
+
+        assertTrue(firewall.checkAcceptUDP(request));
+        assertTrue(firewall.checkAcceptUDP(reply));
+        assertTrue(firewall.checkAcceptUDP(request));
+        assertThat(ruleApplications.get(), is(1));
+    }
+
+    @Test
+    public void testCheckAcceptUDP_RulesChanged_TrackedFlowsDiscarded() throws Exception {
+        IpPaket paket = createIPPacketUDP(SENDER_IP_ADDRESS, DEST_IP_ADDRESS, 53);
+
+        Firewall firewall = createActiveFirewall(ACCEPT);
+        firewall.setFilterUdp(true);
+        assertTrue(firewall.checkAcceptUDP(paket));
+
+        firewall.addRule(createRule(SENDER_IP_ADDRESS, DEST_IP_ADDRESS, 53, FirewallRule.UDP, DROP));
+
+        assertFalse(firewall.checkAcceptUDP(paket));
+    }
+
+    @Test
+    public void testCheckAcceptUDP_NoTracking_RulesEvaluatedForEachDatagram() throws Exception {
+        IpPaket paket = createIPPacketUDP(SENDER_IP_ADDRESS, DEST_IP_ADDRESS, 53);
+
+        Firewall firewall = createActiveFirewall(DROP);
+        firewall.setFilterUdp(true);
+        firewall.setFilterSYNSegmentsOnly(false);
+        firewall.addRule(createRule("", DEST_IP_ADDRESS, 53, FirewallRule.UDP, ACCEPT));
+        AtomicInteger ruleApplications = new AtomicInteger();
+        firewall.hinzuBeobachter((source, message) -> ruleApplications.incrementAndGet());
+
+        assertTrue(firewall.checkAcceptUDP(paket));
+        assertTrue(firewall.checkAcceptUDP(paket));
+        assertThat(ruleApplications.get(), is(2));
+    }
 }
@@ -1,14 +1,23 @@
 package filius.software.nat;
 
+import static org.hamcrest.core.Is.is;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Test;
 
 import filius.software.vermittlungsschicht.IpPaket;
 
 public class NetworkAddressTranslationTableTest {
-    private NetworkAddressTranslationTable table = new NetworkAddressTranslationTable();
+    private AtomicLong now = new AtomicLong(1000);
+    private NetworkAddressTranslationTable table = new NetworkAddressTranslationTable(now::get);
 
     @Test
     public void testFind_EmptyTable_Null() throws Exception {
@@ -22,4 +31,64 @@ public class NetworkAddressTranslationTableTest {
 
         assertEquals(address, table.find(1, IpPaket.TCP));
     }
+
+    @Test
+    public void testFindPort_ReverseIndex() throws Exception {
+        InetAddress address = new InetAddress("192.168.0.10", 40000, IpPaket.UDP);
+        table.addDynamic(5000, IpPaket.UDP, address);
+
+        assertTrue(table.hasConnection(address));
+        assertThat(table.findPort(address), is(5000));
+        assertFalse(table.hasConnection(new InetAddress("192.168.0.11", 40000, IpPaket.UDP)));
+        assertThat(table.findPort(new InetAddress("192.168.0.11", 40000, IpPaket.UDP)), is(0));
+    }
+
+    @Test
+    public void testUdpIdleTimeout_MappingEvicted() throws Exception {
+        List<PortProtocolPair> released = new ArrayList<>();
+        table.setReleaseListener(released::add);
+        InetAddress address = new InetAddress("192.168.0.10", 40000, IpPaket.UDP);
+        table.addDynamic(5000, IpPaket.UDP, address);
+
+        now.addAndGet(NetworkAddressTranslationTable.UDP_TIMEOUT_MILLIS - 1);
+        table.touch(5000, IpPaket.UDP, true, false);
+        now.addAndGet(NetworkAddressTranslationTable.UDP_TIMEOUT_MILLIS - 1);
+        assertEquals(address, table.find(5000, IpPaket.UDP));
+
+        now.addAndGet(1);
+        assertNull(table.find(5000, IpPaket.UDP));
+        assertFalse(table.hasConnection(address));
+        assertThat(table.countActiveMappings(), is(0));
+        assertThat(table.countEvictedMappings(), is(1L));
+        assertThat(released.size(), is(1));
+        assertEquals(new PortProtocolPair(5000, IpPaket.UDP), released.get(0));
+    }
+
+    @Test
+    public void testTcpTimeout_DependsOnState() throws Exception {
+        InetAddress address = new InetAddress("192.168.0.10", 40000, IpPaket.TCP);
+        table.addDynamic(5000, IpPaket.TCP, address);
+
+        now.addAndGet(NetworkAddressTranslationTable.TCP_TRANSITORY_TIMEOUT_MILLIS - 1);
+        table.touch(5000, IpPaket.TCP, true, false);
+        now.addAndGet(NetworkAddressTranslationTable.TCP_TRANSITORY_TIMEOUT_MILLIS);
+        assertTrue(table.hasConnection(address));
+
+        table.touch(5000, IpPaket.TCP, false, true);
+        now.addAndGet(NetworkAddressTranslationTable.TCP_TRANSITORY_TIMEOUT_MILLIS);
+        assertFalse(table.hasConnection(address));
+    }
+
+    @Test
+    public void testAddDynamic_SweepsExpiredMappings() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            table.addDynamic(5000 + i, IpPaket.UDP, new InetAddress("192.168.0.10", 40000 + i, IpPaket.UDP));
+        }
+        now.addAndGet(NetworkAddressTranslationTable.UDP_TIMEOUT_MILLIS);
+
+        table.addDynamic(6000, IpPaket.UDP, new InetAddress("192.168.0.11", 40000, IpPaket.UDP));
+
+        assertThat(table.countActiveMappings(), is(1));
+        assertThat(table.countEvictedMappings(), is(10L));
+    }
 }
@@ -0,0 +1,60 @@
+package filius.software.netzzugangsschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+public class FrameDuplikatFilterTest {
+    private static final long JETZT = 1000000l;
+
+    private EthernetFrame neuerFrame() {
+        return new EthernetFrame("daten", "01:01:01:01:01:01", Ethernet.ETHERNET_BROADCAST, EthernetFrame.IP);
+    }
+
+    @Test
+    public void testHinzufuegen_RepeatedFrameIsRejected() throws Exception {
+        FrameDuplikatFilter filter = new FrameDuplikatFilter();
+        EthernetFrame frame = neuerFrame();
+
+        assertThat(filter.hinzufuegen(frame, JETZT), is(true));
+        assertThat(filter.hinzufuegen(frame, JETZT + 10), is(false));
+        assertThat(filter.getAnzahlTreffer(), is(1l));
+    }
+
+    @Test
+    public void testHinzufuegen_EqualContentIsNotADuplicate() throws Exception {
+        FrameDuplikatFilter filter = new FrameDuplikatFilter();
+
+        assertThat(filter.hinzufuegen(neuerFrame(), JETZT), is(true));
+        assertThat(filter.hinzufuegen(neuerFrame(), JETZT), is(true));
+        assertThat(filter.groesse(), is(2));
+    }
+
+    @Test
+    public void testHinzufuegen_CapacityEvictsOldestFrame() throws Exception {
+        FrameDuplikatFilter filter = new FrameDuplikatFilter(2);
+        EthernetFrame erster = neuerFrame();
+        filter.hinzufuegen(erster, JETZT);
+        filter.hinzufuegen(neuerFrame(), JETZT);
+        filter.hinzufuegen(neuerFrame(), JETZT);
+
+        assertThat(filter.groesse(), is(2));
+        assertThat(filter.getAnzahlVerdraengt(), is(1l));
+        assertThat(filter.hinzufuegen(erster, JETZT), is(true));
+    }
+
+    @Test
+    public void testHinzufuegen_ExpiredFramesAreEvicted() throws Exception {
+        FrameDuplikatFilter filter = new FrameDuplikatFilter();
+        EthernetFrame frame = neuerFrame();
+        filter.hinzufuegen(frame, JETZT);
+
+        long spaeter = JETZT + filter.aufbewahrungszeit() + 1;
+        filter.hinzufuegen(neuerFrame(), spaeter);
+
+        assertThat(filter.groesse(), is(1));
+        assertThat(filter.getAnzahlVerdraengt(), is(1l));
+        assertThat(filter.hinzufuegen(frame, spaeter), is(true));
+    }
+}
@@ -2,6 +2,8 @@ package filius.software.system;
 
 import static filius.software.system.Dateisystem.FILE_SEPARATOR;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import javax.swing.tree.DefaultMutableTreeNode;
@@ -49,4 +51,62 @@ public class DateisystemTest {
 
         assertThat(path, is(absPath));
     }
+
+    @Test
+    public void testHoleDatei_IgnoresCase() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        Datei datei = new Datei("Index.html", "text", "inhalt");
+        filesystem.speicherDatei(FILE_SEPARATOR + TEST_DIR, datei);
+
+        assertThat(filesystem.holeDatei(FILE_SEPARATOR + "TEST" + FILE_SEPARATOR + "index.HTML"), sameInstance(datei));
+        assertThat(filesystem.holeDatei("/test/./sub/../Index.html"), sameInstance(datei));
+        assertThat(filesystem.dateiVorhanden(FILE_SEPARATOR + TEST_DIR, "INDEX.HTML"), is(true));
+    }
+
+    @Test
+    public void testDeleteFile_RemovesSubtreeFromIndex() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR + TEST_DIR, "sub");
+        filesystem.speicherDatei("/test/sub", new Datei("a.txt", "text", "a"));
+        assertThat(filesystem.holeDatei("/test/sub/a.txt").getName(), is("a.txt"));
+
+        assertThat(filesystem.deleteFile(FILE_SEPARATOR + TEST_DIR), is(true));
+
+        assertThat(filesystem.holeDatei("/test/sub/a.txt"), nullValue());
+        assertThat(filesystem.verzeichnisKnoten("/test/sub"), nullValue());
+        assertThat(filesystem.deleteFile(FILE_SEPARATOR + TEST_DIR), is(false));
+    }
+
+    @Test
+    public void testVerzeichnisKnoten_NodeRenamedOutsideOfDateisystem() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        DefaultMutableTreeNode node = filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR);
+
+        node.setUserObject("neu");
+
+        assertThat(filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR), nullValue());
+        assertThat(filesystem.verzeichnisKnoten(FILE_SEPARATOR + "neu"), sameInstance(node));
+    }
+
+    @Test
+    public void testVerzeichnisKnoten_NodeMovedOutsideOfDateisystem() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, "ziel");
+        DefaultMutableTreeNode node = filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR);
+
+        filesystem.verzeichnisKnoten(FILE_SEPARATOR + "ziel").add(node);
+
+        assertThat(filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR), nullValue());
+        assertThat(filesystem.verzeichnisKnoten("/ziel/test"), sameInstance(node));
+    }
+
+    @Test
+    public void testVerzeichnisKnoten_RelativeToDirectoryStaysInSubtree() throws Exception {
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR, TEST_DIR);
+        filesystem.erstelleVerzeichnis(FILE_SEPARATOR + TEST_DIR, "sub");
+        DefaultMutableTreeNode testDir = filesystem.verzeichnisKnoten(FILE_SEPARATOR + TEST_DIR);
+
+        assertThat(Dateisystem.verzeichnisKnoten(testDir, "SUB").getUserObject(), is("sub"));
+        assertThat(Dateisystem.verzeichnisKnoten(testDir, ".."), nullValue());
+    }
 }
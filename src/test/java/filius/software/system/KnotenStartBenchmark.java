@@ -0,0 +1,72 @@
+package filius.software.system;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import filius.hardware.knoten.Knoten;
+import filius.hardware.knoten.Rechner;
+import filius.hardware.knoten.Switch;
+
+/**
+ * Vergleicht das Starten und Beenden der Systemsoftware von {@value #ANZAHL_RECHNER} Rechnern und
+ * {@value #ANZAHL_SWITCHES} Switches nacheinander mit {@link SystemSoftware#starten()} bzw.
+ * {@link SystemSoftware#beenden()} (Verhalten vor dem {@link KnotenStarter}) und parallel in Phasen mit dem
+ * {@link KnotenStarter}. Jede Messung wird einmal zum Aufwaermen wiederholt. <br />
+ * Kein JUnit-Test; der Aufruf erfolgt als Java-Anwendung mit dem Klassenpfad der Tests, z. B. aus der IDE.
+ */
+public class KnotenStartBenchmark {
+
+    private static final int ANZAHL_RECHNER = 200;
+    private static final int ANZAHL_SWITCHES = 20;
+
+    public static void main(String[] args) throws Exception {
+        messen(false);
+        messen(false);
+        messen(true);
+        messen(true);
+        System.exit(0);
+    }
+
+    private static void messen(boolean parallel) {
+        List<SystemSoftware> systeme = new ArrayList<>();
+        for (Knoten knoten : erzeugeKnoten()) {
+            systeme.add(knoten.getSystemSoftware());
+        }
+
+        long start = System.nanoTime();
+        if (parallel) {
+            new KnotenStarter().starten(systeme, null);
+        } else {
+            for (SystemSoftware system : systeme) {
+                system.starten();
+            }
+        }
+        long startDauer = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        if (parallel) {
+            new KnotenStarter().beenden(systeme, null);
+        } else {
+            for (SystemSoftware system : systeme) {
+                system.beenden();
+            }
+        }
+        long stoppDauer = System.nanoTime() - start;
+
+        System.out.printf("%s: %d Knoten, Start %.1f ms, Beenden %.1f ms%n",
+                parallel ? "KnotenStarter (" + Runtime.getRuntime().availableProcessors() + " Threads)"
+                        : "nacheinander           ",
+                systeme.size(), startDauer / 1e6, stoppDauer / 1e6);
+    }
+
+    private static List<Knoten> erzeugeKnoten() {
+        List<Knoten> knoten = new ArrayList<>();
+        for (int i = 0; i < ANZAHL_RECHNER; i++) {
+            knoten.add(new Rechner());
+        }
+        for (int i = 0; i < ANZAHL_SWITCHES; i++) {
+            knoten.add(new Switch());
+        }
+        return knoten;
+    }
+}
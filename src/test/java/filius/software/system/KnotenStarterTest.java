@@ -0,0 +1,100 @@
+package filius.software.system;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import filius.software.system.SystemSoftware.Startphase;
+
+public class KnotenStarterTest {
+
+    @SuppressWarnings("serial")
+    private static class TestSystem extends SystemSoftware {
+        private final List<String> protokoll;
+        private final boolean fehlerhaft;
+
+        TestSystem(List<String> protokoll, boolean fehlerhaft) {
+            this.protokoll = protokoll;
+            this.fehlerhaft = fehlerhaft;
+        }
+
+        @Override
+        public void starten(Startphase phase) {
+            super.starten(phase);
+            protokoll.add(phase.name());
+            if (fehlerhaft) {
+                throw new IllegalStateException("start failed");
+            }
+        }
+
+        @Override
+        public void beenden() {
+            super.beenden();
+            protokoll.add("BEENDET");
+        }
+    }
+
+    @Test
+    public void testStarten_PhasenNacheinander() {
+        List<String> protokoll = Collections.synchronizedList(new ArrayList<String>());
+        List<TestSystem> systeme = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            systeme.add(new TestSystem(protokoll, false));
+        }
+
+        new KnotenStarter(4).starten(systeme, null);
+
+        assertThat(protokoll.size(), is(60));
+        for (int i = 0; i < protokoll.size(); i++) {
+            assertThat(protokoll.get(i), is(Startphase.values()[i / 20].name()));
+        }
+        for (TestSystem system : systeme) {
+            assertTrue(system.isStarted());
+        }
+    }
+
+    @Test
+    public void testStarten_FehlerEinesKnotens() {
+        List<String> protokoll = Collections.synchronizedList(new ArrayList<String>());
+        List<TestSystem> systeme = new ArrayList<>();
+        systeme.add(new TestSystem(protokoll, true));
+        systeme.add(new TestSystem(protokoll, false));
+        AtomicInteger letzterFortschritt = new AtomicInteger();
+
+        new KnotenStarter(2).starten(systeme, (erledigt, gesamt) -> {
+            assertThat(gesamt, is(6));
+            letzterFortschritt.accumulateAndGet(erledigt, Math::max);
+        });
+
+        assertThat(protokoll.size(), is(6));
+        assertThat(letzterFortschritt.get(), is(3));
+        assertTrue(systeme.get(1).isStarted());
+    }
+
+    @Test
+    public void testBeenden() {
+        List<String> protokoll = Collections.synchronizedList(new ArrayList<String>());
+        List<TestSystem> systeme = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            systeme.add(new TestSystem(protokoll, false));
+        }
+        KnotenStarter starter = new KnotenStarter(3);
+        starter.starten(systeme, null);
+        protokoll.clear();
+
+        starter.beenden(systeme, null);
+
+        assertThat(protokoll.size(), is(5));
+        for (TestSystem system : systeme) {
+            assertFalse(system.isStarted());
+        }
+    }
+}
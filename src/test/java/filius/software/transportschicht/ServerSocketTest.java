@@ -0,0 +1,143 @@
+package filius.software.transportschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.software.system.Betriebssystem;
+import filius.software.vermittlungsschicht.IpPaket;
+
+public class ServerSocketTest {
+
+    private static final int PORT = 80;
+
+    private ServerSocket serverSocket;
+
+    @Before
+    public void setUp() throws Exception {
+        serverSocket = new ServerSocket(new Betriebssystem(), PORT, IpPaket.TCP, 2);
+        assertThat(serverSocket.annehmen(), is(nullValue()));
+    }
+
+    @After
+    public void tearDown() {
+        serverSocket.beenden();
+        for (Socket socket : serverSocket.getSockets().values()) {
+            socket.beenden();
+        }
+    }
+
+    @Test(timeout = 5000)
+    public void testHinzufuegen_SynUeberBacklogWirdVerworfen() throws Exception {
+        serverSocket.hinzufuegen("10.0.0.1", 1001, syn());
+        serverSocket.hinzufuegen("10.0.0.2", 1002, syn());
+        serverSocket.hinzufuegen("10.0.0.3", 1003, syn());
+
+        assertThat(serverSocket.anzahlHalboffen(), is(2));
+        assertThat(serverSocket.anzahlWartend(), is(0));
+    }
+
+    @Test(timeout = 5000)
+    public void testHinzufuegen_WiederholtesSynBelegtKeinenWeiterenPlatz() throws Exception {
+        serverSocket.hinzufuegen("10.0.0.1", 1001, syn());
+        serverSocket.hinzufuegen("10.0.0.1", 1001, syn());
+
+        assertThat(serverSocket.anzahlHalboffen(), is(1));
+    }
+
+    @Test(timeout = 5000)
+    public void testOeffnen_LiefertAufgebauteVerbindung() throws Exception {
+        serverSocket.hinzufuegen("10.0.0.1", 1001, syn());
+        serverSocket.hinzufuegen("10.0.0.2", 1002, syn());
+        warteAufZustand("10.0.0.2:1002", "SYN_RCVD");
+
+        serverSocket.hinzufuegen("10.0.0.2", 1002, ack());
+        Socket socket = serverSocket.oeffnen();
+
+        assertThat(socket.holeZielIPAdresse(), is("10.0.0.2"));
+        assertThat(socket.holeZielPort(), is(1002));
+        assertThat(serverSocket.getSockets().get("10.0.0.2:1002"), is(sameInstance(socket)));
+        assertThat(serverSocket.anzahlHalboffen(), is(1));
+        assertThat(serverSocket.anzahlWartend(), is(0));
+    }
+
+    @Test(timeout = 5000)
+    public void testHinzufuegen_AngenommeneVerbindungGibtBacklogFrei() throws Exception {
+        serverSocket.hinzufuegen("10.0.0.1", 1001, syn());
+        serverSocket.hinzufuegen("10.0.0.2", 1002, syn());
+        warteAufZustand("10.0.0.1:1001", "SYN_RCVD");
+        serverSocket.hinzufuegen("10.0.0.1", 1001, ack());
+        while (serverSocket.annehmen() == null) {
+            Thread.sleep(10);
+        }
+
+        serverSocket.hinzufuegen("10.0.0.3", 1003, syn());
+
+        assertThat(serverSocket.anzahlHalboffen(), is(2));
+    }
+
+    @Test(timeout = 5000)
+    public void testOeffnen_KehrtNachSchliessenZurueck() throws Exception {
+        Thread schliesser = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {}
+            serverSocket.schliessen();
+        });
+        schliesser.start();
+
+        assertThat(serverSocket.oeffnen(), is(nullValue()));
+    }
+
+    @Test(timeout = 5000)
+    public void testBeenden_StopptLauschendenUdpSocket() throws Exception {
+        ServerSocket udpServerSocket = new ServerSocket(new Betriebssystem(), 53, IpPaket.UDP);
+        AtomicReference<Socket> ergebnis = new AtomicReference<>();
+        CountDownLatch zurueckgekehrt = new CountDownLatch(1);
+        Thread lauscher = new Thread(() -> {
+            try {
+                ergebnis.set(udpServerSocket.oeffnen());
+            } catch (Exception e) {}
+            zurueckgekehrt.countDown();
+        });
+        lauscher.start();
+        while (lauscher.getState() != Thread.State.TIMED_WAITING) {
+            Thread.sleep(10);
+        }
+
+        udpServerSocket.beenden();
+
+        assertThat(zurueckgekehrt.await(2, TimeUnit.SECONDS), is(true));
+        assertThat(ergebnis.get(), is(nullValue()));
+    }
+
+    private void warteAufZustand(String start, String zustand) throws InterruptedException {
+        TCPSocket socket = serverSocket.holeHalboffenenSocket(start);
+        while (!zustand.equals(socket.getStateAsString())) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static TcpSegment syn() {
+        TcpSegment segment = new TcpSegment();
+        segment.setSyn(true);
+        segment.setZielPort(PORT);
+        return segment;
+    }
+
+    private static TcpSegment ack() {
+        TcpSegment segment = new TcpSegment();
+        segment.setAck(true);
+        segment.setZielPort(PORT);
+        return segment;
+    }
+}
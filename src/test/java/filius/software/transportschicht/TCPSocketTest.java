@@ -1,12 +1,135 @@
 package filius.software.transportschicht;
 
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.junit.Assert.assertThat;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.After;
 import org.junit.Test;
 
+import filius.hardware.Verbindung;
+import filius.software.system.Betriebssystem;
+
 public class TCPSocketTest {
 
+    private static final String ENTFERNTE_IP = "10.0.0.2";
+    private static final int ENTFERNTER_PORT = 1001;
+    private static final long ENTFERNTE_SEQ = 1000;
+
+    /** TCP, das die versendeten Segmente aufzeichnet, statt sie an die Vermittlungsschicht zu uebergeben */
+    private static class AufzeichnendesTcp extends TCP {
+        private final LinkedBlockingQueue<TcpSegment> gesendet = new LinkedBlockingQueue<>();
+
+        AufzeichnendesTcp(Betriebssystem betriebssystem) {
+            super(betriebssystem);
+        }
+
+        @Override
+        protected void senden(String zielIp, Object segment) {
+            gesendet.add((TcpSegment) segment);
+        }
+
+        @Override
+        protected void senden(String zielIp, String quellIp, Object segment) {
+            gesendet.add((TcpSegment) segment);
+        }
+
+        /** das naechste versendete Segment oder null, wenn innerhalb der Wartezeit keines versendet wurde */
+        TcpSegment naechstes(long millis) throws InterruptedException {
+            return gesendet.poll(millis, TimeUnit.MILLISECONDS);
+        }
+
+        List<TcpSegment> naechste(int anzahl) throws InterruptedException {
+            List<TcpSegment> segmente = new ArrayList<>();
+            for (int i = 0; i < anzahl; i++) {
+                TcpSegment segment = naechstes(2000);
+                assertThat(segment != null, is(true));
+                segmente.add(segment);
+            }
+            return segmente;
+        }
+    }
+
+    private final int verzoegerungsFaktor = Verbindung.holeVerzoegerungsFaktor();
+    private AufzeichnendesTcp tcp;
+    private TCPSocket socket;
+
+    @After
+    public void tearDown() {
+        if (socket != null) {
+            socket.beenden();
+        }
+        TCPSocket.setzeSendefenster(TCPSocket.STANDARD_SENDEFENSTER);
+        TCPSocket.setzeStaukontrolle(false);
+        Verbindung.setzeVerzoegerungsFaktor(verzoegerungsFaktor);
+    }
+
+    /**
+     * Baut die Verbindung eines passiven Sockets mit einem Three-Way-Handshake auf. Die Verzoegerung wird so gewaehlt,
+     * dass der Timeout fuer Wiederholungen mindestens 500 ms betraegt.
+     */
+    private TCPSocket verbundenerSocket() throws Exception {
+        Verbindung.setzeVerzoegerungsFaktor(50);
+        Betriebssystem betriebssystem = new Betriebssystem();
+        tcp = new AufzeichnendesTcp(betriebssystem);
+        socket = new TCPSocket(betriebssystem, 80);
+        socket.protokoll = tcp;
+        socket.verbindungsaufbauStarten();
+
+        TcpSegment syn = new TcpSegment();
+        syn.setSyn(true);
+        syn.setSeqNummer(ENTFERNTE_SEQ);
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, syn);
+        TcpSegment synAck = tcp.naechstes(2000);
+        assertThat(synAck.isSyn() && synAck.isAck(), is(true));
+        assertThat(synAck.getAckNummer(), is(ENTFERNTE_SEQ + 1));
+
+        TcpSegment ack = new TcpSegment();
+        ack.setAck(true);
+        ack.setSeqNummer(ENTFERNTE_SEQ + 1);
+        ack.setAckNummer(TCPSocket.nextSequenceNumber(synAck));
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, ack);
+        while (!socket.istVerbunden()) {
+            Thread.sleep(5);
+        }
+        return socket;
+    }
+
+    /** Versendet die Nachricht in einem eigenen Thread, weil senden() bis zur letzten Bestaetigung blockiert */
+    private static FutureTask<Void> sendeImHintergrund(TCPSocket socket, int anzahlSegmente) {
+        String nachricht = StringUtils.repeat('x', anzahlSegmente * TCPSocket.MSS);
+        FutureTask<Void> versand = new FutureTask<>(() -> {
+            socket.senden(nachricht);
+            return null;
+        });
+        new Thread(versand).start();
+        return versand;
+    }
+
+    /** Bestaetigt kumulativ alle Segmente bis einschliesslich des uebergebenen */
+    private void bestaetige(TcpSegment segment) {
+        TcpSegment ack = new TcpSegment();
+        ack.setAck(true);
+        ack.setAckNummer(TCPSocket.nextSequenceNumber(segment));
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, ack);
+    }
+
+    private static TcpSegment daten(long seqNummer, String daten, boolean push) {
+        TcpSegment segment = new TcpSegment();
+        segment.setSeqNummer(seqNummer);
+        segment.setDaten(daten);
+        segment.setPush(push);
+        return segment;
+    }
+
     @Test
     public void testNextSequenceNumberTcpSegment_SYN() throws Exception {
         TcpSegment segment = new TcpSegment();
@@ -66,4 +189,161 @@ public class TCPSocketTest {
         assertThat(newSequenceNumber, is(0l));
     }
 
+    @Test
+    public void testRetransmissionTimeout_OhneMessungStandardTimeout() throws Exception {
+        TCPSocket socket = new TCPSocket(new Betriebssystem(), 0);
+
+        assertThat(socket.retransmissionTimeout(), is((long) socket.defaultTimeout()));
+    }
+
+    @Test
+    public void testRetransmissionTimeout_FolgtGemessenerRTT() throws Exception {
+        TCPSocket socket = new TCPSocket(new Betriebssystem(), 0);
+        long rtt = 10 * Verbindung.holeVerzoegerung();
+        for (int i = 0; i < 20; i++) {
+            socket.rttMessen(rtt);
+        }
+
+        assertThat(socket.retransmissionTimeout() < socket.defaultTimeout(), is(true));
+        assertThat(socket.retransmissionTimeout() >= rtt, is(true));
+    }
+
+    @Test
+    public void testRetransmissionTimeout_HoechstensStandardTimeout() throws Exception {
+        TCPSocket socket = new TCPSocket(new Betriebssystem(), 0);
+        socket.rttMessen(10L * socket.defaultTimeout());
+
+        assertThat(socket.retransmissionTimeout(), is((long) socket.defaultTimeout()));
+    }
+
+    @Test(timeout = 5000)
+    public void testVerbinden_PassivKehrtNachBeendenZurueck() throws Exception {
+        TCPSocket socket = new TCPSocket(new Betriebssystem(), 0);
+        Thread beender = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {}
+            socket.beenden();
+        });
+        beender.start();
+
+        socket.verbinden();
+
+        assertThat(socket.istVerbunden(), is(false));
+    }
+
+    @Test(timeout = 10000)
+    public void testSenden_FensterEinsIstStopAndWait() throws Exception {
+        TCPSocket.setzeSendefenster(1);
+        verbundenerSocket();
+
+        FutureTask<Void> versand = sendeImHintergrund(socket, 3);
+        TcpSegment erstes = tcp.naechste(1).get(0);
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        bestaetige(erstes);
+        TcpSegment zweites = tcp.naechste(1).get(0);
+        assertThat(zweites.getSeqNummer(), is(TCPSocket.nextSequenceNumber(erstes)));
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        bestaetige(zweites);
+        TcpSegment drittes = tcp.naechste(1).get(0);
+        assertThat(drittes.getSeqNummer(), is(TCPSocket.nextSequenceNumber(zweites)));
+        assertThat(drittes.isPush(), is(true));
+        bestaetige(drittes);
+
+        versand.get(2, TimeUnit.SECONDS);
+        assertThat(tcp.naechstes(100), is(nullValue()));
+    }
+
+    @Test(timeout = 10000)
+    public void testSenden_KumulativeBestaetigungSchiebtFensterWeiter() throws Exception {
+        TCPSocket.setzeSendefenster(4);
+        verbundenerSocket();
+
+        FutureTask<Void> versand = sendeImHintergrund(socket, 6);
+        List<TcpSegment> fenster = tcp.naechste(4);
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        for (int i = 1; i < fenster.size(); i++) {
+            assertThat(fenster.get(i).getSeqNummer(), is(TCPSocket.nextSequenceNumber(fenster.get(i - 1))));
+        }
+
+        bestaetige(fenster.get(1));
+        List<TcpSegment> weitere = tcp.naechste(2);
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        assertThat(weitere.get(0).getSeqNummer(), is(TCPSocket.nextSequenceNumber(fenster.get(3))));
+        assertThat(weitere.get(1).isPush(), is(true));
+
+        bestaetige(weitere.get(1));
+        versand.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test(timeout = 10000)
+    public void testSenden_GoBackNWiederholtAbAeltestemUnbestaetigtemSegment() throws Exception {
+        TCPSocket.setzeSendefenster(4);
+        verbundenerSocket();
+
+        FutureTask<Void> versand = sendeImHintergrund(socket, 4);
+        List<TcpSegment> fenster = tcp.naechste(4);
+        bestaetige(fenster.get(0));
+
+        List<TcpSegment> wiederholt = tcp.naechste(3);
+        for (int i = 0; i < wiederholt.size(); i++) {
+            assertThat(wiederholt.get(i).getSeqNummer(), is(fenster.get(i + 1).getSeqNummer()));
+        }
+        bestaetige(fenster.get(3));
+        versand.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test(timeout = 10000)
+    public void testSenden_SlowStartWaechstUndBeginntNachTimeoutNeu() throws Exception {
+        TCPSocket.setzeSendefenster(8);
+        TCPSocket.setzeStaukontrolle(true);
+        verbundenerSocket();
+
+        FutureTask<Void> versand = sendeImHintergrund(socket, 8);
+        List<TcpSegment> gesendet = new ArrayList<>(tcp.naechste(1));
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        bestaetige(gesendet.get(0));
+        gesendet.addAll(tcp.naechste(2));
+        assertThat(tcp.naechstes(100), is(nullValue()));
+        bestaetige(gesendet.get(2));
+        gesendet.addAll(tcp.naechste(4));
+        assertThat(tcp.naechstes(100), is(nullValue()));
+
+        // ohne Bestaetigung beginnt das Fenster nach dem Timeout wieder bei einem Segment
+        TcpSegment wiederholt = tcp.naechste(1).get(0);
+        assertThat(wiederholt.getSeqNummer(), is(gesendet.get(3).getSeqNummer()));
+        assertThat(tcp.naechstes(100), is(nullValue()));
+
+        bestaetige(gesendet.get(6));
+        TcpSegment letztes = tcp.naechste(1).get(0);
+        assertThat(letztes.isPush(), is(true));
+        bestaetige(letztes);
+        versand.get(2, TimeUnit.SECONDS);
+    }
+
+    @Test(timeout = 10000)
+    public void testEmpfangen_SegmentAusserDerReiheWirdVerworfen() throws Exception {
+        verbundenerSocket();
+        List<String> nachrichten = new CopyOnWriteArrayList<>();
+        socket.setzeEmpfaenger(new Socket.Empfaenger() {
+            public void nachrichtEmpfangen(String nachricht) {
+                nachrichten.add(nachricht);
+            }
+
+            public void verbindungBeendet() {}
+        });
+        long erwartet = ENTFERNTE_SEQ + 1;
+
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, daten(erwartet + 5, "welt", true));
+        assertThat(tcp.naechste(1).get(0).getAckNummer(), is(erwartet));
+
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, daten(erwartet, "hallo", false));
+        assertThat(tcp.naechste(1).get(0).getAckNummer(), is(erwartet + 5));
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, daten(erwartet, "hallo", false));
+        assertThat(tcp.naechste(1).get(0).getAckNummer(), is(erwartet + 5));
+        socket.hinzufuegen(ENTFERNTE_IP, ENTFERNTER_PORT, daten(erwartet + 5, "welt", true));
+        assertThat(tcp.naechste(1).get(0).getAckNummer(), is(erwartet + 9));
+
+        assertThat(nachrichten, is(List.of("hallowelt")));
+    }
 }
@@ -0,0 +1,72 @@
+package filius.software.transportschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import filius.software.system.Betriebssystem;
+
+public class UDPSocketTest {
+
+    private static class TestEmpfaenger implements Socket.Empfaenger {
+        List<String> nachrichten = new ArrayList<>();
+        int beendet;
+
+        @Override
+        public void nachrichtEmpfangen(String nachricht) {
+            nachrichten.add(nachricht);
+        }
+
+        @Override
+        public void verbindungBeendet() {
+            beendet++;
+        }
+    }
+
+    private static UdpSegment segment(String daten) {
+        UdpSegment segment = new UdpSegment();
+        segment.setDaten(daten);
+        return segment;
+    }
+
+    @Test
+    public void testSetzeEmpfaenger_ZwischengespeicherteNachrichtenWerdenZugestellt() throws Exception {
+        UDPSocket socket = new UDPSocket(new Betriebssystem(), 67);
+        TestEmpfaenger empfaenger = new TestEmpfaenger();
+        socket.hinzufuegen("192.168.0.10", 68, segment("eins"));
+
+        socket.setzeEmpfaenger(empfaenger);
+        socket.hinzufuegen("192.168.0.10", 68, segment("zwei"));
+
+        assertThat(empfaenger.nachrichten, is(Arrays.asList("eins", "zwei")));
+        assertThat(empfaenger.beendet, is(0));
+    }
+
+    @Test
+    public void testSetzeEmpfaenger_OhneEmpfaengerBlockierenderEmpfang() throws Exception {
+        UDPSocket socket = new UDPSocket(new Betriebssystem(), 67);
+        socket.setzeEmpfaenger(new TestEmpfaenger());
+        socket.setzeEmpfaenger(null);
+
+        socket.hinzufuegen("192.168.0.10", 68, segment("eins"));
+
+        assertThat(socket.empfangen(1), is("eins"));
+    }
+
+    @Test
+    public void testBeenden_EmpfaengerWirdEinmalBenachrichtigt() throws Exception {
+        UDPSocket socket = new UDPSocket(new Betriebssystem(), 67);
+        TestEmpfaenger empfaenger = new TestEmpfaenger();
+        socket.setzeEmpfaenger(empfaenger);
+
+        socket.beenden();
+        socket.schliessen();
+
+        assertThat(empfaenger.beendet, is(1));
+    }
+}
@@ -0,0 +1,81 @@
+package filius.software.vermittlungsschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.hardware.Verbindung;
+import filius.hardware.knoten.Rechner;
+import filius.software.system.Betriebssystem;
+
+public class ARPTest {
+    private int verzoegerungsFaktor;
+    private List<String> anfragen;
+    private ARP arp;
+
+    @Before
+    public void setUp() {
+        verzoegerungsFaktor = Verbindung.holeVerzoegerungsFaktor();
+        Verbindung.setzeVerzoegerungsFaktor(1);
+        Betriebssystem os = new Betriebssystem();
+        os.setKnoten(new Rechner());
+        anfragen = Collections.synchronizedList(new ArrayList<String>());
+        arp = new ARP(os) {
+            @Override
+            void sendeARPBroadcast(String suchIp) {
+                anfragen.add(suchIp);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        arp.beenden();
+        Verbindung.setzeVerzoegerungsFaktor(verzoegerungsFaktor);
+    }
+
+    @Test
+    public void testAufloesen_BekannteAdresseSofort() throws Exception {
+        arp.hinzuARPTabellenEintrag("192.168.0.20", "00:00:00:00:00:20");
+        List<String> ergebnis = new ArrayList<>();
+
+        arp.aufloesen("192.168.0.20", 2, ergebnis::add, () -> ergebnis.add("fehler"));
+
+        assertThat(ergebnis, is(List.of("00:00:00:00:00:20")));
+        assertThat(anfragen.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testAufloesen_WartendePaketeBeiAntwortInReihenfolge() throws Exception {
+        List<String> ergebnis = new ArrayList<>();
+
+        arp.aufloesen("192.168.0.20", 2, mac -> ergebnis.add("1 " + mac), () -> ergebnis.add("fehler"));
+        arp.aufloesen("192.168.0.20", 2, mac -> ergebnis.add("2 " + mac), () -> ergebnis.add("fehler"));
+        assertThat(ergebnis.isEmpty(), is(true));
+
+        arp.hinzuARPTabellenEintrag("192.168.0.20", "00:00:00:00:00:20");
+
+        assertThat(ergebnis, is(List.of("1 00:00:00:00:00:20", "2 00:00:00:00:00:20")));
+        assertThat(anfragen, is(List.of("192.168.0.20")));
+    }
+
+    @Test
+    public void testAufloesen_FehlschlagNachWiederholungen() throws Exception {
+        CountDownLatch fehlschlaege = new CountDownLatch(2);
+
+        arp.aufloesen("192.168.0.30", 2, mac -> {}, fehlschlaege::countDown);
+        arp.aufloesen("192.168.0.30", 2, mac -> {}, fehlschlaege::countDown);
+
+        assertThat(fehlschlaege.await(10 * Verbindung.holeRTT(), TimeUnit.MILLISECONDS), is(true));
+        assertThat(anfragen, is(List.of("192.168.0.30", "192.168.0.30")));
+    }
+}
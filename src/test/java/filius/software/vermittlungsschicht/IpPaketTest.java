@@ -0,0 +1,45 @@
+package filius.software.vermittlungsschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import filius.software.transportschicht.TcpSegment;
+
+public class IpPaketTest {
+
+    @Test
+    public void testCloneWithSegment_ModifyingCopyKeepsOriginal() throws Exception {
+        TcpSegment segment = new TcpSegment();
+        segment.setQuellPort(1024);
+        segment.setSyn(true);
+        segment.setSeqNummer(42);
+        IpPaket paket = new IpPaket(IpPaket.TCP);
+        paket.setSender("192.168.0.10");
+        paket.setSegment(segment);
+
+        IpPaket kopie = paket.cloneWithSegment();
+        kopie.setSender("10.0.0.1");
+        kopie.getSegment().setQuellPort(5000);
+
+        assertThat(kopie.getSegment(), not(sameInstance(paket.getSegment())));
+        assertThat(kopie.getSegment() instanceof TcpSegment, is(true));
+        assertThat(((TcpSegment) kopie.getSegment()).getSeqNummer(), is(42l));
+        assertThat(paket.getSender(), is("192.168.0.10"));
+        assertThat(paket.getSegment().getQuellPort(), is(1024));
+    }
+
+    @Test
+    public void testCloneWithSegment_IcmpPaket() throws Exception {
+        IcmpPaket paket = new IcmpPaket();
+        paket.setSeqNr(7);
+
+        IpPaket kopie = paket.cloneWithSegment();
+
+        assertThat(kopie instanceof IcmpPaket, is(true));
+        assertThat(((IcmpPaket) kopie).getSeqNr(), is(7));
+    }
+}
@@ -0,0 +1,102 @@
+package filius.software.vermittlungsschicht;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import filius.hardware.NetzwerkInterface;
+import filius.hardware.knoten.Rechner;
+import filius.software.system.Betriebssystem;
+
+public class WeiterleitungstabelleTest {
+    private Betriebssystem os;
+    private Weiterleitungstabelle tabelle;
+    private NetzwerkInterface nic;
+
+    @Before
+    public void setUp() {
+        os = new Betriebssystem();
+        Rechner rechner = new Rechner();
+        os.setKnoten(rechner);
+        nic = rechner.getNetzwerkInterfaces().get(0);
+        nic.setIp("192.168.0.10");
+        nic.setSubnetzMaske("255.255.255.0");
+        tabelle = os.getWeiterleitungstabelle();
+    }
+
+    @Test
+    public void testStaticRoute_LocalNetwork() throws Exception {
+        Route route = tabelle.determineRouteFromStaticRoutingTable("192.168.0.20");
+
+        assertThat(route.getGateway(), is("192.168.0.10"));
+        assertThat(route.getInterfaceIpAddress(), is("192.168.0.10"));
+    }
+
+    @Test
+    public void testStaticRoute_OwnAddressIsLocalhost() throws Exception {
+        Route route = tabelle.determineRouteFromStaticRoutingTable("192.168.0.10");
+
+        assertThat(route.getGateway(), is("127.0.0.1"));
+    }
+
+    @Test
+    public void testStaticRoute_LongestPrefixWins() throws Exception {
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.1", "192.168.0.10");
+        tabelle.addManuellenEintrag("10.1.0.0", "255.255.0.0", "192.168.0.2", "192.168.0.10");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.1.2.3").getGateway(), is("192.168.0.2"));
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.2.2.3").getGateway(), is("192.168.0.1"));
+    }
+
+    @Test
+    public void testStaticRoute_FirstEntryWinsForEqualPrefix() throws Exception {
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.1", "192.168.0.10");
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.2", "192.168.0.10");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.1.2.3").getGateway(), is("192.168.0.1"));
+    }
+
+    @Test
+    public void testStaticRoute_NonContiguousMask() throws Exception {
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.1", "192.168.0.10");
+        tabelle.addManuellenEintrag("10.0.5.0", "255.0.255.0", "192.168.0.3", "192.168.0.10");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.7.5.1").getGateway(), is("192.168.0.3"));
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.7.6.1").getGateway(), is("192.168.0.1"));
+    }
+
+    @Test(expected = RouteNotFoundException.class)
+    public void testStaticRoute_NoRoute() throws Exception {
+        tabelle.determineRouteFromStaticRoutingTable("10.1.2.3");
+    }
+
+    @Test
+    public void testStaticRoute_RebuiltAfterGatewayChange() throws Exception {
+        tabelle.determineRouteFromStaticRoutingTable("192.168.0.20");
+        os.setStandardGateway("192.168.0.1");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.1.2.3").getGateway(), is("192.168.0.1"));
+    }
+
+    @Test
+    public void testStaticRoute_RebuiltAfterAddressChange() throws Exception {
+        tabelle.determineRouteFromStaticRoutingTable("192.168.0.20");
+        nic.setIp("172.16.0.10");
+        nic.setSubnetzMaske("255.255.0.0");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("172.16.5.5").getInterfaceIpAddress(),
+                is("172.16.0.10"));
+    }
+
+    @Test
+    public void testStaticRoute_RebuiltAfterReset() throws Exception {
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.1", "192.168.0.10");
+        tabelle.determineRouteFromStaticRoutingTable("10.1.2.3");
+        tabelle.reset();
+        tabelle.addManuellenEintrag("10.0.0.0", "255.0.0.0", "192.168.0.2", "192.168.0.10");
+
+        assertThat(tabelle.determineRouteFromStaticRoutingTable("10.1.2.3").getGateway(), is("192.168.0.2"));
+    }
+}